@@ -41,6 +41,19 @@ class MultiDQNAManager:
                                               state)
         return True
 
+    def next_steps(self, model_ids, previous_actions, states, rewards):
+        """Performs the next step of several models, in order.
+
+        Each model receives the same calls as with a single next_step
+        message, and an (action, message) tuple is returned for each model.
+        """
+        results = []
+        for model_id, previous_action, state, reward in zip(model_ids, previous_actions, states, rewards):
+            self.recall(model_id, state)
+            results.append(self.act(model_id, state))
+            self.remember(model_id, previous_action, reward, state)
+        return results
+
     def remember_new_line(self, model_id, state):
         self.models[model_id].remember_fresh(state)
         return True
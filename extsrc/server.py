@@ -1,114 +1,196 @@
 #!/usr/bin/env python
 
-"""Server."""
-import socket
+"""Server.
+
+The simulation keeps its connections open and sends length-prefixed frames:
+
+    int32 length of the rest of the frame (big endian)
+    int64 correlation id
+    int32 message count
+    message count times : int32 length, UTF-8 bytes
+
+Each message is a comma separated command. The answer frame carries the same
+correlation id, and one answer per message, in the same order.
+"""
+import socketserver
+import struct
+import threading
+import traceback
 from MultiDQNAManager import MultiDQNAManager
 from argparse import ArgumentParser
 import shutil
 
+MAX_FRAME_SIZE = 64 * 1024 * 1024
+
 parser = ArgumentParser()
 parser.add_argument("-p", "--port", help="specify port for server execution", default=15555, type=int)
 args = parser.parse_args()
 print('Port:{}'.format(args.port))
-socket = socket.socket(socket.AF_INET, socket.SOCK_STREAM)
-socket.bind(('', args.port))
 
 manager = MultiDQNAManager()
+# Models are not thread safe : messages are handled one at a time
+manager_lock = threading.Lock()
+
+
+def handle(message, address):
+    """Handles one command and returns its answer."""
+    if message == "":
+        return 'error'
+    response = message.split(',')
+    if len(response) < 2:
+        return 'error'
+    print("{} connected".format( address ) + " [" + response[1] + "]" +
+        " with \'" + response[0] + "\' message")
+    if response[0] == "next_step":
+        model_id = response[1]
+        previous_action = int(response[2])
+        state = [float(i) for i in response[3].split(' ')]
+        reward = float(response[4])
+        previous_state = manager.recall(model_id, state)
+        action, msg = manager.act(model_id, state)
+        print("Suggested action: "+str(action)+", type: " + msg)
+        manager.remember(model_id, previous_action, reward, state)
+        return str(model_id)+'_'+str(action)+'_'+str(msg)
+    elif response[0] == "next_steps":
+        # Decisions of several models : model id, previous action, state and
+        # reward of each model follow each other
+        decisions = [response[i:i + 4] for i in range(1, len(response), 4)]
+        results = manager.next_steps(
+            model_ids=[d[0] for d in decisions],
+            previous_actions=[int(d[1]) for d in decisions],
+            states=[[float(i) for i in d[2].split(' ')] for d in decisions],
+            rewards=[float(d[3]) for d in decisions])
+        return ';'.join(
+            str(d[0])+'_'+str(action)+'_'+str(msg) for d, (action, msg) in zip(decisions, results))
+    elif response[0] == "create_model":
+        manager.add_model(
+            model_id=response[1],
+            state_size=int(response[2]),
+            action_size=int(response[3]),
+            memory_path=response[4],
+            callback_folder=response[5] if len(response) > 5 else None)
+        return '1'
+    elif response[0] == "load_model":
+        manager.add_model(
+            model_id=response[1],
+            state_size=int(response[2]),
+            action_size=int(response[3]),
+            memory_path=response[4],
+            model_path=response[5])
+        return '2'
+    elif response[0] == "load_only_model":
+        manager.add_model(
+            model_id=response[1],
+            state_size=int(response[2]),
+            action_size=int(response[3]),
+            memory_path=response[4],
+            model_path=response[5],
+            id_creation=2)
+        return '2'
+    elif response[0] == "copy_memory":
+        shutil.copy(response[1], response[2])
+        return '2'
+    elif response[0] == "copy_model":
+        shutil.copy(response[1], response[2])
+        return '2'
+    elif response[0] == "load_model_with_memory":
+        manager.add_model(
+            model_id=response[1],
+            state_size=int(response[2]),
+            action_size=int(response[3]),
+            memory_path=response[4],
+            model_path=response[5])
+        return '2'
+    elif response[0] == "save_model":
+        manager.save_model(
+            model_id=response[1],
+            path=response[2])
+        return 'save'
+    elif response[0] == "replay_model":
+        manager.replay(
+            model_id=response[1],
+            batch_size=int(response[2]))
+        return 'replay'
+    elif response[0] == "replay_and_predict":
+        model_id = response[1]
+        state = [float(i) for i in response[2].split(' ')]
+        action, msg = manager.act(model_id, state)
+        print("Suggested action: "+str(action)+", type: " + msg)
+        manager.remember_new_line(model_id, state)
+        return str(model_id)+'_'+str(action)+'_'+str(msg)
+    elif response[0] == "reset_rewards":
+        state = [float(i) for i in response[2].split(' ')]
+        manager.remember_new_line(
+            model_id=response[1],
+            state=state)
+        return 'reset_rewards'
+    elif response[0] == "reset_simulation":
+        model_id = response[1]
+        previous_action = int(response[2])
+        state = [float(i) for i in response[3].split(' ')]
+        reward = float(response[4])
+        manager.remember(model_id, previous_action, reward, state)
+        #Add a boolean to display a simulation reset
+        return str(model_id)+'_'+str(previous_action)+'_'+str(1)
+    return 'error'
+
+
+def read_exactly(stream, size):
+    """Reads size bytes, or returns None if the connection is closed."""
+    data = stream.read(size)
+    if data is None or len(data) < size:
+        return None
+    return data
+
+
+class FrameHandler(socketserver.StreamRequestHandler):
+    """Handles the frames of one connection until it is closed."""
+
+    def handle(self):
+        while True:
+            header = read_exactly(self.rfile, 4)
+            if header is None:
+                return
+            length = struct.unpack('>i', header)[0]
+            if length < 12 or length > MAX_FRAME_SIZE:
+                print("Invalid frame of {} bytes from {}".format(length, self.client_address))
+                return
+            frame = read_exactly(self.rfile, length)
+            if frame is None:
+                return
+            correlation_id, count = struct.unpack_from('>qi', frame, 0)
+            position = 12
+            answers = []
+            with manager_lock:
+                for _ in range(count):
+                    size = struct.unpack_from('>i', frame, position)[0]
+                    position += 4
+                    message = frame[position:position + size].decode('utf-8')
+                    position += size
+                    try:
+                        answers.append(handle(message, self.client_address))
+                    except Exception:
+                        traceback.print_exc()
+                        answers.append('error')
+
+            body = [struct.pack('>qi', correlation_id, len(answers))]
+            for answer in answers:
+                encoded = answer.encode('utf-8')
+                body.append(struct.pack('>i', len(encoded)))
+                body.append(encoded)
+            body = b''.join(body)
+            self.wfile.write(struct.pack('>i', len(body)) + body)
+            self.wfile.flush()
+
+
+class Server(socketserver.ThreadingMixIn, socketserver.TCPServer):
+    allow_reuse_address = True
+    daemon_threads = True
+
 
-while True:
-    socket.listen(5)
-    client, address = socket.accept()
-    #print("{} connected".format( address ))
-
-    response = client.recv(255).decode()
-    #print(response)
-    if response != "":
-        response = response.split(',')
-        print("{} connected".format( address ) + " [" + response[1] + "]" +
-            " with \'" + response[0] + "\' message")
-        if response[0] == "next_step":
-            model_id = response[1]
-            previous_action = int(response[2])
-            state = [float(i) for i in response[3].split(' ')]
-            reward = float(response[4])
-            previous_state = manager.recall(model_id, state)
-            action, msg = manager.act(model_id, state)
-            print("Suggested action: "+str(action)+", type: " + msg)
-            manager.remember(model_id, previous_action, reward, state)
-            client.send((str(model_id)+'_'+str(action)+'_'+str(msg) + str('\r\n')).encode())
-        elif response[0] == "create_model":
-            manager.add_model(
-                model_id=response[1],
-                state_size=int(response[2]),
-                action_size=int(response[3]),
-                memory_path=response[4],
-                callback_folder=response[5])
-            client.send(str('1\r\n').encode())
-        elif response[0] == "load_model":
-            manager.add_model(
-                model_id=response[1],
-                state_size=int(response[2]),
-                action_size=int(response[3]),
-                memory_path=response[4],
-                model_path=response[5])
-            client.send(str('2\r\n').encode())
-        elif response[0] == "load_only_model":
-            manager.add_model(
-                model_id=response[1],
-                state_size=int(response[2]),
-                action_size=int(response[3]),
-                memory_path=response[4],
-                model_path=response[5],
-                id_creation=2)
-            client.send(str('2\r\n').encode())
-        elif response[0] == "copy_memory":
-            shutil.copy(response[1], response[2])
-            client.send(str('2\r\n').encode())
-        elif response[0] == "copy_model":
-            shutil.copy(response[1], response[2])
-            client.send(str('2\r\n').encode())
-        elif response[0] == "load_model_with_memory":
-            manager.add_model(
-                model_id=response[1],
-                state_size=int(response[2]),
-                action_size=int(response[3]),
-                memory_path=response[4],
-                model_path=response[5])
-            client.send(str('2\r\n').encode())
-        elif response[0] == "save_model":
-            manager.save_model(
-                model_id=response[1],
-                path=response[2])
-            client.send(str('save\r\n').encode())
-        elif response[0] == "replay_model":
-            manager.replay(
-                model_id=response[1],
-                batch_size=int(response[2]))
-            client.send(str('replay\r\n').encode())
-        elif response[0] == "replay_and_predict":
-            model_id = response[1]
-            state = [float(i) for i in response[2].split(' ')]
-            action, msg = manager.act(model_id, state)
-            print("Suggested action: "+str(action)+", type: " + msg)
-            manager.remember_new_line(model_id, state)
-            client.send((str(model_id)+'_'+str(action)+'_'+str(msg) + str('\r\n')).encode())
-        elif response[0] == "reset_rewards":
-            state = [float(i) for i in response[2].split(' ')]
-            manager.remember_new_line(
-                model_id=response[1],
-                state=state)
-            client.send(str('reset_rewards\r\n').encode())
-        elif response[0] == "reset_simulation":
-            model_id = response[1]
-            previous_action = int(response[2])
-            state = [float(i) for i in response[3].split(' ')]
-            reward = float(response[4])
-            manager.remember(model_id, previous_action, reward, state)
-            #Add a boolean to display a simulation reset
-            client.send((str(model_id)+'_'+str(previous_action)+'_'+str(1) + str('\r\n')).encode())
-    else:
-        client.send(('error' + str('\r\n')).encode())
-
-print("Close")
-client.close()
-socket.close()
+server = Server(('', args.port), FrameHandler)
+try:
+    server.serve_forever()
+finally:
+    print("Close")
+    server.server_close()
@@ -0,0 +1,49 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.io.File;
+
+/**
+ * Locates the bundled input files used as benchmark fixtures.
+ *
+ * <p>
+ * The input folder is given by the "lez.benchmark.input" system property,
+ * set by the jmh Gradle task, and defaults to the "input" folder of the
+ * working directory.
+ * </p>
+ *
+ */
+final class BenchmarkInputs {
+
+	/**
+	 * System property used to set the input folder.
+	 */
+	static final String INPUT_PROPERTY = "lez.benchmark.input";
+
+	/**
+	 * Seed of all the random instances used to build fixtures.
+	 */
+	static final long SEED = 240720191835l;
+
+	private BenchmarkInputs() {
+	}
+
+	/**
+	 * Returns the specified file of the input folder.
+	 *
+	 * @param path path relative to the input folder
+	 * @return input file
+	 */
+	static File input(String path) {
+		return new File(System.getProperty(INPUT_PROPERTY, "input"), path);
+	}
+
+	/**
+	 * Returns the benchmark configuration that loads the specified establishments.
+	 *
+	 * @param establishments "mini" or "extended"
+	 * @return configuration file
+	 */
+	static File config(String establishments) {
+		return input("benchmark_" + establishments + ".properties");
+	}
+}
@@ -0,0 +1,98 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.liris.smartgov.lez.core.agent.driver.vehicle.DeliveryVehicleFactory;
+import org.liris.smartgov.lez.core.agent.driver.vehicle.Vehicle;
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.copert.inputParser.CopertInputReader;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertParser;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Loading of the bundled Copert table, and emissions computation for a
+ * fleet generated from the bundled Copert profile.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CopertBenchmark {
+
+	/**
+	 * Number of generated vehicles.
+	 */
+	public static final int VEHICLE_COUNT = 1000;
+
+	/**
+	 * Mean speed used to compute emissions (m/s).
+	 */
+	public static final double MEAN_SPEED = 10.;
+
+	/**
+	 * Distance used to compute emissions (m).
+	 */
+	public static final double DISTANCE = 1000.;
+
+	private File copertTable;
+	private Vehicle[] vehicles;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		copertTable = BenchmarkInputs.input("copert/Hot_Emissions_Parameters_France_reversed_column.csv");
+		List<Vehicle> fleet = new DeliveryVehicleFactory(
+				CopertInputReader.parseInputFile(BenchmarkInputs.input("copert/copert_profile.json")),
+				new CopertParser(copertTable)
+				).create(VEHICLE_COUNT, new Random(BenchmarkInputs.SEED));
+		vehicles = fleet.toArray(new Vehicle[fleet.size()]);
+	}
+
+	/**
+	 * Parses the CSV table.
+	 *
+	 * @return parsed table
+	 */
+	@Benchmark
+	public CopertTable parseTable() {
+		return CopertParser.parseTable(copertTable);
+	}
+
+	/**
+	 * Loads the parser as the simulation does without the repository : from
+	 * the binary cache if it has been compiled, from the CSV table otherwise.
+	 *
+	 * @return loaded parser
+	 */
+	@Benchmark
+	public CopertParser loadParser() {
+		return new CopertParser(copertTable);
+	}
+
+	/**
+	 * Computes the emissions of all the vehicles for all the pollutants.
+	 *
+	 * @return total emissions
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public double getEmissions() {
+		double emissions = 0;
+		for (Vehicle vehicle : vehicles) {
+			for (Pollutant pollutant : Pollutant.values()) {
+				emissions += vehicle.getEmissions(pollutant, MEAN_SPEED, DISTANCE);
+			}
+		}
+		return emissions;
+	}
+}
@@ -0,0 +1,76 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.liris.smartgov.lez.core.environment.lez.Environment;
+import org.liris.smartgov.simulator.core.environment.graph.Node;
+import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Location of the neighborhood of all the nodes of the graph.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EnvironmentBenchmark {
+
+	private Environment environment;
+	private OsmNode[] nodes;
+
+	@Setup(Level.Trial)
+	public void setUp(SimulationState simulation) {
+		environment = simulation.scenario.getEnvironment();
+		List<OsmNode> osmNodes = new ArrayList<>();
+		for (Node node : simulation.context.nodes.values()) {
+			osmNodes.add((OsmNode) node);
+		}
+		nodes = osmNodes.toArray(new OsmNode[osmNodes.size()]);
+	}
+
+	/**
+	 * Returns the neighborhood of each node, as done for each arc and
+	 * establishment once the neighborhoods of the nodes have been cached.
+	 *
+	 * @return number of nodes in a neighborhood
+	 */
+	@Benchmark
+	public int getNeighborhood() {
+		int located = 0;
+		for (OsmNode node : nodes) {
+			if (environment.getNeighborhood(node) != null) {
+				located++;
+			}
+		}
+		return located;
+	}
+
+	/**
+	 * Locates each node in a new environment built from the same neighborhoods,
+	 * so that no neighborhood is cached. Such environments are indexed with an
+	 * STR-tree.
+	 *
+	 * @return number of nodes in a neighborhood
+	 */
+	@Benchmark
+	public int locateNeighborhood() {
+		Environment uncached = new Environment(environment.getNeighborhoods().values());
+		int located = 0;
+		for (OsmNode node : nodes) {
+			if (uncached.getNeighborhood(node) != null) {
+				located++;
+			}
+		}
+		return located;
+	}
+}
@@ -0,0 +1,95 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.liris.smartgov.lez.core.agent.driver.personality.Personality;
+import org.liris.smartgov.lez.core.agent.establishment.Establishment;
+import org.liris.smartgov.lez.core.agent.establishment.preprocess.CasesManager;
+import org.liris.smartgov.lez.core.agent.establishment.preprocess.LezPreprocessor;
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.simulation.scenario.LezScenario;
+import org.liris.smartgov.simulator.core.agent.core.Agent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Application of the LEZ to the establishments, and build of the agents
+ * when the simulation is reloaded.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LezScenarioBenchmark {
+
+	private LezContext context;
+	private LezScenario scenario;
+	private CasesManager casesManager;
+	private LezPreprocessor preprocessor;
+	private List<Establishment> establishments;
+
+	@Setup(Level.Trial)
+	public void setUp(SimulationState simulation) {
+		context = simulation.context;
+		scenario = simulation.scenario;
+		casesManager = new CasesManager();
+		preprocessor = new LezPreprocessor(scenario.getEnvironment(), context.getCopertParser(), casesManager);
+		establishments = new ArrayList<>(new TreeMap<>(context.getEstablishments()).values());
+	}
+
+	/**
+	 * Computes the LEZ case of each vehicle.
+	 */
+	@Benchmark
+	public void fillCases() {
+		for (Establishment establishment : establishments) {
+			preprocessor.fillCases(establishment);
+		}
+	}
+
+	/**
+	 * Resets the fleets, computes the LEZ cases and applies the decisions of
+	 * the agents, as done before agents are built.
+	 *
+	 * @return number of vehicles replaced
+	 */
+	@Benchmark
+	public int applyCases() {
+		for (Establishment establishment : establishments) {
+			establishment.resetFleet();
+			for (Personality personality : establishment.getPersonalities().values()) {
+				personality.resetPersonality();
+			}
+		}
+		casesManager.reset();
+		for (Establishment establishment : establishments) {
+			preprocessor.fillCases(establishment);
+		}
+		int replaced = 0;
+		for (Establishment establishment : establishments) {
+			replaced += preprocessor.applyCases(establishment).get("Replaced");
+		}
+		return replaced;
+	}
+
+	/**
+	 * Builds the agents again, as done when the simulation is relaunched.
+	 *
+	 * @return built agents
+	 */
+	@Benchmark
+	public Collection<? extends Agent<?>> buildAgents() {
+		context.reload();
+		return scenario.buildAgents(context, true);
+	}
+}
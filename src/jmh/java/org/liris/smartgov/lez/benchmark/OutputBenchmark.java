@@ -0,0 +1,110 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.liris.smartgov.lez.core.output.pollution.StreamingArcsWriter;
+import org.liris.smartgov.lez.process.arcs.build.TileMap;
+import org.liris.smartgov.lez.process.arcs.load.PollutedArc;
+import org.liris.smartgov.lez.process.arcs.load.PollutedArcsLoader;
+import org.liris.smartgov.lez.process.arcs.load.PollutedNode;
+import org.liris.smartgov.simulator.SmartGov;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * JSON output of the arcs, and build of the pollution tiles from this
+ * output, once the simulation has been run for {@link #SIMULATED_TICKS} ticks.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OutputBenchmark {
+
+	/**
+	 * Number of ticks simulated before the benchmarks, i.e. one day.
+	 */
+	public static final int SIMULATED_TICKS = 24 * 3600;
+
+	/**
+	 * Size of the pollution tiles (m).
+	 */
+	public static final double TILE_SIZE = 100;
+
+	private Map<String, Arc> arcs;
+	private File outputFolder;
+	private StreamingArcsWriter arcsWriter;
+	private ObjectMapper mapper;
+	private Map<String, PollutedArc> pollutedArcs;
+	private Map<String, PollutedNode> pollutedNodes;
+
+	@Setup(Level.Trial)
+	public void setUp(SimulationState simulation) throws InterruptedException, IOException {
+		CountDownLatch stopped = new CountDownLatch(1);
+		SmartGov.getRuntime().addSimulationStoppedListener(event -> stopped.countDown());
+		SmartGov.getRuntime().start(SIMULATED_TICKS);
+		stopped.await();
+
+		arcs = simulation.context.arcs;
+		outputFolder = new File(simulation.context.getFileLoader().load("outputDir"), "benchmark");
+		arcsWriter = new StreamingArcsWriter(false, false);
+		mapper = new ObjectMapper();
+
+		PollutedArcsLoader loader = new PollutedArcsLoader();
+		loader.load(
+				arcsWriter.write(arcs.values(), new File(outputFolder, "arcs.json")),
+				simulation.context.getFileLoader().load("nodes")
+				);
+		pollutedArcs = loader.getArcs();
+		pollutedNodes = loader.getNodes();
+	}
+
+	/**
+	 * Writes the arcs with the streaming writer used by the run task.
+	 *
+	 * @return written file
+	 * @throws IOException if the output file can't be written
+	 */
+	@Benchmark
+	public File writeArcs() throws IOException {
+		return arcsWriter.write(arcs.values(), new File(outputFolder, "arcs_streaming.json"));
+	}
+
+	/**
+	 * Serializes the arcs with an ObjectMapper.
+	 *
+	 * @return written file
+	 * @throws IOException if the output file can't be written
+	 */
+	@Benchmark
+	public File serializeArcs() throws IOException {
+		File output = new File(outputFolder, "arcs_mapper.json");
+		mapper.writeValue(output, arcs.values());
+		return output;
+	}
+
+	/**
+	 * Builds the pollution tiles from the arcs output, as done by the tile task.
+	 *
+	 * @return built tiles
+	 */
+	@Benchmark
+	public TileMap buildTiles() {
+		TileMap map = new TileMap();
+		map.build(pollutedArcs, pollutedNodes, TILE_SIZE);
+		return map;
+	}
+}
@@ -0,0 +1,94 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.liris.smartgov.lez.core.agent.driver.mover.PollutantCarMover;
+import org.liris.smartgov.lez.core.agent.driver.vehicle.Vehicle;
+import org.liris.smartgov.lez.core.agent.establishment.Establishment;
+import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Pollution of all the arcs of the graph, as done by the
+ * {@link PollutantCarMover} of the agents.
+ *
+ * <p>
+ * Arcs are sorted by id, and polluted by groups of {@link #ARCS_PER_EMISSION}
+ * arcs, each group by a vehicle of the simulation fleets.
+ * </p>
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PollutionBenchmark {
+
+	/**
+	 * Number of arcs polluted at once.
+	 */
+	public static final int ARCS_PER_EMISSION = 10;
+
+	/**
+	 * Mean speed of the vehicles (m/s).
+	 */
+	public static final double MEAN_SPEED = 10.;
+
+	private PollutableOsmArc[][] crossedArcs;
+	private double[] distances;
+	private Vehicle[] vehicles;
+
+	@Setup(Level.Trial)
+	public void setUp(SimulationState simulation) {
+		List<PollutableOsmArc> arcs = new ArrayList<>();
+		for (Arc arc : new TreeMap<>(simulation.context.arcs).values()) {
+			arcs.add((PollutableOsmArc) arc);
+		}
+		int groups = (arcs.size() + ARCS_PER_EMISSION - 1) / ARCS_PER_EMISSION;
+		crossedArcs = new PollutableOsmArc[groups][];
+		distances = new double[groups];
+		for (int group = 0; group < groups; group++) {
+			crossedArcs[group] = arcs.subList(
+					group * ARCS_PER_EMISSION,
+					Math.min(arcs.size(), (group + 1) * ARCS_PER_EMISSION)
+					).toArray(new PollutableOsmArc[0]);
+			for (PollutableOsmArc arc : crossedArcs[group]) {
+				distances[group] += arc.getLength();
+			}
+		}
+
+		List<Vehicle> fleet = new ArrayList<>();
+		for (Establishment establishment : new TreeMap<>(simulation.context.getEstablishments()).values()) {
+			fleet.addAll(new TreeMap<>(establishment.getFleet()).values());
+		}
+		vehicles = fleet.toArray(new Vehicle[fleet.size()]);
+		if (vehicles.length == 0) {
+			throw new IllegalStateException("No vehicle has been loaded from the establishments.");
+		}
+	}
+
+	/**
+	 * Pollutes each group of arcs.
+	 */
+	@Benchmark
+	public void polluteArcs() {
+		for (int group = 0; group < crossedArcs.length; group++) {
+			PollutantCarMover.polluteArcs(
+					vehicles[group % vehicles.length],
+					crossedArcs[group],
+					distances[group],
+					distances[group] / MEAN_SPEED
+					);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package org.liris.smartgov.lez.benchmark;
+
+import java.io.File;
+
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.simulation.scenario.LezScenario;
+import org.liris.smartgov.simulator.SmartGov;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Simulation built from a benchmark configuration, with the mini or extended
+ * establishments file : the OSM graph is loaded, and the agents are built, but
+ * the simulation is not started.
+ *
+ * <p>
+ * The OSM nodes and ways files are not bundled with the other inputs : they
+ * must be built with the roads task in the input/osm folder (see the
+ * Extended_doc/README.md).
+ * </p>
+ *
+ */
+@State(Scope.Benchmark)
+public class SimulationState {
+
+	@Param({"mini", "extended"})
+	public String establishments;
+
+	LezContext context;
+	LezScenario scenario;
+
+	@Setup(Level.Trial)
+	public void build() {
+		File config = BenchmarkInputs.config(establishments);
+		context = new LezContext(config.getPath(), false);
+		for (String osmFile : new String[] {"nodes", "roads"}) {
+			if (!context.getFileLoader().load(osmFile).isFile()) {
+				throw new IllegalStateException(
+						"OSM " + osmFile + " file not found : " + context.getFileLoader().load(osmFile)
+						+ ". It can be built with the roads task.");
+			}
+		}
+		context.getSession().setNbAgents(Integer.MAX_VALUE);
+		new SmartGov(context);
+		scenario = (LezScenario) context.getScenario();
+	}
+}
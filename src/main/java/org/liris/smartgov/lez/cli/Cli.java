@@ -12,6 +12,7 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.liris.smartgov.lez.cli.tools.CompileCopert;
 import org.liris.smartgov.lez.cli.tools.Init;
 import org.liris.smartgov.lez.cli.tools.PoliticRun;
 import org.liris.smartgov.lez.cli.tools.Roads;
@@ -58,6 +59,9 @@ public class Cli {
 		case "rgrun":
 			ResultGeneratorRun.main(Arrays.copyOfRange(args, 1, args.length));
 			return;
+		case "copert":
+			CompileCopert.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
 		default:
 			Options opts = new Options();
 			opts.addOption(new Option("h", "help", false, "display an help message"));
@@ -77,6 +81,7 @@ public class Cli {
 		System.out.println("Available tasks :\n"
 				+ "\t help - displays this help message\n"
 				+ "\t roads - preprocess roads to produce json nodes and ways files\n"
+				+ "\t copert - compile a copert table into a binary file, faster to load\n"
 				+ "\t init - load json nodes and ways file, and initialize delivery agents\n"
 				+ "\t run - run simulation\n"
 				+ "\t prun - run simulations and launch optimal policy searching\n"
@@ -0,0 +1,98 @@
+package org.liris.smartgov.lez.cli.tools;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertCache;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertParser;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertTable;
+
+/**
+ * Copert task.
+ *
+ * Compiles a CSV Copert table into a binary cache file, that is then
+ * loaded instead of the CSV file as long as the CSV file is not modified.
+ */
+public class CompileCopert {
+
+	public static Logger logger = LogManager.getLogger(CompileCopert.class);
+
+	/**
+	 * Parses the input Copert table, and writes the corresponding binary cache.
+	 *
+	 * @param args <i>-f copert_table [-o output_file]</i>
+	 * @throws IOException if the input file can't be read or the output file can't be written
+	 * @throws ParseException in case of bad command line options
+	 */
+	public static void main(String[] args) throws IOException, ParseException {
+		Options helpOpts = new Options();
+		Option help = new Option("h", "help", false, "Displays this help message");
+		helpOpts.addOption(help);
+
+
+		Options fullOpts = new Options();
+		fullOpts.addOption(help);
+		Option copertFile = new Option("f", "copert-file", true, "Input CSV Copert table");
+		copertFile.setArgName("file");
+		copertFile.setRequired(true);
+		Option output = new Option("o", "output", true, "Binary output file. Default : <copert-file>" + CopertCache.EXTENSION);
+		output.setArgName("file");
+		fullOpts.addOption(copertFile);
+		fullOpts.addOption(output);
+
+		if(args.length == 0) {
+			printHelp(fullOpts);
+			return;
+		}
+
+		CommandLineParser cmdParser = new DefaultParser();
+		CommandLine helpCmd = cmdParser.parse(helpOpts, args, true);
+
+		if(helpCmd.hasOption("h")) {
+			printHelp(fullOpts);
+			return;
+		}
+
+		cmdParser = new DefaultParser();
+		CommandLine mainCmd = cmdParser.parse(fullOpts, args);
+
+		File inputFile = new File(mainCmd.getOptionValue("f"));
+		File outputFile = mainCmd.hasOption("o") ?
+				new File(mainCmd.getOptionValue("o")) :
+				CopertCache.defaultCacheFile(inputFile);
+
+		long beginTime = System.currentTimeMillis();
+		logger.info("Parsing Copert table from : " + inputFile);
+		CopertTable table = CopertParser.parseTable(inputFile);
+		if(table == null) {
+			logger.error("Unable to parse " + inputFile);
+			return;
+		}
+		logger.info("Rows parsed : " + table.rowCount());
+
+		File outputDir = outputFile.getParentFile();
+		if(outputDir != null && !outputDir.exists())
+			outputDir.mkdirs();
+		logger.info("Writing binary Copert table to " + outputFile);
+		CopertCache.write(table, CopertCache.hash(inputFile), outputFile);
+
+		logger.info("Compilation end. Total process time : " + (System.currentTimeMillis() - beginTime) + "ms");
+	}
+
+	private static void printHelp(Options opts) {
+		String header = "\nCompile a CSV Copert table into a binary file, faster to load.";
+		String footer ="\n The binary file is automatically used in place of the CSV table when it is "
+				+ "stored as <copert-file>" + CopertCache.EXTENSION + ", as long as the CSV file is not modified.\n";
+		HelpFormatter formatter = new HelpFormatter();
+		formatter.printHelp("smartgovlez copert", header, opts, footer, true);
+	}
+}
@@ -18,7 +18,7 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 
 import org.liris.smartgov.lez.cli.Cli;
 import org.liris.smartgov.lez.core.environment.LezContext;
-import org.liris.smartgov.lez.core.environment.pollution.Pollution;
+import org.liris.smartgov.lez.core.simulation.scenario.PollutionScenario;
 import org.liris.smartgov.simulator.SmartGov;
 
 /**
@@ -88,6 +88,6 @@ public class Init {
 		
 		File pollutionPeeksFile = new File(outputInitFolder, "pollution_peeks.json");
 		Run.logger.info("Writting pollution peeks to " + pollutionPeeksFile);
-		Cli.writeOutput(Pollution.pollutionRatePeeks, pollutionPeeksFile, mapper);
+		Cli.writeOutput(((PollutionScenario) context.getScenario()).getPollutionPeeks(), pollutionPeeksFile, mapper);
 	}
 }
@@ -21,7 +21,6 @@ import org.liris.smartgov.lez.core.simulation.ExtendedSmartGov;
 import org.liris.smartgov.lez.core.simulation.files.FilePath;
 import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
 import org.liris.smartgov.lez.core.simulation.scenario.LezScenario;
-import org.liris.smartgov.lez.politic.PoliticalVar;
 import org.liris.smartgov.lez.politic.manager.ManagerQLearningScenario;
 import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.events.EventHandler;
@@ -99,14 +98,14 @@ public class PoliticRun {
 			maxTicksValue = 3600 * 24;
 		}
 		
+		LezContext ctxt = new LezContext(configFile, true);
+		
 		if (cmd.hasOption("a")) {
-			LezScenario.setNbAgents(Integer.valueOf(cmd.getOptionValue("a")));
+			ctxt.getSession().setNbAgents(Integer.valueOf(cmd.getOptionValue("a")));
 		} else {
-			LezScenario.setNbAgents(Integer.MAX_VALUE);
+			ctxt.getSession().setNbAgents(Integer.MAX_VALUE);
 		}
 		
-		LezContext ctxt = new LezContext(configFile, true);
-		
         ExtendedSmartGov smartGov = new ExtendedSmartGov(
         		ctxt, new ExtendedSimulationRuntime(ctxt),
         		new ExtendedSimulationBuilder(ctxt)
@@ -138,10 +137,11 @@ public class PoliticRun {
 				long simulationEnd = System.nanoTime();
 				logger.info("It took " + (int)((simulationEnd - simulationStart) / 1E9) + " seconds to play the simulation" );
 				
-				PoliticalVar.manager.live();
+				ManagerQLearningScenario manager = (ManagerQLearningScenario) ctxt.getSession().getPolitics().getManager();
+				manager.live();
 				
-				if ( ((ManagerQLearningScenario)(PoliticalVar.manager)).needToStop || 
-						PoliticalVar.manager.getCurrentIteration() + 1 >= nb_iterations ) {
+				if ( manager.needToStop || 
+						manager.getCurrentIteration() + 1 >= nb_iterations ) {
 					//if it is the last simulation, does not relaunch a new one
 					
 					EnvironmentSerializer.SerializeEnvironment(FilePath.outputFolder,
@@ -151,7 +151,7 @@ public class PoliticRun {
 
 				else {
 					//if we have to relaunch a new simulation
-					if ( ((ManagerQLearningScenario)(PoliticalVar.manager)).isRecentlyReset() ) {
+					if ( manager.isRecentlyReset() ) {
 						//if it's the end a sequence, we reset the configuration
 						ctxt.resetConfiguration();
 					}
@@ -162,7 +162,7 @@ public class PoliticRun {
 							+ "|     Relaunching simulation    | \n"
 							+ "|                               | \n"
 							+ "|_______________________________| \n"
-							+ "Iteration " + PoliticalVar.manager.getCurrentIteration());
+							+ "Iteration " + manager.getCurrentIteration());
 					
 					//then we restart simulation
 					ctxt.resetVariables(false);
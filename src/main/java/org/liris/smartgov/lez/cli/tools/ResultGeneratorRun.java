@@ -1,5 +1,6 @@
 package org.liris.smartgov.lez.cli.tools;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,6 +35,7 @@ import org.liris.smartgov.simulator.core.simulation.events.SimulationStopped;
  */
 public class ResultGeneratorRun {
 	public static final Logger logger = LogManager.getLogger(ResultGeneratorRun.class);
+	static final String SWEEP_WORKER_OPTION = "sweep-worker";
 	static int iteration;
 	
 	public static void main(String[] args) throws ParseException {
@@ -62,13 +64,25 @@ public class ResultGeneratorRun {
 		
 		opts.addOption(new Option("p", "pretty-print", false, "Enables JSON pretty printing"));
 		
+		Option workers = new Option("w", "workers", true, "Number of simulations run in parallel, each one in its own JVM. Default : 1");
+		workers.setArgName("int");
+		opts.addOption(workers);
+		
+		Option output = new Option("o", "output", true, "Results file. Default : output/config.txt");
+		output.setArgName("file");
+		opts.addOption(output);
+		
+		opts.addOption(new Option(null, SWEEP_WORKER_OPTION, false, "Used by parallel runs : exits once all the iterations are done"));
+		
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd = parser.parse(opts, args);
 		
 		if(cmd.hasOption("h")) {
 			String header = "Run simulations with random configurations and save results.";
 			String footer = "\n"
-					+ "Results are written in output/config.txt file";
+					+ "Results are written in output/config.txt file, or in the file specified with -o.\n"
+					+ "With -w, iterations are split between worker JVMs, whose logs and "
+					+ "partial results are written in output/sweep/";
 			HelpFormatter formatter = new HelpFormatter();
 			formatter.printHelp("smartgovlez run", header, opts, footer, true);
 			return;
@@ -97,14 +111,37 @@ public class ResultGeneratorRun {
 			maxTicksValue = 3600 * 24;
 		}
 		
-		if (cmd.hasOption("a")) {
-			LezScenario.setNbAgents(Integer.valueOf(cmd.getOptionValue("a")));
-		} else {
-			LezScenario.setNbAgents(Integer.MAX_VALUE);
+		File outputPath = new File(cmd.getOptionValue("o", "output/config.txt"));
+		if (outputPath.getAbsoluteFile().getParentFile() != null) {
+			outputPath.getAbsoluteFile().getParentFile().mkdirs();
+		}
+		final String outputFolder = outputPath.getParent() == null ? "" : outputPath.getParent() + File.separator;
+		final String outputFile = outputPath.getName();
+		final boolean sweepWorker = cmd.hasOption(SWEEP_WORKER_OPTION);
+		
+		int workersValue = cmd.hasOption("w") ? Integer.valueOf(cmd.getOptionValue("w")) : 1;
+		if (workersValue > 1) {
+			List<String> workerArgs = new ArrayList<>();
+			workerArgs.add("-c");
+			workerArgs.add(configFile);
+			workerArgs.add("-t");
+			workerArgs.add(String.valueOf(maxTicksValue));
+			if (cmd.hasOption("a")) {
+				workerArgs.add("-a");
+				workerArgs.add(cmd.getOptionValue("a"));
+			}
+			ResultSweep.run(workersValue, nb_iterations, workerArgs, outputFolder, outputFile);
+			return;
 		}
 		
 		LezContext ctxt = new LezContext(configFile, false);
 		
+		if (cmd.hasOption("a")) {
+			ctxt.getSession().setNbAgents(Integer.valueOf(cmd.getOptionValue("a")));
+		} else {
+			ctxt.getSession().setNbAgents(Integer.MAX_VALUE);
+		}
+		
         ExtendedSmartGov smartGov = new ExtendedSmartGov(
         		ctxt, new ExtendedSimulationRuntime(ctxt),
         		new ExtendedSimulationBuilder(ctxt)
@@ -158,7 +195,12 @@ public class ResultGeneratorRun {
 					config += ":" + cpt_pollution + "_" + cpt_satisfaction;
 					
 					//Save configuration and results in a file
-					FilesManagement.appendToFile("output/", "config.txt", config);
+					FilesManagement.appendToFile(outputFolder, outputFile, config);
+					
+					if (sweepWorker && iteration == nb_iterations) {
+						// All the results of this worker have been written
+						System.exit(0);
+					}
 	
 					ctxt.setCompletelyRandomConfiguration();
 	
@@ -0,0 +1,119 @@
+package org.liris.smartgov.lez.cli.tools;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
+
+/**
+ * Runs the iterations of a {@link ResultGeneratorRun} in several worker
+ * processes, and merges their results.
+ *
+ * <p>
+ * The simulator runtime is a JVM wide singleton, so each simulation instance
+ * runs in its own JVM, launched with the class path and JVM options of the
+ * current one. Iterations are evenly split between workers. Each worker writes
+ * its results in its own file, and results are then appended to the output
+ * file in the order of the workers, so that the order of the lines does not
+ * depend on which worker finishes first.
+ * </p>
+ *
+ */
+class ResultSweep {
+
+	private static final String SWEEP_FOLDER = "output/sweep/";
+
+	private ResultSweep() {
+	}
+
+	/**
+	 * Launches the workers, waits for them and merges their results.
+	 *
+	 * @param workers number of worker processes
+	 * @param iterations total number of iterations
+	 * @param workerArgs arguments given to each worker, in addition to its
+	 * iterations and output file
+	 * @param outputFolder folder of the merged results
+	 * @param outputFile file name of the merged results
+	 */
+	static void run(int workers, int iterations, List<String> workerArgs, String outputFolder, String outputFile) {
+		new File(SWEEP_FOLDER).mkdirs();
+		// Launched processes by worker id, skipped workers are not included
+		Map<Integer, Process> processes = new LinkedHashMap<>();
+		List<File> results = new ArrayList<>();
+		for (int worker = 0; worker < workers; worker++) {
+			int workerIterations = iterations / workers + (worker < iterations % workers ? 1 : 0);
+			if (workerIterations == 0) {
+				continue;
+			}
+			File result = new File(SWEEP_FOLDER + "config_" + worker + ".txt");
+			result.delete();
+			List<String> command = new ArrayList<>();
+			command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+			for (String jvmArg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+				if (!jvmArg.contains("jdwp")) {
+					command.add(jvmArg);
+				}
+			}
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(ResultGeneratorRun.class.getName());
+			command.addAll(workerArgs);
+			command.add("-i");
+			command.add(String.valueOf(workerIterations));
+			command.add("-o");
+			command.add(result.getPath());
+			command.add("--" + ResultGeneratorRun.SWEEP_WORKER_OPTION);
+
+			try {
+				File log = new File(SWEEP_FOLDER + "worker_" + worker + ".log");
+				processes.put(worker, new ProcessBuilder(command)
+						.redirectErrorStream(true)
+						.redirectOutput(log)
+						.start());
+				results.add(result);
+				ResultGeneratorRun.logger.info("Worker " + worker + " launched for " + workerIterations
+						+ " iterations, logs in " + log.getPath());
+			} catch (IOException e) {
+				ResultGeneratorRun.logger.error("Worker " + worker + " can't be launched.", e);
+			}
+		}
+
+		for (Map.Entry<Integer, Process> process : processes.entrySet()) {
+			try {
+				int exitCode = process.getValue().waitFor();
+				if (exitCode != 0) {
+					ResultGeneratorRun.logger.error("Worker " + process.getKey() + " exited with code " + exitCode + ".");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				processes.values().forEach(Process::destroy);
+				return;
+			}
+		}
+
+		for (File result : results) {
+			if (result.exists()) {
+				try {
+					List<String> lines = new ArrayList<>();
+					for (String line : Files.readAllLines(result.toPath(), StandardCharsets.UTF_8)) {
+						if (!line.isEmpty()) {
+							lines.add(line);
+						}
+					}
+					FilesManagement.appendToFile(outputFolder, outputFile, lines);
+				} catch (IOException e) {
+					ResultGeneratorRun.logger.error("Results of " + result + " can't be read.", e);
+				}
+			}
+		}
+		ResultGeneratorRun.logger.info("Results of " + processes.size() + " workers written in " + outputFolder + outputFile);
+	}
+}
@@ -1,12 +1,14 @@
 package org.liris.smartgov.lez.cli.tools;
 
 import java.io.File;
+import java.io.IOException;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
+import org.apache.commons.cli.OptionGroup;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
@@ -17,7 +19,10 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 
 import org.liris.smartgov.lez.cli.Cli;
 import org.liris.smartgov.lez.core.environment.LezContext;
-import org.liris.smartgov.lez.core.environment.pollution.Pollution;
+import org.liris.smartgov.lez.core.environment.pollution.PollutionTimeSeries;
+import org.liris.smartgov.lez.core.output.pollution.PollutionSnapshotWriter;
+import org.liris.smartgov.lez.core.output.pollution.StreamingArcsWriter;
+import org.liris.smartgov.lez.core.simulation.scenario.PollutionScenario;
 import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.events.EventHandler;
 import org.liris.smartgov.simulator.core.simulation.events.SimulationStopped;
@@ -45,6 +50,16 @@ public class Run {
 		
 		opts.addOption(new Option("p", "pretty-print", false, "Enables JSON pretty printing"));
 		
+		opts.addOption(new Option("z", "gzip", false, "Compresses JSON arcs outputs with gzip"));
+		
+		// -j is kept for compatibility : JSON arcs are exported unless -b is specified
+		OptionGroup arcsOutput = new OptionGroup();
+		arcsOutput.addOption(new Option("j", "json-arcs", false, "Deprecated, final arcs states are exported as JSON by default"));
+		arcsOutput.addOption(new Option("b", "binary-only", false, "Only exports final arcs pollution as binary snapshots, without JSON"));
+		opts.addOptionGroup(arcsOutput);
+		
+		opts.addOption(new Option("f", "float", false, "Stores binary pollution snapshots as float instead of double"));
+		
 		CommandLineParser parser = new DefaultParser();
 		CommandLine cmd = parser.parse(opts, args);
 		
@@ -52,6 +67,12 @@ public class Run {
 			String header = "Run the simutation, with the specified configuration.";
 			String footer = "\n"
 					+ "Raw results are written to the <outputDir>/simulation folder.\n"
+					+ "Final arcs pollution is written as a binary snapshot (arcs_<tick>" + PollutionSnapshotWriter.SNAPSHOT_EXTENSION + "), "
+					+ "that can be read with the <outputDir>/init/arcs" + PollutionSnapshotWriter.DICTIONARY_EXTENSION + " arc dictionary.\n"
+					+ "If the pollution_time_bucket property is set, arcs emissions per time bucket are also written "
+					+ "(arcs_<tick>" + PollutionSnapshotWriter.TIME_SERIES_EXTENSION + "), with the sum of each neighborhood as JSON.\n"
+					+ "Final arcs states are also exported in background as JSON, "
+					+ "compressed as .json.gz files if -z is specified, unless -b is specified.\n"
 					+ "The simulation runs until max ticks count as been reached (default to 10 days) or "
 					+ "when the last round has ended.";
 			HelpFormatter formatter = new HelpFormatter();
@@ -74,6 +95,9 @@ public class Run {
         		new LezContext(configFile, false)
         		);
         
+        StreamingArcsWriter arcsWriter = new StreamingArcsWriter(cmd.hasOption("p"), cmd.hasOption("z"));
+        PollutionSnapshotWriter snapshotWriter = new PollutionSnapshotWriter(cmd.hasOption("f"));
+        
         SmartGov.getRuntime().addSimulationStoppedListener(new EventHandler<SimulationStopped>() {
 
 			@Override
@@ -84,6 +108,7 @@ public class Run {
 						);
 				//File agentOutput = new File(outputFolder, "agents_" + SmartGov.getRuntime().getTickCount() +".json");
 				File arcsOutput = new File(outputFolder, "arcs_" + SmartGov.getRuntime().getTickCount() +".json");
+				File snapshotOutput = new File(outputFolder, "arcs_" + SmartGov.getRuntime().getTickCount() + PollutionSnapshotWriter.SNAPSHOT_EXTENSION);
 				File pollutionPeeksOutput = new File(outputFolder, "pollution_peeks_" + SmartGov.getRuntime().getTickCount() +".json");
 				
 				
@@ -99,11 +124,45 @@ public class Run {
 				// logger.info("Saving agents state to " + agentOutput.getPath());
 				// objectMapper.writeValue(agentOutput, smartGov.getContext().agents.values());
 				
-				logger.info("Saving arcs state to " + arcsOutput.getPath());
-				Cli.writeOutput(smartGov.getContext().arcs.values(), arcsOutput, mapper);
+				logger.info("Saving arcs pollution snapshot to " + snapshotOutput.getPath());
+				try {
+					snapshotWriter.writeSnapshot(smartGov.getContext().arcs.values(), snapshotOutput);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+				
+				PollutionTimeSeries timeSeries =
+						((PollutionScenario) smartGov.getContext().getScenario()).getArcPollutionLedger().getTimeSeries();
+				if(timeSeries != null && timeSeries.getLastBucket() >= 0) {
+					File timeSeriesOutput = new File(outputFolder, "arcs_" + SmartGov.getRuntime().getTickCount() + PollutionSnapshotWriter.TIME_SERIES_EXTENSION);
+					File neighborhoodsTimeSeriesOutput = new File(outputFolder, "neighborhoods_time_series_" + SmartGov.getRuntime().getTickCount() +".json");
+					logger.info("Saving arcs pollution time series to " + timeSeriesOutput.getPath());
+					try {
+						snapshotWriter.writeTimeSeries(smartGov.getContext().arcs.values(), timeSeries, timeSeriesOutput);
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+					logger.info("Saving neighborhoods pollution time series to " + neighborhoodsTimeSeriesOutput.getPath());
+					Cli.writeOutput(
+							PollutionSnapshotWriter.neighborhoodTimeSeries(smartGov.getContext().arcs.values(), timeSeries),
+							neighborhoodsTimeSeriesOutput,
+							mapper
+							);
+				}
+				
+				if(!cmd.hasOption("b")) {
+					logger.info("Saving arcs state to " + arcsWriter.outputFile(arcsOutput).getPath());
+					arcsWriter.writeAsync(smartGov.getContext().arcs.values(), arcsOutput);
+					// Pending writes are still performed
+					arcsWriter.shutdown();
+				}
 				
 				logger.info("Saving pollution peeks to " + pollutionPeeksOutput.getPath());
-				Cli.writeOutput(Pollution.pollutionRatePeeks, pollutionPeeksOutput, mapper);
+				Cli.writeOutput(
+						((PollutionScenario) smartGov.getContext().getScenario()).getPollutionPeeks(),
+						pollutionPeeksOutput,
+						mapper
+						);
 			}
         	
         });
@@ -129,14 +188,26 @@ public class Run {
 			File initOutput = new File(outputFolder, "init");
 			File nodeOutput = new File(initOutput, "nodes.json");
 			File arcOutput = new File(initOutput, "arcs.json");
+			File arcDictionaryOutput = new File(initOutput, "arcs" + PollutionSnapshotWriter.DICTIONARY_EXTENSION);
 			File establishmentsOutput = new File(initOutput, "establishments.json");
 			
 			
 			logger.info("Saving initial nodes to " + nodeOutput.getPath());
 			Cli.writeOutput(smartGov.getContext().nodes.values(), nodeOutput, mapper);
 			
-			logger.info("Saving initial arcs to " + arcOutput.getPath());
-			Cli.writeOutput(smartGov.getContext().arcs.values(), arcOutput, mapper);
+			logger.info("Saving initial arcs to " + arcsWriter.outputFile(arcOutput).getPath());
+			try {
+				arcsWriter.write(smartGov.getContext().arcs.values(), arcOutput);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			
+			logger.info("Saving arc dictionary to " + arcDictionaryOutput.getPath());
+			try {
+				snapshotWriter.writeDictionary(smartGov.getContext().arcs.values(), arcDictionaryOutput);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
 			
 			logger.info("Saving initial establishments to " + establishmentsOutput);
 			Cli.writeOutput(
@@ -14,7 +14,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.liris.smartgov.lez.cli.Cli;
 import org.liris.smartgov.lez.process.arcs.build.TileMap;
+import org.liris.smartgov.lez.core.output.pollution.PollutionSnapshotWriter;
 import org.liris.smartgov.lez.process.arcs.load.PollutedArcsLoader;
+import org.liris.smartgov.lez.process.arcs.load.PollutionSnapshot;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -34,13 +36,15 @@ public class Tile {
 		Options fullOpts = new Options();
 		fullOpts.addOption(help);
 
-		Option nodeFile = new Option("n", "nodes-file", true, "JSON initial nodes file");
+		Option nodeFile = new Option("n", "nodes-file", true, "JSON initial nodes file, required with JSON arcs files");
 		nodeFile.setArgName("file");
-		nodeFile.setRequired(true);
 	
-		Option arcsFile = new Option("a", "arcs-file", true, "JSON arcs file, output of \"run\"");
+		Option arcsFile = new Option("a", "arcs-file", true, "JSON arcs file or binary pollution snapshot, output of \"run\"");
 		arcsFile.setArgName("file");
 		arcsFile.setRequired(true);
+		
+		Option dictionaryFile = new Option("d", "arcs-dictionary", true, "Binary initial arc dictionary, required with binary pollution snapshots");
+		dictionaryFile.setArgName("file");
 	
 		Option tileOutput = new Option("o", "tiles-output", true, "JSON output tiles");
 		tileOutput.setArgName("file");
@@ -49,12 +53,17 @@ public class Tile {
 		Option tileSize = new Option("s", "tile-size", true, "Tile size in meter");
 		tileOutput.setArgName("file");
 		
+		Option levels = new Option("l", "levels", true, "Number of pyramid levels, each level doubling the tile size. Default : 1");
+		levels.setArgName("int");
+		
 		Option prettyPrint = new Option("p", "pretty-print", false, "Enables pretty JSON printing");
 		
 		fullOpts.addOption(nodeFile);
 		fullOpts.addOption(arcsFile);
+		fullOpts.addOption(dictionaryFile);
 		fullOpts.addOption(tileOutput);
 		fullOpts.addOption(tileSize);
+		fullOpts.addOption(levels);
 		fullOpts.addOption(prettyPrint);
 		
 		if(args.length == 0) {
@@ -73,22 +82,45 @@ public class Tile {
 		cmdParser = new DefaultParser();
 		CommandLine mainCmd = cmdParser.parse(fullOpts, args);
 		
-		PollutedArcsLoader loader = new PollutedArcsLoader();
-		loader.load(
-				new File(mainCmd.getOptionValue("a")),
-				new File(mainCmd.getOptionValue("n"))
-				);
-		
 		int tileSizeValue = 100;
 		if(mainCmd.hasOption("s")) {
 			tileSizeValue = Integer.valueOf(mainCmd.getOptionValue("s"));
 		}
 		
+		int levelCount = 1;
+		if(mainCmd.hasOption("l")) {
+			levelCount = Integer.valueOf(mainCmd.getOptionValue("l"));
+			if(levelCount < 1) {
+				logger.error("The number of pyramid levels must be positive.");
+				return;
+			}
+		}
+		
 		TileMap map = new TileMap();
-		map.build(loader.getArcs(), loader.getNodes(), tileSizeValue);
+		File inputArcs = new File(mainCmd.getOptionValue("a"));
+		if(inputArcs.getName().endsWith(PollutionSnapshotWriter.SNAPSHOT_EXTENSION)) {
+			if(!mainCmd.hasOption("d")) {
+				logger.error("An arc dictionary (-d) is required to read a binary pollution snapshot.");
+				return;
+			}
+			PollutionSnapshot snapshot = PollutionSnapshot.open(new File(mainCmd.getOptionValue("d")), inputArcs);
+			map.build(snapshot, tileSizeValue);
+		}
+		else {
+			if(!mainCmd.hasOption("n")) {
+				logger.error("A nodes file (-n) is required to read a JSON arcs file.");
+				return;
+			}
+			PollutedArcsLoader loader = new PollutedArcsLoader();
+			loader.load(
+					inputArcs,
+					new File(mainCmd.getOptionValue("n"))
+					);
+			map.build(loader.getArcs(), loader.getNodes(), tileSizeValue);
+		}
 		
-		logger.info("Tiles height count : " + map.getTiles().size());
-		logger.info("Tiles width count : " + map.getTiles().get(0).size());
+		logger.info("Tiles height count : " + map.getTiles().getRowCount());
+		logger.info("Tiles width count : " + map.getTiles().getColumnCount());
 
 		ObjectMapper mapper;
 		
@@ -98,12 +130,36 @@ public class Tile {
 		else {
 			mapper = new ObjectMapper();
 		}
-		Cli.writeOutput(map, new File(mainCmd.getOptionValue("o")), mapper);
+		File output = new File(mainCmd.getOptionValue("o"));
+		Cli.writeOutput(map, output, mapper);
+		
+		for(int level = 1; level < levelCount; level++) {
+			map = map.coarser();
+			File levelOutput = levelOutput(output, (int) map.getTileSize());
+			logger.info("Writing " + map.getTiles().getRowCount() + "x" + map.getTiles().getColumnCount()
+					+ " tiles to " + levelOutput);
+			Cli.writeOutput(map, levelOutput, mapper);
+		}
+	}
+	
+	/*
+	 * tiles.json -> tiles_200m.json
+	 */
+	private static File levelOutput(File output, int tileSize) {
+		String name = output.getName();
+		int extension = name.lastIndexOf('.');
+		String levelName = extension < 0 ?
+				name + "_" + tileSize + "m" :
+				name.substring(0, extension) + "_" + tileSize + "m" + name.substring(extension);
+		return new File(output.getParentFile(), levelName);
 	}
 	
 	private static void printHelp(Options opts) {
 		String header = "Build JSON tiles with pollution values from simulation output.";
-		String footer = "";
+		String footer = "\nBinary pollution snapshots (" + PollutionSnapshotWriter.SNAPSHOT_EXTENSION + ") are read with "
+				+ "the arc dictionary written in the <outputDir>/init folder, JSON arcs files with the initial nodes file.\n"
+				+ "Each pyramid level above the first one is built by summing blocks of 2x2 tiles of the previous level, "
+				+ "and written next to the tiles output with the tile size as a suffix (e.g. tiles_200m.json).\n";
 		HelpFormatter formatter = new HelpFormatter();
 		formatter.printHelp("smartgovlez roads", header, opts, footer, true);
 	}
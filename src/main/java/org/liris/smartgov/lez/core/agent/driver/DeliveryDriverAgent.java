@@ -1,20 +1,28 @@
 package org.liris.smartgov.lez.core.agent.driver;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import org.liris.smartgov.lez.core.agent.driver.behavior.DeliveryDriverBehavior;
 import org.liris.smartgov.lez.core.agent.establishment.Establishment;
 import org.liris.smartgov.lez.core.output.establishment.EstablishmentIdSerializer;
+import org.liris.smartgov.lez.core.simulation.ExtendedSimulationRuntime;
+import org.liris.smartgov.lez.core.simulation.ParallelTickAgent;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
+import org.liris.smartgov.lez.core.simulation.WaitingAgent;
+import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.urban.osm.agent.OsmAgent;
 
 /**
  * An OsmAgent associated to an establishment, that can perform deliveries
  * with a DriverBody through a DeliveryDriverBehavior.
  */
-public class DeliveryDriverAgent extends OsmAgent {
+public class DeliveryDriverAgent extends OsmAgent implements ParallelTickAgent, WaitingAgent {
 	
 	@JsonSerialize(using = EstablishmentIdSerializer.class)
 	private Establishment establishment;
+	private ParallelTickExecutor tickExecutor;
+	private DeliveryDriverBehavior driverBehavior;
 
 	/**
 	 * DeliveryDriverAgent constructor.
@@ -29,6 +37,7 @@ public class DeliveryDriverAgent extends OsmAgent {
 			DriverBody body,
 			DeliveryDriverBehavior deliveryDriverBehavior) {
 		super(id, body, deliveryDriverBehavior);
+		this.driverBehavior = deliveryDriverBehavior;
 		this.establishment = deliveryDriverBehavior.getRound().getOrigin();
 		establishment.addAgent(this);
 	}
@@ -42,5 +51,38 @@ public class DeliveryDriverAgent extends OsmAgent {
 	public Establishment getEstablishment() {
 		return establishment;
 	}
+	
+	/**
+	 * Sets the executor used to run this agent in parallel ticks.
+	 *
+	 * @param tickExecutor parallel tick executor, or null to run this agent sequentially
+	 */
+	public void setTickExecutor(ParallelTickExecutor tickExecutor) {
+		this.tickExecutor = tickExecutor;
+	}
+	
+	@Override
+	@JsonIgnore
+	public boolean isWaiting() {
+		return driverBehavior.isWaiting();
+	}
+	
+	@Override
+	public void live() {
+		if (SmartGov.getRuntime() instanceof ExtendedSimulationRuntime) {
+			((ExtendedSimulationRuntime) SmartGov.getRuntime()).beforeAgentTick();
+		}
+		if (tickExecutor == null) {
+			super.live();
+		}
+		else {
+			tickExecutor.live(this);
+		}
+	}
+	
+	@Override
+	public void liveSequentially() {
+		super.live();
+	}
 
 }
@@ -1,7 +1,14 @@
 package org.liris.smartgov.lez.core.agent.driver;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import org.liris.smartgov.lez.core.agent.driver.behavior.PrivateDriverBehavior;
 import org.liris.smartgov.lez.core.agent.establishment.Establishment;
+import org.liris.smartgov.lez.core.simulation.ExtendedSimulationRuntime;
+import org.liris.smartgov.lez.core.simulation.ParallelTickAgent;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
+import org.liris.smartgov.lez.core.simulation.WaitingAgent;
+import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.urban.osm.agent.OsmAgent;
 
 /**
@@ -10,10 +17,12 @@ import org.liris.smartgov.simulator.urban.osm.agent.OsmAgent;
  * @author alban
  *
  */
-public class PrivateDriverAgent extends OsmAgent {
+public class PrivateDriverAgent extends OsmAgent implements ParallelTickAgent, WaitingAgent {
 	
 	//establishment where the driver goes to work
 	private Establishment establishment;
+	private ParallelTickExecutor tickExecutor;
+	private PrivateDriverBehavior driverBehavior;
 	
 	/**
 	 * 
@@ -26,6 +35,7 @@ public class PrivateDriverAgent extends OsmAgent {
 			DriverBody body,
 			PrivateDriverBehavior privateDriverBehavior) {
 		super(id, body, privateDriverBehavior);
+		this.driverBehavior = privateDriverBehavior;
 		this.establishment = privateDriverBehavior.getRound().getOrigin();
 		establishment.addAgent(this);
 	}
@@ -39,4 +49,37 @@ public class PrivateDriverAgent extends OsmAgent {
 	public Establishment getEstablishment() {
 		return establishment;
 	}
+	
+	/**
+	 * Sets the executor used to run this agent in parallel ticks.
+	 *
+	 * @param tickExecutor parallel tick executor, or null to run this agent sequentially
+	 */
+	public void setTickExecutor(ParallelTickExecutor tickExecutor) {
+		this.tickExecutor = tickExecutor;
+	}
+	
+	@Override
+	@JsonIgnore
+	public boolean isWaiting() {
+		return driverBehavior.isWaiting();
+	}
+	
+	@Override
+	public void live() {
+		if (SmartGov.getRuntime() instanceof ExtendedSimulationRuntime) {
+			((ExtendedSimulationRuntime) SmartGov.getRuntime()).beforeAgentTick();
+		}
+		if (tickExecutor == null) {
+			super.live();
+		}
+		else {
+			tickExecutor.live(this);
+		}
+	}
+	
+	@Override
+	public void liveSequentially() {
+		super.live();
+	}
 }
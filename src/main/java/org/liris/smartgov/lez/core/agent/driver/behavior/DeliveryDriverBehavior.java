@@ -6,6 +6,7 @@ import org.liris.smartgov.lez.core.agent.driver.personality.Personality;
 import org.liris.smartgov.lez.core.agent.establishment.Establishment;
 import org.liris.smartgov.lez.core.agent.establishment.Round;
 import org.liris.smartgov.lez.core.simulation.ExtendedDate;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
 import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.agent.moving.behavior.MoverAction;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
@@ -75,7 +76,7 @@ public class DeliveryDriverBehavior extends DriverBehavior {
 		
 		// When the agent enter the parking, it waits
 		((DriverBody) getAgentBody()).addOnParkingEnteredListener((event) ->
-			nextAction = MoverAction.WAIT()
+			nextAction = waitAction()
 			);
 		
 		// When a destination is reached
@@ -190,15 +191,20 @@ public class DeliveryDriverBehavior extends DriverBehavior {
 	}
 	
 	protected void triggerRoundDepartureListeners(RoundDeparture event) {
-		for(EventHandler<RoundDeparture> listener : roundDepartureListeners) {
-			listener.handle(event);
-		}
+		ParallelTickExecutor.runOrDefer(() -> {
+			for(EventHandler<RoundDeparture> listener : roundDepartureListeners) {
+				listener.handle(event);
+			}
+		});
 	}
 	
 	protected void triggerRoundEndListeners(RoundEnd event) {
-		for(EventHandler<RoundEnd> listener : roundEndListeners) {
-			listener.handle(event);
-		}
+		// Listeners update the ongoing rounds shared by all the agents
+		ParallelTickExecutor.runOrDefer(() -> {
+			for(EventHandler<RoundEnd> listener : roundEndListeners) {
+				listener.handle(event);
+			}
+		});
 	}
 	
 //	private static class RefreshThread extends Thread {
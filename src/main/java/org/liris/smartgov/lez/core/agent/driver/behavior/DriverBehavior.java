@@ -7,6 +7,7 @@ import org.liris.smartgov.lez.core.agent.driver.DriverBody;
 import org.liris.smartgov.lez.core.agent.driver.personality.Personality;
 import org.liris.smartgov.lez.core.agent.establishment.Round;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
+import org.liris.smartgov.simulator.core.agent.moving.behavior.MoverAction;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
 import org.liris.smartgov.simulator.core.events.EventHandler;
 /**
@@ -20,6 +21,7 @@ public abstract class DriverBehavior extends LezBehavior {
 	protected Collection<EventHandler<RoundDeparture>> roundDepartureListeners;
 	protected Collection<EventHandler<RoundEnd>> roundEndListeners;
 	protected Personality personality;
+	private MoverAction waitAction;
 	
 	/**
 	 * DeliveryDriverBehavior constructor.
@@ -76,6 +78,28 @@ public abstract class DriverBehavior extends LezBehavior {
 		return round;
 	}
 	
+	/**
+	 * Returns a new WAIT action, that must be used as the next action
+	 * of the agent when it enters a parking area.
+	 *
+	 * @return wait action
+	 */
+	protected MoverAction waitAction() {
+		waitAction = MoverAction.WAIT();
+		return waitAction;
+	}
+	
+	/**
+	 * Returns true if the agent waits in a parking area, i.e. if its next
+	 * action is still the last action returned by {@link #waitAction()}.
+	 * Only a delayed action of the clock can then make it leave the parking.
+	 *
+	 * @return true if the agent is waiting
+	 */
+	public boolean isWaiting() {
+		return waitAction != null && provideAction() == waitAction;
+	}
+	
 	protected abstract void triggerRoundDepartureListeners(RoundDeparture event);
 	protected abstract void triggerRoundEndListeners(RoundEnd event);
 	public abstract void setUpListeners();
@@ -3,9 +3,12 @@ package org.liris.smartgov.lez.core.agent.driver.behavior;
 
 import org.liris.smartgov.lez.core.agent.driver.DriverBody;
 import org.liris.smartgov.lez.core.agent.establishment.Round;
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.environment.graph.CachedPathCosts;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
 import org.liris.smartgov.simulator.core.environment.graph.Node;
+import org.liris.smartgov.simulator.core.environment.graph.astar.Costs;
 import org.liris.smartgov.simulator.urban.geo.agent.behavior.GeoMovingBehavior;
 import org.liris.smartgov.simulator.core.events.EventHandler;
 
@@ -17,6 +20,7 @@ import org.liris.smartgov.simulator.core.events.EventHandler;
 public abstract class LezBehavior extends GeoMovingBehavior {
 	
 	private Round round;
+	private CachedPathCosts pathCosts;
 
 	/**
 	 * LezBehavior constructor.
@@ -25,6 +29,11 @@ public abstract class LezBehavior extends GeoMovingBehavior {
 	 * retrieved from the {@link org.liris.smartgov.lez.core.environment.lez.Neighborhood#costs}
 	 * function, applied to the delivery driver's current vehicle.
 	 * </p>
+	 * <p>
+	 * In a {@link LezContext}, shortest paths are retrieved from the
+	 * context {@link org.liris.smartgov.lez.core.environment.graph.PathCache PathCache}
+	 * when they have already been computed, and put in it otherwise.
+	 * </p>
 	 *
 	 * @param agentBody delivery driver body
 	 * @param origin initial origin
@@ -39,7 +48,73 @@ public abstract class LezBehavior extends GeoMovingBehavior {
 			SmartGovContext context,
 			Neighborhood neighborhood
 			) {
-		super(agentBody, origin, destination, context, neighborhood.costs(agentBody.getVehicle()));
+		this(agentBody, origin, destination, context,
+				pathCosts(context, neighborhood.costs(agentBody.getVehicle()), origin, destination));
+	}
+	
+	private LezBehavior(
+			DriverBody agentBody,
+			Node origin,
+			Node destination,
+			SmartGovContext context,
+			Costs costs
+			) {
+		super(agentBody, origin, destination, context, costs);
+		if (costs instanceof CachedPathCosts) {
+			pathCosts = (CachedPathCosts) costs;
+			cachePlan();
+		}
+	}
+	
+	private static Costs pathCosts(SmartGovContext context, Costs costs, Node origin, Node destination) {
+		if (context instanceof LezContext && ((LezContext) context).getPathCache() != null) {
+			return new CachedPathCosts(costs, ((LezContext) context).getPathCache()).guide(origin, destination);
+		}
+		return costs;
+	}
+	
+	/**
+	 * Computes the path from origin to destination, guided by the
+	 * cached path when available. Otherwise, the computed path is
+	 * put in the cache.
+	 * 
+	 * <p>
+	 * Agents run by the
+	 * {@link org.liris.smartgov.lez.core.simulation.ParallelTickExecutor ParallelTickExecutor}
+	 * compute their paths concurrently, as when agents are built in parallel :
+	 * the planner state, i.e. the costs and the guided path, belongs to each
+	 * behavior, the graph is only read and the shared cache is synchronized.
+	 * The computed path does not depend on the order of the agents : cached
+	 * paths are only put from the plans computed by the simulator, and a guided
+	 * plan is exactly the cached one.
+	 * </p>
+	 * 
+	 * @param origin new origin
+	 * @param destination new destination
+	 */
+	@Override
+	public void refresh(Node origin, Node destination) {
+		if (pathCosts != null) {
+			pathCosts.guide(origin, destination);
+		}
+		super.refresh(origin, destination);
+		if (pathCosts != null) {
+			cachePlan();
+		}
+	}
+	
+	/*
+	 * Puts the path that has just been computed by the simulator in the
+	 * cache, if it was not guided by an already cached path.
+	 */
+	private void cachePlan() {
+		if (pathCosts.isGuided()) {
+			return;
+		}
+		DriverBody body = (DriverBody) getAgentBody();
+		if (body.getPlan() != null && body.getPlan().getNodes() != null) {
+			pathCosts.cache(body.getPlan().getNodes());
+		}
 	}
 
 }
@@ -6,6 +6,7 @@ import org.liris.smartgov.lez.core.agent.driver.DriverBody;
 import org.liris.smartgov.lez.core.agent.driver.personality.Personality;
 import org.liris.smartgov.lez.core.agent.establishment.Round;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
 import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.agent.moving.behavior.MoverAction;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
@@ -51,15 +52,20 @@ public abstract class PrivateDriverBehavior extends DriverBehavior {
 
 	@Override
 	protected void triggerRoundDepartureListeners(RoundDeparture event) {
-		for(EventHandler<RoundDeparture> listener : roundDepartureListeners) {
-			listener.handle(event);
-		}		
+		ParallelTickExecutor.runOrDefer(() -> {
+			for(EventHandler<RoundDeparture> listener : roundDepartureListeners) {
+				listener.handle(event);
+			}
+		});		
 	}
 
 	@Override
 	protected void triggerRoundEndListeners(RoundEnd event) {
-		for(EventHandler<RoundEnd> listener : roundEndListeners) {
-			listener.handle(event);
-		}		
+		// Listeners update the ongoing rounds shared by all the agents
+		ParallelTickExecutor.runOrDefer(() -> {
+			for(EventHandler<RoundEnd> listener : roundEndListeners) {
+				listener.handle(event);
+			}
+		});		
 	}	
 }
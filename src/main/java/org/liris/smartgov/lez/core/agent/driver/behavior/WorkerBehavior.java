@@ -73,7 +73,7 @@ public class WorkerBehavior extends PrivateDriverBehavior {
 		
 		// When the agent enter the parking, it waits
 		((DriverBody) getAgentBody()).addOnParkingEnteredListener((event) ->
-			nextAction = MoverAction.WAIT()
+			nextAction = waitAction()
 			);
 
 		//goes to work between 7h and 8h59
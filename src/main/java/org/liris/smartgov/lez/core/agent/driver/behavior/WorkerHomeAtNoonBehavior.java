@@ -76,7 +76,7 @@ public class WorkerHomeAtNoonBehavior extends PrivateDriverBehavior {
 		
 		// When the agent enter the parking, it waits
 		((DriverBody) getAgentBody()).addOnParkingEnteredListener((event) ->
-			nextAction = MoverAction.WAIT()
+			nextAction = waitAction()
 			);
 		
 		//goes to work between 7h and 8h59
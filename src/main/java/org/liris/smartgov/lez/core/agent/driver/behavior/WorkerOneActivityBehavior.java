@@ -75,7 +75,7 @@ public class WorkerOneActivityBehavior extends PrivateDriverBehavior {
 		
 		// When the agent enter the parking, it waits
 		((DriverBody) getAgentBody()).addOnParkingEnteredListener((event) ->
-			nextAction = MoverAction.WAIT()
+			nextAction = waitAction()
 			);
 		
 		//the departure is between 7h and 8h59
@@ -3,12 +3,15 @@ package org.liris.smartgov.lez.core.agent.driver.mover;
 import java.util.ArrayList;
 
 import org.liris.smartgov.lez.core.agent.driver.DriverBody;
+import org.liris.smartgov.lez.core.agent.driver.vehicle.Vehicle;
 import org.liris.smartgov.lez.core.copert.fields.Pollutant;
 import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
 import org.liris.smartgov.lez.core.environment.graph.PollutionIncreasedEvent;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
 import org.liris.smartgov.lez.core.simulation.files.FilePath;
 import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
 import org.liris.smartgov.lez.politic.PoliticalVar;
+import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.agent.moving.MovingAgentBody;
 import org.liris.smartgov.simulator.urban.geo.agent.GeoAgentBody;
 import org.liris.smartgov.simulator.urban.geo.agent.mover.BasicGeoMover;
@@ -89,22 +92,47 @@ public class PollutantCarMover extends CarMover {
 	 * reached (or when the agent plan has been completed).
 	 */
 	private void polluteArcs() {
-		for(Pollutant pollutant : Pollutant.values()) {
-			double emissions = 
-					((DriverBody) agentBody)
-					.getVehicle()
-					.getEmissions(pollutant, traveledDistance / time, traveledDistance);
-			for (PollutableOsmArc arc : arcsCrossed) {
-				if (emissions > 0.0) {
-					if (traveledDistance != 0) {
-						arc.increasePollution(pollutant, emissions * arc.getLength() / traveledDistance);
+		polluteArcs(
+				((DriverBody) agentBody).getVehicle(),
+				arcsCrossed.toArray(new PollutableOsmArc[arcsCrossed.size()]),
+				traveledDistance,
+				time
+				);
+	}
+	
+	/**
+	 * Computes the emissions of the vehicle on the traveled distance, and shares
+	 * them among the crossed arcs proportionally to their length.
+	 * 
+	 * @param vehicle vehicle that crossed the arcs
+	 * @param arcs crossed arcs
+	 * @param traveledDistance distance traveled on the arcs (m)
+	 * @param time time spent on the arcs (s)
+	 */
+	public static void polluteArcs(Vehicle vehicle, PollutableOsmArc[] arcs, double traveledDistance, double time) {
+		Pollutant[] pollutants = Pollutant.values();
+		double[] emissions = new double[pollutants.length];
+		for(Pollutant pollutant : pollutants) {
+			emissions[pollutant.ordinal()] = vehicle.getEmissions(pollutant, traveledDistance / time, traveledDistance);
+		}
+		double distance = traveledDistance;
+		double emissionTime = SmartGov.getRuntime().getTickCount() * SmartGov.getRuntime().getTickDuration();
+		// Emissions are computed by the agent, but shared arcs are only polluted
+		// from the simulation thread
+		ParallelTickExecutor.runOrDefer(() -> {
+			for(Pollutant pollutant : pollutants) {
+				for (PollutableOsmArc arc : arcs) {
+					if (emissions[pollutant.ordinal()] > 0.0) {
+						if (distance != 0) {
+							arc.increasePollution(pollutant, emissions[pollutant.ordinal()] * arc.getLength() / distance, emissionTime);
+						}
 					}
 				}
 			}
-		}
-		for (PollutableOsmArc arc : arcsCrossed) {
-			arc._triggerPollutionIncreasedListeners(new PollutionIncreasedEvent(arc));
-		}
+			for (PollutableOsmArc arc : arcs) {
+				arc._triggerPollutionIncreasedListeners(new PollutionIncreasedEvent(arc));
+			}
+		});
 	}
 
 }
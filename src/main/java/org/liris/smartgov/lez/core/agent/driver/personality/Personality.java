@@ -16,6 +16,8 @@ import org.liris.smartgov.lez.core.agent.establishment.preprocess.Cases;
 import org.liris.smartgov.lez.core.agent.establishment.preprocess.CasesManager;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
 import org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance;
+import org.liris.smartgov.lez.core.simulation.LezSession;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
 
 /**
  * Personality of agents. Two main parts in this personality :
@@ -94,10 +96,21 @@ public class Personality {
 	/**
 	 * Gives the decision of the agent, made by his choice object.
 	 * @return the decision.
+	 * @deprecated use {@link #getDecision(CasesManager)} with the cases manager of the simulation session
 	 */
+	@Deprecated
 	public Decision getDecision() {
-		int[] counters = CasesManager.getCounter(activity, cases);
-		CasesManager.addCase(cases, true, activity);
+		return getDecision(LezSession.getCurrent().getCasesManager());
+	}
+	
+	/**
+	 * Gives the decision of the agent, made by his choice object.
+	 * @param casesManager cases counters of the simulation.
+	 * @return the decision.
+	 */
+	public Decision getDecision(CasesManager casesManager) {
+		int[] counters = casesManager.counter(activity, cases);
+		casesManager.add(cases, true, activity);
 		double proportion = ((double)counters[1]) / ((double)counters[0]);
 		
 		Decision decision = choice.getDecision(cases, proportion);
@@ -169,9 +182,17 @@ public class Personality {
 	 * Give the satisfaction to the neighborhoods that caused the decision.
 	 */
 	public void giveSatisfactionToNeighborhoods() {
-		for ( Neighborhood neighborhood : causeNeighborhoods) {
-			neighborhood.giveSatisfaction( (double) satisfactionScore / causeNeighborhoods.size(), changedVehicle, changedMobility, hasFrauded );
-		}
+		List<Neighborhood> neighborhoods = causeNeighborhoods;
+		double satisfaction = (double) satisfactionScore / neighborhoods.size();
+		boolean changedVehicle = this.changedVehicle;
+		boolean changedMobility = this.changedMobility;
+		boolean hasFrauded = this.hasFrauded;
+		// Neighborhoods are shared by all the agents
+		ParallelTickExecutor.runOrDefer(() -> {
+			for ( Neighborhood neighborhood : neighborhoods) {
+				neighborhood.giveSatisfaction( satisfaction, changedVehicle, changedMobility, hasFrauded );
+			}
+		});
 	}
 	
 	
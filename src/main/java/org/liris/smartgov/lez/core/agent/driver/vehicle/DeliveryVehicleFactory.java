@@ -204,11 +204,11 @@ public class DeliveryVehicleFactory {
 		 * The final selector is returned by completeTree.getPath().
 		 */		
 		CopertTree completeTree = copertParser.getCopertTree()
-				.select(copertSelector.get(CopertHeader.CATEGORY).matcher()) // "Category"
-				.select(copertSelector.get(CopertHeader.FUEL).matcher()) // "Fuel"
-				.select(copertSelector.get(CopertHeader.EURO_STANDARD).matcher()) // "Euro Standard"
-				.select(copertSelector.get(CopertHeader.SEGMENT).matcher()) // "Segment"
-				.select(copertSelector.get(CopertHeader.TECHNOLOGY).matcher()); // "Technology"
+				.select(copertSelector.get(CopertHeader.CATEGORY)) // "Category"
+				.select(copertSelector.get(CopertHeader.FUEL)) // "Fuel"
+				.select(copertSelector.get(CopertHeader.EURO_STANDARD)) // "Euro Standard"
+				.select(copertSelector.get(CopertHeader.SEGMENT)) // "Segment"
+				.select(copertSelector.get(CopertHeader.TECHNOLOGY)); // "Technology"
 		
 		// The complete selector (no more RANDOM fields)
 		CopertSelector finalSelector = completeTree.getPath();
@@ -31,6 +31,7 @@ public class Vehicle implements Comparable<Vehicle> {
 	private EuroNorm euroNorm;
 	private Technology technology;
 	private Copert copert;
+	private CopertParameters[] emissionParameters;
 	
 	private CritAir critAir;
 	
@@ -146,11 +147,7 @@ public class Vehicle implements Comparable<Vehicle> {
 	 * @return computed emissions (g)
 	 */
 	public double getEmissions(Pollutant pollutant, double meanSpeed, double distance) {
-		CopertParameters copertParameters = copert.getCopertParameters(
-				pollutant,
-				Mode.URBAN_PEAK,
-				RoadSlope._0,
-				Load._50);
+		CopertParameters copertParameters = getEmissionParameters()[pollutant.ordinal()];
 		if (copertParameters != null) {
 			/*
 			 * Conversions needed because COPERT works in km/h, g/km
@@ -160,6 +157,27 @@ public class Vehicle implements Comparable<Vehicle> {
 		return 0;
 	}
 
+	/*
+	 * The COPERT parameters used to compute emissions only depend on the
+	 * vehicle characteristics, so they are resolved once for all the
+	 * pollutants, the first time they are required. Entries are indexed by
+	 * Pollutant.ordinal(), and are null when no parameters are available.
+	 */
+	private CopertParameters[] getEmissionParameters() {
+		if (emissionParameters == null) {
+			CopertParameters[] parameters = new CopertParameters[Pollutant.values().length];
+			for (Pollutant pollutant : Pollutant.values()) {
+				parameters[pollutant.ordinal()] = copert.getCopertParameters(
+						pollutant,
+						Mode.URBAN_PEAK,
+						RoadSlope._0,
+						Load._50);
+			}
+			emissionParameters = parameters;
+		}
+		return emissionParameters;
+	}
+
 	@Override
 	public String toString() {
 		return "DeliveryVehicle [category=" + category + ", fuel=" + fuel + ", vehicleSegment=" + segment
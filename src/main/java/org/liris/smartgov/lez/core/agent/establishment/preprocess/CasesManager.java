@@ -5,19 +5,28 @@ import java.util.Map;
 
 import org.liris.smartgov.lez.core.agent.establishment.ST8;
 import org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance;
+import org.liris.smartgov.lez.core.simulation.LezSession;
 
 /**
  * Counts all the agents in all cases in order to create proportions.
+ * Each simulation has its own counters, available from its {@link LezSession}.
  * @author alban
  *
  */
 public class CasesManager {
-	static Map<Cases, Map<String, int[]>> casesCounter = new HashMap<>();
+	private final Map<Cases, Map<String, int[]>> casesCounter = new HashMap<>();
+	
+	/**
+	 * CasesManager constructor. All the counters are initialised to 0.
+	 */
+	public CasesManager() {
+		reset();
+	}
 	
 	/**
 	 * Initialise the counters.
 	 */
-	public static void init() {
+	public void reset() {
 		for (Cases c : Cases.values()) {
 			Map<String, int[]> type = new HashMap<>();
 			type.put("Private", new int[2]);
@@ -32,7 +41,7 @@ public class CasesManager {
 	 * @param c considered case.
 	 * @return corresponding counter.
 	 */
-	public static int[] getCounter(ST8 activity, Cases c) {
+	public int[] counter(ST8 activity, Cases c) {
 		if (activity == ST8.PRIVATE_HABITATION) {
 			return casesCounter.get(c).get("Private");
 		}
@@ -47,7 +56,7 @@ public class CasesManager {
 	 * @param hasChosen says if the agent has made his choice.
 	 * @param activity activity of the agent.
 	 */
-	public static void addCase (Cases c, boolean hasChosen, ST8 activity) {
+	public void add(Cases c, boolean hasChosen, ST8 activity) {
 		int caseToIncrease;
 		if (! hasChosen) {
 			caseToIncrease = 0;
@@ -74,8 +83,55 @@ public class CasesManager {
 	 * @param hasChosen says if the agent has made his choice.
 	 * @param activity activity of the agent.
 	 */
+	public void add(Surveillance surveillance, boolean forbidden, boolean hasChosen, ST8 activity) {
+		add(getCase(surveillance, forbidden), hasChosen, activity);
+	}
+	
+	/**
+	 * Initialise the counters of the current session.
+	 * @deprecated use {@link #reset()} on the cases manager of the simulation session
+	 */
+	@Deprecated
+	public static void init() {
+		LezSession.getCurrent().getCasesManager().reset();
+	}
+	
+	/**
+	 * Returns the counter of the current session for a case and an activity.
+	 * @param activity agent activity.
+	 * @param c considered case.
+	 * @return corresponding counter.
+	 * @deprecated use {@link #counter(ST8, Cases)} on the cases manager of the simulation session
+	 */
+	@Deprecated
+	public static int[] getCounter(ST8 activity, Cases c) {
+		return LezSession.getCurrent().getCasesManager().counter(activity, c);
+	}
+	
+	/**
+	 * Add case to the counters of the current session.
+	 * @param c considered case.
+	 * @param hasChosen says if the agent has made his choice.
+	 * @param activity activity of the agent.
+	 * @deprecated use {@link #add(Cases, boolean, ST8)} on the cases manager of the simulation session
+	 */
+	@Deprecated
+	public static void addCase (Cases c, boolean hasChosen, ST8 activity) {
+		LezSession.getCurrent().getCasesManager().add(c, hasChosen, activity);
+	}
+	
+	/**
+	 * Add case to the counters of the current session.
+	 *
+	 * @param surveillance allows to compute the case.
+	 * @param forbidden allows to compute the case.
+	 * @param hasChosen says if the agent has made his choice.
+	 * @param activity activity of the agent.
+	 * @deprecated use {@link #add(Surveillance, boolean, boolean, ST8)} on the cases manager of the simulation session
+	 */
+	@Deprecated
 	public static void addCase (Surveillance surveillance, boolean forbidden, boolean hasChosen, ST8 activity) {
-		addCase(getCase(surveillance, forbidden), hasChosen, activity);
+		LezSession.getCurrent().getCasesManager().add(surveillance, forbidden, hasChosen, activity);
 	}
 	
 	/**
@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.liris.smartgov.lez.core.agent.driver.behavior.DriverBehavior;
 import org.liris.smartgov.lez.core.agent.driver.personality.Decision;
@@ -30,10 +31,14 @@ public class LezPreprocessor {
 	
 	private Environment environment;
 	private CopertParser parser;
+	private Map<String, Vehicle> replacementVehicles;
+	private CasesManager casesManager;
 	
-	public LezPreprocessor(Environment environment, CopertParser parser) {
+	public LezPreprocessor(Environment environment, CopertParser parser, CasesManager casesManager) {
 		this.environment = environment;
 		this.parser = parser;
+		this.casesManager = casesManager;
+		this.replacementVehicles = new HashMap<>();
 	}
 
 	public Map<String, Integer> applyCases(Establishment establishment) {
@@ -46,7 +51,7 @@ public class LezPreprocessor {
 		for(Vehicle vehicle : establishment.getFleet().values()) {
 			
 			Personality personality = establishment.getPersonalities().get(vehicle.getId());
-			Decision decision = personality.getDecision();
+			Decision decision = personality.getDecision(casesManager);
 			if(decision == Decision.CHANGE_VEHICLE) {
 				CopertSelector selector = new CopertSelector();
 				selector.put(CopertHeader.CATEGORY, vehicle.getCategory());
@@ -59,11 +64,15 @@ public class LezPreprocessor {
 				
 				selector.put(CopertHeader.EURO_STANDARD, EuroNorm.EURO6);
 				
-				Vehicle newVehicle =
-					DeliveryVehicleFactory.generateVehicle(
-						selector,
-						parser,
-						vehicle.getId()
+				// The generated vehicle only depends on the selector, so it is
+				// reused by the next reloads
+				Vehicle newVehicle = replacementVehicles.computeIfAbsent(
+						establishment.getId() + ":" + vehicle.getId(),
+						key -> DeliveryVehicleFactory.generateVehicle(
+							selector,
+							parser,
+							vehicle.getId()
+							)
 						);
 				
 				establishment.replaceVehicle(newVehicle.getId(), newVehicle);
@@ -88,62 +97,115 @@ public class LezPreprocessor {
 	}
 	
 	public void fillCases(Establishment establishment) {
-
-
+		fillCases(establishment, null);
+	}
+	
+	/**
+	 * Computes the case of each vehicle of the establishment fleet, and
+	 * registers it in the {@link CasesManager}.
+	 * 
+	 * <p>
+	 * If a set of changed neighborhoods is specified, only the cases of
+	 * the vehicles whose establishment or round establishments belong to
+	 * one of those neighborhoods are computed again. The other vehicles
+	 * can't change of case, so their previous case is registered again.
+	 * </p>
+	 * 
+	 * @param establishment establishment to process
+	 * @param changedNeighborhoods ids of the neighborhoods whose configuration
+	 * has changed since the last call, or null to compute all the cases
+	 * @return number of computed cases
+	 */
+	public int fillCases(Establishment establishment, Set<String> changedNeighborhoods) {
+		int computedCases = 0;
 		for(Vehicle vehicle : establishment.getFleet().values()) {
-			Round round = establishment.getRounds().get(vehicle.getId());
-			
-			//stocks the neighborhoods that forbid the vehicle and has the highest level of surveillance
-			List<Neighborhood> causeNeighborhoods = new ArrayList<>();
-			
-			//counts the number of places in the journey where the vehicle is forbidden
-			int placesVehicleForbidden = 0;
-			Surveillance surveillance = Surveillance.NO_SURVEILLANCE;
-			
-			if(! environment.getNeighborhood(establishment.getClosestOsmNode()).isAllowed(vehicle)) {
-				//if the origin establishment does not allow the vehicle
-				placesVehicleForbidden ++;
-				surveillance = environment.getNeighborhood(establishment.getClosestOsmNode()).getSurveillance();
-				causeNeighborhoods.add(environment.getNeighborhood(establishment.getClosestOsmNode()));
+			Personality personality = establishment.getPersonalities().get(vehicle.getId());
+			if (changedNeighborhoods == null
+					|| personality.getCase() == null
+					|| isAffected(establishment, vehicle, changedNeighborhoods)) {
+				fillCase(establishment, vehicle);
+				computedCases++;
 			}
-			
-			
-			int i = 0;
-			while( i < round.getEstablishments().size()) {
-				Neighborhood neighborhood = environment.getNeighborhood(round.getEstablishments().get(i).getClosestOsmNode());
-				if (! neighborhood.isAllowed(vehicle) ) {
-					//if the establishments of the round do not allow the vehicle
-					placesVehicleForbidden ++;
-					if (neighborhood.getSurveillance().ordinal() > surveillance.ordinal()) {
-						surveillance = neighborhood.getSurveillance();
-						//we reset the cause neighborhoods and add this one
-						causeNeighborhoods = new ArrayList<>();
-						causeNeighborhoods.add(neighborhood);
-					}
-					else if ( neighborhood.getSurveillance().ordinal() == surveillance.ordinal() ) {
-						causeNeighborhoods.add(neighborhood);
-					}
-				}
-				i++;
+			else {
+				casesManager.add(personality.getCase(), false, establishment.getActivity());
 			}
-			
-			//copert file does not have any critair1 for heavy duty truck, so we suppose they're accepted even if the criteria is CRITAIR_1
-			if (vehicle.getCategory() == VehicleCategory.HEAVY_DUTY_TRUCK && vehicle.getCritAir() == CritAir.CRITAIR_2) {
-				placesVehicleForbidden = 0;
-				if ( surveillance.ordinal() < Surveillance.CHEAP_TOLL.ordinal() ) {
-					causeNeighborhoods.clear();
+		}
+		return computedCases;
+	}
+	
+	/**
+	 * Returns true if the origin of the vehicle round or one of its
+	 * establishments belongs to one of the specified neighborhoods.
+	 * 
+	 * @param establishment origin establishment
+	 * @param vehicle vehicle performing the round
+	 * @param neighborhoods neighborhood ids
+	 * @return true if the case of the vehicle depends on the specified neighborhoods
+	 */
+	public boolean isAffected(Establishment establishment, Vehicle vehicle, Set<String> neighborhoods) {
+		if (neighborhoods.contains(environment.getNeighborhood(establishment.getClosestOsmNode()).getID())) {
+			return true;
+		}
+		for (Establishment roundEstablishment : establishment.getRounds().get(vehicle.getId()).getEstablishments()) {
+			if (neighborhoods.contains(environment.getNeighborhood(roundEstablishment.getClosestOsmNode()).getID())) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void fillCase(Establishment establishment, Vehicle vehicle) {
+		Round round = establishment.getRounds().get(vehicle.getId());
+		
+		//stocks the neighborhoods that forbid the vehicle and has the highest level of surveillance
+		List<Neighborhood> causeNeighborhoods = new ArrayList<>();
+		
+		//counts the number of places in the journey where the vehicle is forbidden
+		int placesVehicleForbidden = 0;
+		Surveillance surveillance = Surveillance.NO_SURVEILLANCE;
+		
+		if(! environment.getNeighborhood(establishment.getClosestOsmNode()).isAllowed(vehicle)) {
+			//if the origin establishment does not allow the vehicle
+			placesVehicleForbidden ++;
+			surveillance = environment.getNeighborhood(establishment.getClosestOsmNode()).getSurveillance();
+			causeNeighborhoods.add(environment.getNeighborhood(establishment.getClosestOsmNode()));
+		}
+		
+		
+		int i = 0;
+		while( i < round.getEstablishments().size()) {
+			Neighborhood neighborhood = environment.getNeighborhood(round.getEstablishments().get(i).getClosestOsmNode());
+			if (! neighborhood.isAllowed(vehicle) ) {
+				//if the establishments of the round do not allow the vehicle
+				placesVehicleForbidden ++;
+				if (neighborhood.getSurveillance().ordinal() > surveillance.ordinal()) {
+					surveillance = neighborhood.getSurveillance();
+					//we reset the cause neighborhoods and add this one
+					causeNeighborhoods = new ArrayList<>();
+					causeNeighborhoods.add(neighborhood);
+				}
+				else if ( neighborhood.getSurveillance().ordinal() == surveillance.ordinal() ) {
+					causeNeighborhoods.add(neighborhood);
 				}
 			}
-			
-			
-			//if no neighborhood has been added, the satisfaction will be attributed to the origin neighborhood
-			if ( causeNeighborhoods.isEmpty() ) {
-				causeNeighborhoods.add(environment.getNeighborhood(establishment.getClosestOsmNode()));
+			i++;
+		}
+		
+		//copert file does not have any critair1 for heavy duty truck, so we suppose they're accepted even if the criteria is CRITAIR_1
+		if (vehicle.getCategory() == VehicleCategory.HEAVY_DUTY_TRUCK && vehicle.getCritAir() == CritAir.CRITAIR_2) {
+			placesVehicleForbidden = 0;
+			if ( surveillance.ordinal() < Surveillance.CHEAP_TOLL.ordinal() ) {
+				causeNeighborhoods.clear();
 			}
-			establishment.getPersonalities().get(vehicle.getId()).setCauseNeighborhoods(causeNeighborhoods);
-			establishment.getPersonalities().get(vehicle.getId()).setCase(CasesManager.getCase(surveillance, placesVehicleForbidden > 0));
-			CasesManager.addCase(surveillance, placesVehicleForbidden > 0, false, establishment.getActivity());
-			
+		}
+		
+		
+		//if no neighborhood has been added, the satisfaction will be attributed to the origin neighborhood
+		if ( causeNeighborhoods.isEmpty() ) {
+			causeNeighborhoods.add(environment.getNeighborhood(establishment.getClosestOsmNode()));
+		}
+		establishment.getPersonalities().get(vehicle.getId()).setCauseNeighborhoods(causeNeighborhoods);
+		establishment.getPersonalities().get(vehicle.getId()).setCase(CasesManager.getCase(surveillance, placesVehicleForbidden > 0));
+		casesManager.add(surveillance, placesVehicleForbidden > 0, false, establishment.getActivity());
 	}
 }
-}
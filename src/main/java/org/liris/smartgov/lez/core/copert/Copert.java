@@ -1,17 +1,10 @@
 package org.liris.smartgov.lez.core.copert;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-
 import org.liris.smartgov.lez.core.copert.fields.CopertField;
 import org.liris.smartgov.lez.core.copert.fields.Load;
 import org.liris.smartgov.lez.core.copert.fields.Mode;
 import org.liris.smartgov.lez.core.copert.fields.Pollutant;
 import org.liris.smartgov.lez.core.copert.fields.RoadSlope;
-import org.liris.smartgov.lez.core.copert.tableParser.CopertFieldNotFoundException;
 import org.liris.smartgov.lez.core.copert.tableParser.CopertHeader;
 import org.liris.smartgov.lez.core.copert.tableParser.CopertTree;
 
@@ -24,7 +17,7 @@ import org.liris.smartgov.lez.core.copert.tableParser.CopertTree;
  */
 public class Copert {
 
-	private HashMap<Pollutant, CopertTree> copertParameters;
+	private CopertTree[] copertParameters;
 	
 	/**
 	 * Build copertParameters for each {@link org.liris.smartgov.lez.core.copert.fields.Pollutant Pollutant} 
@@ -38,20 +31,10 @@ public class Copert {
 		if(!completeTree.getLevel().equals(CopertHeader.POLLUTANT.columnName())) {
 			throw new IllegalArgumentException("The specified tree level must be pollutant. Current is " + completeTree.getLevel());
 		}
-		copertParameters = new HashMap<>();
+		copertParameters = new CopertTree[Pollutant.values().length];
 		
 		for(Pollutant pollutant : Pollutant.values()) {
-			CopertTree pollutantSubTree;
-			try {
-				pollutantSubTree = completeTree.select(pollutant.matcher());
-			}
-			catch(CopertFieldNotFoundException e) {
-				pollutantSubTree = null;
-			}
-			copertParameters.put(
-					pollutant,
-					pollutantSubTree
-					);
+			copertParameters[pollutant.ordinal()] = completeTree.find(pollutant);
 		}
 	}
 	
@@ -65,13 +48,12 @@ public class Copert {
 	 * @throws IllegalStateException if the COPERT parameters actually depend on other variables.
 	 */
 	public CopertParameters getCopertParameters(Pollutant pollutant) {
-		if(!copertParameters.get(pollutant).isSingleLine()) {
+		CopertTree finalTree = copertParameters[pollutant.ordinal()];
+		if(!finalTree.isSingleLine()) {
 			throw new IllegalStateException("Multiple entries correspond to the pollutant " + pollutant);
 		}
-		CopertTree finalTree = copertParameters.get(pollutant);
-		Map<String, String> finalLine = finalTree.getSubTable().getLine();
 
-		return getCopertParameters(finalLine);
+		return finalTree.getCopertParameters(0);
 	}
 	
 	/**
@@ -86,14 +68,12 @@ public class Copert {
 	 * @throws IllegalStateException if the COPERT parameters actually depend on other variables.
 	 */
 	public CopertParameters getCopertParameters(Pollutant pollutant, Mode mode) {
-		CopertTree selection = copertParameters.get(pollutant).select(mode.matcher());
+		CopertTree selection = copertParameters[pollutant.ordinal()].select(mode);
 		if(!selection.isSingleLine()) {
 			throw new IllegalStateException("Multiple entries correspond to mode " + mode + " for pollutant " + pollutant);
 		}
-		
-		Map<String, String> finalLine = selection.getSubTable().getLine();
 
-		return getCopertParameters(finalLine);
+		return selection.getCopertParameters(0);
 	}
 	
 	/**
@@ -109,10 +89,10 @@ public class Copert {
 	 * @throws IllegalStateException if the COPERT parameters actually depend on other variables.
 	 */
 	public CopertParameters getCopertParameters(Pollutant pollutant, RoadSlope roadSlope, Load load) {
-		CopertTree parameters = copertParameters.get(pollutant)
+		CopertTree parameters = copertParameters[pollutant.ordinal()]
 				.select() // Select the only mode that should be available (none...)
-				.select(roadSlope.matcher()) // Road slope, doesn't seem to be used
-				.select(load.matcher());
+				.select(roadSlope) // Road slope, doesn't seem to be used
+				.select(load);
 
 		if(!parameters.isSingleLine()) {
 			throw new IllegalStateException(
@@ -122,9 +102,7 @@ public class Copert {
 					);
 		}
 		
-		Map<String, String> finalLine = parameters.getSubTable().getLine(0);
-
-		return getCopertParameters(finalLine);
+		return parameters.getCopertParameters(0);
 	}
 	
 	/**
@@ -142,21 +120,14 @@ public class Copert {
 	 * @return Copert parameters
 	 */
 	public CopertParameters getCopertParameters(Pollutant pollutant, Mode mode, RoadSlope roadSlope, Load load) {
-		CopertTree parameters = copertParameters.get(pollutant);
+		CopertTree parameters = copertParameters[pollutant.ordinal()];
 		if(parameters == null) {
 			return null;
 		}
-		List<CopertField> selectors = new ArrayList<>();
-		selectors.add(mode);
-		selectors.add(roadSlope);
-		selectors.add(load);
-		Iterator<CopertField> selectorsIterator = selectors.iterator();
-		while(!parameters.isSingleLine() && selectorsIterator.hasNext()) {
-			CopertTree nextLevel;
-			try {
-				nextLevel = parameters.select(selectorsIterator.next().matcher());
-			}
-			catch (CopertFieldNotFoundException e) {
+		CopertField[] selectors = {mode, roadSlope, load};
+		for(int i = 0; i < selectors.length && !parameters.isSingleLine(); i++) {
+			CopertTree nextLevel = parameters.find(selectors[i]);
+			if (nextLevel == null) {
 				nextLevel = parameters.select();
 			}
 			parameters = nextLevel;
@@ -164,23 +135,6 @@ public class Copert {
 		
 		// If really we still have multiple lines there, the first line will be selected.
 		// But this should never occur.
-		Map<String, String> finalLine = parameters.getSubTable().getLine(0);
-		
-		return getCopertParameters(finalLine);
-	}
-	
-	private CopertParameters getCopertParameters(Map<String, String> copertLine) {
-		return new CopertParameters(
-				Double.valueOf(copertLine.get(CopertHeader.ALPHA.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.BETA.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.GAMMA.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.DELTA.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.EPSILON.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.ZITA.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.HTA.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.REDUCTION_FACTOR.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.MIN_SPEED.columnName())),
-				Double.valueOf(copertLine.get(CopertHeader.MAX_SPEED.columnName()))
-				);
+		return parameters.getCopertParameters(0);
 	}
 }
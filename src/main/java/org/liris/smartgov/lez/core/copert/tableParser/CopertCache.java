@@ -0,0 +1,214 @@
+package org.liris.smartgov.lez.core.copert.tableParser;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary pre-compiled representation of a {@link CopertTable}.
+ *
+ * <p>
+ * A cache file contains the SHA-256 hash of the CSV file it has been compiled
+ * from, the column names, a dictionary of all the distinct cell values, the
+ * cells as dictionary indexes, and the pre-parsed parameters block.
+ * Cache files are memory-mapped when loaded.
+ * </p>
+ *
+ * <p>
+ * By default, the cache of a <code>table.csv</code> file is expected at
+ * <code>table.csv.bin</code>, see {@link #defaultCacheFile(File)}.
+ * </p>
+ *
+ */
+public class CopertCache {
+
+	/**
+	 * Extension appended to the CSV file name to get the default cache file.
+	 */
+	public static final String EXTENSION = ".bin";
+
+	private static final int MAGIC = 0x43505254; // "CPRT"
+	private static final int VERSION = 1;
+
+	private CopertCache() {
+	}
+
+	/**
+	 * Returns the default cache file of the given CSV Copert table.
+	 *
+	 * @param copertTable CSV Copert table
+	 * @return default cache file
+	 */
+	public static File defaultCacheFile(File copertTable) {
+		return new File(copertTable.getPath() + EXTENSION);
+	}
+
+	/**
+	 * Computes the SHA-256 hash of the given file.
+	 *
+	 * @param file file to hash
+	 * @return file hash
+	 * @throws IOException if the file can't be read
+	 */
+	public static byte[] hash(File file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		try (InputStream in = new FileInputStream(file)) {
+			byte[] buffer = new byte[64 * 1024];
+			int read;
+			while((read = in.read(buffer)) > 0) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	/**
+	 * Writes the given table to a binary cache file.
+	 *
+	 * @param table table to write
+	 * @param sourceHash hash of the CSV file from which the table has been parsed
+	 * @param cacheFile output file
+	 * @throws IOException if the cache file can't be written
+	 */
+	public static void write(CopertTable table, byte[] sourceHash, File cacheFile) throws IOException {
+		String[][] columns = table.columns();
+
+		// Dictionary of distinct values
+		Map<String, Integer> dictionary = new HashMap<>();
+		String[] values = new String[16];
+		for (String[] column : columns) {
+			for (String value : column) {
+				if (!dictionary.containsKey(value)) {
+					if (dictionary.size() == values.length) {
+						values = Arrays.copyOf(values, 2 * values.length);
+					}
+					values[dictionary.size()] = value;
+					dictionary.put(value, dictionary.size());
+				}
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(cacheFile)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(sourceHash.length);
+			out.write(sourceHash);
+
+			out.writeInt(table.columnCount());
+			for (int column = 0; column < table.columnCount(); column++) {
+				writeString(out, table.columnName(column));
+			}
+
+			out.writeInt(dictionary.size());
+			for (int i = 0; i < dictionary.size(); i++) {
+				writeString(out, values[i]);
+			}
+
+			out.writeInt(table.rowCount());
+			for (String[] column : columns) {
+				for (String value : column) {
+					out.writeInt(dictionary.get(value));
+				}
+			}
+
+			double[] parameters = table.parameters();
+			out.writeInt(parameters.length);
+			for (double parameter : parameters) {
+				out.writeDouble(parameter);
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Loads a table from a binary cache file.
+	 *
+	 * <p>
+	 * Returns null if the cache file does not exist, is invalid, or if
+	 * it has not been compiled from a file with the expected hash.
+	 * </p>
+	 *
+	 * @param cacheFile cache file
+	 * @param expectedHash hash of the CSV file that the cache must correspond to
+	 * @return loaded table, or null if the cache is missing or stale
+	 * @throws IOException if the cache file can't be read
+	 */
+	public static CopertTable read(File cacheFile, byte[] expectedHash) throws IOException {
+		if (!cacheFile.isFile()) {
+			return null;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+				FileChannel channel = file.getChannel()) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			try {
+				if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+					return null;
+				}
+				byte[] sourceHash = new byte[buffer.getInt()];
+				buffer.get(sourceHash);
+				if (!Arrays.equals(sourceHash, expectedHash)) {
+					return null;
+				}
+
+				String[] columnNames = new String[buffer.getInt()];
+				for (int column = 0; column < columnNames.length; column++) {
+					columnNames[column] = readString(buffer);
+				}
+
+				String[] values = new String[buffer.getInt()];
+				for (int i = 0; i < values.length; i++) {
+					values[i] = readString(buffer);
+				}
+
+				int rowCount = buffer.getInt();
+				String[][] columns = new String[columnNames.length][rowCount];
+				for (String[] column : columns) {
+					for (int row = 0; row < rowCount; row++) {
+						column[row] = values[buffer.getInt()];
+					}
+				}
+
+				double[] parameters = new double[buffer.getInt()];
+				buffer.asDoubleBuffer().get(parameters);
+
+				return new CopertTable(columnNames, columns, parameters);
+			}
+			catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+				// Truncated or corrupted file
+				return null;
+			}
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
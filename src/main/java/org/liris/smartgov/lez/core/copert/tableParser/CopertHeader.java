@@ -1,9 +1,21 @@
 package org.liris.smartgov.lez.core.copert.tableParser;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import org.liris.smartgov.lez.core.copert.fields.CopertField;
 import org.liris.smartgov.lez.core.copert.fields.EuroNorm;
 import org.liris.smartgov.lez.core.copert.fields.Fuel;
+import org.liris.smartgov.lez.core.copert.fields.HeavyDutyTrucksSegment;
+import org.liris.smartgov.lez.core.copert.fields.LightWeightVehicleSegment;
+import org.liris.smartgov.lez.core.copert.fields.Load;
+import org.liris.smartgov.lez.core.copert.fields.Mode;
+import org.liris.smartgov.lez.core.copert.fields.PassengerCarsSegment;
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
 import org.liris.smartgov.lez.core.copert.fields.RandomField;
+import org.liris.smartgov.lez.core.copert.fields.RoadSlope;
+import org.liris.smartgov.lez.core.copert.fields.Technology;
 import org.liris.smartgov.lez.core.copert.fields.VehicleCategory;
 
 public enum CopertHeader {
@@ -55,6 +67,53 @@ public enum CopertHeader {
 		}
 	}
 	
+	/**
+	 * Returns all the Copert fields that can be used to select
+	 * an entry of the given header, excluding random selectors.
+	 *
+	 * @param header header type
+	 * @return available fields, or an empty array if the header
+	 * does not correspond to Copert fields
+	 */
+	public static CopertField[] fields(CopertHeader header) {
+		switch(header) {
+		case CATEGORY:
+			return withoutRandom(VehicleCategory.values());
+		case FUEL:
+			return withoutRandom(Fuel.values());
+		case SEGMENT:
+			List<CopertField> segments = new ArrayList<>();
+			segments.addAll(Arrays.asList(withoutRandom(LightWeightVehicleSegment.values())));
+			segments.addAll(Arrays.asList(withoutRandom(PassengerCarsSegment.values())));
+			segments.addAll(Arrays.asList(withoutRandom(HeavyDutyTrucksSegment.values())));
+			return segments.toArray(new CopertField[segments.size()]);
+		case EURO_STANDARD:
+			return withoutRandom(EuroNorm.values());
+		case TECHNOLOGY:
+			return withoutRandom(Technology.values());
+		case POLLUTANT:
+			return withoutRandom(Pollutant.values());
+		case MODE:
+			return withoutRandom(Mode.values());
+		case ROAD_SLOPE:
+			return withoutRandom(RoadSlope.values());
+		case LOAD:
+			return withoutRandom(Load.values());
+		default:
+			return new CopertField[0];
+		}
+	}
+
+	private static CopertField[] withoutRandom(CopertField[] fields) {
+		List<CopertField> selectors = new ArrayList<>();
+		for(CopertField field : fields) {
+			if(!field.matcher().equals(RandomField.RANDOM.matcher())) {
+				selectors.add(field);
+			}
+		}
+		return selectors.toArray(new CopertField[selectors.size()]);
+	}
+
 	public static CopertHeader getValue(String string) {
 		for(CopertHeader value : values()){
 			if (value.columnName().equals(string)) {
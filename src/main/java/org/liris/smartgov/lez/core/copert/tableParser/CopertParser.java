@@ -14,6 +14,8 @@ import java.util.regex.Pattern;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.liris.smartgov.lez.core.copert.fields.CopertField;
 
 /**
@@ -24,22 +26,40 @@ import org.liris.smartgov.lez.core.copert.fields.CopertField;
  */
 public class CopertParser {
 	
-	private Random random;
+	private static final Logger logger = LogManager.getLogger(CopertParser.class);
+	
 	private CopertTree copertTree;
 	
 	/**
 	 * Loads and parse a CopertTree from the input table.
-	 * The specified random instance will be used in all the
-	 * generated Copert trees from this instance, to perform
-	 * all the random {@link CopertTree#select()} operations.
-	 * Can be useful to parse data with a given seed.
+	 * The resulting tree is immutable, and can safely be shared between
+	 * simulations and threads : consider using the {@link CopertRepository}
+	 * rather than this constructor to load each table only once.
+	 * 
+	 * <p>
+	 * If a valid {@link CopertCache#defaultCacheFile(File) binary cache}
+	 * compiled from the current content of the CSV file is available,
+	 * the table is loaded from the cache. Otherwise, the CSV file is parsed.
+	 * </p>
+	 * 
+	 * @param copertParametersFile copert table file path
+	 */
+	public CopertParser(File copertParametersFile) {
+		copertTree  = buildTree(loadTable(copertParametersFile));
+	}
+	
+	/**
+	 * Same as {@link #CopertParser(File)}.
 	 * 
 	 * @param copertParametersFile copert table file path
-	 * @param random user defined random instance
+	 * @param random ignored, {@link CopertTree#select()} operations
+	 * are deterministic
+	 * @deprecated Copert trees do not depend on any random instance anymore,
+	 * use {@link #CopertParser(File)} or {@link CopertRepository#load(File)}.
 	 */
+	@Deprecated
 	public CopertParser(File copertParametersFile, Random random) {
-		this.random = random;
-		copertTree  = parseFile(copertParametersFile);
+		this(copertParametersFile);
 	}
 	
 	/**
@@ -49,10 +69,29 @@ public class CopertParser {
 		return copertTree;
 	}
 	
-	private CopertTree parseFile(File file) {
-		// Original table
-		SubTable csv = new SubTable();
-		
+	private static CopertTable loadTable(File file) {
+		File cacheFile = CopertCache.defaultCacheFile(file);
+		if(cacheFile.isFile()) {
+			try {
+				CopertTable table = CopertCache.read(cacheFile, CopertCache.hash(file));
+				if(table != null) {
+					return table;
+				}
+				logger.warn("Stale Copert cache " + cacheFile + ", parsing " + file);
+			} catch (IOException e) {
+				logger.warn("Unable to read Copert cache " + cacheFile + ", parsing " + file, e);
+			}
+		}
+		return parseTable(file);
+	}
+	
+	/**
+	 * Parses the specified CSV Copert table.
+	 * 
+	 * @param file CSV Copert table
+	 * @return parsed table, or null if the file can't be read
+	 */
+	public static CopertTable parseTable(File file) {
 		try {
 			Reader in = new FileReader(file);
 			Iterable<CSVRecord> records = CSVFormat.DEFAULT.parse(in);
@@ -80,24 +119,24 @@ public class CopertParser {
 			for(String header : headers) {
 				Matcher m = pattern.matcher(header);
 				m.matches();
-				String cleanHeader = m.group(1);
-				cleanHeaders.add(cleanHeader);
-				csv.put(cleanHeader, new ArrayList<>());
+				cleanHeaders.add(m.group(1));
 			}
 			
+			ArrayList<String[]> rows = new ArrayList<>();
 			while(recordsIterator.hasNext()) {
 				CSVRecord record = recordsIterator.next();
+				String[] row = new String[cleanHeaders.size()];
 				for(int i = 0; i < cleanHeaders.size(); i++) {
 					Matcher m = pattern.matcher(record.get(i));
 					m.matches();
-					csv.get(cleanHeaders.get(i)).add(
-							m.group(1)
-							.replace(",", ".") // Replace comma with point, because in the original table decimal values are represented with commas.
-							);
+					row[i] = m.group(1)
+							.replace(",", "."); // Replace comma with point, because in the original table decimal values are represented with commas.
 				}
+				rows.add(row);
 			}
+			in.close();
 
-			return parseSubTable(cleanHeaders, "", csv, new CopertSelector());
+			return new CopertTable(cleanHeaders, rows);
 			
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -105,70 +144,64 @@ public class CopertParser {
 		return null;
 	}
 	
+	private CopertTree buildTree(CopertTable table) {
+		if(table == null) {
+			return null;
+		}
+		int[] allRows = new int[table.rowCount()];
+		for(int i = 0; i < allRows.length; i++) {
+			allRows[i] = i;
+		}
+		return parseSubTable(table, 0, "", allRows, null, null);
+	}
+	
 	
-	private CopertTree parseSubTable(ArrayList<String> currentColumns, String superCategory, SubTable table, CopertSelector currentPath) {
-		String currentColumnName = currentColumns.get(0);
-		CopertTree subTree = new CopertTree(currentColumnName, superCategory, table, currentPath, random);
-		if (subTree.isSingleLine()) {
+	private CopertTree parseSubTable(CopertTable table, int column, String superCategory, int[] rows, CopertTree parent, CopertField pathField) {
+		CopertTree subTree = new CopertTree(table, column, rows, superCategory, parent, pathField);
+		if (subTree.isSingleLine() || column + 1 >= table.columnCount()) {
+			subTree.index();
 			return subTree;
 		}
 		
 		// We consider the first column.
-		// Following operations will consist in removing this column and
-		// extract subtables.
-		ArrayList<String> currentColumn = table.get(currentColumnName);
-		
-		// The sub-table key set correspond to the current table keyset,
-		// minus the column we will parse in this iteration.
-		ArrayList<String> subColumns = new ArrayList<>();
-		subColumns.addAll(currentColumns);
-		subColumns.remove(currentColumnName);
+		// Following operations will consist in splitting the current rows
+		// according to the values of this column.
+		ArrayList<String> currentColumn = new ArrayList<>(rows.length);
+		for(int row : rows) {
+			currentColumn.add(table.get(row, column));
+		}
 		
-		// New entries for the current column
+		// New entries for the current column.
+		// The HashSet is built as in the original table parsing, so that
+		// children are iterated in the same order.
 		HashSet<String> newEntries = new HashSet<String>(currentColumn);
 
-		// Initialize new subtables
-		HashMap<String, SubTable> newSubTables = new HashMap<>();
-		for (String uniqueSubTableEntry : newEntries) {
-			// subTable initialization
-			SubTable subTable = new SubTable();
-			for(String subColumn : subColumns) {
-				// Sub columns
-				subTable.put(subColumn, new ArrayList<>());
-			}
-			
-			// Add the new subtables to the current subtables set
-			newSubTables.put(uniqueSubTableEntry, subTable);
+		// Rows of each sub-table, in the table order
+		HashMap<String, int[]> newSubTables = new HashMap<>();
+		HashMap<String, Integer> subTablesSize = new HashMap<>();
+		for(String value : currentColumn) {
+			Integer size = subTablesSize.get(value);
+			subTablesSize.put(value, size == null ? 1 : size + 1);
 		}
-		
-		// Now, we iterate over all the current column entries, and we add each sub-entry to
-		// the corresponding sub-table.
-			
-		for (int i = 0; i < currentColumn.size(); i++) {
-			// For the given key, we retrieve all the subEntries to build a new subtable
-			for(String subColumn : subColumns) {
-				newSubTables.get(currentColumn.get(i)) // Sub-table to consider, according to the current column key
-					.get(subColumn) //sub-table column to consider
-					.add(
-						table.get(subColumn).get(i) // Corresponding value in the original table
-						);
-			}
+		for(String uniqueSubTableEntry : newEntries) {
+			newSubTables.put(uniqueSubTableEntry, new int[subTablesSize.get(uniqueSubTableEntry)]);
+			subTablesSize.put(uniqueSubTableEntry, 0);
+		}
+		for(int i = 0; i < rows.length; i++) {
+			String value = currentColumn.get(i);
+			int index = subTablesSize.get(value);
+			newSubTables.get(value)[index] = rows[i];
+			subTablesSize.put(value, index + 1);
 		}
 
-		CopertHeader header = CopertHeader.getValue(currentColumnName);
+		CopertHeader header = CopertHeader.getValue(table.columnName(column));
 		for(String newEntry : newEntries) {
-			ArrayList<String> nextColumns = new ArrayList<>();
-			nextColumns.addAll(subColumns); // Recreated every iteration to avoid concurrent modification
-			CopertSelector childPath = new CopertSelector(); // Path to the current child
-			childPath.putAll(currentPath);
-			if(header != null) {
-				// If the current category correspond to a CopertHeader, a.k.a a CopertSelector field,
-				// We add it to the current path.
-				CopertField selectedEntry = CopertField.getValue(header, newEntry);
-				childPath.put(header, selectedEntry);
-			}
-			subTree.put(newEntry, parseSubTable(nextColumns, newEntry, newSubTables.get(newEntry), childPath));
+			// If the current category correspond to a CopertHeader, a.k.a a CopertSelector field,
+			// the child path is completed with the corresponding field.
+			CopertField selectedEntry = header == null ? null : CopertField.getValue(header, newEntry);
+			subTree.put(newEntry, parseSubTable(table, column + 1, newEntry, newSubTables.get(newEntry), subTree, selectedEntry));
 		}
+		subTree.index();
 		return subTree;
 	}
 
@@ -0,0 +1,60 @@
+package org.liris.smartgov.lez.core.copert.tableParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide repository of loaded Copert tables.
+ *
+ * <p>
+ * A Copert table never changes during a simulation, and CopertParser
+ * instances are immutable once built : each table file is loaded only
+ * once per JVM, and the same parser is shared by all the simulations
+ * and restarts that use it, from any thread.
+ * </p>
+ *
+ * <p>
+ * A table is loaded again if its file has been modified since it was
+ * last loaded.
+ * </p>
+ *
+ */
+public class CopertRepository {
+
+	private static final Map<String, CopertParser> parsers = new ConcurrentHashMap<>();
+
+	private CopertRepository() {
+	}
+
+	/**
+	 * Returns the parser of the specified Copert table, loading it only if the
+	 * table has not been loaded yet in this JVM.
+	 *
+	 * @param copertTable Copert table file
+	 * @return shared parser
+	 */
+	public static CopertParser load(File copertTable) {
+		return parsers.computeIfAbsent(key(copertTable), key -> new CopertParser(copertTable));
+	}
+
+	/**
+	 * Removes all the loaded tables from this repository. Only useful to
+	 * release memory in tools that switch from a table to another : reloaded
+	 * contexts keep using the table they loaded.
+	 */
+	public static void clear() {
+		parsers.clear();
+	}
+
+	private static String key(File copertTable) {
+		String path;
+		try {
+			path = copertTable.getCanonicalPath();
+		} catch (IOException e) {
+			path = copertTable.getAbsolutePath();
+		}
+		return path + ":" + copertTable.length() + ":" + copertTable.lastModified();
+	}
+}
@@ -0,0 +1,237 @@
+package org.liris.smartgov.lez.core.copert.tableParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.liris.smartgov.lez.core.copert.CopertParameters;
+
+/**
+ * Immutable and compact representation of a complete Copert table,
+ * shared by all the {@link CopertTree} nodes built from it.
+ *
+ * <p>
+ * Raw cells are stored by column, and identical cell values are shared
+ * between rows. The parameters required to build
+ * {@link org.liris.smartgov.lez.core.copert.CopertParameters CopertParameters}
+ * are parsed once for all, and stored as a primitive block of
+ * {@link #PARAMETERS} doubles per row.
+ * </p>
+ *
+ */
+public class CopertTable {
+
+	/*
+	 * Parameter columns, in the CopertParameters constructor order.
+	 */
+	private static final CopertHeader[] PARAMETER_HEADERS = {
+			CopertHeader.ALPHA,
+			CopertHeader.BETA,
+			CopertHeader.GAMMA,
+			CopertHeader.DELTA,
+			CopertHeader.EPSILON,
+			CopertHeader.ZITA,
+			CopertHeader.HTA,
+			CopertHeader.REDUCTION_FACTOR,
+			CopertHeader.MIN_SPEED,
+			CopertHeader.MAX_SPEED
+	};
+
+	/**
+	 * Number of parameters stored for each row.
+	 */
+	public static final int PARAMETERS = PARAMETER_HEADERS.length;
+
+	private String[] columnNames;
+	private String[][] columns;
+	private double[] parameters;
+	private int rowCount;
+
+	/**
+	 * CopertTable constructor.
+	 *
+	 * @param columnNames cleaned column names, in the table order
+	 * @param rows cleaned rows, each row containing one value for each column
+	 */
+	public CopertTable(List<String> columnNames, List<String[]> rows) {
+		this.columnNames = columnNames.toArray(new String[columnNames.size()]);
+		this.rowCount = rows.size();
+
+		Map<String, String> values = new HashMap<>();
+		columns = new String[this.columnNames.length][rowCount];
+		for (int row = 0; row < rowCount; row++) {
+			String[] line = rows.get(row);
+			for (int column = 0; column < this.columnNames.length; column++) {
+				String value = line[column];
+				String sharedValue = values.get(value);
+				if (sharedValue == null) {
+					values.put(value, value);
+					sharedValue = value;
+				}
+				columns[column][row] = sharedValue;
+			}
+		}
+
+		parameters = new double[rowCount * PARAMETERS];
+		for (int i = 0; i < PARAMETERS; i++) {
+			int column = columnIndex(PARAMETER_HEADERS[i].columnName());
+			for (int row = 0; row < rowCount; row++) {
+				parameters[row * PARAMETERS + i] = column < 0 ? Double.NaN : parseDouble(columns[column][row]);
+			}
+		}
+	}
+
+	/*
+	 * Used to load a pre-compiled table, see CopertCache.
+	 */
+	CopertTable(String[] columnNames, String[][] columns, double[] parameters) {
+		this.columnNames = columnNames;
+		this.columns = columns;
+		this.parameters = parameters;
+		this.rowCount = columns.length == 0 ? 0 : columns[0].length;
+	}
+
+	/*
+	 * Unparseable values are stored as NaN, and only rejected if the
+	 * parameters of their row are required, see getCopertParameters().
+	 */
+	private static double parseDouble(String value) {
+		try {
+			return Double.parseDouble(value);
+		}
+		catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Returns the index of the first column with the given name.
+	 *
+	 * @param columnName column name
+	 * @return column index, or -1 if the column does not exist
+	 */
+	public int columnIndex(String columnName) {
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnNames[i].equals(columnName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return column count
+	 */
+	public int columnCount() {
+		return columnNames.length;
+	}
+
+	/**
+	 * @param column column index
+	 * @return column name
+	 */
+	public String columnName(int column) {
+		return columnNames[column];
+	}
+
+	/**
+	 * @return row count
+	 */
+	public int rowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns the raw value of a cell.
+	 *
+	 * @param row row index
+	 * @param column column index
+	 * @return cell value
+	 */
+	public String get(int row, int column) {
+		return columns[column][row];
+	}
+
+	String[][] columns() {
+		return columns;
+	}
+
+	double[] parameters() {
+		return parameters;
+	}
+
+	/**
+	 * Returns the parsed parameter of the given row.
+	 * Values that could not be parsed are returned as NaN : use
+	 * {@link #getCopertParameters(int)} to reject them.
+	 *
+	 * @param row row index
+	 * @param parameter parameter index, in the CopertParameters constructor order
+	 * @return parameter value
+	 */
+	public double getParameter(int row, int parameter) {
+		return parameters[row * PARAMETERS + parameter];
+	}
+
+	/**
+	 * Builds the CopertParameters of the given row from its
+	 * pre-parsed parameters block.
+	 *
+	 * @param row row index
+	 * @return copert parameters
+	 * @throws NumberFormatException if a parameter of the row is missing or
+	 * can't be parsed
+	 */
+	public CopertParameters getCopertParameters(int row) {
+		return new CopertParameters(
+				checkedParameter(row, 0),
+				checkedParameter(row, 1),
+				checkedParameter(row, 2),
+				checkedParameter(row, 3),
+				checkedParameter(row, 4),
+				checkedParameter(row, 5),
+				checkedParameter(row, 6),
+				checkedParameter(row, 7),
+				checkedParameter(row, 8),
+				checkedParameter(row, 9)
+				);
+	}
+
+	/*
+	 * NaN values are parsed again from the raw cell, so that actual "NaN"
+	 * values are accepted and invalid ones throw a NumberFormatException.
+	 */
+	private double checkedParameter(int row, int parameter) {
+		double value = parameters[row * PARAMETERS + parameter];
+		if (!Double.isNaN(value)) {
+			return value;
+		}
+		int column = columnIndex(PARAMETER_HEADERS[parameter].columnName());
+		if (column < 0) {
+			throw new NumberFormatException(
+					"Missing Copert column \"" + PARAMETER_HEADERS[parameter].columnName() + "\"");
+		}
+		return Double.valueOf(columns[column][row]);
+	}
+
+	/**
+	 * Builds a SubTable containing the specified rows, restricted to
+	 * the columns starting at <code>firstColumn</code>.
+	 *
+	 * @param rows rows to include
+	 * @param firstColumn first column to include
+	 * @return new sub table
+	 */
+	public SubTable subTable(int[] rows, int firstColumn) {
+		SubTable subTable = new SubTable();
+		for (int column = firstColumn; column < columnNames.length; column++) {
+			ArrayList<String> values = new ArrayList<>(rows.length);
+			for (int row : rows) {
+				values.add(columns[column][row]);
+			}
+			subTable.put(columnNames[column], values);
+		}
+		return subTable;
+	}
+}
@@ -2,32 +2,69 @@ package org.liris.smartgov.lez.core.copert.tableParser;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Random;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
+import org.liris.smartgov.lez.core.copert.CopertParameters;
+import org.liris.smartgov.lez.core.copert.fields.CopertField;
+import org.liris.smartgov.lez.core.copert.fields.RandomField;
+
 /**
  * Recursive data structure designed to navigate easily in Copert parameters.
  * 
+ * <p>
+ * Trees are compiled once by the {@link CopertParser} and are not modified
+ * afterwards. Each node only references the rows it covers in a shared
+ * {@link CopertTable}, and indexes its children by {@link CopertField} :
+ * selecting a child from a field of the current level is a simple lookup,
+ * regular expressions are only evaluated for selectors that do not
+ * correspond to the current level.
+ * </p>
+ * 
  * @author pbreugnot
  *
  */
 public class CopertTree {
 	
+	private static final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+	
 	private HashMap<String, CopertTree> children;
-	private SubTable subTable;
+	private CopertTable table;
+	private int column; // Index of the level column in the table
+	private int[] rows;
 	private String levelColumn; // Correspond to the first sub-table column name
 	private String category;
-	private CopertSelector path;
-	private Random random;
-
-	public CopertTree(String levelColumn, String category, SubTable subTable, CopertSelector path, Random random) {
+	
+	/*
+	 * The path is rebuilt on demand from the parent nodes.
+	 */
+	private CopertTree parent;
+	private CopertHeader pathHeader;
+	private CopertField pathField;
+	
+	/*
+	 * Children index, built once all the children have been added.
+	 */
+	private CopertTree firstChild;
+	private CopertField[] indexedFields;
+	private CopertTree[] indexedChildren;
+	
+	CopertTree(CopertTable table, int column, int[] rows, String category, CopertTree parent, CopertField pathField) {
 		children = new HashMap<>();
-		this.levelColumn = levelColumn;
+		this.table = table;
+		this.column = column;
+		this.rows = rows;
+		this.levelColumn = table.columnName(column);
 		this.category = category;
-		this.subTable = subTable;
-		this.path = path;
-		this.random = random;
+		this.parent = parent;
+		this.pathHeader = parent == null ? null : CopertHeader.getValue(parent.levelColumn);
+		this.pathField = pathField;
+		this.indexedFields = new CopertField[0];
+		this.indexedChildren = new CopertTree[0];
 	}
 	
 	/**
@@ -44,23 +81,30 @@ public class CopertTree {
 		return category;
 	}
 	
+	/**
+	 * Returns the selector corresponding to the path from the root of the tree to
+	 * this node. Selector fields that have not been fixed yet are random.
+	 * 
+	 * @return path to this node
+	 */
 	public CopertSelector getPath() {
+		CopertSelector path = parent == null ? new CopertSelector() : parent.getPath();
+		if(pathHeader != null) {
+			path.put(pathHeader, pathField);
+		}
 		return path;
 	}
 	
 	/**
 	 * If there is only one CopertTree child from there, returns this child.
-	 * If multiple children are present, select a random child.
+	 * If multiple children are present, always selects the same child, the
+	 * first one in the children iteration order.
 	 * Return null if there is no more available child.
 	 * 
-	 * @return a random child available from this node.
+	 * @return the first child available from this node.
 	 */
 	public CopertTree select() {
-		return select(random);
-	}
-	
-	private CopertTree select(Random random) {
-		return selectRandomChildFromKeySet(children.keySet(), random);
+		return firstChild;
 	}
 	
 	/**
@@ -74,32 +118,56 @@ public class CopertTree {
 	 * Tries to find a child that match the given regular expression.
 	 * 
 	 * If exactly one child matches, returns this child.
-	 * If multiple children match, select a random child among them.
+	 * If multiple children match, select the first of them in the children iteration order.
 	 * Return null if no child matches.
 	 * @param matcher regular expression selector
 	 * @return A matching child
 	 */
 	public CopertTree select(String matcher) {
-		if (matcher.equals("Random")) {
+		if (matcher.equals(RandomField.RANDOM.matcher())) {
 			return select();
 		}
-		ArrayList<String> matchingKeys = new ArrayList<>();
-		for(String key : children.keySet()) {
-			if (Pattern.matches(matcher, key)) {
-				matchingKeys.add(key);
-			}
+		CopertTree child = findRegExp(matcher);
+		if (child == null) {
+			throw notFound(matcher);
 		}
-		if (matchingKeys.size() == 0) {
-			String message =
-					"No matching Copert value for matcher \"" + matcher + "\" at level \"" + levelColumn + "\""
-					+ "\nAvailable sub-classes :\n";
-			for(String subClass : children.keySet()) {
-				message += (subClass + "\n");
+		return child;
+	}
+	
+	/**
+	 * Same as {@link #select(String)}, but uses the children index when the
+	 * field corresponds to the current level.
+	 * 
+	 * @param field field selector
+	 * @return A matching child
+	 * @throws CopertFieldNotFoundException if no child matches
+	 */
+	public CopertTree select(CopertField field) {
+		CopertTree child = find(field);
+		if (child == null) {
+			throw notFound(field.matcher());
+		}
+		return child;
+	}
+	
+	/**
+	 * Same as {@link #select(CopertField)}, but returns null rather than
+	 * throwing an exception when no child matches.
+	 * 
+	 * @param field field selector
+	 * @return A matching child, or null
+	 */
+	public CopertTree find(CopertField field) {
+		if (field.matcher().equals(RandomField.RANDOM.matcher())) {
+			return select();
+		}
+		for (int i = 0; i < indexedFields.length; i++) {
+			if (indexedFields[i] == field) {
+				return indexedChildren[i];
 			}
-			message += "Current path : " + path;
-			throw new CopertFieldNotFoundException(message);
 		}
-		return selectRandomChildFromKeySet(matchingKeys, random);
+		// The field does not belong to this level
+		return findRegExp(field.matcher());
 	}
 	
 	/**
@@ -110,47 +178,105 @@ public class CopertTree {
 	 * @return matching children
 	 */
 	public Collection<CopertTree> selectAllRegExp(String regExp) {
+		Pattern pattern = pattern(regExp);
 		ArrayList<CopertTree> matchingTrees = new ArrayList<>();
 		for(String key : children.keySet()) {
-			if (Pattern.matches(regExp, key)) {
+			if (pattern.matcher(key).matches()) {
 				matchingTrees.add(children.get(key));
 			}
 		}
 		return matchingTrees;
 	}
 	
-	private CopertTree selectRandomChildFromKeySet(Collection<String> keySet, Random random) {
-		if (keySet.size() == 0) {
-			return null;
+	/*
+	 * Returns the first child, in the children iteration order, whose key matches
+	 * the regular expression.
+	 */
+	private CopertTree findRegExp(String regExp) {
+		Pattern pattern = pattern(regExp);
+		for(String key : children.keySet()) {
+			if (pattern.matcher(key).matches()) {
+				return children.get(key);
+			}
 		}
-		else {
-			return children.get(keySet.iterator().next());
+		return null;
+	}
+	
+	private CopertFieldNotFoundException notFound(String matcher) {
+		String message =
+				"No matching Copert value for matcher \"" + matcher + "\" at level \"" + levelColumn + "\""
+				+ "\nAvailable sub-classes :\n";
+		for(String subClass : children.keySet()) {
+			message += (subClass + "\n");
 		}
-		/*if (keySet.size() == 1) {
-			return children.get(keySet.iterator().next());
+		message += "Current path : " + getPath();
+		return new CopertFieldNotFoundException(message);
+	}
+	
+	private static Pattern pattern(String regExp) {
+		Pattern pattern = patterns.get(regExp);
+		if (pattern == null) {
+			pattern = Pattern.compile(regExp);
+			patterns.put(regExp, pattern);
 		}
-		ArrayList<String> availableChildKeys = new ArrayList<>(keySet);
-		String randomKey = availableChildKeys.get(random.nextInt(availableChildKeys.size()));
-		return children.get(randomKey);*/
+		return pattern;
 	}
 	
-	public void put(String value, CopertTree childValue) {
+	void put(String value, CopertTree childValue) {
 		children.put(value, childValue);
 	}
 	
+	/*
+	 * Called by the parser once all the children have been put.
+	 */
+	void index() {
+		Iterator<CopertTree> childrenIterator = children.values().iterator();
+		firstChild = childrenIterator.hasNext() ? childrenIterator.next() : null;
+		
+		CopertHeader header = CopertHeader.getValue(levelColumn);
+		if (header == null || children.isEmpty()) {
+			return;
+		}
+		indexedFields = CopertHeader.fields(header);
+		indexedChildren = new CopertTree[indexedFields.length];
+		for (int i = 0; i < indexedFields.length; i++) {
+			indexedChildren[i] = findRegExp(indexedFields[i].matcher());
+		}
+	}
+	
+	/**
+	 * Builds the SubTable covered by this node. The sub-table is
+	 * built from the shared table on each call.
+	 * 
+	 * @return sub-table of this node
+	 */
 	public SubTable getSubTable() {
-		return subTable;
+		return table.subTable(rows, column);
 	}
 	
-	public HashMap<String, CopertTree> getChildren() {
-		return children;
+	/**
+	 * Returns the CopertParameters of the specified line of this node,
+	 * from the pre-parsed parameters of the shared table.
+	 * 
+	 * @param line line index in this node
+	 * @return corresponding Copert parameters
+	 */
+	public CopertParameters getCopertParameters(int line) {
+		return table.getCopertParameters(rows[line]);
+	}
+	
+	/**
+	 * @return read-only view of the children, by key
+	 */
+	public Map<String, CopertTree> getChildren() {
+		return Collections.unmodifiableMap(children);
 	}
 	
 	/**
 	 * @return True if and only if the associated SubTable contains exactly one line.
 	 */
 	public boolean isSingleLine() {
-		return subTable.get(levelColumn).size() == 1;
+		return rows.length == 1;
 	}
 	
 	/**
@@ -158,6 +284,6 @@ public class CopertTree {
 	 * @return Line count of the current subtable
 	 */
 	public int lineCount() {
-		return subTable.get(levelColumn).size();
+		return rows.length;
 	}
 }
@@ -8,17 +8,20 @@ import java.util.TreeMap;
 
 import org.liris.smartgov.lez.core.agent.establishment.Establishment;
 import org.liris.smartgov.lez.core.agent.establishment.Round;
-import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertParser;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertRepository;
+import org.liris.smartgov.lez.core.environment.graph.PathCache;
 import org.liris.smartgov.lez.core.environment.lez.Environment;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
 import org.liris.smartgov.lez.core.environment.lez.criteria.CritAir;
 import org.liris.smartgov.lez.core.environment.lez.criteria.CritAirCriteria;
 import org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance;
+import org.liris.smartgov.lez.core.simulation.LezSession;
+import org.liris.smartgov.lez.core.simulation.ParallelTickExecutor;
 import org.liris.smartgov.lez.core.simulation.scenario.LezScenario;
+import org.liris.smartgov.lez.core.simulation.scenario.PollutionScenario;
 import org.liris.smartgov.lez.core.simulation.scenario.RandomTrafficPollutionScenario;
 import org.liris.smartgov.lez.input.lez.CritAirLezDeserializer;
-import org.liris.smartgov.lez.politic.PoliticalVar;
-import org.liris.smartgov.simulator.core.environment.graph.Arc;
 import org.liris.smartgov.simulator.core.scenario.Scenario;
 import org.liris.smartgov.simulator.urban.osm.environment.OsmContext;
 
@@ -32,8 +35,16 @@ public class LezContext extends OsmContext {
 	private Map<String, Establishment> establishments;
 	public Map<String, Round> ongoingRounds;
 	private boolean politic;
+	private CopertParser copertParser;
+	private PathCache pathCache;
+	private boolean pathCacheConfigured;
+	private ParallelTickExecutor tickExecutor;
+	private boolean tickExecutorConfigured;
+	private final LezSession session;
 
 	/**
+	 * Creates a context with its own {@link LezSession}, that becomes the
+	 * current session.
 	 * 
 	 * @param configFile the file with all the paths to needed files
 	 * @param politic whether or not we have to launch political layer
@@ -43,11 +54,89 @@ public class LezContext extends OsmContext {
 		this.establishments = new HashMap<>();
 		this.ongoingRounds = new TreeMap<>();
 		this.politic = politic;
+		this.session = new LezSession();
+		session.makeCurrent();
 	}
 	
 	public boolean getPolitic() {
 		return politic;
 	}
+	
+	/**
+	 * Returns the state of the simulation run from this context.
+	 * 
+	 * @return simulation session
+	 */
+	public LezSession getSession() {
+		return session;
+	}
+
+	/**
+	 * Returns the parser of the "copert_table" specified in the configuration.
+	 * The table is loaded from the {@link CopertRepository} on the first call, and
+	 * then reused for all the simulations and reloads run from this context.
+	 * 
+	 * @return shared Copert parser
+	 */
+	public CopertParser getCopertParser() {
+		if (copertParser == null) {
+			copertParser = CopertRepository.load(getFileLoader().load("copert_table"));
+		}
+		return copertParser;
+	}
+
+	/**
+	 * Returns the shortest paths cache shared by all the agents of this context.
+	 * The cache is kept across reloads, since the graph does not change : paths
+	 * that depend on the LEZ are identified by the configuration applied when
+	 * agents are built.
+	 * 
+	 * <p>
+	 * Its capacity can be set with the "path_cache_size" configuration
+	 * property, and defaults to {@link PathCache#DEFAULT_CAPACITY}. Paths are
+	 * not cached if it is set to 0.
+	 * </p>
+	 * 
+	 * @return shared path cache, or null if paths are not cached
+	 */
+	public synchronized PathCache getPathCache() {
+		if (!pathCacheConfigured) {
+			int capacity = PathCache.DEFAULT_CAPACITY;
+			Object configuredCapacity = getConfig().get(PathCache.CAPACITY_PROPERTY);
+			if (configuredCapacity != null) {
+				capacity = Integer.parseInt(configuredCapacity.toString().trim());
+			}
+			if (capacity != 0) {
+				pathCache = new PathCache(capacity);
+			}
+			pathCacheConfigured = true;
+		}
+		return pathCache;
+	}
+
+	/**
+	 * Returns the executor used to run the agents of each tick in parallel.
+	 * 
+	 * <p>
+	 * Parallel ticks are enabled by setting the "parallel_tick_threads"
+	 * configuration property to a number of threads greater than 1.
+	 * </p>
+	 * 
+	 * @return parallel tick executor, or null if ticks are run sequentially
+	 */
+	public synchronized ParallelTickExecutor getTickExecutor() {
+		if (!tickExecutorConfigured) {
+			Object configuredThreads = getConfig().get(ParallelTickExecutor.THREADS_PROPERTY);
+			if (configuredThreads != null) {
+				int threads = Integer.parseInt(configuredThreads.toString().trim());
+				if (threads > 1) {
+					tickExecutor = new ParallelTickExecutor(this, threads);
+				}
+			}
+			tickExecutorConfigured = true;
+		}
+		return tickExecutor;
+	}
 
 	public Map<String, Establishment> getEstablishments() {
 		return establishments;
@@ -63,11 +152,14 @@ public class LezContext extends OsmContext {
 	public void reload() {
 		agents = new TreeMap<>();
 		ongoingRounds = new TreeMap<>();
+		if (tickExecutor != null) {
+			tickExecutor.reset();
+		}
 	}
 	
 	/**
 	 * Reset pollution variables, but also local perceptions of neighborhoods
-	 * @param fastReset whether or not we want to reset arcs's pollution (long to do)
+	 * @param fastReset whether or not we want to keep arcs's pollution
 	 */
 	public void resetVariables(boolean fastReset) {
 		if (getScenario() instanceof LezScenario) {
@@ -75,9 +167,7 @@ public class LezContext extends OsmContext {
 			((LezScenario)getScenario()).getEnvironment().resetNeighborhoodVariables();
 		}
 		if (!fastReset) {
-			for (Arc arc : arcs.values()) {
-				((PollutableOsmArc)arc).resetPollution();
-			}
+			((PollutionScenario)getScenario()).getArcPollutionLedger().reset();
 		}
 	}
 	
@@ -113,7 +203,7 @@ public class LezContext extends OsmContext {
 		Surveillance surveillance = randomEnum(Surveillance.class);
 		
 		for (Neighborhood neighborhood : ((LezScenario)getScenario()).getEnvironment().getNeighborhoods().values() ) {
-			if (Integer.parseInt(PoliticalVar.variables.get("distinct_criterias")) == 1 ) {
+			if (Integer.parseInt(session.getPolitics().getVariables().get("distinct_criterias")) == 1 ) {
 				neighborhood.setDeliveryLezCriteria(new CritAirCriteria(deliveryCriteria));
 				neighborhood.setPrivateLezCriteria(new CritAirCriteria(privateCriteria));
 			}
@@ -0,0 +1,147 @@
+package org.liris.smartgov.lez.core.environment.graph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.liris.smartgov.simulator.core.environment.graph.Node;
+import org.liris.smartgov.simulator.core.environment.graph.astar.Costs;
+
+/**
+ * Costs that guide the simulator A* algorithm along a path retrieved from
+ * a {@link PathCache}.
+ *
+ * <p>
+ * Arc costs are the costs of the wrapped instance. Once a cached path has been
+ * selected with {@link #guide(Node, Node)}, the heuristic of each node of the
+ * cached path is its exact remaining cost to the destination, and nodes out of
+ * the path get a maximal heuristic. Arcs that do not link two consecutive
+ * nodes of the cached path also get a maximal cost. The A* algorithm then only
+ * expands the nodes of the cached path, instead of exploring the graph again.
+ * </p>
+ *
+ * <p>
+ * The computed path is then exactly the cached one, whatever the way the
+ * A* algorithm breaks ties between paths of the same cost. Since paths are
+ * only cached from the plans computed by the simulator with the same costs,
+ * a guided agent follows the path it would have computed without the cache.
+ * </p>
+ *
+ * <p>
+ * If the path is not cached yet, the heuristic of the wrapped costs is used,
+ * and the path computed by the A* algorithm should then be
+ * {@link #cache(List) cached} for the next agents.
+ * </p>
+ *
+ */
+public class CachedPathCosts implements Costs {
+
+	private Costs costs;
+	private PathCache cache;
+
+	private Node origin;
+	private Node destination;
+	private Map<String, Double> remainingCosts;
+	private Map<String, String> nextNodes;
+
+	/**
+	 * CachedPathCosts constructor.
+	 *
+	 * @param costs wrapped costs
+	 * @param cache shared path cache
+	 */
+	public CachedPathCosts(Costs costs, PathCache cache) {
+		this.costs = costs;
+		this.cache = cache;
+	}
+
+	/**
+	 * Selects the cached path used to guide the next shortest path computation,
+	 * if any.
+	 *
+	 * @param origin origin node
+	 * @param destination destination node
+	 * @return this instance
+	 */
+	public CachedPathCosts guide(Node origin, Node destination) {
+		this.origin = origin;
+		this.destination = destination;
+		List<Node> path = cache.get(origin, destination, costs);
+		if (path == null) {
+			remainingCosts = null;
+			nextNodes = null;
+			return this;
+		}
+		Map<String, Double> remaining = new HashMap<>();
+		Map<String, String> next = new HashMap<>();
+		double cost = 0.;
+		remaining.put(path.get(path.size() - 1).getId(), cost);
+		for (int i = path.size() - 2; i >= 0; i--) {
+			cost += arcCost(path.get(i), path.get(i + 1));
+			remaining.put(path.get(i).getId(), cost);
+			next.put(path.get(i).getId(), path.get(i + 1).getId());
+		}
+		remainingCosts = remaining;
+		nextNodes = next;
+		return this;
+	}
+
+	/**
+	 * Returns true if the next shortest path computation is guided by a cached path.
+	 *
+	 * @return true if a cached path has been selected
+	 */
+	public boolean isGuided() {
+		return remainingCosts != null;
+	}
+
+	/**
+	 * Puts the path computed from the last {@link #guide(Node, Node)} origin to
+	 * its destination in the cache, so that it is not computed again.
+	 *
+	 * @param path nodes of the computed path, origin and destination included
+	 */
+	public void cache(List<Node> path) {
+		if (origin != null && !path.isEmpty()) {
+			cache.put(origin, destination, costs, path);
+		}
+	}
+
+	/**
+	 * Returns the wrapped costs.
+	 *
+	 * @return wrapped costs
+	 */
+	public Costs getCosts() {
+		return costs;
+	}
+
+	@Override
+	public double heuristic(Node current, Node target) {
+		if (remainingCosts != null && target.getId().equals(destination.getId())) {
+			Double remaining = remainingCosts.get(current.getId());
+			return remaining == null ? Double.MAX_VALUE : remaining;
+		}
+		return costs.heuristic(current, target);
+	}
+
+	@Override
+	public double cost(Arc arc) {
+		if (nextNodes != null
+				&& !arc.getTargetNode().getId().equals(nextNodes.get(arc.getStartNode().getId()))) {
+			return Double.MAX_VALUE;
+		}
+		return costs.cost(arc);
+	}
+
+	private double arcCost(Node start, Node target) {
+		double cost = Double.MAX_VALUE;
+		for (Arc arc : start.getOutgoingArcs()) {
+			if (arc.getTargetNode().getId().equals(target.getId())) {
+				cost = Math.min(cost, costs.cost(arc));
+			}
+		}
+		return cost;
+	}
+}
@@ -0,0 +1,246 @@
+package org.liris.smartgov.lez.core.environment.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.liris.smartgov.lez.core.environment.lez.criteria.LezCosts;
+import org.liris.smartgov.simulator.core.environment.graph.Node;
+import org.liris.smartgov.simulator.core.environment.graph.astar.Costs;
+
+/**
+ * Cache of shortest paths, shared by all the agents of a context.
+ *
+ * <p>
+ * Paths are identified by their origin node, their destination node and
+ * their cost profile : all the {@link org.liris.smartgov.simulator.urban.geo.environment.graph.DistanceCosts}
+ * share the same profile, while {@link LezCosts} profiles depend on the
+ * CritAir of the vehicle and on the current LEZ configuration, set with
+ * {@link #setConfiguration(String)}. Paths computed for a previous LEZ
+ * configuration are then only reused when this configuration is applied again.
+ * </p>
+ *
+ * <p>
+ * The cache only contains paths computed by the simulator for the agents,
+ * so that guided agents follow exactly the path they would have computed.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded : when its capacity is reached, the least recently
+ * used path is evicted. It can be safely accessed from several threads.
+ * </p>
+ *
+ */
+public class PathCache {
+
+	/**
+	 * Configuration property used to set the maximum number of cached paths.
+	 */
+	public static final String CAPACITY_PROPERTY = "path_cache_size";
+
+	/**
+	 * Default maximum number of cached paths.
+	 */
+	public static final int DEFAULT_CAPACITY = 20000;
+
+	private final Map<PathKey, List<Node>> paths;
+	private final Map<String, Integer> configurations = new HashMap<>();
+	private volatile int configuration;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * PathCache constructor.
+	 *
+	 * @param capacity maximum number of cached paths
+	 */
+	public PathCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The path cache capacity must be positive.");
+		}
+		paths = new LruMap<>(capacity);
+	}
+
+	/**
+	 * Returns the cached shortest path from origin to destination with the
+	 * specified costs, without computing it.
+	 *
+	 * <p>
+	 * If the path is not cached, the caller is expected to compute it and to
+	 * {@link #put(Node, Node, Costs, List) put} it in the cache.
+	 * </p>
+	 *
+	 * @param origin origin node
+	 * @param destination destination node
+	 * @param costs costs used to compute the path
+	 * @return unmodifiable list of the nodes of the path, origin and destination
+	 * included, or null if the path is not cached or can't be reached
+	 */
+	public List<Node> get(Node origin, Node destination, Costs costs) {
+		PathKey key = key(origin, destination, costs);
+		List<Node> path;
+		synchronized (paths) {
+			path = paths.get(key);
+		}
+		if (path == null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		return path;
+	}
+
+	/**
+	 * Puts a shortest path computed by the caller in the cache.
+	 *
+	 * @param origin origin node
+	 * @param destination destination node
+	 * @param costs costs used to compute the path
+	 * @param path nodes of the path, origin and destination included
+	 */
+	public void put(Node origin, Node destination, Costs costs, List<Node> path) {
+		PathKey key = key(origin, destination, costs);
+		List<Node> cachedPath = Collections.unmodifiableList(new ArrayList<>(path));
+		synchronized (paths) {
+			paths.put(key, cachedPath);
+		}
+	}
+
+	/**
+	 * Sets the LEZ configuration used to compute the next paths whose costs
+	 * depend on the LEZ, as described by
+	 * {@link org.liris.smartgov.lez.core.environment.lez.Environment#describeConfiguration()}.
+	 *
+	 * @param configuration description of the current LEZ configuration
+	 */
+	public void setConfiguration(String configuration) {
+		synchronized (configurations) {
+			Integer id = configurations.get(configuration);
+			if (id == null) {
+				id = configurations.size() + 1;
+				configurations.put(configuration, id);
+			}
+			this.configuration = id;
+		}
+	}
+
+	/**
+	 * Returns the number of cached paths.
+	 *
+	 * @return cache size
+	 */
+	public int size() {
+		synchronized (paths) {
+			return paths.size();
+		}
+	}
+
+	/**
+	 * Returns the number of paths retrieved from the cache since it was created.
+	 *
+	 * @return cache hits
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Returns the number of paths that have been computed since the cache was created.
+	 *
+	 * @return cache misses
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Removes all the cached paths. Must be called if the graph is modified.
+	 */
+	public void clear() {
+		synchronized (paths) {
+			paths.clear();
+		}
+	}
+
+	private PathKey key(Node origin, Node destination, Costs costs) {
+		return new PathKey(
+				origin.getId(),
+				destination.getId(),
+				profile(costs),
+				costs instanceof LezCosts ? configuration : 0
+				);
+	}
+
+	/**
+	 * Returns the key of the cost profile of the specified costs. Two costs
+	 * with the same profile must associate the same cost to each arc in
+	 * the same LEZ configuration.
+	 *
+	 * @param costs costs
+	 * @return cost profile key
+	 */
+	public static String profile(Costs costs) {
+		if (costs instanceof LezCosts) {
+			return "LEZ_" + ((LezCosts) costs).getVehicle().getCritAir().name();
+		}
+		return costs.getClass().getName();
+	}
+
+	/*
+	 * Access ordered map that removes its least recently used entry
+	 * when its capacity is exceeded.
+	 */
+	private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+		private static final long serialVersionUID = 1L;
+
+		private final int capacity;
+
+		LruMap(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+			return size() > capacity;
+		}
+	}
+
+	private static class PathKey {
+		private final String origin;
+		private final String destination;
+		private final String profile;
+		private final int configuration;
+		private final int hash;
+
+		PathKey(String origin, String destination, String profile, int configuration) {
+			this.origin = origin;
+			this.destination = destination;
+			this.profile = profile;
+			this.configuration = configuration;
+			this.hash = 31 * (31 * (31 * origin.hashCode() + destination.hashCode()) + profile.hashCode()) + configuration;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof PathKey))
+				return false;
+			PathKey other = (PathKey) obj;
+			return origin.equals(other.origin)
+					&& destination.equals(other.destination)
+					&& profile.equals(other.profile)
+					&& configuration == other.configuration;
+		}
+	}
+}
@@ -7,12 +7,16 @@ import org.liris.smartgov.lez.core.agent.driver.vehicle.Vehicle;
 import org.liris.smartgov.lez.core.copert.fields.Pollutant;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
 import org.liris.smartgov.lez.core.environment.lez.criteria.CritAir;
-import org.liris.smartgov.lez.core.environment.pollution.Pollution;
+import org.liris.smartgov.lez.core.environment.pollution.ArcPollution;
+import org.liris.smartgov.lez.core.environment.pollution.ArcPollutionLedger;
+import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.events.EventHandler;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmArc;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmNode;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.Road;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * An OsmArc that can be polluted with some particles.
  * 
@@ -21,7 +25,9 @@ import org.liris.smartgov.simulator.urban.osm.environment.graph.Road;
  */
 public class PollutableOsmArc extends OsmArc {
 
-	private Pollution pollution;
+	private ArcPollutionLedger ledger;
+	private int pollutionIndex;
+	private ArcPollution pollution;
 	private Neighborhood neighborhood;
 	
 	private Collection<EventHandler<PollutionIncreasedEvent>> pollutionIncreasedListeners;
@@ -34,7 +40,8 @@ public class PollutableOsmArc extends OsmArc {
 	 * @param targetNode target node
 	 * @param road osm road
 	 * @param roadDirection BACKWARD or FORWARD
-	 * @param inLez true if this arc is contained in a LEZ
+	 * @param neighborhood neighborhood that contains this arc
+	 * @param ledger ledger in which the pollution of this arc is stored
 	 */
 	public PollutableOsmArc(
 			String id,
@@ -42,37 +49,72 @@ public class PollutableOsmArc extends OsmArc {
 			OsmNode targetNode,
 			Road road,
 			RoadDirection roadDirection,
-			Neighborhood neighborhood) {
+			Neighborhood neighborhood,
+			ArcPollutionLedger ledger) {
 		super(id, startNode, targetNode, road, roadDirection);
 		this.neighborhood = neighborhood;
-		pollution = new Pollution();
+		this.ledger = ledger;
+		pollutionIndex = ledger.register();
+		pollution = new ArcPollution(ledger, pollutionIndex);
 		pollutionIncreasedListeners = new ArrayList<>();
 	}
 	
 	/**
 	 * Increases the pollution amount recorded on this arc for the given pollutant
-	 *  by the specified amount, in g.
+	 *  by the specified amount, in g, at the current simulated time.
 	 * 
 	 * @param pollutant pollutant
 	 * @param increment emission in g
 	 */
 	public void increasePollution(Pollutant pollutant, double increment) {
+		increasePollution(
+				pollutant,
+				increment,
+				SmartGov.getRuntime().getTickCount() * SmartGov.getRuntime().getTickDuration()
+				);
+	}
+	
+	/**
+	 * Increases the pollution amount recorded on this arc for the given pollutant
+	 *  by the specified amount, in g, emitted at the specified simulated time.
+	 * 
+	 * @param pollutant pollutant
+	 * @param increment emission in g
+	 * @param time simulated time of the emission in seconds
+	 */
+	public void increasePollution(Pollutant pollutant, double increment, double time) {
 		neighborhood.increasePollution(pollutant, increment);
-		pollution.get(pollutant).increasePollution(increment);
+		ledger.increase(pollutionIndex, pollutant, increment, time);
 	}
 	
 	/**
-	 * Returns the pollution amounts registered on this arc.
+	 * Returns the pollution amounts registered on this arc, as a view
+	 * over the {@link ArcPollutionLedger}.
 	 * Values are given in g.
 	 * 
 	 * @return arc pollution
 	 */
-	public Pollution getPollution() {
+	public ArcPollution getPollution() {
 		return pollution;
 	}
 	
+	/**
+	 * Returns the index of this arc in its {@link ArcPollutionLedger}.
+	 * 
+	 * @return ledger index
+	 */
+	@JsonIgnore
+	public int getPollutionIndex() {
+		return pollutionIndex;
+	}
+	
+	/**
+	 * Resets the pollution registered on this arc only.
+	 * To reset all the arcs at once, {@link ArcPollutionLedger#reset()} should
+	 * be preferred.
+	 */
 	public void resetPollution() {
-		pollution = new Pollution();
+		ledger.reset(pollutionIndex);
 	}
 	
 	public String getNeighborhoodId() {
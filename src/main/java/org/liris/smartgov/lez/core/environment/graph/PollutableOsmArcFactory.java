@@ -2,6 +2,7 @@ package org.liris.smartgov.lez.core.environment.graph;
 
 import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmArc.RoadDirection;
 import org.liris.smartgov.lez.core.environment.lez.Environment;
+import org.liris.smartgov.lez.core.environment.pollution.ArcPollutionLedger;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmNode;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.Road;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.factory.OsmArcFactory;
@@ -9,9 +10,11 @@ import org.liris.smartgov.simulator.urban.osm.environment.graph.factory.OsmArcFa
 public class PollutableOsmArcFactory  implements OsmArcFactory<PollutableOsmArc> {
 	
 	private Environment environment;
+	private ArcPollutionLedger ledger;
 	
-	public PollutableOsmArcFactory(Environment environment) {
+	public PollutableOsmArcFactory(Environment environment, ArcPollutionLedger ledger) {
 		this.environment = environment;
+		this.ledger = ledger;
 	}
 
 	@Override
@@ -22,10 +25,10 @@ public class PollutableOsmArcFactory  implements OsmArcFactory<PollutableOsmArc>
 			Road road,
 			RoadDirection roadDirection) {
 		if (environment.getNeighborhood(targetNode) != null) {
-			return new PollutableOsmArc(id, startNode, targetNode, road, roadDirection, environment.getNeighborhood(targetNode));
+			return new PollutableOsmArc(id, startNode, targetNode, road, roadDirection, environment.getNeighborhood(targetNode), ledger);
 		}
 		else if (environment.getNeighborhood(startNode) != null) {
-			return new PollutableOsmArc(id, startNode, targetNode, road, roadDirection, environment.getNeighborhood(startNode));
+			return new PollutableOsmArc(id, startNode, targetNode, road, roadDirection, environment.getNeighborhood(startNode), ledger);
 		}
 		else {
 			throw new IllegalArgumentException("Those nodes are not in a neighborhood");
@@ -1,25 +1,43 @@
 package org.liris.smartgov.lez.core.environment.lez;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.liris.smartgov.lez.core.environment.lez.criteria.CritAir;
 import org.liris.smartgov.lez.core.environment.lez.criteria.CritAirCriteria;
 import org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance;
 import org.liris.smartgov.lez.core.environment.pollution.Pollution;
 import org.liris.smartgov.simulator.urban.geo.utils.LatLon;
+import org.liris.smartgov.simulator.urban.geo.utils.lonLat.LonLat;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmNode;
 
 /**
  * Represents the environment, and contains the neighborhoods.
+ * 
+ * <p>
+ * The neighborhood of each node is located thanks to a spatial index, and then
+ * cached for the lifetime of the environment, so that the point-in-polygon tests
+ * are performed only once per node, even across simulation reloads.
+ * </p>
  * @author alban
  *
  */
 public class Environment {
+	/*
+	 * Cached value of nodes that don't belong to any neighborhood.
+	 */
+	private static final Neighborhood NO_NEIGHBORHOOD = Neighborhood.none();
+	
 	protected Map <String, Neighborhood> neighborhoods = new HashMap<>();
+	private NeighborhoodIndex index;
+	private Map<String, Neighborhood> nodeNeighborhoods = new ConcurrentHashMap<>();
 	
 	/**
 	 * 
@@ -36,6 +54,7 @@ public class Environment {
 		double horizontal_size = (right - left) / gridSize;
 		double vertical_size = (top - bottom) / gridSize ;
 		int id = 0;
+		Neighborhood[] cells = new Neighborhood[gridSize * gridSize];
 		
 		for (int i = 0 ; i < gridSize ; i ++) {
 			for (int j = 0 ; j < gridSize ; j++) {
@@ -44,25 +63,71 @@ public class Environment {
 						new LatLon(bottom + (j + 1) * vertical_size, left + (i + 1) * horizontal_size),
 						new LatLon(bottom + j * vertical_size, left + (i + 1) * horizontal_size)
 						};
-				neighborhoods.put(Integer.toString(id), new Neighborhood(perimeter, 
-						new CritAirCriteria(deliveryAllowed), new CritAirCriteria(privateAllowed), surveillance, Integer.toString(id)));
+				cells[id] = new Neighborhood(perimeter, 
+						new CritAirCriteria(deliveryAllowed), new CritAirCriteria(privateAllowed), surveillance, Integer.toString(id));
+				neighborhoods.put(Integer.toString(id), cells[id]);
 				id ++;
 			}
 		}
+		
+		// Projected cell bounds, computed as the neighborhoods perimeters
+		LonLat projector = new LonLat();
+		double[] xBounds = new double[gridSize + 1];
+		double[] yBounds = new double[gridSize + 1];
+		for (int k = 0; k <= gridSize; k++) {
+			xBounds[k] = projector.project(new LatLon(bottom, left + k * horizontal_size)).x;
+			yBounds[k] = projector.project(new LatLon(bottom + k * vertical_size, left)).y;
+		}
+		if (gridSize > 0 && xBounds[gridSize] > xBounds[0] && yBounds[gridSize] > yBounds[0]) {
+			index = new GridNeighborhoodIndex(xBounds, yBounds, cells);
+		}
+		// Else, inverted or empty bounds : the STR-tree index is used.
+	}
+	
+	/**
+	 * Builds an environment from neighborhoods with arbitrary perimeters.
+	 * Nodes are located thanks to an STR-tree index of the neighborhoods perimeters.
+	 * If neighborhoods overlap, nodes belong to the first of them in the
+	 * specified collection order.
+	 * 
+	 * @param neighborhoods neighborhoods of the environment
+	 */
+	public Environment(Collection<Neighborhood> neighborhoods) {
+		this.neighborhoods = new LinkedHashMap<>();
+		for (Neighborhood neighborhood : neighborhoods) {
+			this.neighborhoods.put(neighborhood.getID(), neighborhood);
+		}
 	}
 	
 	/**
 	 * Returns the neighborhood of a node.
+	 * 
+	 * <p>
+	 * The neighborhood of each node is only computed once. Notice that the
+	 * neighborhoods are indexed on the first call, so they should not be
+	 * modified afterwards.
+	 * </p>
 	 * @param node the OSM node.
-	 * @return the node's neighborhood.
+	 * @return the node's neighborhood, or null if the node does not
+	 * strictly belong to any neighborhood.
 	 */
 	public Neighborhood getNeighborhood (OsmNode node) {
-		for ( Neighborhood neighborhood : neighborhoods.values()) {
-			if ( neighborhood.contains(node) ) {
-				return neighborhood;
+		Neighborhood neighborhood = nodeNeighborhoods.get(node.getId());
+		if (neighborhood == null) {
+			neighborhood = getIndex().locate(new LonLat().project(node.getPosition()));
+			if (neighborhood == null) {
+				neighborhood = NO_NEIGHBORHOOD;
 			}
+			nodeNeighborhoods.put(node.getId(), neighborhood);
+		}
+		return neighborhood == NO_NEIGHBORHOOD ? null : neighborhood;
+	}
+	
+	private synchronized NeighborhoodIndex getIndex() {
+		if (index == null) {
+			index = new StrTreeNeighborhoodIndex(neighborhoods.values());
 		}
-		return null;
+		return index;
 	}
 	
 	/**
@@ -85,6 +150,27 @@ public class Environment {
 		return neighborhoods;
 	}
 	
+	/**
+	 * Returns a description of the current configuration of the neighborhoods,
+	 * i.e. their perimeters, criteria and surveillance. Two environments with
+	 * the same description restrict vehicles in the same way.
+	 * 
+	 * @return configuration description
+	 */
+	public String describeConfiguration() {
+		StringBuilder configuration = new StringBuilder();
+		for (Neighborhood neighborhood : new TreeMap<>(neighborhoods).values()) {
+			configuration.append(neighborhood.getID()).append(':');
+			if (neighborhood.getPerimeter() != null) {
+				for (LatLon point : neighborhood.getPerimeter()) {
+					configuration.append(point.lat).append(',').append(point.lon).append(';');
+				}
+			}
+			configuration.append(Arrays.toString(neighborhood.getConfigAsArray())).append('|');
+		}
+		return configuration.toString();
+	}
+	
 	/**
 	 * Reset the variables of the neighborhoods.
 	 */
@@ -0,0 +1,80 @@
+package org.liris.smartgov.lez.core.environment.lez;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Index of the neighborhoods of a regular grid, as built by the
+ * {@link Environment#Environment(double, double, double, double, int,
+ * org.liris.smartgov.lez.core.environment.lez.criteria.CritAir,
+ * org.liris.smartgov.lez.core.environment.lez.criteria.CritAir,
+ * org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance) grid constructor}.
+ *
+ * <p>
+ * The cell of a position is directly computed from its coordinates. Cell
+ * bounds are the projected grid bounds, so that positions on the border of
+ * a cell are not considered as contained in any neighborhood, exactly as
+ * with {@link Neighborhood#contains(Coordinate)}.
+ * </p>
+ *
+ */
+class GridNeighborhoodIndex implements NeighborhoodIndex {
+
+	private double[] xBounds;
+	private double[] yBounds;
+	private Neighborhood[] cells;
+
+	/**
+	 * GridNeighborhoodIndex constructor.
+	 *
+	 * @param xBounds ascending projected bounds of the grid columns,
+	 * of length <code>gridSize + 1</code>
+	 * @param yBounds ascending projected bounds of the grid rows,
+	 * of length <code>gridSize + 1</code>
+	 * @param cells neighborhood of each cell, the neighborhood of column
+	 * <code>i</code> and row <code>j</code> being stored at <code>i * gridSize + j</code>
+	 */
+	GridNeighborhoodIndex(double[] xBounds, double[] yBounds, Neighborhood[] cells) {
+		this.xBounds = xBounds;
+		this.yBounds = yBounds;
+		this.cells = cells;
+	}
+
+	@Override
+	public Neighborhood locate(Coordinate position) {
+		int i = cell(xBounds, position.x);
+		if (i < 0) {
+			return null;
+		}
+		int j = cell(yBounds, position.y);
+		if (j < 0) {
+			return null;
+		}
+		return cells[i * (yBounds.length - 1) + j];
+	}
+
+	/*
+	 * Returns the index k such that bounds[k] < value < bounds[k + 1],
+	 * or -1 if there is no such index.
+	 */
+	private static int cell(double[] bounds, double value) {
+		int size = bounds.length - 1;
+		if (!(value > bounds[0] && value < bounds[size])) {
+			return -1;
+		}
+		int k = (int) ((value - bounds[0]) / (bounds[size] - bounds[0]) * size);
+		if (k >= size) {
+			k = size - 1;
+		}
+		// Fixes rounding errors around cell bounds
+		while (k > 0 && value <= bounds[k]) {
+			k--;
+		}
+		while (k < size - 1 && value >= bounds[k + 1]) {
+			k++;
+		}
+		if (value > bounds[k] && value < bounds[k + 1]) {
+			return k;
+		}
+		return -1;
+	}
+}
@@ -3,6 +3,7 @@ package org.liris.smartgov.lez.core.environment.lez;
 import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
 import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LinearRing;
 import org.locationtech.jts.geom.Location;
@@ -46,10 +47,12 @@ public class Neighborhood implements Structure , ActionableByPolicyAgent{
 	
 	private LatLon[] perimeter;
 	private PointOnGeometryLocator locator;
+	private Envelope envelope;
 	private LezCriteria deliveryLezCriteria;
 	private LezCriteria privateLezCriteria;
 	private String id;
-	private Pollution pollution;
+	// Replaced on reset, and read by all the threads that pollute arcs
+	private volatile Pollution pollution;
 	private Pollution referencePollution;
 	private SurveillanceManager surveillance;
 	private List<Double> satisfactions;
@@ -109,15 +112,16 @@ public class Neighborhood implements Structure , ActionableByPolicyAgent{
 			coordinates[coordinates.length - 1] = projector.project(perimeter[0]);
 		}
 		
-		locator = new IndexedPointInAreaLocator(
-				new Polygon(
-					new LinearRing(
-						new CoordinateArraySequence(coordinates),
-						factory
-						),
-					new LinearRing[] {},
+		Polygon polygon = new Polygon(
+				new LinearRing(
+					new CoordinateArraySequence(coordinates),
 					factory
-					));
+					),
+				new LinearRing[] {},
+				factory
+				);
+		envelope = polygon.getEnvelopeInternal();
+		locator = new IndexedPointInAreaLocator(polygon);
 	}
 	
 	/**
@@ -189,7 +193,8 @@ public class Neighborhood implements Structure , ActionableByPolicyAgent{
 	}
 	
 	/**
-	 * Increase pollution in this neighborhood.
+	 * Increase pollution in this neighborhood. Can be called concurrently
+	 * from several threads.
 	 * @param pollutant the pollutant to be increased
 	 * @param increment increment of the pollutant
 	 */
@@ -281,13 +286,32 @@ public class Neighborhood implements Structure , ActionableByPolicyAgent{
 	 * @return true if and only if the node is strictly contained in this LEZ
 	 */
 	public boolean contains(OsmNode node) {
-		if(locator.locate(
-					new LonLat().project(node.getPosition())
-				) == Location.INTERIOR)
+		return contains(new LonLat().project(node.getPosition()));
+	}
+	
+	/**
+	 * Same as {@link #contains(OsmNode)}, for a position already projected
+	 * with a {@link org.liris.smartgov.simulator.urban.geo.utils.lonLat.LonLat LonLat}
+	 * projector.
+	 * 
+	 * @param position projected position
+	 * @return true if and only if the position is strictly contained in this LEZ
+	 */
+	public boolean contains(Coordinate position) {
+		if(locator.locate(position) == Location.INTERIOR)
 			return true;
 		return false;
 	}
 	
+	/**
+	 * Returns the envelope of the projected perimeter of this neighborhood.
+	 * 
+	 * @return perimeter envelope, or null if this neighborhood has no perimeter
+	 */
+	public Envelope getEnvelope() {
+		return envelope;
+	}
+	
 	/**
 	 * Returns a special LEZ instance with no perimeter and all vehicles allowed,
 	 * that can be smartly used by scenarios with a lez parameter to compare results
@@ -318,6 +342,24 @@ public class Neighborhood implements Structure , ActionableByPolicyAgent{
 			return false;
 		}
 		
+		@Override
+		public boolean contains(Coordinate position) {
+			return false;
+		}
+		
+		/*
+		 * All vehicles are allowed without surveillance, what never
+		 * changes.
+		 */
+		@Override
+		public int[] getConfigAsArray() {
+			return new int[] {
+					CritAir.NONE.ordinal(),
+					CritAir.NONE.ordinal(),
+					Surveillance.NO_SURVEILLANCE.ordinal()
+			};
+		}
+		
 
 	}
 	
@@ -0,0 +1,22 @@
+package org.liris.smartgov.lez.core.environment.lez;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Spatial index used by an {@link Environment} to find the neighborhood
+ * that strictly contains a projected position.
+ *
+ */
+interface NeighborhoodIndex {
+
+	/**
+	 * Returns the neighborhood that strictly contains the given position.
+	 *
+	 * @param position position projected with a
+	 * {@link org.liris.smartgov.simulator.urban.geo.utils.lonLat.LonLat LonLat} projector
+	 * @return containing neighborhood, or null if the position is not
+	 * strictly contained in any neighborhood
+	 */
+	Neighborhood locate(Coordinate position);
+
+}
@@ -0,0 +1,65 @@
+package org.liris.smartgov.lez.core.environment.lez;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Index of neighborhoods with arbitrary perimeters, based on a JTS
+ * STR-tree of the perimeters envelopes.
+ *
+ * <p>
+ * Point-in-polygon tests are only performed for the neighborhoods whose
+ * envelope contains the position. If neighborhoods overlap, the first
+ * containing neighborhood in the specified collection order is returned.
+ * </p>
+ *
+ */
+class StrTreeNeighborhoodIndex implements NeighborhoodIndex {
+
+	private STRtree tree;
+
+	/**
+	 * StrTreeNeighborhoodIndex constructor.
+	 *
+	 * @param neighborhoods neighborhoods to index
+	 */
+	StrTreeNeighborhoodIndex(Collection<Neighborhood> neighborhoods) {
+		tree = new STRtree();
+		int order = 0;
+		for (Neighborhood neighborhood : neighborhoods) {
+			if (neighborhood.getEnvelope() != null) {
+				tree.insert(neighborhood.getEnvelope(), new IndexedNeighborhood(order, neighborhood));
+			}
+			order++;
+		}
+		tree.build();
+	}
+
+	@Override
+	public Neighborhood locate(Coordinate position) {
+		@SuppressWarnings("unchecked")
+		List<IndexedNeighborhood> candidates = tree.query(new Envelope(position));
+		IndexedNeighborhood located = null;
+		for (IndexedNeighborhood candidate : candidates) {
+			if ((located == null || candidate.order < located.order)
+					&& candidate.neighborhood.contains(position)) {
+				located = candidate;
+			}
+		}
+		return located == null ? null : located.neighborhood;
+	}
+
+	private static class IndexedNeighborhood {
+		private int order;
+		private Neighborhood neighborhood;
+
+		IndexedNeighborhood(int order, Neighborhood neighborhood) {
+			this.order = order;
+			this.neighborhood = neighborhood;
+		}
+	}
+}
@@ -30,6 +30,15 @@ public class LezCosts implements Costs {
 		this.vehicle = vehicle;
 	}
 	
+	/**
+	 * Returns the vehicle for which costs are computed.
+	 * 
+	 * @return vehicle
+	 */
+	public Vehicle getVehicle() {
+		return vehicle;
+	}
+	
 	/**
 	 * Returns the normal geographical distance in meters between the specified nodes,
 	 * as if there were no LEZ.
@@ -0,0 +1,64 @@
+package org.liris.smartgov.lez.core.environment.pollution;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.output.pollution.ArcPollutionSerializer;
+import org.liris.smartgov.simulator.SmartGov;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * A view over the pollution values stored for a given arc in an
+ * {@link ArcPollutionLedger}.
+ *
+ * <p>
+ * No value is copied : a view always reflects the current ledger state.
+ * </p>
+ *
+ */
+@JsonSerialize(using = ArcPollutionSerializer.class)
+public class ArcPollution {
+
+	private ArcPollutionLedger ledger;
+	private int arcIndex;
+
+	/**
+	 * ArcPollution constructor.
+	 *
+	 * @param ledger ledger in which values are stored
+	 * @param arcIndex index of the arc in the ledger
+	 */
+	public ArcPollution(ArcPollutionLedger ledger, int arcIndex) {
+		this.ledger = ledger;
+		this.arcIndex = arcIndex;
+	}
+
+	/**
+	 * Returns the absolute pollution accumulated on the arc for the given pollutant.
+	 *
+	 * @param pollutant pollutant
+	 * @return emission amount in g
+	 */
+	public double getAbsValue(Pollutant pollutant) {
+		return ledger.get(arcIndex, pollutant);
+	}
+
+	/**
+	 * Returns the pollution accumulated on the arc for the given pollutant,
+	 * averaged in time according to the SmartGov runtime state.
+	 *
+	 * @param pollutant pollutant
+	 * @return pollution rate in g/s
+	 */
+	public double getValue(Pollutant pollutant) {
+		return ledger.get(arcIndex, pollutant) / (SmartGov.getRuntime().getTickCount() * SmartGov.getRuntime().getTickDuration());
+	}
+
+	@Override
+	public String toString() {
+		String str = "[";
+		for(Pollutant pollutant : Pollutant.values()) {
+			str += pollutant + " : " + getAbsValue(pollutant) + " ";
+		}
+		return str + "]";
+	}
+}
@@ -0,0 +1,151 @@
+package org.liris.smartgov.lez.core.environment.pollution;
+
+import java.util.Arrays;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+
+/**
+ * Central store of the pollution emitted on each
+ * {@link org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc}.
+ *
+ * <p>
+ * Each registered arc receives a dense int index, and its pollution values
+ * are stored in a single primitive array, with one cell per
+ * {@link org.liris.smartgov.lez.core.copert.fields.Pollutant} : the value of
+ * the pollutant <code>p</code> for the arc <code>i</code> is stored at
+ * <code>i * Pollutant.values().length + p.ordinal()</code>.
+ * </p>
+ *
+ * <p>
+ * Values are given in g.
+ * </p>
+ *
+ * <p>
+ * If a {@link PollutionTimeSeries} is enabled, each emission is also
+ * recorded in the time bucket of its simulated time, the arc index
+ * being used as series index.
+ * </p>
+ *
+ */
+public class ArcPollutionLedger {
+
+	private static final int POLLUTANTS = Pollutant.values().length;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private double[] values;
+	private int arcCount;
+	private PollutionTimeSeries timeSeries;
+
+	/**
+	 * ArcPollutionLedger constructor.
+	 */
+	public ArcPollutionLedger() {
+		values = new double[INITIAL_CAPACITY * POLLUTANTS];
+		arcCount = 0;
+	}
+
+	/**
+	 * Registers a new arc in this ledger.
+	 *
+	 * @return the index allocated to the new arc
+	 */
+	public int register() {
+		if ((arcCount + 1) * POLLUTANTS > values.length) {
+			values = Arrays.copyOf(values, 2 * values.length);
+		}
+		if (timeSeries != null) {
+			timeSeries.ensureCapacity(arcCount + 1);
+		}
+		return arcCount++;
+	}
+
+	/**
+	 * Returns the number of arcs registered in this ledger.
+	 *
+	 * @return registered arcs count
+	 */
+	public int getArcCount() {
+		return arcCount;
+	}
+
+	/**
+	 * Increases the pollution recorded for the given arc and pollutant.
+	 *
+	 * @param arcIndex arc index
+	 * @param pollutant pollutant
+	 * @param increment emission in g
+	 * @param time simulated time of the emission in seconds, used to find
+	 * its time series bucket
+	 */
+	public void increase(int arcIndex, Pollutant pollutant, double increment, double time) {
+		values[arcIndex * POLLUTANTS + pollutant.ordinal()] += increment;
+		if (timeSeries != null) {
+			timeSeries.increase(arcIndex, pollutant, increment, time);
+		}
+	}
+
+	/**
+	 * Records emissions in time buckets of the specified duration, in
+	 * addition to the cumulated values.
+	 *
+	 * @param bucketDuration bucket duration in seconds
+	 * @param bucketCount maximum number of buckets kept
+	 */
+	public void enableTimeSeries(double bucketDuration, int bucketCount) {
+		timeSeries = new PollutionTimeSeries(bucketDuration, bucketCount, Math.max(arcCount, INITIAL_CAPACITY));
+	}
+
+	/**
+	 * Returns the time series of the arcs emissions, indexed by arc index.
+	 *
+	 * @return arcs pollution time series, or null if time series are not enabled
+	 */
+	public PollutionTimeSeries getTimeSeries() {
+		return timeSeries;
+	}
+
+	/**
+	 * Returns the absolute pollution recorded for the given arc and pollutant.
+	 *
+	 * @param arcIndex arc index
+	 * @param pollutant pollutant
+	 * @return emission amount in g
+	 */
+	public double get(int arcIndex, Pollutant pollutant) {
+		return values[arcIndex * POLLUTANTS + pollutant.ordinal()];
+	}
+
+	/**
+	 * Feeds the specified aggregator with the absolute pollution
+	 * values of all the registered arcs.
+	 *
+	 * @param aggregator pollution aggregator
+	 */
+	public void aggregate(PollutionAggregator aggregator) {
+		Pollutant[] pollutants = Pollutant.values();
+		for (int arcIndex = 0; arcIndex < arcCount; arcIndex++) {
+			for (Pollutant pollutant : pollutants) {
+				aggregator.aggregate(pollutant, values[arcIndex * POLLUTANTS + pollutant.ordinal()]);
+			}
+		}
+	}
+
+	/**
+	 * Resets the pollution of the given arc.
+	 *
+	 * @param arcIndex arc index
+	 */
+	public void reset(int arcIndex) {
+		Arrays.fill(values, arcIndex * POLLUTANTS, (arcIndex + 1) * POLLUTANTS, 0.);
+	}
+
+	/**
+	 * Resets the pollution of all the registered arcs.
+	 */
+	public void reset() {
+		Arrays.fill(values, 0, arcCount * POLLUTANTS, 0.);
+		if (timeSeries != null) {
+			timeSeries.reset();
+		}
+	}
+}
@@ -15,8 +15,6 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 public class Pollution extends HashMap<Pollutant, PollutionRate>{
 
 	private static final long serialVersionUID = 1L;
-	
-	public static Pollution pollutionRatePeeks = new Pollution();
 
 	/**
 	 * Pollution constructor. A entry is created for each
@@ -28,4 +26,16 @@ public class Pollution extends HashMap<Pollutant, PollutionRate>{
 			put(pollutant, new PollutionRate(pollutant));
 		}
 	}
+	
+	/**
+	 * Feeds the specified aggregator with the absolute value of
+	 * each pollution rate.
+	 * 
+	 * @param aggregator pollution aggregator
+	 */
+	public void aggregate(PollutionAggregator aggregator) {
+		for(Entry<Pollutant, PollutionRate> pollutionRate : entrySet()) {
+			aggregator.aggregate(pollutionRate.getKey(), pollutionRate.getValue().getAbsValue());
+		}
+	}
 }
@@ -0,0 +1,27 @@
+package org.liris.smartgov.lez.core.environment.pollution;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+
+/**
+ * Receives absolute pollution values from pollution sources (arcs, neighborhoods...)
+ * to compute an aggregated indicator, only when it is required (e.g. : at
+ * serialization time).
+ *
+ * <p>
+ * Aggregators are not involved when pollution is emitted, so that
+ * the simulation hot path only consists in accumulating values.
+ * </p>
+ *
+ */
+public interface PollutionAggregator {
+
+	/**
+	 * Aggregates the absolute pollution value of a source for the
+	 * given pollutant.
+	 *
+	 * @param pollutant pollutant
+	 * @param pollution absolute pollution of the source, in g
+	 */
+	public void aggregate(Pollutant pollutant, double pollution);
+
+}
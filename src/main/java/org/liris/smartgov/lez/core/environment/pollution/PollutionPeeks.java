@@ -0,0 +1,46 @@
+package org.liris.smartgov.lez.core.environment.pollution;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+
+/**
+ * Aggregator that keeps the highest pollution value received for each
+ * {@link org.liris.smartgov.lez.core.copert.fields.Pollutant}.
+ *
+ * <p>
+ * Because all pollution rates are averaged on the same simulation time, the
+ * highest absolute value also corresponds to the highest pollution rate.
+ * </p>
+ *
+ */
+public class PollutionPeeks implements PollutionAggregator {
+
+	private double[] peeks;
+
+	/**
+	 * PollutionPeeks constructor. All peeks are initialized to 0.
+	 */
+	public PollutionPeeks() {
+		peeks = new double[Pollutant.values().length];
+	}
+
+	@Override
+	public void aggregate(Pollutant pollutant, double pollution) {
+		if(pollution > peeks[pollutant.ordinal()]) {
+			peeks[pollutant.ordinal()] = pollution;
+		}
+	}
+
+	/**
+	 * Returns the aggregated peeks, as a {@link Pollution} instance
+	 * that can be serialized as usual.
+	 *
+	 * @return pollution peeks
+	 */
+	public Pollution getPollution() {
+		Pollution pollution = new Pollution();
+		for(Pollutant pollutant : Pollutant.values()) {
+			pollution.get(pollutant).increasePollution(peeks[pollutant.ordinal()]);
+		}
+		return pollution;
+	}
+}
@@ -1,5 +1,7 @@
 package org.liris.smartgov.lez.core.environment.pollution;
 
+import java.util.concurrent.atomic.DoubleAdder;
+
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import org.liris.smartgov.lez.core.copert.fields.Pollutant;
@@ -9,12 +11,19 @@ import org.liris.smartgov.simulator.SmartGov;
 /**
  * Represents an emitted amount of pollution for a given pollutant.
  *
+ * <p>
+ * The amount is accumulated in a {@link DoubleAdder}, so that pollution can
+ * be increased concurrently from several threads without any lock : under
+ * contention, increments are spread over several cells, only summed when
+ * the value is read.
+ * </p>
+ *
  */
 @JsonSerialize(using = PollutionRateSerializer.class)
 public class PollutionRate {
 
 	private Pollutant pollutant;
-	private double pollution = 0; // Pollution in g
+	private DoubleAdder pollution = new DoubleAdder(); // Pollution in g
 	
 	/**
 	 * PollutionRate constructor.
@@ -27,19 +36,18 @@ public class PollutionRate {
 	
 	/**
 	 * Increase pollution by the specified amount for this pollutant.
-	 * {@link Pollution#pollutionRatePeeks} will be updated accordingly.
+	 * 
+	 * <p>
+	 * Indicators such as pollution peeks are not updated there, but computed
+	 * afterwards by a {@link PollutionAggregator}.
+	 * </p>
 	 * 
 	 * @param pollution emission amount in g
 	 */
 	public void increasePollution(double pollution) {
-		this.pollution += pollution;
-		// TODO : improve performances
-		if (Pollution.pollutionRatePeeks.get(pollutant) != this) {
-			if(getValue() > Pollution.pollutionRatePeeks.get(pollutant).getValue()) {
-				Pollution.pollutionRatePeeks.put(pollutant, this);
-			}
-		}
+		this.pollution.add(pollution);
 	}
+
 	
 	/**
 	 * Returns the absolute pollution accumulated by this pollution rate.
@@ -47,7 +55,7 @@ public class PollutionRate {
 	 * @return emission amount in g
 	 */
 	public double getAbsValue() {
-		return pollution;
+		return pollution.sum();
 	}
 	
 	/**
@@ -57,11 +65,11 @@ public class PollutionRate {
 	 * @return pollution rate in g/s
 	 */
 	public double getValue() {
-		return pollution / (SmartGov.getRuntime().getTickCount() * SmartGov.getRuntime().getTickDuration());
+		return pollution.sum() / (SmartGov.getRuntime().getTickCount() * SmartGov.getRuntime().getTickDuration());
 	}
 	
 	@Override
 	public String toString() {
-		return "[Absolute value : " + pollution + "] ; [Value : " + getValue() + "]";
+		return "[Absolute value : " + pollution.sum() + "] ; [Value : " + getValue() + "]";
 	}
 }
@@ -0,0 +1,201 @@
+package org.liris.smartgov.lez.core.environment.pollution;
+
+import java.util.Arrays;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+
+/**
+ * Pollution emitted by a set of series (typically arcs) over fixed-width
+ * time buckets.
+ *
+ * <p>
+ * The bucket <code>b</code> covers the simulated period
+ * <code>[b * bucketDuration, (b + 1) * bucketDuration[</code>. Only the
+ * <code>bucketCount</code> most recent buckets are kept, in a ring buffer :
+ * memory is bounded by <code>bucketCount * seriesCount * Pollutant.values().length</code>
+ * doubles, and emissions that fall in an already evicted bucket are
+ * ignored.
+ * </p>
+ *
+ * <p>
+ * As in the {@link ArcPollutionLedger}, the value of the pollutant <code>p</code>
+ * for the series <code>i</code> is stored at <code>i * Pollutant.values().length + p.ordinal()</code>
+ * in the array of each bucket. Values are given in g.
+ * </p>
+ *
+ */
+public class PollutionTimeSeries {
+
+	/**
+	 * Configuration property used to enable time series, with the duration
+	 * of each bucket in seconds.
+	 */
+	public static final String BUCKET_DURATION_PROPERTY = "pollution_time_bucket";
+
+	/**
+	 * Configuration property used to set the maximum number of buckets kept.
+	 */
+	public static final String BUCKET_COUNT_PROPERTY = "pollution_time_buckets";
+
+	/**
+	 * Default maximum number of buckets kept : one day of 15 minutes buckets.
+	 */
+	public static final int DEFAULT_BUCKET_COUNT = 96;
+
+	private static final int POLLUTANTS = Pollutant.values().length;
+
+	private double bucketDuration;
+	private int bucketCount;
+	private int seriesCapacity;
+	private double[][] slots;
+	private long[] slotBuckets;
+	private long lastBucket;
+
+	private long currentBucket;
+	private double[] currentSlot;
+
+	/**
+	 * PollutionTimeSeries constructor.
+	 *
+	 * @param bucketDuration duration of each bucket in seconds
+	 * @param bucketCount maximum number of buckets kept
+	 * @param seriesCapacity initial number of series
+	 */
+	public PollutionTimeSeries(double bucketDuration, int bucketCount, int seriesCapacity) {
+		if (bucketDuration <= 0 || bucketCount < 1) {
+			throw new IllegalArgumentException("Bucket duration and bucket count must be positive.");
+		}
+		this.bucketDuration = bucketDuration;
+		this.bucketCount = bucketCount;
+		this.seriesCapacity = Math.max(1, seriesCapacity);
+		this.slots = new double[bucketCount][];
+		this.slotBuckets = new long[bucketCount];
+		reset();
+	}
+
+	/**
+	 * Ensures that series indexes lower than the specified count can be used.
+	 *
+	 * @param seriesCount required number of series
+	 */
+	public void ensureCapacity(int seriesCount) {
+		if (seriesCount > seriesCapacity) {
+			int capacity = Math.max(seriesCount, 2 * seriesCapacity);
+			for (int slot = 0; slot < bucketCount; slot++) {
+				if (slots[slot] != null) {
+					slots[slot] = Arrays.copyOf(slots[slot], capacity * POLLUTANTS);
+				}
+			}
+			seriesCapacity = capacity;
+			currentSlot = currentBucket < 0 ? null : slots[(int) (currentBucket % bucketCount)];
+		}
+	}
+
+	/**
+	 * Adds an emission to the bucket that contains the specified simulated time.
+	 *
+	 * @param series series index
+	 * @param pollutant pollutant
+	 * @param increment emission in g
+	 * @param time simulated time in seconds
+	 */
+	public void increase(int series, Pollutant pollutant, double increment, double time) {
+		long bucket = (long) Math.floor(time / bucketDuration);
+		if (bucket != currentBucket) {
+			double[] slot = slot(bucket);
+			if (slot == null) {
+				return;
+			}
+			currentBucket = bucket;
+			currentSlot = slot;
+		}
+		currentSlot[series * POLLUTANTS + pollutant.ordinal()] += increment;
+	}
+
+	/*
+	 * Returns the array of the specified bucket, evicting the oldest bucket
+	 * if necessary, or null if the bucket has already been evicted.
+	 */
+	private double[] slot(long bucket) {
+		if (bucket < 0 || bucket <= lastBucket - bucketCount) {
+			return null;
+		}
+		int slot = (int) (bucket % bucketCount);
+		if (slotBuckets[slot] != bucket) {
+			if (slots[slot] == null) {
+				slots[slot] = new double[seriesCapacity * POLLUTANTS];
+			}
+			else {
+				Arrays.fill(slots[slot], 0.);
+			}
+			slotBuckets[slot] = bucket;
+		}
+		lastBucket = Math.max(lastBucket, bucket);
+		return slots[slot];
+	}
+
+	/**
+	 * Returns the emission of the specified series and pollutant during the specified bucket.
+	 *
+	 * @param series series index
+	 * @param pollutant pollutant
+	 * @param bucket absolute bucket index
+	 * @return emission in g, or 0 if the bucket is not kept
+	 */
+	public double get(int series, Pollutant pollutant, long bucket) {
+		if (bucket < 0) {
+			return 0.;
+		}
+		int slot = (int) (bucket % bucketCount);
+		if (slotBuckets[slot] != bucket) {
+			return 0.;
+		}
+		return slots[slot][series * POLLUTANTS + pollutant.ordinal()];
+	}
+
+	/**
+	 * Returns the duration of each bucket.
+	 *
+	 * @return bucket duration in seconds
+	 */
+	public double getBucketDuration() {
+		return bucketDuration;
+	}
+
+	/**
+	 * Returns the maximum number of buckets kept.
+	 *
+	 * @return bucket count
+	 */
+	public int getBucketCount() {
+		return bucketCount;
+	}
+
+	/**
+	 * Returns the index of the oldest bucket kept, or 0 if no emission has been recorded.
+	 *
+	 * @return first bucket index
+	 */
+	public long getFirstBucket() {
+		return Math.max(0, lastBucket - bucketCount + 1);
+	}
+
+	/**
+	 * Returns the index of the most recent bucket, or -1 if no emission has been recorded.
+	 *
+	 * @return last bucket index
+	 */
+	public long getLastBucket() {
+		return lastBucket;
+	}
+
+	/**
+	 * Removes all the recorded emissions.
+	 */
+	public void reset() {
+		Arrays.fill(slotBuckets, -1);
+		lastBucket = -1;
+		currentBucket = -1;
+		currentSlot = null;
+	}
+}
@@ -0,0 +1,43 @@
+package org.liris.smartgov.lez.core.output.pollution;
+
+import java.io.IOException;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.environment.pollution.ArcPollution;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Serialize arc pollution values using
+ * {@link org.liris.smartgov.lez.core.environment.pollution.ArcPollution#getValue(Pollutant)},
+ * as g/s, directly from the underlying ledger.
+ *
+ */
+public class ArcPollutionSerializer extends StdSerializer<ArcPollution> {
+
+	private static final long serialVersionUID = 1L;
+
+	public ArcPollutionSerializer() {
+		this(null);
+	}
+
+	protected ArcPollutionSerializer(Class<ArcPollution> t) {
+		super(t);
+	}
+
+	@Override
+	public void serialize(ArcPollution value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartObject();
+		for(Pollutant pollutant : Pollutant.values()) {
+			double pollutionRate = value.getValue(pollutant);
+			if(Double.isNaN(pollutionRate))
+				gen.writeNumberField(pollutant.name(), 0.);
+			else
+				gen.writeNumberField(pollutant.name(), pollutionRate);
+		}
+		gen.writeEndObject();
+	}
+
+}
@@ -0,0 +1,371 @@
+package org.liris.smartgov.lez.core.output.pollution;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.lez.core.environment.pollution.PollutionTimeSeries;
+import org.liris.smartgov.simulator.SmartGov;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.liris.smartgov.simulator.urban.geo.environment.graph.GeoNode;
+
+/**
+ * Writes arcs pollution in a compact columnar binary format, that can be
+ * memory mapped by the {@link org.liris.smartgov.lez.process.arcs.load.PollutionSnapshot}
+ * reader.
+ *
+ * <p>
+ * Two kinds of files are written :
+ * </p>
+ * <ul>
+ * <li> An arc dictionary, written once per graph, that contains the arcs ids,
+ * nodes, lengths, start positions and target positions.</li>
+ * <li> Pollution snapshots, that only contain one column of pollution rates
+ * (in g/s) per pollutant, in the arcs order of the dictionary.</li>
+ * </ul>
+ *
+ * <p>
+ * Both files start with a hash of the arcs identifiers, so that a snapshot
+ * can't be read with the dictionary of another graph. Values are stored
+ * in big endian order.
+ * </p>
+ *
+ * <p>
+ * Dictionary layout :
+ * <code>MAGIC_DICTIONARY, VERSION, graphHash (long), arcCount,
+ * lengths (double[arcCount]), startLatitudes (double[arcCount]), startLongitudes (double[arcCount]),
+ * targetLatitudes (double[arcCount]), targetLongitudes (double[arcCount]),
+ * stringOffsets (int[arcCount + 1]), strings</code>,
+ * where each arc strings record contains the arc, start node and target node ids, each
+ * written as an unsigned short byte length followed by UTF-8 bytes, and
+ * <code>stringOffsets</code> are relative to the beginning of the strings section.
+ * </p>
+ *
+ * <p>
+ * Snapshot layout :
+ * <code>MAGIC_SNAPSHOT, VERSION, graphHash (long), arcCount, tickCount (long),
+ * duration in seconds (double), valueSize (4 or 8), pollutantCount, pollutant names, columns</code>,
+ * where each column contains the <code>float</code> or <code>double</code> values of
+ * one pollutant, in the order of the pollutant names.
+ * </p>
+ *
+ * <p>
+ * Time series layout :
+ * <code>MAGIC_TIME_SERIES, VERSION, graphHash (long), arcCount, bucketDuration in seconds (double),
+ * firstBucket (long), bucketCount, valueSize (4 or 8), pollutantCount, pollutant names, buckets</code>,
+ * where each bucket contains one column per pollutant, as in snapshots, with the
+ * emissions in g of each arc during the bucket.
+ * </p>
+ *
+ */
+public class PollutionSnapshotWriter {
+
+	/**
+	 * Arc dictionary files extension.
+	 */
+	public static final String DICTIONARY_EXTENSION = ".dict";
+
+	/**
+	 * Pollution snapshot files extension.
+	 */
+	public static final String SNAPSHOT_EXTENSION = ".pol";
+
+	/**
+	 * "ARCD"
+	 */
+	public static final int MAGIC_DICTIONARY = 0x41524344;
+
+	/**
+	 * "ARCP"
+	 */
+	public static final int MAGIC_SNAPSHOT = 0x41524350;
+
+	/**
+	 * Pollution time series files extension.
+	 */
+	public static final String TIME_SERIES_EXTENSION = ".pts";
+
+	/**
+	 * "ARCT"
+	 */
+	public static final int MAGIC_TIME_SERIES = 0x41524354;
+
+	/**
+	 * Current format version. Version 2 adds the target positions to the
+	 * dictionary.
+	 */
+	public static final int VERSION = 2;
+
+	private boolean singlePrecision;
+
+	/**
+	 * PollutionSnapshotWriter constructor.
+	 *
+	 * @param singlePrecision if true, pollution values are stored as float
+	 * instead of double
+	 */
+	public PollutionSnapshotWriter(boolean singlePrecision) {
+		this.singlePrecision = singlePrecision;
+	}
+
+	/**
+	 * Writes the dictionary of the specified arcs. The iteration order of the
+	 * collection defines the arcs order, that must be the same when snapshots
+	 * are written.
+	 *
+	 * @param arcs graph arcs
+	 * @param output output file
+	 * @throws IOException if the output file can't be written
+	 */
+	public void writeDictionary(Collection<? extends Arc> arcs, File output) throws IOException {
+		int arcCount = arcs.size();
+		double[] lengths = new double[arcCount];
+		double[] latitudes = new double[arcCount];
+		double[] longitudes = new double[arcCount];
+		double[] targetLatitudes = new double[arcCount];
+		double[] targetLongitudes = new double[arcCount];
+		byte[][] strings = new byte[3 * arcCount][];
+
+		int i = 0;
+		for (Arc arc : arcs) {
+			lengths[i] = arc.getLength();
+			if (arc.getStartNode() instanceof GeoNode) {
+				latitudes[i] = ((GeoNode) arc.getStartNode()).getPosition().lat;
+				longitudes[i] = ((GeoNode) arc.getStartNode()).getPosition().lon;
+			}
+			else {
+				latitudes[i] = Double.NaN;
+				longitudes[i] = Double.NaN;
+			}
+			if (arc.getTargetNode() instanceof GeoNode) {
+				targetLatitudes[i] = ((GeoNode) arc.getTargetNode()).getPosition().lat;
+				targetLongitudes[i] = ((GeoNode) arc.getTargetNode()).getPosition().lon;
+			}
+			else {
+				targetLatitudes[i] = Double.NaN;
+				targetLongitudes[i] = Double.NaN;
+			}
+			strings[3 * i] = utf8(arc.getId());
+			strings[3 * i + 1] = utf8(arc.getStartNode().getId());
+			strings[3 * i + 2] = utf8(arc.getTargetNode().getId());
+			i++;
+		}
+
+		try (DataOutputStream out = open(output)) {
+			out.writeInt(MAGIC_DICTIONARY);
+			out.writeInt(VERSION);
+			out.writeLong(graphHash(arcs));
+			out.writeInt(arcCount);
+			for (double length : lengths)
+				out.writeDouble(length);
+			for (double latitude : latitudes)
+				out.writeDouble(latitude);
+			for (double longitude : longitudes)
+				out.writeDouble(longitude);
+			for (double latitude : targetLatitudes)
+				out.writeDouble(latitude);
+			for (double longitude : targetLongitudes)
+				out.writeDouble(longitude);
+
+			int offset = 0;
+			out.writeInt(offset);
+			for (int arc = 0; arc < arcCount; arc++) {
+				for (int field = 0; field < 3; field++) {
+					offset += 2 + strings[3 * arc + field].length;
+				}
+				out.writeInt(offset);
+			}
+			for (byte[] string : strings) {
+				out.writeShort(string.length);
+				out.write(string);
+			}
+		}
+	}
+
+	/**
+	 * Writes the current pollution rates of the specified arcs, in g/s, computed
+	 * as in {@link ArcPollutionSerializer}. Arcs must be iterated in the order
+	 * of their dictionary.
+	 *
+	 * @param arcs graph arcs
+	 * @param output output file
+	 * @throws IOException if the output file can't be written
+	 */
+	public void writeSnapshot(Collection<? extends Arc> arcs, File output) throws IOException {
+		Pollutant[] pollutants = Pollutant.values();
+		int arcCount = arcs.size();
+		long tickCount = SmartGov.getRuntime().getTickCount();
+		double duration = tickCount * SmartGov.getRuntime().getTickDuration();
+
+		double[][] columns = new double[pollutants.length][arcCount];
+		int i = 0;
+		for (Arc arc : arcs) {
+			if (arc instanceof PollutableOsmArc) {
+				for (Pollutant pollutant : pollutants) {
+					double pollutionRate = ((PollutableOsmArc) arc).getPollution().getAbsValue(pollutant) / duration;
+					columns[pollutant.ordinal()][i] = Double.isNaN(pollutionRate) ? 0. : pollutionRate;
+				}
+			}
+			i++;
+		}
+
+		try (DataOutputStream out = open(output)) {
+			out.writeInt(MAGIC_SNAPSHOT);
+			out.writeInt(VERSION);
+			out.writeLong(graphHash(arcs));
+			out.writeInt(arcCount);
+			out.writeLong(tickCount);
+			out.writeDouble(duration);
+			out.writeInt(singlePrecision ? Float.BYTES : Double.BYTES);
+			out.writeInt(pollutants.length);
+			for (Pollutant pollutant : pollutants) {
+				byte[] name = utf8(pollutant.name());
+				out.writeShort(name.length);
+				out.write(name);
+			}
+			for (double[] column : columns) {
+				for (double value : column) {
+					if (singlePrecision)
+						out.writeFloat((float) value);
+					else
+						out.writeDouble(value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the buckets kept by the specified arcs time series. Arcs must be
+	 * iterated in the order of their dictionary.
+	 *
+	 * @param arcs graph arcs
+	 * @param timeSeries arcs time series, indexed by ledger index
+	 * @param output output file
+	 * @throws IOException if the output file can't be written
+	 */
+	public void writeTimeSeries(Collection<? extends Arc> arcs, PollutionTimeSeries timeSeries, File output) throws IOException {
+		Pollutant[] pollutants = Pollutant.values();
+		int[] series = series(arcs);
+		long firstBucket = timeSeries.getFirstBucket();
+		int bucketCount = (int) (timeSeries.getLastBucket() - firstBucket + 1);
+
+		try (DataOutputStream out = open(output)) {
+			out.writeInt(MAGIC_TIME_SERIES);
+			out.writeInt(VERSION);
+			out.writeLong(graphHash(arcs));
+			out.writeInt(series.length);
+			out.writeDouble(timeSeries.getBucketDuration());
+			out.writeLong(firstBucket);
+			out.writeInt(bucketCount);
+			out.writeInt(singlePrecision ? Float.BYTES : Double.BYTES);
+			out.writeInt(pollutants.length);
+			for (Pollutant pollutant : pollutants) {
+				byte[] name = utf8(pollutant.name());
+				out.writeShort(name.length);
+				out.write(name);
+			}
+			for (long bucket = firstBucket; bucket < firstBucket + bucketCount; bucket++) {
+				for (Pollutant pollutant : pollutants) {
+					for (int arc : series) {
+						double value = arc < 0 ? 0. : timeSeries.get(arc, pollutant, bucket);
+						if (singlePrecision)
+							out.writeFloat((float) value);
+						else
+							out.writeDouble(value);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sums the time series of the arcs of each neighborhood. The first value
+	 * of each series corresponds to the first bucket kept by the time series.
+	 *
+	 * @param arcs graph arcs
+	 * @param timeSeries arcs time series, indexed by ledger index
+	 * @return emissions in g during each bucket, by neighborhood id and pollutant
+	 */
+	public static Map<String, Map<Pollutant, double[]>> neighborhoodTimeSeries(
+			Collection<? extends Arc> arcs, PollutionTimeSeries timeSeries) {
+		long firstBucket = timeSeries.getFirstBucket();
+		int bucketCount = (int) (timeSeries.getLastBucket() - firstBucket + 1);
+		Map<String, Map<Pollutant, double[]>> neighborhoods = new TreeMap<>();
+		for (Arc arc : arcs) {
+			if (arc instanceof PollutableOsmArc) {
+				PollutableOsmArc pollutableArc = (PollutableOsmArc) arc;
+				Map<Pollutant, double[]> neighborhood = neighborhoods.computeIfAbsent(
+						pollutableArc.getNeighborhoodId(),
+						id -> new EnumMap<>(Pollutant.class)
+						);
+				for (Pollutant pollutant : Pollutant.values()) {
+					double[] values = neighborhood.computeIfAbsent(pollutant, p -> new double[bucketCount]);
+					for (int bucket = 0; bucket < bucketCount; bucket++) {
+						values[bucket] += timeSeries.get(pollutableArc.getPollutionIndex(), pollutant, firstBucket + bucket);
+					}
+				}
+			}
+		}
+		return neighborhoods;
+	}
+
+	/*
+	 * Ledger index of each arc, or -1 for arcs that can't be polluted.
+	 */
+	private static int[] series(Collection<? extends Arc> arcs) {
+		int[] series = new int[arcs.size()];
+		int i = 0;
+		for (Arc arc : arcs) {
+			series[i++] = arc instanceof PollutableOsmArc ? ((PollutableOsmArc) arc).getPollutionIndex() : -1;
+		}
+		return series;
+	}
+
+	/**
+	 * Returns a 64 bits FNV-1a hash of the arcs, start nodes and target nodes
+	 * ids, in the iteration order of the collection.
+	 *
+	 * @param arcs graph arcs
+	 * @return graph hash
+	 */
+	public static long graphHash(Collection<? extends Arc> arcs) {
+		long hash = 0xcbf29ce484222325L;
+		for (Arc arc : arcs) {
+			hash = hash(hash, arc.getId());
+			hash = hash(hash, arc.getStartNode().getId());
+			hash = hash(hash, arc.getTargetNode().getId());
+		}
+		return hash;
+	}
+
+	private static long hash(long hash, String value) {
+		for (byte b : utf8(value)) {
+			hash ^= (b & 0xff);
+			hash *= 0x100000001b3L;
+		}
+		// Separator, so that ("ab", "c") and ("a", "bc") differ
+		hash ^= 0xff;
+		hash *= 0x100000001b3L;
+		return hash;
+	}
+
+	private static byte[] utf8(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static DataOutputStream open(File output) throws IOException {
+		File outputDir = output.getParentFile();
+		if (outputDir != null && !outputDir.exists())
+			outputDir.mkdirs();
+		return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output), 1 << 16));
+	}
+}
@@ -0,0 +1,255 @@
+package org.liris.smartgov.lez.core.output.pollution;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.simulator.SmartGov;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmArc;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes the state of the arcs as a JSON array, with the same fields as
+ * the ones produced when arcs are serialized with an ObjectMapper, and
+ * readable by the {@link org.liris.smartgov.lez.process.arcs.load.PollutedArcsLoader}.
+ *
+ * <p>
+ * Arcs are streamed with primitive writes, without building any
+ * intermediate object, and the output is flushed every
+ * <code>chunkSize</code> arcs. The output can optionally be compressed
+ * with gzip.
+ * </p>
+ *
+ * <p>
+ * Writes can be performed on a background thread with {@link #writeAsync(Collection, File)} :
+ * in this case, arcs values are copied on the calling thread, so that
+ * the simulation can be reset and started again while the previous
+ * output is still being written.
+ * </p>
+ *
+ */
+public class StreamingArcsWriter {
+
+	/**
+	 * Extension appended to compressed output files.
+	 */
+	public static final String GZIP_EXTENSION = ".gz";
+
+	/**
+	 * Default number of arcs written between two flushes.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	private static final JsonFactory factory = new JsonFactory();
+
+	private boolean prettyPrint;
+	private boolean gzip;
+	private int chunkSize;
+	private ExecutorService executor;
+
+	/**
+	 * StreamingArcsWriter constructor, with the default chunk size.
+	 *
+	 * @param prettyPrint enables JSON pretty printing
+	 * @param gzip compresses the output with gzip
+	 */
+	public StreamingArcsWriter(boolean prettyPrint, boolean gzip) {
+		this(prettyPrint, gzip, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * StreamingArcsWriter constructor.
+	 *
+	 * @param prettyPrint enables JSON pretty printing
+	 * @param gzip compresses the output with gzip
+	 * @param chunkSize number of arcs written between two flushes
+	 */
+	public StreamingArcsWriter(boolean prettyPrint, boolean gzip, int chunkSize) {
+		this.prettyPrint = prettyPrint;
+		this.gzip = gzip;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Returns the file actually written for the specified output file, what
+	 * includes the gzip extension if compression is enabled.
+	 *
+	 * @param output requested output file
+	 * @return written file
+	 */
+	public File outputFile(File output) {
+		if (gzip && !output.getName().endsWith(GZIP_EXTENSION)) {
+			return new File(output.getPath() + GZIP_EXTENSION);
+		}
+		return output;
+	}
+
+	/**
+	 * Writes the current state of the specified arcs to the output file,
+	 * from the calling thread.
+	 *
+	 * @param arcs arcs to write
+	 * @param output output file
+	 * @return written file
+	 * @throws IOException if the output file can't be written
+	 */
+	public File write(Collection<? extends Arc> arcs, File output) throws IOException {
+		return write(new ArcsSnapshot(arcs), outputFile(output));
+	}
+
+	/**
+	 * Copies the current state of the specified arcs, and writes it to the output
+	 * file from a background thread.
+	 *
+	 * <p>
+	 * Writes are performed one after the other, in the order in which they have
+	 * been requested.
+	 * </p>
+	 *
+	 * @param arcs arcs to write
+	 * @param output output file
+	 * @return future written file
+	 */
+	public synchronized Future<File> writeAsync(Collection<? extends Arc> arcs, File output) {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "arcs-writer");
+				thread.setDaemon(false);
+				return thread;
+			});
+		}
+		ArcsSnapshot snapshot = new ArcsSnapshot(arcs);
+		File outputFile = outputFile(output);
+		return executor.submit(() -> {
+			try {
+				return write(snapshot, outputFile);
+			} catch (IOException e) {
+				// Otherwise only reported if the future is checked
+				e.printStackTrace();
+				throw e;
+			}
+		});
+	}
+
+	/**
+	 * Stops the background thread once all the pending writes have been performed.
+	 */
+	public synchronized void shutdown() {
+		if (executor != null) {
+			executor.shutdown();
+			executor = null;
+		}
+	}
+
+	private File write(ArcsSnapshot snapshot, File output) throws IOException {
+		File outputDir = output.getParentFile();
+		if (outputDir != null && !outputDir.exists())
+			outputDir.mkdirs();
+
+		OutputStream stream = new BufferedOutputStream(new FileOutputStream(output), 1 << 16);
+		if (gzip) {
+			stream = new GZIPOutputStream(stream, 1 << 16);
+		}
+		try (JsonGenerator gen = factory.createGenerator(stream, JsonEncoding.UTF8)) {
+			if (prettyPrint) {
+				gen.useDefaultPrettyPrinter();
+			}
+			Pollutant[] pollutants = Pollutant.values();
+			gen.writeStartArray();
+			for (int i = 0; i < snapshot.size; i++) {
+				gen.writeStartObject();
+				gen.writeStringField("id", snapshot.ids[i]);
+				gen.writeStringField("startNode", snapshot.startNodes[i]);
+				gen.writeStringField("targetNode", snapshot.targetNodes[i]);
+				gen.writeNumberField("length", snapshot.lengths[i]);
+				if (snapshot.roadDirections[i] != null) {
+					gen.writeStringField("roadDirection", snapshot.roadDirections[i]);
+				}
+				if (snapshot.neighborhoods[i] != null) {
+					gen.writeStringField("neighborhoodId", snapshot.neighborhoods[i]);
+				}
+				if (snapshot.pollutable[i]) {
+					gen.writeObjectFieldStart("pollution");
+					for (Pollutant pollutant : pollutants) {
+						gen.writeNumberField(
+								pollutant.name(),
+								snapshot.pollution[i * pollutants.length + pollutant.ordinal()]
+								);
+					}
+					gen.writeEndObject();
+				}
+				gen.writeEndObject();
+				if ((i + 1) % chunkSize == 0) {
+					gen.flush();
+				}
+			}
+			gen.writeEndArray();
+		}
+		return output;
+	}
+
+	/*
+	 * Copy of the arcs fields, with pollution rates in g/s computed
+	 * as in ArcPollutionSerializer.
+	 */
+	private static class ArcsSnapshot {
+		private int size;
+		private String[] ids;
+		private String[] startNodes;
+		private String[] targetNodes;
+		private double[] lengths;
+		private String[] roadDirections;
+		private String[] neighborhoods;
+		private boolean[] pollutable;
+		private double[] pollution;
+
+		ArcsSnapshot(Collection<? extends Arc> arcs) {
+			Pollutant[] pollutants = Pollutant.values();
+			size = arcs.size();
+			ids = new String[size];
+			startNodes = new String[size];
+			targetNodes = new String[size];
+			lengths = new double[size];
+			roadDirections = new String[size];
+			neighborhoods = new String[size];
+			pollutable = new boolean[size];
+			pollution = new double[size * pollutants.length];
+
+			double time = SmartGov.getRuntime().getTickCount() * SmartGov.getRuntime().getTickDuration();
+			int i = 0;
+			for (Arc arc : arcs) {
+				ids[i] = arc.getId();
+				startNodes[i] = arc.getStartNode().getId();
+				targetNodes[i] = arc.getTargetNode().getId();
+				lengths[i] = arc.getLength();
+				if (arc instanceof OsmArc) {
+					roadDirections[i] = ((OsmArc) arc).getRoadDirection().name();
+				}
+				if (arc instanceof PollutableOsmArc) {
+					PollutableOsmArc pollutableArc = (PollutableOsmArc) arc;
+					neighborhoods[i] = pollutableArc.getNeighborhoodId();
+					pollutable[i] = true;
+					for (Pollutant pollutant : pollutants) {
+						double pollutionRate = pollutableArc.getPollution().getAbsValue(pollutant) / time;
+						pollution[i * pollutants.length + pollutant.ordinal()] =
+								Double.isNaN(pollutionRate) ? 0. : pollutionRate;
+					}
+				}
+				i++;
+			}
+		}
+	}
+}
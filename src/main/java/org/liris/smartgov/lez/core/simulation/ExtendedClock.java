@@ -0,0 +1,51 @@
+package org.liris.smartgov.lez.core.simulation;
+
+import java.util.PriorityQueue;
+
+import org.liris.smartgov.simulator.core.simulation.time.Clock;
+import org.liris.smartgov.simulator.core.simulation.time.Date;
+import org.liris.smartgov.simulator.core.simulation.time.DelayedActionHandler;
+
+/**
+ * Clock that keeps track of the dates of its delayed actions, so that the
+ * {@link ExtendedSimulationRuntime} can know when the next one will be
+ * triggered.
+ *
+ */
+public class ExtendedClock extends Clock {
+
+	private PriorityQueue<Double> delayedActionTimes = new PriorityQueue<>();
+
+	@Override
+	public synchronized void addDelayedAction(DelayedActionHandler action) {
+		super.addDelayedAction(action);
+		delayedActionTimes.add(seconds(action.getDate()));
+	}
+
+	/**
+	 * Returns the date of the next delayed action that has not been triggered
+	 * yet at the specified time. Actions scheduled exactly at the specified time
+	 * are considered as not triggered.
+	 *
+	 * @param time current simulated time, in seconds from the beginning of the simulation
+	 * @return date of the next delayed action in seconds, or
+	 * <code>Double.POSITIVE_INFINITY</code> if no action is scheduled
+	 */
+	public synchronized double getNextDelayedActionTime(double time) {
+		while (!delayedActionTimes.isEmpty() && delayedActionTimes.peek() < time) {
+			delayedActionTimes.poll();
+		}
+		return delayedActionTimes.isEmpty() ? Double.POSITIVE_INFINITY : delayedActionTimes.peek();
+	}
+
+	/**
+	 * Returns the number of seconds from the beginning of the simulation
+	 * to the specified date.
+	 *
+	 * @param date date
+	 * @return time in seconds
+	 */
+	public static double seconds(Date date) {
+		return date.getDay() * 86400. + date.getHour() * 3600. + date.getMinutes() * 60. + date.getSeconds();
+	}
+}
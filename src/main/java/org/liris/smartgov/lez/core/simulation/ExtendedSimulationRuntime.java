@@ -4,22 +4,131 @@ import java.util.ArrayList;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
 import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.agent.core.Agent;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
 import org.liris.smartgov.simulator.core.simulation.SimulationRuntime;
-import org.liris.smartgov.simulator.core.simulation.time.Clock;
 
 /**
  * Customized SimulationRuntime
+ *
+ * <p>
+ * Unless the "time_skipping" configuration property is set to false, ticks
+ * in which every agent waits in a parking area are skipped : the clock is
+ * directly moved to the last tick before the next delayed action, if any, what
+ * does not change results since waiting agents neither move nor pollute.
+ * </p>
  * @author alban
  *
  */
 public class ExtendedSimulationRuntime extends SimulationRuntime {
+	
+	/**
+	 * Configuration property used to disable time skipping.
+	 */
+	public static final String TIME_SKIPPING_PROPERTY = "time_skipping";
+	
 	private final Logger logger = LogManager.getLogger(ExtendedSimulationRuntime.class);
+	private int maxTicks = -1;
+	private long checkedTick = -1;
+	private long skippedTicks;
+	
 	public ExtendedSimulationRuntime (SmartGovContext context) {
 		super(context);
-		clock = new Clock();
+		clock = new ExtendedClock();
+	}
+	
+	@Override
+	public void start(int maxTicks) {
+		this.maxTicks = maxTicks;
+		super.start(maxTicks);
+	}
+	
+	/**
+	 * Called by agents before their tick. The first call of each tick skips
+	 * the following ticks if all the agents of the context are waiting.
+	 */
+	public void beforeAgentTick() {
+		if (tickCount == checkedTick) {
+			return;
+		}
+		if (timeSkipping() && allAgentsWaiting()) {
+			skipIdleTicks();
+		}
+		checkedTick = tickCount;
+	}
+	
+	/**
+	 * Returns the number of ticks skipped since the simulation started.
+	 *
+	 * @return skipped ticks
+	 */
+	public long getSkippedTicks() {
+		return skippedTicks;
+	}
+	
+	private boolean timeSkipping() {
+		Object property = context.getConfig().get(TIME_SKIPPING_PROPERTY);
+		return property == null || Boolean.parseBoolean(property.toString().trim());
+	}
+	
+	private boolean allAgentsWaiting() {
+		for (Agent<?> agent : context.agents.values()) {
+			if (!(agent instanceof WaitingAgent) || !((WaitingAgent) agent).isWaiting()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * Increments the clock tick after tick, exactly as the runtime would do, as
+	 * long as the next delayed action is not reached, and without running the
+	 * agents. The current tick is then run normally, and the delayed action is
+	 * triggered at the end of the same tick as without skipping. The last tick
+	 * is never skipped.
+	 */
+	private void skipIdleTicks() {
+		double tickDuration = getTickDuration();
+		double nextAction = ((ExtendedClock) clock).getNextDelayedActionTime(tickCount * tickDuration);
+		long idleTicks = idleTicks(tickCount, tickDuration, nextAction, maxTicks);
+		for (long tick = 0; tick < idleTicks; tick++) {
+			clock.increment(tickDuration);
+			tickCount++;
+			skippedTicks++;
+		}
+	}
+	
+	/**
+	 * Returns the number of ticks that can be skipped from the specified tick
+	 * until the next delayed action.
+	 * 
+	 * <p>
+	 * Nothing is skipped if no delayed action is pending : waiting agents
+	 * would otherwise wait forever, and an unbounded simulation would never
+	 * end. Ticks are then run normally.
+	 * </p>
+	 * 
+	 * @param tickCount current tick
+	 * @param tickDuration duration of a tick, in seconds
+	 * @param nextAction time of the next delayed action, in seconds, as
+	 * returned by {@link ExtendedClock#getNextDelayedActionTime(double)}
+	 * @param maxTicks maximum number of ticks of the simulation, or a
+	 * negative value if the simulation is unbounded
+	 * @return number of ticks to skip
+	 */
+	static long idleTicks(long tickCount, double tickDuration, double nextAction, int maxTicks) {
+		if (Double.isInfinite(nextAction) || Double.isNaN(nextAction)) {
+			return 0;
+		}
+		long idleTicks = 0;
+		while ((tickCount + idleTicks + 1) * tickDuration < nextAction
+				&& (maxTicks < 0 || tickCount + idleTicks + 1 < maxTicks)) {
+			idleTicks++;
+		}
+		return idleTicks;
 	}
 	
 	/**
@@ -31,10 +140,16 @@ public class ExtendedSimulationRuntime extends SimulationRuntime {
 			throw new IllegalStateException("A Simulation is already running in this SmartGovRuntime.");
 		}
 		this.context = context;
-		clock = new Clock();
+		if (context instanceof LezContext && ((LezContext) context).getTickExecutor() != null) {
+			// Tick count starts again from 0
+			((LezContext) context).getTickExecutor().reset();
+		}
+		clock = new ExtendedClock();
 		run = true;
 		pause = false;
 		tickCount = 0;
+		checkedTick = -1;
+		skippedTicks = 0;
 		simulationThread.resumeSimulation();
 		triggerSimulationStartedListeners();
 	}
@@ -49,11 +164,16 @@ public class ExtendedSimulationRuntime extends SimulationRuntime {
 		if(!run) {
 			throw new IllegalStateException("No simulation running.");
 		}
-		logger.info("Stop simulation after " + tickCount + " ticks.");
+		logger.info("Stop simulation after " + tickCount + " ticks (" + skippedTicks + " skipped).");
 		pause = false;
 		run = false;
 		//clock.reset();
+		if (context instanceof LezContext && ((LezContext) context).getTickExecutor() != null) {
+			// Before the listeners, that might restart the simulation
+			((LezContext) context).getTickExecutor().shutdown();
+		}
 		triggerSimulationStoppedListeners();
+		FilesManagement.flush();
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package org.liris.smartgov.lez.core.simulation;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.liris.smartgov.lez.core.agent.establishment.preprocess.CasesManager;
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.simulation.scenario.PollutionScenario;
+import org.liris.smartgov.lez.politic.PoliticalSession;
+
+/**
+ * Mutable state of one simulation, owned by its {@link LezContext} : cases
+ * counters, number of agents to load, behavior types of private agents,
+ * random instance used to generate fleets and political layer.
+ *
+ * <p>
+ * Simulations only use the session of their context, so that several
+ * simulations can be run in the same JVM without sharing their state.
+ * </p>
+ *
+ * <p>
+ * The former static fields and methods that held this state are kept as a
+ * deprecated facade for the single simulation case : they refer to the
+ * current session, i.e. the session of the last created context.
+ * </p>
+ *
+ */
+public class LezSession {
+
+	/*
+	 * Seed of the random instance used to generate fleets.
+	 */
+	private static final long FLEET_SEED = 240720191835l;
+
+	private static volatile LezSession current = new LezSession();
+
+	private final CasesManager casesManager = new CasesManager();
+	private final Map<String, String> savedBehaviorTypes = new ConcurrentHashMap<>();
+	private final Random fleetRandom = new Random(FLEET_SEED);
+	private final PoliticalSession politics = new PoliticalSession();
+	private volatile int nbAgents;
+
+	/**
+	 * Returns the current session, used by the deprecated static API.
+	 *
+	 * @return session of the last created context
+	 */
+	public static LezSession getCurrent() {
+		return current;
+	}
+
+	/**
+	 * Makes this session the current one, and the deprecated static fields
+	 * refer to its state.
+	 */
+	@SuppressWarnings("deprecation")
+	public synchronized void makeCurrent() {
+		current = this;
+		PollutionScenario.random = fleetRandom;
+		politics.publish();
+	}
+
+	/**
+	 * Returns the counters of the agents in each case, used by agents
+	 * to take their decisions.
+	 *
+	 * @return cases counters
+	 */
+	public CasesManager getCasesManager() {
+		return casesManager;
+	}
+
+	/**
+	 * Returns the maximum number of rounds loaded from the establishments
+	 * file, and so of agents.
+	 *
+	 * @return maximum number of agents
+	 */
+	public int getNbAgents() {
+		return nbAgents;
+	}
+
+	public void setNbAgents(int nbAgents) {
+		this.nbAgents = nbAgents;
+	}
+
+	/**
+	 * Returns the behavior type chosen for each private agent id, kept
+	 * from one simulation to the next ones.
+	 *
+	 * @return behavior types by agent id
+	 */
+	public Map<String, String> getSavedBehaviorTypes() {
+		return savedBehaviorTypes;
+	}
+
+	/**
+	 * Returns the random instance used to generate fleets, generated
+	 * from a fixed seed : 240720191835
+	 *
+	 * @return fleet random instance
+	 */
+	public Random getFleetRandom() {
+		return fleetRandom;
+	}
+
+	/**
+	 * Sets the seed of the fleet random instance back to its initial value.
+	 */
+	public void resetFleetRandom() {
+		fleetRandom.setSeed(FLEET_SEED);
+	}
+
+	public PoliticalSession getPolitics() {
+		return politics;
+	}
+}
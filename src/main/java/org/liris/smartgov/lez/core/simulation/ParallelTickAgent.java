@@ -0,0 +1,24 @@
+package org.liris.smartgov.lez.core.simulation;
+
+import org.liris.smartgov.lez.core.agent.establishment.Establishment;
+
+/**
+ * An agent that can be run by a {@link ParallelTickExecutor}.
+ *
+ */
+public interface ParallelTickAgent {
+
+	/**
+	 * Performs the tick of this agent, as the runtime would do without
+	 * parallel ticks.
+	 */
+	void liveSequentially();
+
+	/**
+	 * Returns the establishment of the agent. Agents of the same establishment
+	 * are never run concurrently.
+	 *
+	 * @return agent's establishment
+	 */
+	Establishment getEstablishment();
+}
@@ -0,0 +1,193 @@
+package org.liris.smartgov.lez.core.simulation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.liris.smartgov.simulator.SmartGov;
+import org.liris.smartgov.simulator.core.agent.core.Agent;
+import org.liris.smartgov.simulator.core.environment.SmartGovContext;
+
+/**
+ * Runs the agents of each tick on several worker threads.
+ *
+ * <p>
+ * The simulation runtime still calls <code>live()</code> on each
+ * agent, in the order of the context agents. The first call of a tick runs the
+ * tick of all the {@link ParallelTickAgent}s of the context, and the following
+ * calls of the same tick do nothing.
+ * </p>
+ *
+ * <p>
+ * Agents that share an establishment, and so the same parking area, are run
+ * one after the other in the same task, in their original order. Other agents
+ * are run concurrently. While an agent is run by a worker, every action that
+ * modifies state shared between agents (arc and neighborhood pollution,
+ * satisfactions, round listeners...) must be passed to {@link #runOrDefer(Runnable)} :
+ * such actions are buffered per agent, and applied from the simulation thread
+ * at the end of the tick, in the order of the agents and then in the order in
+ * which they have been buffered. Shared values are then updated exactly as in a
+ * sequential tick, what keeps seeded results bit-reproducible.
+ * </p>
+ *
+ * <p>
+ * Worker threads are stopped when the simulation stops, and started again
+ * on the next tick if the simulation is restarted.
+ * </p>
+ *
+ */
+public class ParallelTickExecutor {
+
+	/**
+	 * Configuration property used to set the number of threads that run agents.
+	 * Parallel ticks are disabled if it is not set, or lower than 2.
+	 */
+	public static final String THREADS_PROPERTY = "parallel_tick_threads";
+
+	private static final ThreadLocal<List<Runnable>> deferredActions = new ThreadLocal<>();
+
+	private SmartGovContext context;
+	private int threads;
+	private ForkJoinPool pool;
+	private long currentTick;
+
+	private final AtomicInteger runningGroups = new AtomicInteger();
+	private final AtomicInteger peakRunningGroups = new AtomicInteger();
+
+	private int agentCount;
+	private List<List<ParallelTickAgent>> groups;
+	private Map<ParallelTickAgent, List<Runnable>> buffers;
+
+	/**
+	 * ParallelTickExecutor constructor.
+	 *
+	 * @param context context whose agents are run
+	 * @param threads number of worker threads
+	 */
+	public ParallelTickExecutor(SmartGovContext context, int threads) {
+		this.context = context;
+		this.threads = threads;
+		reset();
+	}
+
+	/**
+	 * Runs the specified action immediately, or buffers it until the end of the
+	 * current tick if it is called from a worker thread.
+	 *
+	 * @param action action that modifies state shared between agents
+	 */
+	public static void runOrDefer(Runnable action) {
+		List<Runnable> buffer = deferredActions.get();
+		if (buffer == null) {
+			action.run();
+		}
+		else {
+			buffer.add(action);
+		}
+	}
+
+	/**
+	 * Called by an agent in place of its sequential tick. Runs the tick of all the
+	 * agents the first time it is called for the current tick.
+	 *
+	 * @param agent agent called by the runtime
+	 */
+	public void live(ParallelTickAgent agent) {
+		long tick = SmartGov.getRuntime().getTickCount();
+		if (tick == currentTick) {
+			return;
+		}
+		currentTick = tick;
+		runTick();
+	}
+
+	/**
+	 * Returns the maximum number of groups of agents that have been run at
+	 * the same time since the last {@link #reset()}.
+	 *
+	 * @return peak number of concurrently run groups
+	 */
+	public int getPeakRunningGroups() {
+		return peakRunningGroups.get();
+	}
+
+	/**
+	 * Must be called when the agents of the context are built again, or when the
+	 * simulation is restarted.
+	 */
+	public void reset() {
+		currentTick = -1;
+		agentCount = -1;
+		groups = null;
+		buffers = null;
+		peakRunningGroups.set(0);
+	}
+
+	/**
+	 * Stops the worker threads. They are started again if another tick is run.
+	 */
+	public void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	private void runTick() {
+		if (groups == null || agentCount != context.agents.size()) {
+			buildGroups();
+		}
+		if (pool == null) {
+			pool = new ForkJoinPool(threads);
+		}
+		pool.submit(() ->
+			IntStream.range(0, groups.size()).parallel().forEach(group -> {
+				peakRunningGroups.accumulateAndGet(runningGroups.incrementAndGet(), Math::max);
+				try {
+					for (ParallelTickAgent agent : groups.get(group)) {
+						List<Runnable> buffer = buffers.get(agent);
+						deferredActions.set(buffer);
+						try {
+							agent.liveSequentially();
+						} finally {
+							deferredActions.remove();
+						}
+					}
+				} finally {
+					runningGroups.decrementAndGet();
+				}
+			})
+		).join();
+
+		for (List<Runnable> buffer : buffers.values()) {
+			for (Runnable action : buffer) {
+				action.run();
+			}
+			buffer.clear();
+		}
+	}
+
+	/*
+	 * Groups the agents by establishment, keeping the order of the context
+	 * agents within each group. Buffers are kept in the same order, so that
+	 * deferred actions are applied in the order of a sequential tick.
+	 */
+	private void buildGroups() {
+		Map<Object, List<ParallelTickAgent>> agentsByEstablishment = new LinkedHashMap<>();
+		buffers = new LinkedHashMap<>();
+		for (Agent<?> agent : context.agents.values()) {
+			if (agent instanceof ParallelTickAgent) {
+				ParallelTickAgent parallelAgent = (ParallelTickAgent) agent;
+				Object key = parallelAgent.getEstablishment() == null ? agent : parallelAgent.getEstablishment();
+				agentsByEstablishment.computeIfAbsent(key, k -> new ArrayList<>()).add(parallelAgent);
+				buffers.put(parallelAgent, new ArrayList<>());
+			}
+		}
+		groups = new ArrayList<>(agentsByEstablishment.values());
+		agentCount = context.agents.size();
+	}
+}
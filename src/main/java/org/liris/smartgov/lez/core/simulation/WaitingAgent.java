@@ -0,0 +1,17 @@
+package org.liris.smartgov.lez.core.simulation;
+
+/**
+ * An agent that can tell the {@link ExtendedSimulationRuntime} that it has
+ * nothing to do until a delayed action of the clock is triggered.
+ *
+ */
+public interface WaitingAgent {
+
+	/**
+	 * Returns true if the agent waits in a parking area, and will only move
+	 * again after a delayed action of the clock.
+	 *
+	 * @return true if the agent is waiting
+	 */
+	boolean isWaiting();
+}
@@ -0,0 +1,239 @@
+package org.liris.smartgov.lez.core.simulation.files;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of append only writers, used by {@link FilesManagement#appendToFile(String, String, String)}.
+ *
+ * <p>
+ * Instead of opening and closing the file on each call, one buffered
+ * writer is kept open per file. Writes are queued in a bounded queue, and
+ * performed by a background thread, in the order in which they have been
+ * requested : the calling thread only blocks when the queue is full.
+ * </p>
+ *
+ * <p>
+ * Writers are flushed each time the queue becomes empty, and synchronized
+ * with the disk every {@link #SYNC_PERIOD} milliseconds. Files are closed
+ * with {@link #close(String)} before they are read or overwritten, and all
+ * writers are flushed when a simulation is stopped and on JVM shutdown.
+ * </p>
+ *
+ */
+public class AppendWriters {
+
+	/**
+	 * Maximum number of pending writes.
+	 */
+	public static final int QUEUE_CAPACITY = 8192;
+
+	/**
+	 * Period, in milliseconds, between two synchronizations of the open files with the disk.
+	 */
+	public static final long SYNC_PERIOD = 5000;
+
+	private static final BlockingQueue<Request> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+	/*
+	 * Only accessed by the writer thread.
+	 */
+	private static final Map<String, Channel> channels = new HashMap<>();
+	private static long lastSync = System.currentTimeMillis();
+
+	static {
+		Thread writer = new Thread(AppendWriters::processRequests, "append-writers");
+		writer.setDaemon(true);
+		writer.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(AppendWriters::flush, "append-writers-shutdown"));
+	}
+
+	private AppendWriters() {
+	}
+
+	/**
+	 * Appends the specified lines to the file. A line separator is written
+	 * before each line, except at the beginning of an empty file.
+	 *
+	 * @param file path of the file
+	 * @param lines lines to append
+	 */
+	public static void append(String file, Iterable<String> lines) {
+		put(new Request(key(file), lines, null));
+	}
+
+	/**
+	 * Writes all the pending lines, and waits for them to be synchronized with the disk.
+	 */
+	public static void flush() {
+		await(new Request(null, null, new CountDownLatch(1)));
+	}
+
+	/**
+	 * Writes the pending lines of the specified file and closes it, so that
+	 * it can be safely read or overwritten. The file is opened again on the
+	 * next append.
+	 *
+	 * @param file path of the file
+	 */
+	public static void close(String file) {
+		await(new Request(key(file), null, new CountDownLatch(1)));
+	}
+
+	private static String key(String file) {
+		return new File(file).getAbsoluteFile().toPath().normalize().toString();
+	}
+
+	private static void await(Request request) {
+		put(request);
+		try {
+			request.done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void put(Request request) {
+		try {
+			queue.put(request);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void processRequests() {
+		while (true) {
+			try {
+				Request request = queue.poll(SYNC_PERIOD, TimeUnit.MILLISECONDS);
+				if (request != null) {
+					process(request);
+				}
+				if (queue.isEmpty()) {
+					boolean sync = System.currentTimeMillis() - lastSync >= SYNC_PERIOD;
+					for (Channel channel : channels.values()) {
+						channel.flush(sync);
+					}
+					if (sync) {
+						lastSync = System.currentTimeMillis();
+					}
+				}
+			} catch (InterruptedException e) {
+				return;
+			}
+		}
+	}
+
+	private static void process(Request request) {
+		try {
+			if (request.lines != null) {
+				Channel channel = channels.get(request.file);
+				if (channel == null) {
+					channel = new Channel(new File(request.file));
+					channels.put(request.file, channel);
+				}
+				channel.append(request.lines);
+			} else if (request.file == null) {
+				for (Channel channel : channels.values()) {
+					channel.flush(true);
+				}
+				lastSync = System.currentTimeMillis();
+			} else {
+				Channel channel = channels.remove(request.file);
+				if (channel != null) {
+					channel.close();
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			System.out.println("Error while writing file.");
+			e.printStackTrace();
+			if (request.file != null) {
+				Channel channel = channels.remove(request.file);
+				if (channel != null) {
+					channel.closeQuietly();
+				}
+			}
+		} finally {
+			if (request.done != null) {
+				request.done.countDown();
+			}
+		}
+	}
+
+	/*
+	 * Append request if it has lines, close request if it only has a file,
+	 * and flush request otherwise.
+	 */
+	private static class Request {
+		private final String file;
+		private final Iterable<String> lines;
+		private final CountDownLatch done;
+
+		Request(String file, Iterable<String> lines, CountDownLatch done) {
+			this.file = file;
+			this.lines = lines;
+			this.done = done;
+		}
+	}
+
+	/*
+	 * Open file, with the same encoding as a FileWriter.
+	 */
+	private static class Channel {
+		private final FileOutputStream stream;
+		private final BufferedWriter writer;
+		private boolean empty;
+		private boolean dirty;
+
+		Channel(File file) throws IOException {
+			empty = file.length() == 0;
+			stream = new FileOutputStream(file, true);
+			writer = new BufferedWriter(new OutputStreamWriter(stream, Charset.defaultCharset()), 1 << 16);
+		}
+
+		void append(Iterable<String> lines) throws IOException {
+			for (String line : lines) {
+				if (!empty) {
+					writer.write("\n");
+				}
+				writer.write(line);
+				empty = empty && line.isEmpty();
+			}
+			dirty = true;
+		}
+
+		void flush(boolean sync) {
+			try {
+				writer.flush();
+				if (sync && dirty) {
+					stream.getFD().sync();
+					dirty = false;
+				}
+			} catch (IOException e) {
+				System.out.println("Error while writing file.");
+				e.printStackTrace();
+			}
+		}
+
+		void close() throws IOException {
+			writer.close();
+		}
+
+		void closeQuietly() {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
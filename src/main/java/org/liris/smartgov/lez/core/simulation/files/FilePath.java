@@ -28,6 +28,11 @@ public abstract class FilePath {
 	public static String localLearnerModelsFolder = localLearnerFolder + "models"          + File.separator;
 	public static String scenarioFolder           = humanAgentFolder   + "scenario"        + File.separator;
 	
+	/**
+	 * @deprecated use {@link org.liris.smartgov.lez.politic.PoliticalSession#getLocalLearnerFolder()}.
+	 * Refers to the folder of the current session.
+	 */
+	@Deprecated
 	public static String currentLocalLearnerFolder;
 	public static String currentAgentDetailsFolder;
 	public static String currentLocalLearnerCallbackFolder;
@@ -9,6 +9,7 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -22,6 +23,7 @@ import java.util.List;
 public class FilesManagement {
 
 	public static void writeToFile(String pathfile, String filename, List<String> lines ) {
+		AppendWriters.close(pathfile + filename);
 		try {
 			Files.write(Paths.get(pathfile+filename), lines, Charset.forName("UTF-8"));
 		} catch (IOException e) {
@@ -31,6 +33,7 @@ public class FilesManagement {
 	}
 	
 	public static void writeToFile(String pathfile, String filename, String content ) {
+		AppendWriters.close(pathfile + filename);
 		try {
 			FileWriter fw = new FileWriter(pathfile + filename, false);
 			fw.write(content);
@@ -41,59 +44,35 @@ public class FilesManagement {
 		}
 	}
 	
+	/**
+	 * Appends content to the file, on a new line if the file is not empty.
+	 * The write is buffered and performed asynchronously by {@link AppendWriters}.
+	 *
+	 * @param pathfile folder of the file
+	 * @param filename name of the file
+	 * @param content content to append
+	 */
 	public static void appendToFile(String pathfile, String filename, String content ) {
-		try {
-			if(checkIfFileIsEmpty(pathfile, filename)) {
-				FileWriter fw = new FileWriter(pathfile + filename, false);
-				fw.write(content);
-				fw.close();
-			} else {
-				FileWriter fw = new FileWriter(pathfile + filename, true);
-				fw.write("\n");
-				fw.write(content);
-				fw.close();
-			}
-		} catch (IOException e) {
-			System.out.println("Error while writing file.");
-			e.printStackTrace();
-		}
+		AppendWriters.append(pathfile + filename, Collections.singletonList(content));
 	}
 	
+	/**
+	 * Appends each line to the file, on a new line if the file is not empty.
+	 * The write is buffered and performed asynchronously by {@link AppendWriters}.
+	 *
+	 * @param pathfile folder of the file
+	 * @param filename name of the file
+	 * @param lines lines to append
+	 */
 	public static void appendToFile(String pathfile, String filename, List<String> lines ) {
-		for(String content : lines) {
-			try {
-				if(checkIfFileIsEmpty(pathfile, filename)) {
-					FileWriter fw = new FileWriter(pathfile + filename, false);
-					fw.write(content);
-					fw.close();
-				} else {
-					FileWriter fw = new FileWriter(pathfile + filename, true);
-					fw.write("\n");
-					fw.write(content);
-					fw.close();
-				}
-			} catch (IOException e) {
-				System.out.println("Error while writing file.");
-				e.printStackTrace();
-			}
-		}
+		AppendWriters.append(pathfile + filename, new ArrayList<>(lines));
 	}
 	
-	private static boolean checkIfFileIsEmpty(String pathfile, String filename) {
-		BufferedReader br;
-		try {
-			br = new BufferedReader(new FileReader(pathfile + filename));
-			if (br.readLine() == null) {
-				br.close();
-				return true;
-			}
-		} catch (FileNotFoundException fnfe) {
-			return true;
-		} catch (IOException e) {
-			e.printStackTrace();
-		} 
-		return false;
-		
+	/**
+	 * Writes all the pending appended lines to their files.
+	 */
+	public static void flush() {
+		AppendWriters.flush();
 	}
 	
 	public static List<String[]> parseCVS(String csvFile, String lineSeparator, String cvsSplitBy){
@@ -111,6 +90,7 @@ public class FilesManagement {
 	}
 	
 	public static List<String> readFile(String pathfile, String filename) {
+		AppendWriters.close(pathfile + filename);
 		List<String> lines = new ArrayList<>();
 		try {
 			BufferedReader br = new BufferedReader(new FileReader(pathfile + filename));
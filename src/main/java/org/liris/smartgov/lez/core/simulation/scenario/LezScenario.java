@@ -1,13 +1,21 @@
 package org.liris.smartgov.lez.core.simulation.scenario;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.liris.smartgov.lez.cli.tools.PoliticRun;
 import org.liris.smartgov.lez.core.agent.driver.DeliveryDriverAgent;
@@ -26,17 +34,17 @@ import org.liris.smartgov.lez.core.agent.driver.vehicle.Vehicle;
 import org.liris.smartgov.lez.core.agent.establishment.Establishment;
 import org.liris.smartgov.lez.core.agent.establishment.Round;
 import org.liris.smartgov.lez.core.agent.establishment.ST8;
-import org.liris.smartgov.lez.core.agent.establishment.preprocess.CasesManager;
 import org.liris.smartgov.lez.core.agent.establishment.preprocess.LezPreprocessor;
 import org.liris.smartgov.lez.core.copert.fields.EuroNorm;
 import org.liris.smartgov.lez.core.copert.tableParser.CopertParser;
 import org.liris.smartgov.lez.core.environment.LezContext;
 import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArcFactory;
 import org.liris.smartgov.lez.core.environment.lez.Environment;
+import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
+import org.liris.smartgov.lez.core.simulation.LezSession;
 import org.liris.smartgov.lez.input.establishment.EstablishmentLoader;
 import org.liris.smartgov.lez.input.lez.PopulationDeserializer;
 import org.liris.smartgov.lez.politic.PoliticalCreator;
-import org.liris.smartgov.lez.politic.PoliticalVar;
 import org.liris.smartgov.simulator.SmartGov;
 import org.liris.smartgov.simulator.core.agent.core.Agent;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
@@ -63,7 +71,26 @@ public class LezScenario extends PollutionScenario {
 	public static final String name = "LezSimulation";
 	private Map<String, Establishment> establishments;
 	private Map<String, Integer> simpleIds;
-	private static int nbAgents;
+	private ForkJoinPool buildPool;
+	private LezPreprocessor preprocessor;
+	private Map<String, int[]> appliedConfiguration;
+	
+	/**
+	 * Configuration property used to set the number of threads used to build agents.
+	 */
+	public static final String BUILD_THREADS_PROPERTY = "agent_build_threads";
+	
+	/**
+	 * Configuration property used to disable incremental reloads, that only
+	 * compute again the cases of the vehicles concerned by the neighborhoods
+	 * whose configuration has changed.
+	 */
+	public static final String INCREMENTAL_RELOAD_PROPERTY = "incremental_reload";
+	
+	/*
+	 * Seed from which the random instance of each agent is derived.
+	 */
+	private static final long AGENTS_SEED = 111111;
 	
 	
 	
@@ -104,12 +131,26 @@ public class LezScenario extends PollutionScenario {
 		simpleIds = new HashMap<>();
 	}
 	
+	/**
+	 * Returns the maximum number of agents of the current session.
+	 * 
+	 * @return maximum number of agents
+	 * @deprecated use {@link LezSession#getNbAgents()} on the session of the context
+	 */
+	@Deprecated
 	public static int getNbAgents() {
-		return nbAgents;
+		return LezSession.getCurrent().getNbAgents();
 	}
 	
+	/**
+	 * Sets the maximum number of agents of the current session.
+	 * 
+	 * @param nbAgents maximum number of agents
+	 * @deprecated use {@link LezSession#setNbAgents(int)} on the session of the context
+	 */
+	@Deprecated
 	public static void setNbAgents(int nbAgents) {
-		LezScenario.nbAgents = nbAgents;
+		LezSession.getCurrent().setNbAgents(nbAgents);
 	}
 	
 	@Override
@@ -138,10 +179,11 @@ public class LezScenario extends PollutionScenario {
 		}
 		PoliticRun.logger.info(deadEnds + " dead ends found.");
 		
-		OsmArcsBuilder.fixDeadEnds((LezContext) context, new PollutableOsmArcFactory(getEnvironment()));
+		OsmArcsBuilder.fixDeadEnds((LezContext) context, new PollutableOsmArcFactory(getEnvironment(), getArcPollutionLedger()));
 		
 		
 		//Create establishments
+		LezSession session = ((LezContext) context).getSession();
 		Map<String, Establishment> establishments = null;
 		try {
 			establishments = 
@@ -149,7 +191,8 @@ public class LezScenario extends PollutionScenario {
 							context.getFileLoader().load("establishments"),
 							context.getFileLoader().load("fleet_profiles"),
 							parser,
-							PollutionScenario.random
+							session.getFleetRandom(),
+							session.getNbAgents()
 							);
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -205,8 +248,8 @@ public class LezScenario extends PollutionScenario {
 		}
 		//if we need to create political layer, we crate it from environment
 		if ( ((LezContext)context).getPolitic() ) {
-			PoliticalVar pv = new PoliticalVar(context);
-			PoliticalCreator.createPoliticalLayer(getEnvironment());
+			session.getPolitics().init(context.getFileLoader().load("politicalLayer"));
+			PoliticalCreator.createPoliticalLayer(getEnvironment(), session.getPolitics());
 		}
 		
 		return establishments;
@@ -220,8 +263,10 @@ public class LezScenario extends PollutionScenario {
 	 */
 	public Collection<? extends Agent<?>> buildAgents(SmartGovContext context, boolean reload) {
 		CopertParser parser = loadParser(context);
+		LezSession session = ((LezContext) context).getSession();
 		
 		if (!reload) {
+			configureTimeSeries(context);
 			establishments = loadEstablishments(context, parser);
 		} else {
 			for (Establishment establishment: establishments.values()) {
@@ -231,18 +276,31 @@ public class LezScenario extends PollutionScenario {
 				}
 			}
 		}
-		resetRandom();
+		session.resetFleetRandom();
 		
 		PoliticRun.logger.info("Applying lez...");
-		LezPreprocessor preprocessor = new LezPreprocessor(getEnvironment(), parser);
+		if (preprocessor == null) {
+			// Kept across reloads to reuse the replacement vehicles
+			preprocessor = new LezPreprocessor(getEnvironment(), parser, session.getCasesManager());
+		}
 		int totalVehiclesReplaced = 0;
 		int totalMobilityChanged = 0;
 		int totalFrauds = 0;
-		CasesManager.init();
+		session.getCasesManager().reset();
 		
+		Set<String> changedNeighborhoods = null;
+		if (reload && isIncrementalReload(context)) {
+			changedNeighborhoods = changedNeighborhoods();
+		}
+		int computedCases = 0;
 		for( Establishment establishment : establishments.values() ) {
-			preprocessor.fillCases(establishment);
+			computedCases += preprocessor.fillCases(establishment, changedNeighborhoods);
 		}
+		if (changedNeighborhoods != null) {
+			PoliticRun.logger.info("[LEZ] " + changedNeighborhoods.size() + " neighborhoods changed, "
+					+ computedCases + " cases computed again.");
+		}
+		appliedConfiguration = currentConfiguration();
 		
 		
 		for( Establishment establishment : establishments.values() ) {
@@ -257,9 +315,19 @@ public class LezScenario extends PollutionScenario {
 		PoliticRun.logger.info("[LEZ] Total number of agents who chose to fraud : " + totalFrauds);
 		
 		Collection<OsmAgent> agents = new ArrayList<>();
-		Collection<BuildAgentThread> threads = new ArrayList<>();
+		List<BuildAgentTask> tasks = new ArrayList<>();
+		List<Future<?>> builds = new ArrayList<>();
+		
+		ForkJoinPool pool = getBuildPool(context);
+		if (((LezContext) context).getPathCache() != null) {
+			// Paths computed in another LEZ configuration are not reused
+			((LezContext) context).getPathCache().setConfiguration(getEnvironment().describeConfiguration());
+		}
+		
+		ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		threadBean.resetPeakThreadCount();
+		long buildBeginTime = System.currentTimeMillis();
 		
-		Random rand = new Random(111111);
 		int agentId = 0;
 		for (Establishment establishment : establishments.values()) {
 			for (String vehicleId :  establishment.getRounds().keySet()) {
@@ -269,10 +337,11 @@ public class LezScenario extends PollutionScenario {
 				}
 				if ( establishment.getFleet().get(vehicleId) != null ) {
 					//if he didn't change mobility
-					BuildAgentThread thread = new BuildAgentThread(simpleIds.get(establishment.getId() + vehicleId),
-							vehicleId, establishment, (LezContext) context, rand);
-					threads.add(thread);
-					thread.start();
+					int simpleId = simpleIds.get(establishment.getId() + vehicleId);
+					BuildAgentTask task = new BuildAgentTask(simpleId,
+							vehicleId, establishment, (LezContext) context, agentRandom(simpleId));
+					tasks.add(task);
+					builds.add(pool.submit(task));
 				}
 				else {
 					//if he changed mobility, he directly give the satisfaction
@@ -282,39 +351,125 @@ public class LezScenario extends PollutionScenario {
 			}
 		}
 		
-		for(BuildAgentThread thread : threads) {
+		for(int i = 0; i < tasks.size(); i++) {
 			try {
-				thread.join();
-				agents.add(thread.getBuiltAgent());
+				builds.get(i).get();
 			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while building agents.", e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException("Agent " + tasks.get(i).agentId + " could not be built.", e.getCause());
 			}
-			
+			// Agents are collected in submission order, whatever the pool size
+			agents.add(tasks.get(i).getBuiltAgent());
 		}
 		
+		PoliticRun.logger.info("[BUILD] " + agents.size() + " agents built in "
+				+ (System.currentTimeMillis() - buildBeginTime) + "ms, "
+				+ "pool parallelism : " + pool.getParallelism() + ", "
+				+ "peak thread count : " + threadBean.getPeakThreadCount());
+		
 		return agents;
 	}
 	
 	/**
-	 * Build agents in separated threads
+	 * Returns the pool used to build agents, created on the first call and then reused
+	 * for each reload.
+	 * 
+	 * <p>
+	 * Its parallelism can be set with the "agent_build_threads" configuration
+	 * property, and defaults to the number of available processors.
+	 * </p>
+	 * 
+	 * @param context current context
+	 * @return agents build pool
+	 */
+	private ForkJoinPool getBuildPool(SmartGovContext context) {
+		if (buildPool == null) {
+			int parallelism = Runtime.getRuntime().availableProcessors();
+			Object configuredParallelism = context.getConfig().get(BUILD_THREADS_PROPERTY);
+			if (configuredParallelism != null) {
+				parallelism = Integer.parseInt(configuredParallelism.toString().trim());
+			}
+			buildPool = new ForkJoinPool(parallelism);
+		}
+		return buildPool;
+	}
+	
+	/**
+	 * Returns true unless the "incremental_reload" configuration property is set to false.
+	 * 
+	 * @param context current context
+	 * @return true if reloads are incremental
+	 */
+	private static boolean isIncrementalReload(SmartGovContext context) {
+		Object incrementalReload = context.getConfig().get(INCREMENTAL_RELOAD_PROPERTY);
+		return incrementalReload == null || Boolean.parseBoolean(incrementalReload.toString().trim());
+	}
+	
+	/**
+	 * Returns the configuration of each neighborhood, as returned by
+	 * {@link Neighborhood#getConfigAsArray()}, indexed by neighborhood id.
+	 * 
+	 * @return current neighborhoods configuration
+	 */
+	private Map<String, int[]> currentConfiguration() {
+		Map<String, int[]> configuration = new HashMap<>();
+		for (Neighborhood neighborhood : getEnvironment().getNeighborhoods().values()) {
+			configuration.put(neighborhood.getID(), neighborhood.getConfigAsArray());
+		}
+		return configuration;
+	}
+	
+	/**
+	 * Returns the ids of the neighborhoods whose configuration has changed since
+	 * cases were last computed.
+	 * 
+	 * @return changed neighborhood ids, or null if cases have never been computed
+	 */
+	private Set<String> changedNeighborhoods() {
+		if (appliedConfiguration == null) {
+			return null;
+		}
+		Set<String> changed = new HashSet<>();
+		for (Map.Entry<String, int[]> configuration : currentConfiguration().entrySet()) {
+			if (!Arrays.equals(configuration.getValue(), appliedConfiguration.get(configuration.getKey()))) {
+				changed.add(configuration.getKey());
+			}
+		}
+		return changed;
+	}
+	
+	/**
+	 * Returns the random instance used to build the specified agent.
+	 * Each agent gets its own instance, seeded only from its id, so that
+	 * the built agents don't depend on the order in which they are built.
+	 * 
+	 * @param agentId simple agent id
+	 * @return agent random instance
+	 */
+	private static Random agentRandom(int agentId) {
+		return new Random(new SplittableRandom(AGENTS_SEED + agentId).nextLong());
+	}
+	
+	/**
+	 * Builds an agent. Tasks are run concurrently in the build pool,
+	 * but the built agents are registered from the main thread.
 	 * @author alban
 	 *
 	 */
-	private static class BuildAgentThread extends Thread {
+	private static class BuildAgentTask implements Runnable {
 		
 		private int agentId;
 		private String vehicleId;
 		private Establishment establishment;
 		private LezContext context;
-		private static Map<String, String> savedBehaviorType = new HashMap<>();
 		
 		private OsmAgent builtAgent;
 		private DriverBehavior builtBehavior;
 		private Random random;
 		
-		public BuildAgentThread(int agentId, String vehicleId, Establishment establishment, LezContext context, Random random) {
-			super();
+		public BuildAgentTask(int agentId, String vehicleId, Establishment establishment, LezContext context, Random random) {
 			this.agentId = agentId;
 			this.vehicleId = vehicleId;
 			this.establishment = establishment;
@@ -322,6 +477,7 @@ public class LezScenario extends PollutionScenario {
 			this.random = random;
 		}
 
+		@Override
 		public void run() {
 			DriverBody driver = new DriverBody(establishment.getFleet().get(vehicleId));
 			
@@ -341,21 +497,11 @@ public class LezScenario extends PollutionScenario {
 				//Private agent
 				if (establishment.getRounds().get(vehicleId).getEstablishments().size() < 2) {
 					//there can be two types of agents, worker home at noon or worker all day at work
-					String type;
 					//we chose his type or we take it back from a previous simulation
-					if (savedBehaviorType.get(String.valueOf(agentId)) == null) {
-						if (random.nextInt(4) == 0) {
-							type = "WorkerHomeAtNoonBehavior";
-							savedBehaviorType.put(String.valueOf(agentId), "WorkerHomeAtNoonBehavior");
-						}
-						else {
-							type = "WorkerBehavior";
-							savedBehaviorType.put(String.valueOf(agentId), "WorkerBehavior");
-						}
-					}
-					else {
-						type = savedBehaviorType.get(String.valueOf(agentId));
-					}
+					String type = context.getSession().getSavedBehaviorTypes().computeIfAbsent(
+							String.valueOf(agentId),
+							id -> random.nextInt(4) == 0 ? "WorkerHomeAtNoonBehavior" : "WorkerBehavior"
+							);
 					
 					//we create the chosen type of agent
 					if (type.equals("WorkerBehavior")) {
@@ -429,6 +575,12 @@ public class LezScenario extends PollutionScenario {
 		 */
 		public OsmAgent getBuiltAgent() {
 			builtBehavior.setUpListeners();
+			if (builtAgent instanceof DeliveryDriverAgent) {
+				((DeliveryDriverAgent) builtAgent).setTickExecutor(context.getTickExecutor());
+			}
+			else if (builtAgent instanceof PrivateDriverAgent) {
+				((PrivateDriverAgent) builtAgent).setTickExecutor(context.getTickExecutor());
+			}
 			context.ongoingRounds.put(builtAgent.getId(), builtBehavior.getRound());
 			return builtAgent;
 		}
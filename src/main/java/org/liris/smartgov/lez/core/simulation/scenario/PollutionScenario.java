@@ -3,9 +3,17 @@ package org.liris.smartgov.lez.core.simulation.scenario;
 import java.util.Random;
 
 import org.liris.smartgov.lez.core.copert.tableParser.CopertParser;
+import org.liris.smartgov.lez.core.copert.tableParser.CopertRepository;
+import org.liris.smartgov.lez.core.environment.LezContext;
 import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArcFactory;
 import org.liris.smartgov.lez.core.environment.lez.Environment;
 import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
+import org.liris.smartgov.lez.core.environment.pollution.ArcPollutionLedger;
+import org.liris.smartgov.lez.core.environment.pollution.Pollution;
+import org.liris.smartgov.lez.core.environment.pollution.PollutionAggregator;
+import org.liris.smartgov.lez.core.environment.pollution.PollutionPeeks;
+import org.liris.smartgov.lez.core.environment.pollution.PollutionTimeSeries;
+import org.liris.smartgov.lez.core.simulation.LezSession;
 import org.liris.smartgov.simulator.core.agent.core.Agent;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
 import org.liris.smartgov.simulator.urban.osm.environment.graph.OsmNode;
@@ -18,13 +26,17 @@ import org.liris.smartgov.simulator.urban.osm.scenario.GenericOsmScenario;
  */
 public abstract class PollutionScenario extends GenericOsmScenario<OsmNode, Road> {
 	/**
-	 * A random instance used by the CopertParser to generate fleets, generated by
+	 * A random instance used to generate fleets, generated by
 	 * default from a fixed seed : 240720191835
+	 * 
+	 * @deprecated use {@link LezSession#getFleetRandom()} on the session of
+	 * the context. This field refers to the instance of the current session.
 	 */
-	private static long seed = 240720191835l;
-	public static Random random = new Random(seed);
+	@Deprecated
+	public static Random random = LezSession.getCurrent().getFleetRandom();
 	
 	private Environment environment;
+	private ArcPollutionLedger arcPollutionLedger;
 	private CopertParser copertParser;
 	
 	/**
@@ -33,8 +45,13 @@ public abstract class PollutionScenario extends GenericOsmScenario<OsmNode, Road
 	 * @param lez LEZ to consider in this scenario
 	 */
 	public PollutionScenario(Environment environment) {
-		super(OsmNode.class, Road.class, new PollutableOsmArcFactory(environment));
+		this(environment, new ArcPollutionLedger());
+	}
+	
+	private PollutionScenario(Environment environment, ArcPollutionLedger arcPollutionLedger) {
+		super(OsmNode.class, Road.class, new PollutableOsmArcFactory(environment, arcPollutionLedger));
 		this.environment = environment;
+		this.arcPollutionLedger = arcPollutionLedger;
 	}
 	
 	public PollutionScenario() {
@@ -50,9 +67,68 @@ public abstract class PollutionScenario extends GenericOsmScenario<OsmNode, Road
 		return environment;
 	}
 	
+	/**
+	 * Returns the ledger in which the pollution of all the arcs
+	 * built by this scenario is stored.
+	 * 
+	 * @return arcs pollution ledger
+	 */
+	public ArcPollutionLedger getArcPollutionLedger() {
+		return arcPollutionLedger;
+	}
+	
+	/**
+	 * Enables the arcs pollution time series if the "pollution_time_bucket"
+	 * configuration property is set, with the number of buckets kept
+	 * specified by the "pollution_time_buckets" property.
+	 * 
+	 * @param context current context
+	 */
+	protected void configureTimeSeries(SmartGovContext context) {
+		Object bucketDuration = context.getConfig().get(PollutionTimeSeries.BUCKET_DURATION_PROPERTY);
+		if (bucketDuration == null) {
+			return;
+		}
+		int bucketCount = PollutionTimeSeries.DEFAULT_BUCKET_COUNT;
+		Object configuredBucketCount = context.getConfig().get(PollutionTimeSeries.BUCKET_COUNT_PROPERTY);
+		if (configuredBucketCount != null) {
+			bucketCount = Integer.parseInt(configuredBucketCount.toString().trim());
+		}
+		arcPollutionLedger.enableTimeSeries(Double.parseDouble(bucketDuration.toString().trim()), bucketCount);
+	}
+	
+	/**
+	 * Feeds the specified aggregator with the pollution of all the
+	 * arcs and neighborhoods of this scenario.
+	 * 
+	 * @param aggregator pollution aggregator
+	 */
+	public void aggregatePollution(PollutionAggregator aggregator) {
+		arcPollutionLedger.aggregate(aggregator);
+		for (Neighborhood neighborhood : environment.getNeighborhoods().values()) {
+			if (neighborhood.getPollution() != null) {
+				neighborhood.getPollution().aggregate(aggregator);
+			}
+		}
+	}
+	
+	/**
+	 * Computes the current pollution peeks, i.e. the highest pollution
+	 * rates among all the arcs and neighborhoods, for each pollutant.
+	 * 
+	 * @return pollution peeks
+	 */
+	public Pollution getPollutionPeeks() {
+		PollutionPeeks peeks = new PollutionPeeks();
+		aggregatePollution(peeks);
+		return peeks.getPollution();
+	}
+	
 	/**
 	 * Loads a CopertParser instance from the file specified as "copert_table" in
-	 * the input configuration file and the {@link #random} instance defined in this class. 
+	 * the input configuration file.
+	 * The table is only parsed once per JVM, see {@link LezContext#getCopertParser()}
+	 * and {@link CopertRepository}.
 	 * The loaded parser is then accessible from the
 	 * {@link #getCopertParser()} function.
 	 * 
@@ -60,7 +136,12 @@ public abstract class PollutionScenario extends GenericOsmScenario<OsmNode, Road
 	 * @return loaded CopertParser
 	 */
 	protected CopertParser loadParser(SmartGovContext context) {
-		copertParser = new CopertParser(context.getFileLoader().load("copert_table"), random);
+		if (context instanceof LezContext) {
+			copertParser = ((LezContext) context).getCopertParser();
+		}
+		else {
+			copertParser = CopertRepository.load(context.getFileLoader().load("copert_table"));
+		}
 		return copertParser;
 	}
 	
@@ -75,8 +156,15 @@ public abstract class PollutionScenario extends GenericOsmScenario<OsmNode, Road
 		return copertParser;
 	}
 	
+	/**
+	 * Sets the seed of the fleet random instance of the current session back
+	 * to its initial value.
+	 * 
+	 * @deprecated use {@link LezSession#resetFleetRandom()} on the session of the context
+	 */
+	@Deprecated
 	public void resetRandom() {
-		random.setSeed(seed);;
+		LezSession.getCurrent().resetFleetRandom();
 	}
 		
 }
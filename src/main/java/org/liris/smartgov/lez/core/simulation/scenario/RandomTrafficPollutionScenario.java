@@ -34,7 +34,7 @@ public class RandomTrafficPollutionScenario extends PollutionScenario {
 	public Collection<? extends Agent<?>> buildAgents(SmartGovContext context) {
 		RandomTrafficScenario.generateSourceAndSinkNodes((OsmContext) context); 
 		// Load the copert table
-		CopertParser copertParser = new CopertParser(context.getFileLoader().load("copert_table"), new Random(1907190831l));
+		CopertParser copertParser = loadParser(context);
 		
 		// Load input profiles
 		CopertProfile copertProfile = CopertInputReader.parseInputFile(context.getFileLoader().load("copert_profile"));
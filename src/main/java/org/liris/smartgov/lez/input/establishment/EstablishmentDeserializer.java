@@ -18,7 +18,6 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import org.liris.smartgov.lez.core.agent.establishment.Establishment;
 import org.liris.smartgov.lez.core.agent.establishment.ST8;
 import org.liris.smartgov.lez.core.copert.tableParser.CopertParser;
-import org.liris.smartgov.lez.core.simulation.scenario.LezScenario;
 import org.liris.smartgov.lez.input.establishment.EstablishmentLoader.TemporaryRound;
 import org.liris.smartgov.simulator.core.simulation.time.Date;
 import org.liris.smartgov.simulator.core.simulation.time.WeekDay;
@@ -33,14 +32,16 @@ public class EstablishmentDeserializer extends StdDeserializer<EstablishmentLoad
 	private Random random;
 	private File fleetProfiles;
 	private CopertParser copertParser;
+	private int maxRounds;
 	
 	private static final long serialVersionUID = 1L;
 
-	public EstablishmentDeserializer(File fleetProfiles, CopertParser copertParser, Random random) {
+	public EstablishmentDeserializer(File fleetProfiles, CopertParser copertParser, Random random, int maxRounds) {
 		this(null);
 		this.random = random;
 		this.fleetProfiles = fleetProfiles;
 		this.copertParser = copertParser;
+		this.maxRounds = maxRounds;
 	}
 	
 	public EstablishmentDeserializer(Class<?> c) {
@@ -98,7 +99,7 @@ public class EstablishmentDeserializer extends StdDeserializer<EstablishmentLoad
 			JsonNode roundsArray = establishmentNode.get("rounds");
 			
 			for(int j = 0; j < roundsArray.size(); j++) {
-				if ( nbRounds < LezScenario.getNbAgents() ) {
+				if ( nbRounds < maxRounds ) {
 					JsonNode roundNode = roundsArray.get(j);
 					double weight = 0;
 					if(roundNode.has("weight")) {
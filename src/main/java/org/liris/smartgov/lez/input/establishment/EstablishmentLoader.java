@@ -55,18 +55,19 @@ public class EstablishmentLoader {
 	 * @param fleetProfiles a json fleet profile
 	 * @param parser loaded copert parser
 	 * @param random random instance used by the DeliveryVehicleFactory
+	 * @param maxRounds maximum number of rounds to load
 	 * @return built establishments
 	 * @throws JsonParseException json exception
 	 * @throws JsonMappingException json exception
 	 * @throws IOException file reading exception
 	 */
 	public static Map<String, Establishment> loadEstablishments(
-			File establishmentsFile, File fleetProfiles, CopertParser parser, Random random) throws JsonParseException, JsonMappingException, IOException {
+			File establishmentsFile, File fleetProfiles, CopertParser parser, Random random, int maxRounds) throws JsonParseException, JsonMappingException, IOException {
 		
 		ObjectMapper mapper = new ObjectMapper();
 		SimpleModule module = new SimpleModule();
 		
-		module.addDeserializer(EstablishmentLoader.class, new EstablishmentDeserializer(fleetProfiles, parser, random));
+		module.addDeserializer(EstablishmentLoader.class, new EstablishmentDeserializer(fleetProfiles, parser, random, maxRounds));
 		mapper.registerModule(module);
 		
 		return mapper.readValue(establishmentsFile, EstablishmentLoader.class).loadedEstablishments();
@@ -15,14 +15,14 @@ public class LambertToGpsConverter {
 
 	public static void main(String[] args) throws JsonGenerationException, JsonMappingException, JsonParseException, IOException {
 		ObjectMapper mapper = new ObjectMapper();
-		Random random = new Random(240720191835l);
-		CopertParser parser = new CopertParser(new File(LambertToGpsConverter.class.getResource("../copert/Hot_Emissions_Parameters_France.csv").getFile()), random);
+		CopertParser parser = new CopertParser(new File(LambertToGpsConverter.class.getResource("../copert/Hot_Emissions_Parameters_France.csv").getFile()));
 		
 		mapper.writeValue(new File("simturb_establishments.json"), EstablishmentLoader.loadEstablishments(
 						new File(LambertToGpsConverter.class.getResource("establishments_lyon.json").getFile()),
 						new File(LambertToGpsConverter.class.getResource("fleetProfiles.json").getFile()),
 						parser,
-						random
+						new Random(240720191835l),
+						Integer.MAX_VALUE
 						).values());
 	}
 }
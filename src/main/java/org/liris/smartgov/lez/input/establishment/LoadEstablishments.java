@@ -24,8 +24,7 @@ public class LoadEstablishments {
 		else
 			copertTable = new File(LoadEstablishments.class.getResource(defaultCopertTable).getFile());
 		System.out.println("Loading Copert table from " + copertTable);
-		Random random = new Random(170720191337l);
-		CopertParser parser = new CopertParser(copertTable, random);
+		CopertParser parser = new CopertParser(copertTable);
 		
 		File fleetProfiles;
 		if(args.length > 2)
@@ -40,7 +39,8 @@ public class LoadEstablishments {
 					new File(args[0]),
 					fleetProfiles,
 					parser,
-					random
+					new Random(170720191337l),
+					Integer.MAX_VALUE
 					);
 			System.out.println("Number of establishments loaded : " + establishments.size());
 			
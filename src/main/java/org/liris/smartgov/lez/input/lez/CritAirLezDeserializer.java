@@ -2,6 +2,8 @@ package org.liris.smartgov.lez.input.lez;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
@@ -14,9 +16,43 @@ import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
 import org.liris.smartgov.lez.core.environment.lez.Environment;
+import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
 import org.liris.smartgov.lez.core.environment.lez.criteria.CritAir;
+import org.liris.smartgov.lez.core.environment.lez.criteria.CritAirCriteria;
 import org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance;
+import org.liris.smartgov.simulator.urban.geo.utils.LatLon;
 
+/**
+ * Loads an environment from a json file.
+ * 
+ * <p>
+ * The environment is either a grid of "nb_squares" * "nb_squares"
+ * neighborhoods covering the specified "dimensions", or, if a
+ * "neighborhoods" array is specified, a list of neighborhoods with
+ * arbitrary perimeters :
+ * </p>
+ * <pre>
+ * {
+ *   "neighborhoods" : [
+ *     {
+ *       "id" : "center",
+ *       "perimeter" : [[45.75, 4.82], [45.77, 4.82], [45.77, 4.85]],
+ *       "deliveryRestriction" : "CRITAIR_2"
+ *     }
+ *   ],
+ *   "deliveryRestriction" : "NONE",
+ *   "privateRestriction" : "NONE",
+ *   "surveillance" : "NO_SURVEILLANCE"
+ * }
+ * </pre>
+ * <p>
+ * Perimeters are lists of [latitude, longitude] points. Restrictions and
+ * surveillance specified for a neighborhood override the global ones, and
+ * neighborhoods without id are identified by their index in the array. If
+ * neighborhoods overlap, nodes belong to the first of them in the array.
+ * </p>
+ *
+ */
 public class CritAirLezDeserializer extends StdDeserializer<Environment> {
 
 	private static final long serialVersionUID = 1L;
@@ -33,6 +69,10 @@ public class CritAirLezDeserializer extends StdDeserializer<Environment> {
 	public Environment deserialize(JsonParser p, DeserializationContext ctxt) throws IOException, JsonProcessingException {
 		JsonNode jsonLez = p.getCodec().readTree(p);
 		
+		if (jsonLez.has("neighborhoods")) {
+			return new Environment(readNeighborhoods(jsonLez));
+		}
+		
 		JsonNode dimensions = jsonLez.get("dimensions");
 		
 		
@@ -46,6 +86,46 @@ public class CritAirLezDeserializer extends StdDeserializer<Environment> {
 				Surveillance.valueOf(jsonLez.get("surveillance").asText()));
 	}
 	
+	private static List<Neighborhood> readNeighborhoods(JsonNode jsonLez) {
+		List<Neighborhood> neighborhoods = new ArrayList<>();
+		JsonNode neighborhoodsArray = jsonLez.get("neighborhoods");
+		for (int i = 0; i < neighborhoodsArray.size(); i++) {
+			JsonNode neighborhoodNode = neighborhoodsArray.get(i);
+			
+			JsonNode perimeterArray = neighborhoodNode.get("perimeter");
+			if (perimeterArray == null || perimeterArray.size() < 3) {
+				throw new IllegalArgumentException("The perimeter of the neighborhood " + i + " must have at least 3 points.");
+			}
+			LatLon[] perimeter = new LatLon[perimeterArray.size()];
+			for (int j = 0; j < perimeterArray.size(); j++) {
+				perimeter[j] = new LatLon(
+						perimeterArray.get(j).get(0).asDouble(),
+						perimeterArray.get(j).get(1).asDouble()
+						);
+			}
+			
+			neighborhoods.add(new Neighborhood(
+					perimeter,
+					new CritAirCriteria(CritAir.valueOf(field(neighborhoodNode, jsonLez, "deliveryRestriction"))),
+					new CritAirCriteria(CritAir.valueOf(field(neighborhoodNode, jsonLez, "privateRestriction"))),
+					Surveillance.valueOf(field(neighborhoodNode, jsonLez, "surveillance")),
+					neighborhoodNode.has("id") ? neighborhoodNode.get("id").asText() : Integer.toString(i)
+					));
+		}
+		return neighborhoods;
+	}
+	
+	/*
+	 * Value of the field for the neighborhood, or the global value if the
+	 * neighborhood does not specify it.
+	 */
+	private static String field(JsonNode neighborhoodNode, JsonNode jsonLez, String field) {
+		if (neighborhoodNode.has(field)) {
+			return neighborhoodNode.get(field).asText();
+		}
+		return jsonLez.get(field).asText();
+	}
+	
 	public static Environment load(File environmentFile) throws JsonParseException, JsonMappingException, IOException {
 		ObjectMapper mapper = new ObjectMapper();
 		SimpleModule module = new SimpleModule();
@@ -15,6 +15,7 @@ import org.liris.smartgov.lez.core.simulation.files.FilePath;
 import org.liris.smartgov.lez.politic.policyagent.Perimeter;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAgent;
+import org.liris.smartgov.lez.politic.policyagent.learning.strategy.NativeDQN;
 import org.liris.smartgov.lez.politic.socket.ClientCommunication;
 import org.liris.smartgov.lez.politic.socket.Server;
 
@@ -28,18 +29,25 @@ import org.apache.commons.io.filefilter.DirectoryFileFilter;
 public class PoliticalCreator {
 	static int simulationIndex = 1;
 	
-	public static void createPoliticalLayer(Environment environment) {
-		createFolder();
-		startServer();
-		createPolicyAgent(environment);
+	/**
+	 * Creates the local learner folder, the learning server and the policy
+	 * agents of a simulation.
+	 * @param environment environment of the the simulation
+	 * @param session political session of the simulation, whose variables are loaded
+	 */
+	public static void createPoliticalLayer(Environment environment, PoliticalSession session) {
+		createFolder(session);
+		startServer(session);
+		createPolicyAgent(environment, session);
 		
 	}
 	
 	/**
 	 * Create a specific folder using current date and increment folder 
 	 * index using previous folders of the same date.
+	 * @param session political session of the simulation
 	 */
-	protected static void createFolder() {
+	protected static void createFolder(PoliticalSession session) {
 		ZoneId z = ZoneId.of("Europe/Paris");
 		LocalDate ld = LocalDate.now(z);
 		int dayOfMonth  = ld.getDayOfMonth();
@@ -63,31 +71,36 @@ public class PoliticalCreator {
 			}
 		//}
 		
-		String scenarioID = Integer.parseInt(PoliticalVar.variables.get("scenarioID")) > 0 ? "_" + PoliticalVar.variables.get("scenarioID") : "";
+		String scenarioID = Integer.parseInt(session.getVariables().get("scenarioID")) > 0 ? "_" + session.getVariables().get("scenarioID") : "";
 		String dirName = "";
-		if(PoliticalVar.variables.get("simulation_debug").equals("0")) {
-			dirName = date + "_" + simulationIndex + "_" + PoliticalVar.variables.get("scenario") + scenarioID + File.separator;
+		if(session.getVariables().get("simulation_debug").equals("0")) {
+			dirName = date + "_" + simulationIndex + "_" + session.getVariables().get("scenario") + scenarioID + File.separator;
 		} else {
-			dirName = date + "_" + simulationIndex + "_debug_" + PoliticalVar.variables.get("scenario") + scenarioID + File.separator;
+			dirName = date + "_" + simulationIndex + "_debug_" + session.getVariables().get("scenario") + scenarioID + File.separator;
 		}
 		new File(FilePath.localLearnerFolder + dirName).mkdirs();
-		FilePath.currentLocalLearnerFolder = FilePath.localLearnerFolder + dirName;
+		session.setLocalLearnerFolder(FilePath.localLearnerFolder + dirName);
 		
 	}
 	
 	/**
 	 * Start the server to communicate with python learning scripts.
+	 * @param session political session of the simulation
 	 */
-	protected static void startServer() {
+	protected static void startServer(PoliticalSession session) {
 		//create folder for current simulation
 		//createFolder();
 		FilePath.currentAgentDetailsFolder = FilePath.humanAgentFolder + "scenario//" + 
-				PoliticalVar.variables.get("scenario") + "//" +
-				PoliticalVar.variables.get("scenarioID") + "//";
+				session.getVariables().get("scenario") + "//" +
+				session.getVariables().get("scenarioID") + "//";
 		//Update server port with simulationIndex
 		//*/
 		ClientCommunication.port += simulationIndex;
-		if(PoliticalVar.variables.get("server_debug").equals("0")) {
+		if(NativeDQN.STRATEGY_NAME.equals(session.getVariables().get("strategy"))) {
+			// Learning runs in the JVM, no server to launch
+			return;
+		}
+		if(session.getVariables().get("server_debug").equals("0")) {
 			Server.startServer(FilePath.externalSourceFolder + "server.py -p " + ClientCommunication.port, "python");
 		} else {
 			//Use this when bug in python server
@@ -109,10 +122,11 @@ public class PoliticalCreator {
 	/**
 	 * Create policy agents in charge of political decisions
 	 * @param environment environment of the the simulation
+	 * @param session political session of the simulation
 	 */
-	public static void createPolicyAgent(Environment environment) {
+	public static void createPolicyAgent(Environment environment, PoliticalSession session) {
 		List<PolicyAction> actions = new ArrayList<>();
-		if (Integer.parseInt(PoliticalVar.variables.get("distinct_criterias")) == 1 ) {
+		if (Integer.parseInt(session.getVariables().get("distinct_criterias")) == 1 ) {
 			actions.add(PolicyAction.INCREASE_DELIVERIE_CRITERIA);
 			actions.add(PolicyAction.INCREASE_PRIVATE_CRITERIA);
 			actions.add(PolicyAction.DECREASE_DELIVERIE_CRITERIA);
@@ -133,13 +147,13 @@ public class PoliticalCreator {
 		for(Structure structure : environment.getNeighborhoods().values()) {
 			structures.add(structure);
 			Perimeter perimeter = new Perimeter(structures);
-			PoliticalVar.policyAgents.add(new PolicyAgent(String.valueOf(cpt), perimeter, actions, specialActions));
+			session.getPolicyAgents().add(new PolicyAgent(session, String.valueOf(cpt), perimeter, actions, specialActions));
 			structures = new ArrayList<>();
 		}
 		
 		/*Perimeter perimeter = new Perimeter(structures);
 		
-		PoliticalVar.policyAgents.add(new PolicyAgent("0", perimeter, actions, specialActions));*/
+		session.getPolicyAgents().add(new PolicyAgent("0", perimeter, actions, specialActions));*/
 	}
 	
 	/**
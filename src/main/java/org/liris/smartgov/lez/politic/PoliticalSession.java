@@ -0,0 +1,205 @@
+package org.liris.smartgov.lez.politic;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Scanner;
+
+import org.liris.smartgov.lez.core.simulation.LezSession;
+import org.liris.smartgov.lez.core.simulation.files.FilePath;
+import org.liris.smartgov.lez.politic.manager.AbstractManager;
+import org.liris.smartgov.lez.politic.manager.ManagerQLearningScenario;
+import org.liris.smartgov.lez.politic.policyagent.PolicyAgent;
+import org.liris.smartgov.lez.politic.policyagent.inneragent.InnerAgent;
+
+/**
+ * State of the political layer of one simulation : variables read from the
+ * "politicalLayer" file, policy agents, manager and output folder of the
+ * local learners.
+ *
+ * <p>
+ * Each {@link LezSession} owns its political session, so that the political
+ * layers of several simulations run in the same JVM don't share their state.
+ * </p>
+ *
+ */
+public class PoliticalSession {
+
+	/*
+	 * Seed of the random instances of the learners, unless the "learner_seed"
+	 * variable is set.
+	 */
+	private static final long LEARNER_SEED = 20191835l;
+
+	private final Map<String, String> variables = new HashMap<>();
+	private final List<PolicyAgent> policyAgents = new ArrayList<>();
+	private final List<InnerAgent> innerAgents = new ArrayList<>();
+	private AbstractManager manager;
+	private String localLearnerFolder;
+
+	//Manage policy agent creation and allocation
+	private final List<String> policyAgentIDBuffer = new ArrayList<>(); //id of policy agents during merge or split
+	private final Queue<Integer> policyAgentStockId = new LinkedList<>(); //id of available policy agents for creation
+	private final Map<String, List<Integer>> policyAgentIDMerged = new HashMap<>();
+
+	/**
+	 * Loads the variables and creates the manager of the political layer.
+	 *
+	 * @param variablesFile political variables file
+	 */
+	public void init(File variablesFile) {
+		loadVariables(variablesFile);
+		setManager(new ManagerQLearningScenario(this));
+	}
+
+	/**
+	 * Adds the "name:value" lines of the specified file to the variables.
+	 * Lines that contain a "#" are ignored.
+	 *
+	 * @param configFile political variables file
+	 */
+	public void loadVariables(File configFile) {
+		Scanner input;
+		try {
+			input = new Scanner(configFile);
+
+			while(input.hasNext()) {
+			    String nextLine = input.nextLine();
+			    if(!nextLine.contains("#")){
+			    	if(!nextLine.contains(",")){
+			    		//Lines with a "," are indicators, not used for now
+			    		String lines[] = nextLine.split(":");
+				    	variables.put(lines[0], lines[1]);
+			    	}
+			    }
+			}
+			input.close();
+		} catch (FileNotFoundException e) {
+			e.printStackTrace();
+		}
+	}
+
+	public Map<String, String> getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Returns a new random instance for the specified learner. Its seed only
+	 * depends on the "learner_seed" variable and on the learner id, so that
+	 * learning runs are reproducible.
+	 *
+	 * @param learnerId id of the learner
+	 * @return seeded random instance of the learner
+	 */
+	public Random getLearnerRandom(String learnerId) {
+		String seed = variables.get("learner_seed");
+		return new Random(31 * (seed == null ? LEARNER_SEED : Long.parseLong(seed.trim())) + learnerId.hashCode());
+	}
+
+	public List<PolicyAgent> getPolicyAgents() {
+		return policyAgents;
+	}
+
+	public List<InnerAgent> getInnerAgents() {
+		return innerAgents;
+	}
+
+	public AbstractManager getManager() {
+		return manager;
+	}
+
+	@SuppressWarnings("deprecation")
+	public void setManager(AbstractManager manager) {
+		this.manager = manager;
+		if (isCurrent()) {
+			PoliticalVar.manager = manager;
+		}
+	}
+
+	/**
+	 * Returns the folder in which local learners of this simulation write
+	 * their files and models.
+	 *
+	 * @return current local learner folder
+	 */
+	public String getLocalLearnerFolder() {
+		return localLearnerFolder;
+	}
+
+	@SuppressWarnings("deprecation")
+	public void setLocalLearnerFolder(String localLearnerFolder) {
+		this.localLearnerFolder = localLearnerFolder;
+		if (isCurrent()) {
+			FilePath.currentLocalLearnerFolder = localLearnerFolder;
+		}
+	}
+
+	public String requestPolicyAgentID() {
+		if(policyAgentStockId.peek()==null) {
+			return String.valueOf(policyAgents.size());
+		} else {
+			return String.valueOf(policyAgentStockId.poll());
+		}
+	}
+
+	/**
+	 * Remove policy agent from the list and store its id for the duration of the merge.
+	 * @param mergeManager
+	 * @param idOfMergedAgent
+	 */
+	public void storePolicyAgentIDForMerge(String mergeManager, int idOfMergedAgent) {
+		policyAgents.set(idOfMergedAgent, null);
+		policyAgentIDMerged.computeIfAbsent(mergeManager, id -> new ArrayList<>()).add(idOfMergedAgent);
+	}
+
+	/**
+	 * Remove the policy agent at the specified index
+	 * @param index
+	 */
+	public void removePolicyAgentFromList(int index) {
+		policyAgents.set(index, null);
+	}
+
+	public void updatePolicyAgentBuffer(String id) {
+		if(!policyAgentIDBuffer.contains(id)) {
+			policyAgentIDBuffer.add(id);
+		} else {
+			policyAgentIDBuffer.remove(id);
+		}
+	}
+
+	/**
+	 * Delete stored IDs for merge.
+	 * @param mergeManager
+	 */
+	public void clearMergeAgents(String mergeManager) {
+		policyAgentIDMerged.remove(mergeManager);
+	}
+
+	/**
+	 * Makes the deprecated static fields of {@link PoliticalVar} and
+	 * {@link FilePath} refer to the state of this session. Called by
+	 * {@link LezSession#makeCurrent()}.
+	 */
+	@SuppressWarnings("deprecation")
+	public void publish() {
+		PoliticalVar.variables = variables;
+		PoliticalVar.policyAgents = policyAgents;
+		PoliticalVar.innerAgentsGlobal = innerAgents;
+		PoliticalVar.manager = manager;
+		PoliticalVar.policyAgentIDBuffer = policyAgentIDBuffer;
+		PoliticalVar.policyAgentStockId = policyAgentStockId;
+		PoliticalVar.policyAgentIDMerged = policyAgentIDMerged;
+		FilePath.currentLocalLearnerFolder = localLearnerFolder;
+	}
+
+	private boolean isCurrent() {
+		return LezSession.getCurrent().getPolitics() == this;
+	}
+}
@@ -1,48 +1,55 @@
 package org.liris.smartgov.lez.politic;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
-import java.util.Scanner;
 
 import org.liris.smartgov.lez.core.environment.LezContext;
-import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
+import org.liris.smartgov.lez.core.simulation.LezSession;
 import org.liris.smartgov.lez.politic.manager.AbstractManager;
-import org.liris.smartgov.lez.politic.manager.ManagerQLearningScenario;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAgent;
-import org.liris.smartgov.lez.politic.policyagent.inneragent.DeepLocalLearner;
 import org.liris.smartgov.lez.politic.policyagent.inneragent.InnerAgent;
 import org.liris.smartgov.simulator.core.environment.SmartGovContext;
-import org.liris.smartgov.lez.core.simulation.scenario.LezScenario;
 
 
 /**
  * Global static variables of the political layer inherited from SmartGov main project (repast).
+ *
+ * <p>
+ * The state of the political layer is now held by the {@link PoliticalSession}
+ * of each simulation. Those fields refer to the state of the current session
+ * ({@link LezSession#getCurrent()}), and are only kept for the single simulation case.
+ * </p>
  * @author alban
+ * @deprecated use the {@link PoliticalSession} of the simulation session
  *
  */
+@Deprecated
 public class PoliticalVar {
-	public static Map<String, String> variables = new HashMap<>();
-	public static List<PolicyAgent> policyAgents = new ArrayList<>();
-	public static List<InnerAgent> innerAgentsGlobal = new ArrayList<>();
+	public static Map<String, String> variables;
+	public static List<PolicyAgent> policyAgents;
+	public static List<InnerAgent> innerAgentsGlobal;
 	public static AbstractManager manager;
 	
 	//Manage policy agent creation and allocation
 	public static int POLICY_AGENT_MAX; //Max policy agents in the simulation (not specified at the moment)
-	public static List<String> policyAgentIDBuffer = new ArrayList<>(); //id of policy agents during merge or split
-	public static Queue<Integer> policyAgentStockId = new LinkedList<>(); //id of available policy agents for creation
-	public static Map<String, List<Integer>> policyAgentIDMerged = new HashMap<>();
+	public static List<String> policyAgentIDBuffer; //id of policy agents during merge or split
+	public static Queue<Integer> policyAgentStockId; //id of available policy agents for creation
+	public static Map<String, List<Integer>> policyAgentIDMerged;
+	
+	static {
+		LezSession.getCurrent().getPolitics().publish();
+	}
 	
+	/**
+	 * Loads the political variables and creates the manager in the session of the context.
+	 * @param context current context
+	 */
 	public PoliticalVar (SmartGovContext context) {
 		
 		try {
-			loadVariables(((LezContext)context).getFileLoader().load("politicalLayer"));
-			manager = new ManagerQLearningScenario();
+			((LezContext)context).getSession().getPolitics().init(((LezContext)context).getFileLoader().load("politicalLayer"));
 		}
 		catch (ClassCastException e) {
 			e.printStackTrace();
@@ -50,36 +57,11 @@ public class PoliticalVar {
 	}
 	
 	public void loadVariables (File configFile) {
-		Scanner input;
-		try {
-			input = new Scanner(configFile);
-			
-			while(input.hasNext()) {
-			    String nextLine = input.nextLine();
-			    if(!nextLine.contains("#")){
-			    	if(nextLine.contains(",")){
-			    		//Indicators
-			    		String lines[] = nextLine.split(":");
-			    		String indicators[] = lines[1].split(",");
-			    	} else {
-			    		String lines[] = nextLine.split(":");
-				    	variables.put(lines[0], lines[1]);
-			    	}
-			    }
-			}
-			input.close();
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
-		}
-		
+		LezSession.getCurrent().getPolitics().loadVariables(configFile);
 	}
 	
 	public static String requestPolicyAgentID() {
-		if(policyAgentStockId.peek()==null) {
-			return String.valueOf(policyAgents.size());
-		} else {
-			return String.valueOf(policyAgentStockId.poll());
-		}
+		return LezSession.getCurrent().getPolitics().requestPolicyAgentID();
 	}
 	
 	/**
@@ -88,15 +70,7 @@ public class PoliticalVar {
 	 * @param idOfMergedAgent
 	 */
 	public static void storePolicyAgentIDForMerge(String mergeManager, int idOfMergedAgent) {
-		policyAgents.set(idOfMergedAgent, null);
-		if(policyAgentIDMerged.containsKey(mergeManager)) {
-			policyAgentIDMerged.get(mergeManager).add(idOfMergedAgent);
-		} else {
-			List<Integer> idsOfMergedAgents = new ArrayList<>();
-			idsOfMergedAgents.add(idOfMergedAgent);
-			policyAgentIDMerged.put(mergeManager, idsOfMergedAgents);
-			
-		}
+		LezSession.getCurrent().getPolitics().storePolicyAgentIDForMerge(mergeManager, idOfMergedAgent);
 	}
 	
 	/**
@@ -104,15 +78,11 @@ public class PoliticalVar {
 	 * @param index
 	 */
 	public static void removePolicyAgentFromList(int index) {
-		policyAgents.set(index, null);
+		LezSession.getCurrent().getPolitics().removePolicyAgentFromList(index);
 	}
 	
 	public static void updatePolicyAgentBuffer(String id) {
-		if(!policyAgentIDBuffer.contains(id)) {
-			policyAgentIDBuffer.add(id);
-		} else {
-			policyAgentIDBuffer.remove(id);
-		}
+		LezSession.getCurrent().getPolitics().updatePolicyAgentBuffer(id);
 	}
 	
 	/**
@@ -120,8 +90,6 @@ public class PoliticalVar {
 	 * @param mergeManager
 	 */
 	public static void clearMergeAgents(String mergeManager) {
-		if(policyAgentIDMerged.containsKey(mergeManager)) {
-			policyAgentIDMerged.remove(mergeManager);
-		}
+		LezSession.getCurrent().getPolitics().clearMergeAgents(mergeManager);
 	}
-}
\ No newline at end of file
+}
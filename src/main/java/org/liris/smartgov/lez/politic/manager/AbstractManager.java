@@ -12,9 +12,8 @@ import java.util.TimeZone;
 import org.joda.time.DateTime;
 import org.joda.time.LocalTime;
 import org.liris.smartgov.lez.core.simulation.files.FileName;
-import org.liris.smartgov.lez.core.simulation.files.FilePath;
 import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
-import org.liris.smartgov.lez.politic.PoliticalVar;
+import org.liris.smartgov.lez.politic.PoliticalSession;
 
 
 
@@ -77,7 +76,13 @@ public abstract class AbstractManager {
 
 	protected int indexOfAction;
 	
-	public AbstractManager(){
+	/**
+	 * Political session of the managed simulation.
+	 */
+	protected final PoliticalSession session;
+	
+	public AbstractManager(PoliticalSession session){
+		this.session = session;
 		readManagerCounters();
 		formatter.setTimeZone(TimeZone.getTimeZone("UTC"));
 		currentInstant = Instant.now();
@@ -88,10 +93,10 @@ public abstract class AbstractManager {
 	public abstract void live();
 	
 	protected void parseConfigFile(){
-		NUMBER_OF_ITERATIONS_BEFORE_APPLYING_POLICIES = Integer.parseInt(PoliticalVar.variables.get("simulations_per_action"));
-		NUMBER_OF_ITERATIONS_BEFORE_RESTART = NUMBER_OF_ITERATIONS_BEFORE_APPLYING_POLICIES * Integer.parseInt(PoliticalVar.variables.get("actions_per_scenario"));
+		NUMBER_OF_ITERATIONS_BEFORE_APPLYING_POLICIES = Integer.parseInt(session.getVariables().get("simulations_per_action"));
+		NUMBER_OF_ITERATIONS_BEFORE_RESTART = NUMBER_OF_ITERATIONS_BEFORE_APPLYING_POLICIES * Integer.parseInt(session.getVariables().get("actions_per_scenario"));
 		NUMBER_OF_ITERATIONS_BEFORE_SAVE = NUMBER_OF_ITERATIONS_BEFORE_APPLYING_POLICIES;
-		NUMBER_OF_SIMULATIONS_BEFORE_RESTART = Integer.parseInt(PoliticalVar.variables.get("simulation_before_restart"));
+		NUMBER_OF_SIMULATIONS_BEFORE_RESTART = Integer.parseInt(session.getVariables().get("simulation_before_restart"));
 	}
 	
 	protected abstract void init();
@@ -152,12 +157,12 @@ public abstract class AbstractManager {
 	protected void saveManagerCounters() {
 		List<String> lines = new ArrayList<>();
 		lines.add("iteration:"+currentIteration);
-		FilesManagement.writeToFile(FilePath.currentLocalLearnerFolder, FileName.MANAGER_FILE, lines);
+		FilesManagement.writeToFile(session.getLocalLearnerFolder(), FileName.MANAGER_FILE, lines);
 	}
 	
 	protected void readManagerCounters() {
 		try {
-			List<String> lines = FilesManagement.readFile(FilePath.currentLocalLearnerFolder, FileName.MANAGER_FILE);
+			List<String> lines = FilesManagement.readFile(session.getLocalLearnerFolder(), FileName.MANAGER_FILE);
 			for(String line : lines) {
 				String[] splits = line.split(":");
 				if(splits[0].equals("iteration")) {
@@ -8,10 +8,9 @@ import java.util.List;
 import java.util.Map.Entry;
 
 import org.liris.smartgov.lez.core.simulation.files.FileName;
-import org.liris.smartgov.lez.core.simulation.files.FilePath;
 import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
 import org.liris.smartgov.lez.core.simulation.files.JSONWriter;
-import org.liris.smartgov.lez.politic.PoliticalVar;
+import org.liris.smartgov.lez.politic.PoliticalSession;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAgent;
 
@@ -25,26 +24,27 @@ public class ManagerQLearningScenario extends AbstractManager {
 	/**
 	 * Constructor of ManagerQLearning. Defines if we are in validation phase
 	 * or learning phase.
+	 * @param session political session of the managed simulation
 	 */
-	public ManagerQLearningScenario(){
-		super();
+	public ManagerQLearningScenario(PoliticalSession session){
+		super(session);
 		
 		indexOfAction = 0;
 		
 		parseConfigFile();
 
-		if (Integer.parseInt(PoliticalVar.variables.get("learning")) == 1) {
+		if (Integer.parseInt(session.getVariables().get("learning")) == 1) {
 			currentPhase = "learning";
 			leaveObservationPhase();
-			for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+			for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 				policyAgent.applyRandomActionToStructures();
 			}
-		} else if(Integer.parseInt(PoliticalVar.variables.get("validation")) == 1) {
+		} else if(Integer.parseInt(session.getVariables().get("validation")) == 1) {
 			currentPhase = "validation";
 			validationPhase = true;
 		}
-		if(PoliticalVar.variables.get("split").equals("1")) {
-			PoliticalVar.policyAgents.get(0).splitControlGroup();
+		if(session.getVariables().get("split").equals("1")) {
+			session.getPolicyAgents().get(0).splitControlGroup();
 		}
 	}
 
@@ -79,7 +79,7 @@ public class ManagerQLearningScenario extends AbstractManager {
 	 * Call the policy so they decide the next action.
 	 */
 	private void callPolicyAgents() {
-		for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+		for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 			if(policyAgent != null) {
 				policyAgent.live();
 			}
@@ -98,19 +98,19 @@ public class ManagerQLearningScenario extends AbstractManager {
 	private void saveGlobalGain() {
 		List<String> lines = new ArrayList<>();
 		double gain = 0.0;
-		for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+		for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 			if(policyAgent != null) {
 				gain = policyAgent.getLastGain();
 			}
 		}
 		if (NUMBER_OF_SIMULATIONS_BEFORE_RESTART == currentSimulationIndex) {
 			lines.add("EPOCH_END : " + currentIteration + "," + gain);
-			FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, "gain_end_epoch.txt", String.valueOf(gain));
+			FilesManagement.appendToFile(session.getLocalLearnerFolder(), "gain_end_epoch.txt", String.valueOf(gain));
 		}
 		else {
 			lines.add(currentIteration + "," + gain);
 		}
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, globalGainFile, lines);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), globalGainFile, lines);
 	}
 	
 	@Override
@@ -129,7 +129,7 @@ public class ManagerQLearningScenario extends AbstractManager {
 		Date date = new Date();
 		String datelog = "[Time] (" + currentIteration + ")| Date: " + date.toString() + " | Iteration time: " + formatter.format(Duration.between(currentInstant, now).toMillis()) + " | Total time: " + formatter.format((System.currentTimeMillis() - beginTime)) + " |";
 		currentInstant = now;
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, FileName.MANAGER_LOGS, datelog);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), FileName.MANAGER_LOGS, datelog);
 	}
 	
 	protected void randomStateGenerator(boolean generateRandomState) {
@@ -138,10 +138,10 @@ public class ManagerQLearningScenario extends AbstractManager {
 			if(NUMBER_OF_SIMULATIONS_BEFORE_RESTART == currentSimulationIndex) {
 				recentlyReset = true;
 				restartCounter ++;
-				if ( restartCounter == Integer.parseInt(PoliticalVar.variables.get("nb_epoch")) ) {
+				if ( restartCounter == Integer.parseInt(session.getVariables().get("nb_epoch")) ) {
 					needToStop = true;
 				}
-				else if ( restartCounter == Integer.parseInt(PoliticalVar.variables.get("nb_epoch")) - 1 ) {
+				else if ( restartCounter == Integer.parseInt(session.getVariables().get("nb_epoch")) - 1 ) {
 					lastEpoch = true;
 				}
 				currentSimulationIndex = 1;
@@ -151,7 +151,7 @@ public class ManagerQLearningScenario extends AbstractManager {
 
 				boolean keepAction = false;
 				
-				for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+				for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 					if(policyAgent != null) {
 						//1) Do the special action first
 						PolicyAction currentSpecificAction = policyAgent.getLastSpecialAction();
@@ -172,12 +172,12 @@ public class ManagerQLearningScenario extends AbstractManager {
 				}
 				//*/
 				if(keepAction) {
-					JSONWriter.writePolicyAgents(FilePath.currentLocalLearnerFolder, 
+					JSONWriter.writePolicyAgents(session.getLocalLearnerFolder(), 
 							currentIteration + "_" + FileName.PolicyAgentsFile,
-							PoliticalVar.policyAgents);
+							session.getPolicyAgents());
 				}
 				
-				for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+				for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 					if(policyAgent != null) {
 						//2) Do the normal action of the remaining agents
 						PolicyAction currentAction = policyAgent.getLastAction();
@@ -193,7 +193,7 @@ public class ManagerQLearningScenario extends AbstractManager {
 			}
 		} else {
 			//No limited number of trials before hard reset
-			for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+			for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 				if(policyAgent != null) {
 					if(currentPhase.equals("learning")) {
 						policyAgent.askAndUpdateLocalLearners();
@@ -213,17 +213,17 @@ public class ManagerQLearningScenario extends AbstractManager {
 			line += actions.get(i);
 		}
 		lines.add(line);
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, FileName.MANAGER_ACTIONS, lines);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), FileName.MANAGER_ACTIONS, lines);
 	}
 	
 	protected void saveConfigOfSimulation(List<String> additionnalInfo) {
 		System.out.println("Save parameters for current simulations.");
 		List<String> lines = new ArrayList<>();
 		lines.add("Time: " + timeStamp + ".");
-		for(Entry<String, String> value : PoliticalVar.variables.entrySet()) {
+		for(Entry<String, String> value : session.getVariables().entrySet()) {
 			lines.add(value.getKey() + ": " + value.getValue());
 		}
-		FilesManagement.writeToFile(FilePath.currentLocalLearnerFolder, FileName.MANAGER_PARAMETERS_FILE, lines);
+		FilesManagement.writeToFile(session.getLocalLearnerFolder(), FileName.MANAGER_PARAMETERS_FILE, lines);
 		if(additionnalInfo != null && !additionnalInfo.isEmpty()) {
 			
 		}
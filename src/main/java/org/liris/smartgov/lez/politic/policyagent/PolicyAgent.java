@@ -8,9 +8,8 @@ import java.util.Map.Entry;
 import java.util.Random;
 
 import org.liris.smartgov.lez.core.environment.Structure;
-import org.liris.smartgov.lez.core.simulation.files.FilePath;
 import org.liris.smartgov.lez.core.simulation.files.FilesManagement;
-import org.liris.smartgov.lez.politic.PoliticalVar;
+import org.liris.smartgov.lez.politic.PoliticalSession;
 import org.liris.smartgov.lez.politic.policyagent.inneragent.DeepLocalLearner;
 import org.liris.smartgov.lez.politic.policyagent.inneragent.InnerAgent;
 import org.liris.smartgov.lez.politic.policyagent.inneragent.LocalLearner;
@@ -74,14 +73,17 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	private Map<String, Perimeter> perimetersPerIDForMerge;
 	private Map<String, List<InnerAgent>> innerAgentsPerIDForMerge;
 	private Map<String, Double> higherGainPerIDForMerge;
+	
+	private final PoliticalSession session;
 
-	public PolicyAgent(String id, Perimeter perimeter, List<PolicyAction> actions) {
+	public PolicyAgent(PoliticalSession session, String id, Perimeter perimeter, List<PolicyAction> actions) {
 		super(id, perimeter, actions);
+		this.session = session;
 		
 		initValues();
 		
-		String agentType = PoliticalVar.variables.get("agent_type");
-		String strategy = PoliticalVar.variables.get("strategy");
+		String agentType = session.getVariables().get("agent_type");
+		String strategy = session.getVariables().get("strategy");
 		
 		System.out.println(perimeter.getStructures().size());
 		for(int indexOfStructure = 0; indexOfStructure < perimeter.getStructures().size(); indexOfStructure++) {
@@ -94,12 +96,13 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		copyFiles();
 	}
 	
-	public PolicyAgent(String id, Perimeter perimeter, List<PolicyAction> actions, List<PolicyAction> specialActions) {
+	public PolicyAgent(PoliticalSession session, String id, Perimeter perimeter, List<PolicyAction> actions, List<PolicyAction> specialActions) {
 		super(id, perimeter, actions, specialActions);
+		this.session = session;
 		initValues();
 		
-		String agentType = PoliticalVar.variables.get("agent_type");
-		String strategy = PoliticalVar.variables.get("strategy");
+		String agentType = session.getVariables().get("agent_type");
+		String strategy = session.getVariables().get("strategy");
 
 		for(int indexOfStructure = 0; indexOfStructure < perimeter.getStructures().size(); indexOfStructure++) {
 			createLocalLearnerFor(perimeter.getStructures().get(indexOfStructure),
@@ -112,17 +115,19 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	
 	/**
 	 * Should be use when validation is active.
+	 * @param session
 	 * @param id
 	 * @param perimeter
 	 * @param actions
 	 * @param specialActions
 	 */
-	public PolicyAgent(String id, Perimeter perimeter, List<PolicyAction> actions, List<PolicyAction> specialActions, int validation) {
+	public PolicyAgent(PoliticalSession session, String id, Perimeter perimeter, List<PolicyAction> actions, List<PolicyAction> specialActions, int validation) {
 		super(id, perimeter, actions, specialActions);
+		this.session = session;
 		initValues();
 		
-		String agentType = PoliticalVar.variables.get("agent_type");
-		String strategy = PoliticalVar.variables.get("strategy");
+		String agentType = session.getVariables().get("agent_type");
+		String strategy = session.getVariables().get("strategy");
 
 		for(int indexOfStructure = 0; indexOfStructure < perimeter.getStructures().size(); indexOfStructure++) {
 			createLocalLearnerFor(perimeter.getStructures().get(indexOfStructure),
@@ -136,6 +141,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	
 	/**
 	 * This constructor should be use when a policy agent is created after a merge rollback.
+	 * @param session
 	 * @param id
 	 * @param perimeter
 	 * @param actions
@@ -145,6 +151,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	 */
 	@SuppressWarnings("unchecked")
 	public PolicyAgent(
+			PoliticalSession session,
 			String id, 
 			Perimeter perimeter, 
 			List<PolicyAction> actions, 
@@ -152,6 +159,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			List<? extends InnerAgent> agents,
 			double epsilon) {
 		super(id, perimeter, actions, specialActions);
+		this.session = session;
 		initValues();
 		
 		this.epsilon = epsilon;
@@ -161,6 +169,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	
 	/**
 	 * This constructor should be use when a policy agent is split.
+	 * @param session
 	 * @param id
 	 * @param perimeter
 	 * @param actions
@@ -169,6 +178,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	 */
 	@SuppressWarnings("unchecked")
 	public PolicyAgent(
+			PoliticalSession session,
 			String id, 
 			Perimeter perimeter, 
 			List<PolicyAction> actions, 
@@ -177,6 +187,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			double epsilon,
 			String linkedPolicyAgentID) {
 		super(id, perimeter, actions, specialActions);
+		this.session = session;
 		initValues();
 		
 		this.epsilon = epsilon;
@@ -210,20 +221,20 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		higherGainPerIDForMerge = new HashMap<>();
 		policyAgentBeforeSplit  = "";
 		policyAgentBeforeMerge  = "";
-		positiveScoreUpdate     = Integer.parseInt(PoliticalVar.variables.get("positive_trust_score"));
-		negativeScoreUpdate     = Integer.parseInt(PoliticalVar.variables.get("negative_trust_score"));
-		iterationToBeConsideredHighestGain = Integer.parseInt(PoliticalVar.variables.get("iteration_to_be_highest_gain"));
-		sizeOfPreviousGains     = Integer.parseInt(PoliticalVar.variables.get("number_of_previous_iterations"));
-		aggregateFunction       = PoliticalVar.variables.get("aggregate_function");
+		positiveScoreUpdate     = Integer.parseInt(session.getVariables().get("positive_trust_score"));
+		negativeScoreUpdate     = Integer.parseInt(session.getVariables().get("negative_trust_score"));
+		iterationToBeConsideredHighestGain = Integer.parseInt(session.getVariables().get("iteration_to_be_highest_gain"));
+		sizeOfPreviousGains     = Integer.parseInt(session.getVariables().get("number_of_previous_iterations"));
+		aggregateFunction       = session.getVariables().get("aggregate_function");
 		previousHighestGains    = new ArrayList<>();
 		previousIterationsGains = new ArrayList<>();
 		parseConfigFile();
 	}
 	
 	private void parseConfigFile() {
-		epsilon = Double.parseDouble(PoliticalVar.variables.get("epsilon"));
-		epsilonDecay = Double.parseDouble(PoliticalVar.variables.get("epsilon_decay"));
-		epsilonMin = Double.parseDouble(PoliticalVar.variables.get("epsilon_min"));
+		epsilon = Double.parseDouble(session.getVariables().get("epsilon"));
+		epsilonDecay = Double.parseDouble(session.getVariables().get("epsilon_decay"));
+		epsilonMin = Double.parseDouble(session.getVariables().get("epsilon_min"));
 	}
 
 	/**
@@ -232,12 +243,12 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	 * Else write a new file.
 	 */
 	private void copyFiles() {
-		if(!PoliticalVar.variables.get("model_folder").equals("-") && Integer.valueOf(PoliticalVar.variables.get("learning")) == 1) {
+		if(!session.getVariables().get("model_folder").equals("-") && Integer.valueOf(session.getVariables().get("learning")) == 1) {
 			setTrustPerLocalLearner();
 		} else {
-			FilesManagement.writeToFile(FilePath.currentLocalLearnerFolder, ACTION_FILE, "");
-			FilesManagement.writeToFile(FilePath.currentLocalLearnerFolder, LOCAL_REWARD_FILE, "");
-			FilesManagement.writeToFile(FilePath.currentLocalLearnerFolder, LOCAL_ACTION_FILE, "");
+			FilesManagement.writeToFile(session.getLocalLearnerFolder(), ACTION_FILE, "");
+			FilesManagement.writeToFile(session.getLocalLearnerFolder(), LOCAL_REWARD_FILE, "");
+			FilesManagement.writeToFile(session.getLocalLearnerFolder(), LOCAL_ACTION_FILE, "");
 		}
 	}
 
@@ -245,7 +256,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	 * Read "policyAgentActions.txt" file and set previous score to the correct localLearner.
 	 */
 	private void setTrustPerLocalLearner() {
-		List<String> lines = FilesManagement.readFile(FilePath.currentLocalLearnerFolder, "policyAgentActions.txt");
+		List<String> lines = FilesManagement.readFile(session.getLocalLearnerFolder(), "policyAgentActions.txt");
 		String lastLine = lines.get(lines.size() - 1);
 		String[] agents = lastLine.split("\\)")[1].split(";");
 		String[] agentsID = new String[agents.length];
@@ -262,25 +273,25 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	@Override
 	public void live() {
 		//if(EnvVar.manager.getCurrentTrialIndex() >= 5 ) {
-		if(PoliticalVar.manager.getCurrentTrialIndex() >= Integer.parseInt(PoliticalVar.variables.get("simulations_per_action"))) {
+		if(session.getManager().getCurrentTrialIndex() >= Integer.parseInt(session.getVariables().get("simulations_per_action"))) {
 			updateLocalLearnerPerceptions();
 			updateGain();
 			updateActionsSequence();
 			updateScoreOfLocalLearners();
 			PolicyAction action = PolicyAction.NO_ACTION;
 			PolicyAction specialAction = PolicyAction.NOTHING;
-			if(PoliticalVar.manager.getCurrentlyExperimenting()) {
+			if(session.getManager().getCurrentlyExperimenting()) {
 				if(currentlyExperimenting) {
 					if(leaderExperimentation) {
 						updateHighestGain();
 						specialAction = updateControlGroup();
 					}
 					List<String> lines = new ArrayList<>();
-					lines.add(PoliticalVar.manager.getCurrentIteration() + ") " + this.id + " is currently experimenting " + actionCurrentlyTested + " action.");
-					FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, "Experimentation.txt", lines);
+					lines.add(session.getManager().getCurrentIteration() + ") " + this.id + " is currently experimenting " + actionCurrentlyTested + " action.");
+					FilesManagement.appendToFile(session.getLocalLearnerFolder(), "Experimentation.txt", lines);
 				}
 			} else {
-				if(epsilon <= Double.valueOf(PoliticalVar.variables.get("epsilon_min"))) {
+				if(epsilon <= Double.valueOf(session.getVariables().get("epsilon_min"))) {
 					specialAction = needSpecialAction();
 				}
 			}
@@ -291,7 +302,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	}
 	
 	private void updateActionsSequence() {
-		if(PoliticalVar.manager.isRecentlyReset()) {
+		if(session.getManager().isRecentlyReset()) {
 			sequenceAlreadyChecked = false;
 			sequence = new ActionsSequence();
 		} else if(!sequence.isHighestGainReached()) {
@@ -303,8 +314,8 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		if(sequence.isHighestGainReached() && sequenceAlreadyChecked) {
 			System.out.println(sequence);
 			List<String> lines = new ArrayList<>();
-			lines.add(PoliticalVar.manager.getCurrentIteration() + ")" + sequence + "; " + highestGain);
-			FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, LOCAL_SEQUENCE_FILE, lines);
+			lines.add(session.getManager().getCurrentIteration() + ")" + sequence + "; " + highestGain);
+			FilesManagement.appendToFile(session.getLocalLearnerFolder(), LOCAL_SEQUENCE_FILE, lines);
 		}
 	}
 
@@ -328,7 +339,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			System.out.println(sequence);
 			List<String> lines = new ArrayList<>();
 			lines.add(EnvVar.manager.getCurrentIteration() + ")" + sequence + "; " + highestGain);
-			FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, LOCAL_SEQUENCE_FILE, lines);
+			FilesManagement.appendToFile(session.getLocalLearnerFolder(), LOCAL_SEQUENCE_FILE, lines);
 		}
 	}
 	//*/
@@ -342,11 +353,11 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	
 	private void updateHighestGain() {
 		if(actionCurrentlyTested == PolicyAction.SPLIT) {
-			double cumulHighestGain = highestGain + PoliticalVar.policyAgents.get(Integer.valueOf(policyAgentIDSplit)).getHighestGain();
+			double cumulHighestGain = highestGain + session.getPolicyAgents().get(Integer.valueOf(policyAgentIDSplit)).getHighestGain();
 			if(highestGainDuringSplit < cumulHighestGain) {
 				highestGainDuringSplit = cumulHighestGain;
 			}
-			double currentGain = lastGain + PoliticalVar.policyAgents.get(Integer.valueOf(policyAgentIDSplit)).getLastGain();
+			double currentGain = lastGain + session.getPolicyAgents().get(Integer.valueOf(policyAgentIDSplit)).getLastGain();
 			if(currentGain > highestGainBeforeSplit) {
 				highestGainReachedCounter++;
 			}
@@ -360,9 +371,9 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	
 	private PolicyAction updateSplit() {
 		splitValidationCounter++;
-		if(splitValidationCounter >= Integer.parseInt(PoliticalVar.variables.get("iterations_to_check_split"))) {
+		if(splitValidationCounter >= Integer.parseInt(session.getVariables().get("iterations_to_check_split"))) {
 			return PolicyAction.ROLLBACK;
-		} else if(highestGainReachedCounter >= Integer.parseInt(PoliticalVar.variables.get("highest_gain_reached"))) {
+		} else if(highestGainReachedCounter >= Integer.parseInt(session.getVariables().get("highest_gain_reached"))) {
 			return PolicyAction.KEEP;
 		}
 		return PolicyAction.NOTHING;
@@ -370,9 +381,9 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	
 	private PolicyAction updateMerge() {
 		splitValidationCounter++;
-		if(splitValidationCounter >= Integer.parseInt(PoliticalVar.variables.get("iterations_to_check_merge"))) {
+		if(splitValidationCounter >= Integer.parseInt(session.getVariables().get("iterations_to_check_merge"))) {
 			return PolicyAction.ROLLBACK;
-		} else if(highestGainReachedCounter >= Integer.parseInt(PoliticalVar.variables.get("highest_gain_reached"))) {
+		} else if(highestGainReachedCounter >= Integer.parseInt(session.getVariables().get("highest_gain_reached"))) {
 			return PolicyAction.KEEP;
 		}
 		return PolicyAction.NOTHING;
@@ -394,7 +405,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	private double setGlobalPerception() {
 		FeaturesDouble globalReward = new FeaturesDouble();
 		String line = "";
-		line += PoliticalVar.manager.getCurrentIteration() + ")";
+		line += session.getManager().getCurrentIteration() + ")";
 		globalReward.addFeature(0.0);
 		for(int indexOfStructure = 0; indexOfStructure < perimeter.getStructures().size(); indexOfStructure++) {
 			FeaturesDouble position = new FeaturesDouble();
@@ -405,16 +416,16 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			globalReward.addFeaturesDouble(position);
 			
 		}
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, "local_gains.txt", line);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), "local_gains.txt", line);
 		System.out.println("Global gain is: " + globalReward.getFeatures().get(0));
 		return globalReward.getFeatures().get(0);
 	}
 	
 	private void saveGlobalPerception(double currentReward) {
 		String policyId = "policyagent_" + id + "_global";
-		String iteration = String.valueOf(PoliticalVar.manager.getCurrentIteration()) + ")";
+		String iteration = String.valueOf(session.getManager().getCurrentIteration()) + ")";
 		String value = iteration + lastGain + "," + lastAction + "," + currentReward;
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, policyId+".txt", value);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), policyId+".txt", value);
 	}
 
 	public PolicyAction chooseActionToApplyToStructures() {
@@ -425,8 +436,12 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		Map<PolicyAction, Integer> nbPerActions = new HashMap<>();
 		Map<PolicyAction, Integer> averageTrust = new HashMap<>();
 		Map<PolicyAction, List<String>> idsPerAction = new HashMap<>();
-		for(LocalLearner localLearner : getLocalLearners()) {
-			PolicyAction localAction = localLearner.proposeAction();
+		// All the local learners decide in a single request
+		List<LocalLearner> localLearners = getLocalLearners();
+		List<PolicyAction> localActions = LocalLearner.proposeActions(localLearners);
+		for(int i = 0; i < localLearners.size(); i++) {
+			LocalLearner localLearner = localLearners.get(i);
+			PolicyAction localAction = localActions.get(i);
 			
 			if(!nbPerActions.containsKey(localAction)) {
 				nbPerActions.put(localAction, 1);
@@ -444,7 +459,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		int maxNumber = -1;
 		boolean activeConcensus = false;
 		List<String> lines = new ArrayList<>();
-		lines.add("------[Iteration: " + PoliticalVar.manager.getCurrentIteration() + "]------");
+		lines.add("------[Iteration: " + session.getManager().getCurrentIteration() + "]------");
 		lines.add("Total voters: " + getLocalLearners().size() + ".");
 		for(Entry<PolicyAction, Integer> entry : nbPerActions.entrySet()) {
 			System.out.println("Action: " + entry.getKey() + ", Voters: " + entry.getValue() + ", Score: " + averageTrust.get(entry.getKey()));
@@ -470,14 +485,14 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			lines.add("Apply action " + action + " randomly choose by policy agent.");
 		} else {
 			if(activeConcensus) {
-				action = consensus(PoliticalVar.variables.get("consensus"), nbPerActions, averageTrust, maxNumber);
+				action = consensus(session.getVariables().get("consensus"), nbPerActions, averageTrust, maxNumber);
 				lines.add("Apply action " + action + " based on random consensus between two or more actions.");
 			} else {
 				System.out.println("Apply action " + action + " proposed by the majority of agents.");
 				lines.add("Apply action " + action + " proposed by the majority of agents.");
 			}
 		}
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, LOCAL_VOTE_FILE, lines);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), LOCAL_VOTE_FILE, lines);
 		decayEpsilon();
 		return action;
 	}
@@ -526,7 +541,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	}
 	
 	private void updatePreviousIterationsGains(double currentGain) {
-		if(PoliticalVar.manager.isRecentlyReset()) {
+		if(session.getManager().isRecentlyReset()) {
 			previousIterationsGains.clear();
 		}
 		previousIterationsGains.add(currentGain);
@@ -649,9 +664,9 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		
 		for(int i = 0; i < allLabels.size(); i++) {
 			if(agentType.equals("normal")) {
-				innerAgents.add(new LocalLearner(structure, structure.getID(), allLabels.get(i), strategy, actions.size(), policyActions));
+				innerAgents.add(new LocalLearner(session, structure, structure.getID(), allLabels.get(i), strategy, actions.size(), policyActions));
 			} else if(agentType.equals("deep")) {
-				DeepLocalLearner deepLL = new DeepLocalLearner(structure, structure.getID(), allLabels.get(i), strategy, actions.size(), policyActions);
+				DeepLocalLearner deepLL = new DeepLocalLearner(session, structure, structure.getID(), allLabels.get(i), strategy, actions.size(), policyActions);
 				innerAgents.add(deepLL);
 				/*/
 				deepLL.getPredictionForAllStates();
@@ -660,11 +675,11 @@ public class PolicyAgent extends AbstractPolicyAgent {
 				}
 				deepLL.getPredictionForAllStates();
 				//*/
-				//innerAgents.add(new DeepLocalLearner(structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP));
+				//innerAgents.add(new DeepLocalLearner(session, structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP));
 			}
 		}
 		for(InnerAgent innerAgent : innerAgents) {
-			PoliticalVar.innerAgentsGlobal.add(innerAgent);
+			session.getInnerAgents().add(innerAgent);
 		}
 		//*/
 		/*/
@@ -681,12 +696,12 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		
 		ParkingMDP parkingMDP = new ParkingMDP(0, actions.size(), 0.9, (BlockFace) structure, "prices");
 		if(agentType.equals("normal")) {
-			innerAgents.add(new LocalLearner(structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP));
+			innerAgents.add(new LocalLearner(session, structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP));
 		} else if(agentType.equals("deep")) {
-			DeepLocalLearner deepLL = new DeepLocalLearner(structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP);
+			DeepLocalLearner deepLL = new DeepLocalLearner(session, structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP);
 			innerAgents.add(deepLL);
 			//deepLL.getPredictionForAllStates();
-			//innerAgents.add(new DeepLocalLearner(structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP));
+			//innerAgents.add(new DeepLocalLearner(session, structure, structure.getID(), labels9, strategy, learningMethod, actions.size(), parkingMDP));
 		}
 		//*/
 	}
@@ -808,7 +823,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	}
 	
 	public void fetchAnswersFromAgents() {
-		String allAnswersForOneIteration = String.valueOf(PoliticalVar.manager.getCurrentIteration()) + ")";
+		String allAnswersForOneIteration = String.valueOf(session.getManager().getCurrentIteration()) + ")";
 		for(LocalLearner localLearner : getLocalLearners()) {
 			if(localLearner instanceof DeepLocalLearner) {
 				String answer = ((DeepLocalLearner) localLearner).getExplorationMethod().getLastAnswer();
@@ -816,8 +831,8 @@ public class PolicyAgent extends AbstractPolicyAgent {
 				allAnswersForOneIteration += splits[0]+":"+splits[1]+"_"+splits[2]+"_"+localLearner.getScore()+";";
 			}
 		}
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, ACTION_FILE, allAnswersForOneIteration);
-		FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, LOCAL_ACTION_FILE, allAnswersForOneIteration);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), ACTION_FILE, allAnswersForOneIteration);
+		FilesManagement.appendToFile(session.getLocalLearnerFolder(), LOCAL_ACTION_FILE, allAnswersForOneIteration);
 	}
 	
 	/**
@@ -828,11 +843,12 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		List<List<LocalLearner>> groupsIDs = groupIdentificationBasedOnTrust();
 		resetTrust();
 		Perimeter splitPerimeter = createPerimeterWithAgents(groupsIDs.get(0));
-		policyAgentIDSplit = PoliticalVar.requestPolicyAgentID();
+		policyAgentIDSplit = session.requestPolicyAgentID();
 		
-		if(Integer.parseInt(policyAgentIDSplit) < PoliticalVar.policyAgents.size()) {
-			PoliticalVar.policyAgents.set(Integer.parseInt(policyAgentIDSplit), 
+		if(Integer.parseInt(policyAgentIDSplit) < session.getPolicyAgents().size()) {
+			session.getPolicyAgents().set(Integer.parseInt(policyAgentIDSplit), 
 					new PolicyAgent(
+							session, 
 							policyAgentIDSplit, 
 							splitPerimeter, 
 							actions, 
@@ -843,7 +859,8 @@ public class PolicyAgent extends AbstractPolicyAgent {
 					);
 		} else {
 			//Need to be sure that the ID of the newly created PolicyAgent is equal to its position in the list.
-			PoliticalVar.policyAgents.add(new PolicyAgent(
+			session.getPolicyAgents().add(new PolicyAgent(
+					session, 
 					policyAgentIDSplit, 
 					splitPerimeter, 
 					actions, 
@@ -860,7 +877,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		splitValidationCounter = 0;
 		bufferTrustAreaCounter = 0;
 		highestGainReachedCounter = 0;
-		PoliticalVar.manager.setCurrentlyExperimenting(true);
+		session.getManager().setCurrentlyExperimenting(true);
 		currentlyExperimenting = true;
 		leaderExperimentation = true;
 		actionCurrentlyTested = PolicyAction.SPLIT;
@@ -873,7 +890,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		highestSumGainBeforeMerge = highestGain;
 		highestGainBeforeMerge = highestGain;
 		for(int i = 0; i < IDs.size(); i++) {
-			PolicyAgent policyAgent = PoliticalVar.policyAgents.get(IDs.get(i));
+			PolicyAgent policyAgent = session.getPolicyAgents().get(IDs.get(i));
 			policyAgent.resetTrust();
 			perimetersPerIDForMerge.put(policyAgent.getId(), new Perimeter(policyAgent.getPerimeter()));
 			innerAgentsPerIDForMerge.put(policyAgent.getId(), policyAgent.getInnerAgents());
@@ -886,13 +903,13 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			} else {
 				str += policyAgent.getId() + ",";
 			}
-			PoliticalVar.storePolicyAgentIDForMerge(id, IDs.get(i));
+			session.storePolicyAgentIDForMerge(id, IDs.get(i));
 			//EnvVar.updatePolicyAgentsList(IDs.get(i)); //Remove agent from plot 
 			policyAgentBeforeMerge += policyAgent.getId() + ",";
 			//EnvVar.updatePolicyAgentBuffer(String.valueOf(IDs.get(i)));
 		}
 		highestGain = 0.0;
-		PoliticalVar.manager.setCurrentlyExperimenting(true);
+		session.getManager().setCurrentlyExperimenting(true);
 		currentlyExperimenting = true;
 		leaderExperimentation = true;
 		actionCurrentlyTested = PolicyAction.MERGE;
@@ -914,11 +931,11 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		highestGain = highestGainBeforeSplit;
 		String str = "[" + id + "," + policyAgentIDSplit + "->" + id + "],";
 		int policyAgentIndex = Integer.valueOf(policyAgentIDSplit);
-		PolicyAgent policyAgent = PoliticalVar.policyAgents.get(policyAgentIndex);
+		PolicyAgent policyAgent = session.getPolicyAgents().get(policyAgentIndex);
 		perimeter.mergePerimeters(policyAgent.getPerimeter());
 		innerAgents.addAll(policyAgent.getInnerAgents());
-		PoliticalVar.removePolicyAgentFromList(policyAgentIndex);
-		PoliticalVar.manager.setCurrentlyExperimenting(false);
+		session.removePolicyAgentFromList(policyAgentIndex);
+		session.getManager().setCurrentlyExperimenting(false);
 		resetTrust();
 		resetSpecialActionTrial();
 		return ROLLBACK_STR + str;
@@ -932,6 +949,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			/*/ Wrong constructor
 			EnvVar.policyAgents.set(Integer.valueOf(id),
 					new PolicyAgent(
+					session, 
 					id, 
 					perimetersPerIDForMerge.get(id), 
 					actions, 
@@ -941,8 +959,9 @@ public class PolicyAgent extends AbstractPolicyAgent {
 					id)
 					);
 			//*/
-			PoliticalVar.policyAgents.set(Integer.valueOf(id),
+			session.getPolicyAgents().set(Integer.valueOf(id),
 					new PolicyAgent(
+					session, 
 					id, 
 					perimetersPerIDForMerge.get(id), 
 					actions, 
@@ -950,15 +969,15 @@ public class PolicyAgent extends AbstractPolicyAgent {
 					innerAgentsPerIDForMerge.get(id),
 					epsilon)
 					);
-			PoliticalVar.updatePolicyAgentBuffer(id);
-			PoliticalVar.policyAgents.get(Integer.valueOf(id)).setHighestGain(higherGainPerIDForMerge.get(id));
+			session.updatePolicyAgentBuffer(id);
+			session.getPolicyAgents().get(Integer.valueOf(id)).setHighestGain(higherGainPerIDForMerge.get(id));
 			innerAgents.removeAll(innerAgentsPerIDForMerge.get(id));
 			perimeter.removeStructures(perimetersPerIDForMerge.get(id).getStructures());
 		}
 		//String str = "[" + id + "->" + policyAgentIDSplit + "," + id + "],";
 		str += id + "],";
-		PoliticalVar.clearMergeAgents(id);
-		PoliticalVar.manager.setCurrentlyExperimenting(false);
+		session.clearMergeAgents(id);
+		session.getManager().setCurrentlyExperimenting(false);
 		//TODO not correct, create several agents
 		resetTrust();
 		
@@ -974,16 +993,16 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		if(actionCurrentlyTested == PolicyAction.SPLIT) {
 			if(!policyAgentIDSplit.equals("")) {
 				str += "," + policyAgentIDSplit;
-				PoliticalVar.policyAgents.get(Integer.valueOf(policyAgentIDSplit)).resetSpecialActionTrial(); //Remove experimenting tag
+				session.getPolicyAgents().get(Integer.valueOf(policyAgentIDSplit)).resetSpecialActionTrial(); //Remove experimenting tag
 			}
 		} else if(actionCurrentlyTested == PolicyAction.MERGE) {
-			PoliticalVar.clearMergeAgents(id);
+			session.clearMergeAgents(id);
 			for(String id : policyAgentBeforeSplit.split(",")) {
 				str += "," + id;
 			}
 		}
 		resetSpecialActionTrial();
-		PoliticalVar.manager.setCurrentlyExperimenting(false);
+		session.getManager().setCurrentlyExperimenting(false);
 		return KEEP_STR + str + "],";
 		/*
 		String str = "[" + id;
@@ -1055,7 +1074,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		}
 		for(LocalLearner localLearner : getLocalLearners()) {
 			double score = localLearner.getScore();
-			if(score >= Integer.parseInt(PoliticalVar.variables.get("buffer_trust_area_max"))) {
+			if(score >= Integer.parseInt(session.getVariables().get("buffer_trust_area_max"))) {
 				groupsIDs.get(0).add(localLearner);
 			} else {
 				//score <= Integer.parseInt(PoliticalVariables.variables.get("buffer_trust_area_min"))
@@ -1127,8 +1146,8 @@ public class PolicyAgent extends AbstractPolicyAgent {
 	private boolean isScoreInBufferArea() {
 		for(LocalLearner localLearner : getLocalLearners()) {
 			int score = localLearner.getScore();
-			if(score < Integer.valueOf(PoliticalVar.variables.get("buffer_trust_area_max")) 
-					&& score > Integer.valueOf(PoliticalVar.variables.get("buffer_trust_area_min"))) {
+			if(score < Integer.valueOf(session.getVariables().get("buffer_trust_area_max")) 
+					&& score > Integer.valueOf(session.getVariables().get("buffer_trust_area_min"))) {
 				return false;
 			}
 		}
@@ -1176,7 +1195,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 				bufferTrustAreaCounter++;
 			}
 
-			if(bufferTrustAreaCounter >= Integer.parseInt(PoliticalVar.variables.get("trust_stability"))) {
+			if(bufferTrustAreaCounter >= Integer.parseInt(session.getVariables().get("trust_stability"))) {
 				return PolicyAction.SPLIT;
 			}
 		} else {
@@ -1197,7 +1216,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			sequenceAlreadyChecked = true;
 			updateIDsForMerge(compareActionSequences());
 			for(Entry<Integer, Integer> IdenticalSequencePerID : IDsPerIdenticalSequences.entrySet()) {
-				if(IdenticalSequencePerID.getValue() >= Integer.parseInt(PoliticalVar.variables.get("identical_action_sequences"))) {
+				if(IdenticalSequencePerID.getValue() >= Integer.parseInt(session.getVariables().get("identical_action_sequences"))) {
 					IDsForMerge.add(IdenticalSequencePerID.getKey());
 					merge = true;
 				}
@@ -1234,8 +1253,8 @@ public class PolicyAgent extends AbstractPolicyAgent {
 			}
 
 			List<String> lines = new ArrayList<>();
-			lines.add(PoliticalVar.manager.getCurrentIteration() + ") " + str);
-			FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, LOCAL_IDS_SEQUENCE_FILE, lines);
+			lines.add(session.getManager().getCurrentIteration() + ") " + str);
+			FilesManagement.appendToFile(session.getLocalLearnerFolder(), LOCAL_IDS_SEQUENCE_FILE, lines);
 		}
 	}
 	
@@ -1243,7 +1262,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 		//TODO new control agents are not considered in the observation of similar action sequences.
 		List<Integer> IDs = new ArrayList<>();
 		//boolean similarSequences = false;
-		for(PolicyAgent policyAgent : PoliticalVar.policyAgents) {
+		for(PolicyAgent policyAgent : session.getPolicyAgents()) {
 			if(policyAgent != null) {
 				if(!policyAgent.getId().equals(id)) {
 					if(!policyAgent.isCurrentlyExperimenting()) {
@@ -1251,7 +1270,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 						if(policyAgent.getSequence().isHighestGainReached()) {
 							
 						//if(!policyAgent.getSequences().isEmpty()) {
-							str = PoliticalVar.manager.getCurrentIteration() + ") Compare sequences of agent " + this.id + " with agent " + policyAgent.getId() + ": (size: " + sequence.size() + ") " + sequence + " vs (size: "
+							str = session.getManager().getCurrentIteration() + ") Compare sequences of agent " + this.id + " with agent " + policyAgent.getId() + ": (size: " + sequence.size() + ") " + sequence + " vs (size: "
 									+ policyAgent.getSequence().size() + ") " + policyAgent.getSequence() + ".";
 							//for(int indexOfSequence = 0; indexOfSequence < policyAgent.getSequences().size(); indexOfSequence++) {
 								if(policyAgent.getSequence().compareTo(sequence)) {
@@ -1273,7 +1292,7 @@ public class PolicyAgent extends AbstractPolicyAgent {
 						//}
 							List<String> lines = new ArrayList<>();
 							lines.add(str);
-							FilesManagement.appendToFile(FilePath.currentLocalLearnerFolder, "Sequence_global_comparison.txt", lines);
+							FilesManagement.appendToFile(session.getLocalLearnerFolder(), "Sequence_global_comparison.txt", lines);
 						}
 					}
 				}
@@ -3,28 +3,26 @@ package org.liris.smartgov.lez.politic.policyagent.inneragent;
 import java.util.List;
 
 import org.liris.smartgov.lez.core.environment.Structure;
+import org.liris.smartgov.lez.politic.PoliticalSession;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
-import org.liris.smartgov.lez.politic.policyagent.learning.strategy.NNBest;
 
 public class DeepLocalLearner extends LocalLearner {
 
 	public DeepLocalLearner(
+			PoliticalSession session,
 			Structure structure, 
 			String id, 
 			List<String> labels, 
 			String strategy,
 			int nbActions,
 			List<PolicyAction> policyActions) {
-		super(structure, id, labels, strategy, nbActions, policyActions);
+		super(session, structure, id, labels, strategy, nbActions, policyActions);
 		
 	}
 	
 	@Override
-	public PolicyAction proposeAction() {
-		if(explorationMethod instanceof NNBest) {
-			((NNBest) explorationMethod).setLastPerception(currentPerception.getPosition());
-		}
-		return explorationMethod.chooseAction();
+	protected void prepareProposal() {
+		explorationMethod.setLastPerception(currentPerception.getPosition());
 	}
 	
 	@Override
@@ -2,9 +2,11 @@ package org.liris.smartgov.lez.politic.policyagent.inneragent;
 
 import java.util.List;
 
+import org.liris.smartgov.lez.politic.PoliticalSession;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
 import org.liris.smartgov.lez.politic.policyagent.PolicyPerception;
 import org.liris.smartgov.lez.politic.policyagent.learning.strategy.NNBest;
+import org.liris.smartgov.lez.politic.policyagent.learning.strategy.NativeDQN;
 import org.liris.smartgov.lez.politic.policyagent.learning.strategy.Strategy;
 
 public abstract class InnerAgent {
@@ -27,14 +29,17 @@ public abstract class InnerAgent {
 		return id;
 	}
 	
-	protected Strategy getStrategy(String strategy, 
+	protected Strategy getStrategy(PoliticalSession session,
+			String strategy, 
 			String id,
 			int stateSize,
 			int nbActions,
 			List<String> labels,
 			List<PolicyAction> policyActions) {
 		if(strategy.equals("neuralnet")) {
-			return new NNBest(id, stateSize, nbActions, labels, policyActions);
+			return new NNBest(session, id, stateSize, nbActions, labels, policyActions);
+		} else if(strategy.equals(NativeDQN.STRATEGY_NAME)) {
+			return new NativeDQN(session, id, stateSize, nbActions, labels, policyActions);
 		} else {
 			//TODO add a default strategy
 			return null;
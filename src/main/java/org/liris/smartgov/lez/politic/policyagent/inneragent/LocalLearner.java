@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.liris.smartgov.lez.core.environment.Structure;
+import org.liris.smartgov.lez.politic.PoliticalSession;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAgent;
 import org.liris.smartgov.lez.politic.policyagent.PolicyPerception;
@@ -28,6 +29,7 @@ public class LocalLearner extends InnerAgent {
 	private final int MIN_SCORE = -10;
 	
 	public LocalLearner(
+			PoliticalSession session,
 			Structure structure, 
 			String id, 
 			List<String> labels,
@@ -39,7 +41,7 @@ public class LocalLearner extends InnerAgent {
 		structures = new ArrayList<>();
 		structures.add(structure);
 		this.labels = labels;
-		explorationMethod = getStrategy(strategy, id, (labels.size() - 1), nbActions, labels, policyActions);
+		explorationMethod = getStrategy(session, strategy, id, (labels.size() - 1), nbActions, labels, policyActions);
 		action = PolicyAction.NO_ACTION;
 		score = 0;
 		lastReward = 0.0;
@@ -58,10 +60,32 @@ public class LocalLearner extends InnerAgent {
 		lastReward = perception.getFeatures().get(perception.getFeatures().size() - 1);
 	}
 	
+	/**
+	 * Prepares the strategy before it is asked for an action.
+	 */
+	protected void prepareProposal() {
+	}
+	
 	public PolicyAction proposeAction() {
+		prepareProposal();
 		return explorationMethod.chooseAction();
 	}
 	
+	/**
+	 * Asks all the specified local learners for an action at once, so that
+	 * their strategies can decide together (see {@link Strategy#chooseActions(List)}).
+	 * @param localLearners local learners to ask.
+	 * @return proposed actions, in the order of the local learners.
+	 */
+	public static List<PolicyAction> proposeActions(List<? extends LocalLearner> localLearners) {
+		List<Strategy> strategies = new ArrayList<>(localLearners.size());
+		for(LocalLearner localLearner : localLearners) {
+			localLearner.prepareProposal();
+			strategies.add(localLearner.explorationMethod);
+		}
+		return Strategy.chooseActions(strategies);
+	}
+	
 	public Strategy getExplorationMethod() {
 		return explorationMethod;
 	}
@@ -0,0 +1,168 @@
+package org.liris.smartgov.lez.politic.policyagent.learning.dqn;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Bounded replay memory of (state, action, reward, next state) transitions,
+ * stored in primitive ring buffers. When the memory is full, new transitions
+ * replace the oldest ones.
+ *
+ */
+public class ExperienceMemory {
+
+	private final int capacity;
+	private final int stateSize;
+	private final double[] states;
+	private final int[] actions;
+	private final double[] rewards;
+	private final double[] nextStates;
+
+	private int size;
+	private int next;
+	private int[] sampleIndexes;
+
+	/**
+	 * ExperienceMemory constructor.
+	 *
+	 * @param capacity maximum number of transitions
+	 * @param stateSize state size
+	 */
+	public ExperienceMemory(int capacity, int stateSize) {
+		this.capacity = capacity;
+		this.stateSize = stateSize;
+		states = new double[capacity * stateSize];
+		actions = new int[capacity];
+		rewards = new double[capacity];
+		nextStates = new double[capacity * stateSize];
+		sampleIndexes = new int[0];
+	}
+
+	/**
+	 * Adds a transition.
+	 *
+	 * @param state state in which the action has been applied
+	 * @param action action index
+	 * @param reward reward received
+	 * @param nextState resulting state
+	 */
+	public void add(double[] state, int action, double reward, double[] nextState) {
+		System.arraycopy(state, 0, states, next * stateSize, stateSize);
+		actions[next] = action;
+		rewards[next] = reward;
+		System.arraycopy(nextState, 0, nextStates, next * stateSize, stateSize);
+		next = (next + 1) % capacity;
+		size = Math.min(size + 1, capacity);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Draws distinct transitions uniformly.
+	 *
+	 * @param random random generator
+	 * @param count number of transitions, lower or equal to the size of the memory
+	 * @return indexes of the drawn transitions. The returned array is reused by the next call.
+	 */
+	public int[] sample(Random random, int count) {
+		if (sampleIndexes.length < size) {
+			sampleIndexes = new int[capacity];
+		}
+		for (int i = 0; i < size; i++) {
+			sampleIndexes[i] = i;
+		}
+		// Partial Fisher-Yates shuffle
+		for (int i = 0; i < count; i++) {
+			int j = i + random.nextInt(size - i);
+			int index = sampleIndexes[j];
+			sampleIndexes[j] = sampleIndexes[i];
+			sampleIndexes[i] = index;
+		}
+		return sampleIndexes;
+	}
+
+	/**
+	 * Copies the state of a transition.
+	 *
+	 * @param transition transition index
+	 * @param destination destination array
+	 * @param offset offset in the destination array
+	 */
+	public void copyState(int transition, double[] destination, int offset) {
+		System.arraycopy(states, transition * stateSize, destination, offset, stateSize);
+	}
+
+	/**
+	 * Copies the next state of a transition.
+	 *
+	 * @param transition transition index
+	 * @param destination destination array
+	 * @param offset offset in the destination array
+	 */
+	public void copyNextState(int transition, double[] destination, int offset) {
+		System.arraycopy(nextStates, transition * stateSize, destination, offset, stateSize);
+	}
+
+	public int getAction(int transition) {
+		return actions[transition];
+	}
+
+	public double getReward(int transition) {
+		return rewards[transition];
+	}
+
+	/**
+	 * Writes the transitions, from the oldest to the most recent.
+	 *
+	 * @param output output stream
+	 * @throws IOException if transitions can't be written
+	 */
+	public void write(DataOutputStream output) throws IOException {
+		output.writeInt(stateSize);
+		output.writeInt(size);
+		int first = size < capacity ? 0 : next;
+		for (int i = 0; i < size; i++) {
+			int transition = (first + i) % capacity;
+			for (int j = 0; j < stateSize; j++) {
+				output.writeDouble(states[transition * stateSize + j]);
+			}
+			output.writeInt(actions[transition]);
+			output.writeDouble(rewards[transition]);
+			for (int j = 0; j < stateSize; j++) {
+				output.writeDouble(nextStates[transition * stateSize + j]);
+			}
+		}
+	}
+
+	/**
+	 * Adds the transitions written by {@link #write(DataOutputStream)}.
+	 *
+	 * @param input input stream
+	 * @throws IOException if transitions can't be read, or if the state size does not match
+	 */
+	public void read(DataInputStream input) throws IOException {
+		int readStateSize = input.readInt();
+		if (readStateSize != stateSize) {
+			throw new IOException("Transitions of state size " + readStateSize
+					+ " can't be loaded in a memory of state size " + stateSize + ".");
+		}
+		int count = input.readInt();
+		double[] state = new double[stateSize];
+		double[] nextState = new double[stateSize];
+		for (int i = 0; i < count; i++) {
+			for (int j = 0; j < stateSize; j++) {
+				state[j] = input.readDouble();
+			}
+			int action = input.readInt();
+			double reward = input.readDouble();
+			for (int j = 0; j < stateSize; j++) {
+				nextState[j] = input.readDouble();
+			}
+			add(state, action, reward, nextState);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package org.liris.smartgov.lez.politic.policyagent.learning.dqn;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Small multilayer perceptron that estimates the Q values of the actions of
+ * a state : one sigmoid hidden layer and a linear output layer, as the Keras
+ * model of <code>extsrc/QDNAgent.py</code>.
+ *
+ * <p>
+ * Weights are stored in flat arrays, and trained with Adam on the mean
+ * squared error. Instances are not thread safe.
+ * </p>
+ *
+ */
+public class QNetwork {
+
+	private static final double BETA_1 = 0.9;
+	private static final double BETA_2 = 0.999;
+	private static final double ADAM_EPSILON = 1e-7;
+
+	private final int inputSize;
+	private final int hiddenSize;
+	private final int outputSize;
+	private final double learningRate;
+
+	/*
+	 * All the parameters in a single array : hidden weights (hidden x input),
+	 * hidden biases, output weights (output x hidden), output biases.
+	 */
+	private final double[] parameters;
+	private final int hiddenBiases;
+	private final int outputWeights;
+	private final int outputBiases;
+
+	private final double[] gradients;
+	private final double[] firstMoments;
+	private final double[] secondMoments;
+	private long steps;
+
+	private final double[] hidden;
+
+	/**
+	 * Builds a network with Glorot uniform weights and null biases.
+	 *
+	 * @param inputSize state size
+	 * @param hiddenSize number of hidden neurons
+	 * @param outputSize number of actions
+	 * @param learningRate Adam learning rate
+	 * @param random random generator used to initialize weights
+	 */
+	public QNetwork(int inputSize, int hiddenSize, int outputSize, double learningRate, Random random) {
+		this.inputSize = inputSize;
+		this.hiddenSize = hiddenSize;
+		this.outputSize = outputSize;
+		this.learningRate = learningRate;
+
+		hiddenBiases = hiddenSize * inputSize;
+		outputWeights = hiddenBiases + hiddenSize;
+		outputBiases = outputWeights + outputSize * hiddenSize;
+		parameters = new double[outputBiases + outputSize];
+		gradients = new double[parameters.length];
+		firstMoments = new double[parameters.length];
+		secondMoments = new double[parameters.length];
+		hidden = new double[hiddenSize];
+
+		double hiddenLimit = Math.sqrt(6. / (inputSize + hiddenSize));
+		for (int i = 0; i < hiddenBiases; i++) {
+			parameters[i] = (2 * random.nextDouble() - 1) * hiddenLimit;
+		}
+		double outputLimit = Math.sqrt(6. / (hiddenSize + outputSize));
+		for (int i = outputWeights; i < outputBiases; i++) {
+			parameters[i] = (2 * random.nextDouble() - 1) * outputLimit;
+		}
+	}
+
+	public int getInputSize() {
+		return inputSize;
+	}
+
+	public int getOutputSize() {
+		return outputSize;
+	}
+
+	/**
+	 * Computes the Q values of a state.
+	 *
+	 * @param state state, of size inputSize
+	 * @param qValues array of size outputSize where Q values are written
+	 */
+	public void predict(double[] state, double[] qValues) {
+		forward(state, 0, hidden, qValues);
+	}
+
+	/**
+	 * Computes the Q values of a state stored in a larger array.
+	 *
+	 * @param states array that contains the state
+	 * @param offset index of the first value of the state
+	 * @param qValues array of size outputSize where Q values are written
+	 */
+	public void predict(double[] states, int offset, double[] qValues) {
+		forward(states, offset, hidden, qValues);
+	}
+
+	/**
+	 * Returns the index of the highest Q value of a state.
+	 *
+	 * @param state state
+	 * @param qValues buffer of size outputSize
+	 * @return best action index
+	 */
+	public int bestAction(double[] state, double[] qValues) {
+		predict(state, qValues);
+		int best = 0;
+		for (int action = 1; action < outputSize; action++) {
+			if (qValues[action] > qValues[best]) {
+				best = action;
+			}
+		}
+		return best;
+	}
+
+	private void forward(double[] states, int offset, double[] hidden, double[] output) {
+		for (int h = 0; h < hiddenSize; h++) {
+			double sum = parameters[hiddenBiases + h];
+			int weights = h * inputSize;
+			for (int i = 0; i < inputSize; i++) {
+				sum += parameters[weights + i] * states[offset + i];
+			}
+			hidden[h] = 1. / (1. + Math.exp(-sum));
+		}
+		for (int o = 0; o < outputSize; o++) {
+			double sum = parameters[outputBiases + o];
+			int weights = outputWeights + o * hiddenSize;
+			for (int h = 0; h < hiddenSize; h++) {
+				sum += parameters[weights + h] * hidden[h];
+			}
+			output[o] = sum;
+		}
+	}
+
+	/**
+	 * Performs one Adam step on the mean squared error of a minibatch.
+	 *
+	 * @param states row major states, batchSize x inputSize
+	 * @param targets row major target Q values, batchSize x outputSize
+	 * @param batchSize number of samples
+	 * @return loss before the update
+	 */
+	public double train(double[] states, double[] targets, int batchSize) {
+		Arrays.fill(gradients, 0.);
+		double[] output = new double[outputSize];
+		double[] outputErrors = new double[outputSize];
+		double loss = 0.;
+		double scale = 2. / (batchSize * outputSize);
+
+		for (int sample = 0; sample < batchSize; sample++) {
+			forward(states, sample * inputSize, hidden, output);
+			for (int o = 0; o < outputSize; o++) {
+				double error = output[o] - targets[sample * outputSize + o];
+				loss += error * error;
+				outputErrors[o] = error * scale;
+				gradients[outputBiases + o] += outputErrors[o];
+				int weights = outputWeights + o * hiddenSize;
+				for (int h = 0; h < hiddenSize; h++) {
+					gradients[weights + h] += outputErrors[o] * hidden[h];
+				}
+			}
+			for (int h = 0; h < hiddenSize; h++) {
+				double error = 0.;
+				for (int o = 0; o < outputSize; o++) {
+					error += outputErrors[o] * parameters[outputWeights + o * hiddenSize + h];
+				}
+				error *= hidden[h] * (1. - hidden[h]);
+				gradients[hiddenBiases + h] += error;
+				int weights = h * inputSize;
+				for (int i = 0; i < inputSize; i++) {
+					gradients[weights + i] += error * states[sample * inputSize + i];
+				}
+			}
+		}
+
+		steps++;
+		double correction = learningRate * Math.sqrt(1. - Math.pow(BETA_2, steps)) / (1. - Math.pow(BETA_1, steps));
+		for (int p = 0; p < parameters.length; p++) {
+			firstMoments[p] = BETA_1 * firstMoments[p] + (1. - BETA_1) * gradients[p];
+			secondMoments[p] = BETA_2 * secondMoments[p] + (1. - BETA_2) * gradients[p] * gradients[p];
+			parameters[p] -= correction * firstMoments[p] / (Math.sqrt(secondMoments[p]) + ADAM_EPSILON);
+		}
+		return loss / (batchSize * outputSize);
+	}
+
+	/**
+	 * Writes the layer sizes and the parameters of the network.
+	 *
+	 * @param output output stream
+	 * @throws IOException if the network can't be written
+	 */
+	public void write(DataOutputStream output) throws IOException {
+		output.writeInt(inputSize);
+		output.writeInt(hiddenSize);
+		output.writeInt(outputSize);
+		for (double parameter : parameters) {
+			output.writeDouble(parameter);
+		}
+	}
+
+	/**
+	 * Reads parameters written by {@link #write(DataOutputStream)} into this
+	 * network. The optimizer state is reset.
+	 *
+	 * @param input input stream
+	 * @throws IOException if parameters can't be read, or if layer sizes do not match
+	 */
+	public void read(DataInputStream input) throws IOException {
+		int readInputSize = input.readInt();
+		int readHiddenSize = input.readInt();
+		int readOutputSize = input.readInt();
+		if (readInputSize != inputSize || readHiddenSize != hiddenSize || readOutputSize != outputSize) {
+			throw new IOException("Network of size " + readInputSize + "x" + readHiddenSize + "x" + readOutputSize
+					+ " can't be loaded in a network of size " + inputSize + "x" + hiddenSize + "x" + outputSize + ".");
+		}
+		for (int p = 0; p < parameters.length; p++) {
+			parameters[p] = input.readDouble();
+		}
+		Arrays.fill(firstMoments, 0.);
+		Arrays.fill(secondMoments, 0.);
+		steps = 0;
+	}
+}
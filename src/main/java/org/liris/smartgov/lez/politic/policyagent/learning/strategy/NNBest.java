@@ -1,10 +1,11 @@
 package org.liris.smartgov.lez.politic.policyagent.learning.strategy;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.liris.smartgov.lez.core.simulation.files.FilePath;
-import org.liris.smartgov.lez.politic.PoliticalVar;
+import org.liris.smartgov.lez.politic.PoliticalSession;
 import org.liris.smartgov.lez.politic.manager.AbstractManager;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
 import org.liris.smartgov.lez.politic.policyagent.FeaturesDouble;
@@ -43,12 +44,15 @@ public class NNBest extends Strategy {
 	
 	private boolean learning = true;
 	private boolean validation = false;
+	
+	private final PoliticalSession session;
 
-	public NNBest(String id, int stateSize, int nbActions, List<String> labels, List<PolicyAction> policyActions) {
+	public NNBest(PoliticalSession session, String id, int stateSize, int nbActions, List<String> labels, List<PolicyAction> policyActions) {
 		super(policyActions);
+		this.session = session;
 		
 		//Add callbacks folder to localLearner
-		new File(FilePath.currentLocalLearnerFolder + "callbacks").mkdirs();
+		new File(session.getLocalLearnerFolder() + "callbacks").mkdirs();
 
 		this.id = id;
 		String answer = "";
@@ -58,31 +62,31 @@ public class NNBest extends Strategy {
 		String memoryToCopyPath = "";
 		String modelToCopyPath = "";
 		
-		if(Integer.parseInt(PoliticalVar.variables.get("learning")) == 0) {
+		if(Integer.parseInt(session.getVariables().get("learning")) == 0) {
 			learning = false;
 			validation = true;
 		}
 		
-		if(PoliticalVar.variables.get("server_debug").equals("0")) {
-			memoryFilePath = FilePath.currentLocalLearnerFolder + memoryFileName;
-			modelFilePath  = FilePath.currentLocalLearnerFolder + modelFileName;
-			memoryToCopyPath = FilePath.currentLocalLearnerFolder;
-			modelToCopyPath = FilePath.currentLocalLearnerFolder;
-			callbackFilePath = FilePath.currentLocalLearnerFolder + "callbacks" + File.separator;
+		if(session.getVariables().get("server_debug").equals("0")) {
+			memoryFilePath = session.getLocalLearnerFolder() + memoryFileName;
+			modelFilePath  = session.getLocalLearnerFolder() + modelFileName;
+			memoryToCopyPath = session.getLocalLearnerFolder();
+			modelToCopyPath = session.getLocalLearnerFolder();
+			callbackFilePath = session.getLocalLearnerFolder() + "callbacks" + File.separator;
 		} else {
 			//Debug mode need backpath for everything
-			memoryFilePath = FilePath.backPath + FilePath.currentLocalLearnerFolder + memoryFileName;
-			modelFilePath  = FilePath.backPath + FilePath.currentLocalLearnerFolder + modelFileName;
-			memoryToCopyPath = FilePath.backPath + FilePath.currentLocalLearnerFolder;
-			modelToCopyPath = FilePath.currentLocalLearnerFolder;
-			callbackFilePath = FilePath.backPath + FilePath.currentLocalLearnerFolder + "callbacks" + File.separator;
+			memoryFilePath = FilePath.backPath + session.getLocalLearnerFolder() + memoryFileName;
+			modelFilePath  = FilePath.backPath + session.getLocalLearnerFolder() + modelFileName;
+			memoryToCopyPath = FilePath.backPath + session.getLocalLearnerFolder();
+			modelToCopyPath = session.getLocalLearnerFolder();
+			callbackFilePath = FilePath.backPath + session.getLocalLearnerFolder() + "callbacks" + File.separator;
 		}
 
-		batchSize = Integer.parseInt(PoliticalVar.variables.get("batch_size"));
-		if(PoliticalVar.variables.get("initNN").equals("1")) {
+		batchSize = Integer.parseInt(session.getVariables().get("batch_size"));
+		if(session.getVariables().get("initNN").equals("1")) {
 			stillExploration = true;
 
-			if(PoliticalVar.variables.get("callbacks").equals("1")) {
+			if(session.getVariables().get("callbacks").equals("1")) {
 				answer = ClientCommunication.communicationWithServer(
 						"create_model," + 
 								id + "," + 
@@ -98,7 +102,7 @@ public class NNBest extends Strategy {
 								nbActions + "," +
 								memoryFilePath);
 			}
-		} else if(PoliticalVar.variables.get("initNN").equals("0")){
+		} else if(session.getVariables().get("initNN").equals("0")){
 			/*/
 			stillExploration = false;
 			answer = ClientCommunication.communicationWithServer("load_model," + id + "," + stateSize + "," + nbActions + "," +
@@ -153,33 +157,118 @@ public class NNBest extends Strategy {
 
 	@Override
 	public PolicyAction chooseAction() {
-		String answer = "";
-		double reward = lastPerception.getFeatures().get(lastPerception.getFeatures().size() - 1);
-		FeaturesDouble currentState = new FeaturesDouble();
-		for(int i = 0; i < lastPerception.getFeatures().size() - 1; i++) {
-			currentState.addFeature(lastPerception.getFeatures().get(i));
-		}
 		//*/
 		if(learning) {
 			replayModelMessage();
 		}
 		//*/
-		if(!PoliticalVar.manager.isRecentlyReset()) {
-			answer = ClientCommunication.communicationWithServer(
-					"next_step," + 
-							id + "," + 
-							lastAction.getIndex() + "," +
-							currentState + "," +
-							reward);
-			lastAnswer = answer;
+		String answer;
+		if(!session.getManager().isRecentlyReset()) {
+			answer = ClientCommunication.communicationWithServer("next_step," + decisionFields());
 		} else {
 			//*/ Submit special message to not call recall function of agent
 			answer = ClientCommunication.communicationWithServer(
 					"replay_and_predict," + 
 							id + "," + 
-							currentState);
-			lastAnswer = answer;
+							currentState());
 		}
+		PolicyAction action = handleAnswer(answer);
+		if(learning) {
+			saveModelMessage();
+		}
+		return action;
+	}
+	
+	/**
+	 * Chooses the actions of several NNBest strategies in a single round trip
+	 * with the server. Replay requests, decisions and save requests of all the
+	 * strategies are sent in one frame, each model receiving its messages in
+	 * the same order as with {@link #chooseAction()}. Decisions are sent as a
+	 * single "next_steps" message, whose answer contains the answers of all
+	 * the models separated by ';'.
+	 */
+	@Override
+	protected List<PolicyAction> chooseGroupActions(List<Strategy> strategies) {
+		List<String> messages = new ArrayList<>();
+		for(Strategy strategy : strategies) {
+			NNBest nnBest = (NNBest) strategy;
+			String replayMessage = nnBest.learning ? nnBest.nextReplayMessage() : null;
+			if(replayMessage != null) {
+				messages.add(replayMessage);
+			}
+		}
+		int decisionIndex = messages.size();
+		boolean recentlyReset = session.getManager().isRecentlyReset();
+		if(!recentlyReset) {
+			StringBuilder decisions = new StringBuilder("next_steps");
+			for(Strategy strategy : strategies) {
+				decisions.append(',').append(((NNBest) strategy).decisionFields());
+			}
+			messages.add(decisions.toString());
+		} else {
+			for(Strategy strategy : strategies) {
+				NNBest nnBest = (NNBest) strategy;
+				messages.add("replay_and_predict," + nnBest.id + "," + nnBest.currentState());
+			}
+		}
+		int saveIndex = messages.size();
+		for(Strategy strategy : strategies) {
+			NNBest nnBest = (NNBest) strategy;
+			String saveMessage = nnBest.learning ? nnBest.nextSaveMessage() : null;
+			if(saveMessage != null) {
+				messages.add(saveMessage);
+			}
+		}
+		
+		List<String> answers = ClientCommunication.communicationWithServer(messages);
+		if(session.getVariables().get("server_debug").equals("1")) {
+			for(int i = 0; i < decisionIndex; i++) {
+				System.out.println(answers.get(i));
+			}
+			for(int i = saveIndex; i < answers.size(); i++) {
+				System.out.println(answers.get(i));
+			}
+		}
+		
+		List<String> decisionAnswers = new ArrayList<>(strategies.size());
+		if(!recentlyReset) {
+			String answer = answers.get(decisionIndex);
+			String[] splitAnswer = answer.split(";");
+			for(int i = 0; i < strategies.size(); i++) {
+				decisionAnswers.add(splitAnswer.length == strategies.size() ? splitAnswer[i] : answer);
+			}
+		} else {
+			decisionAnswers.addAll(answers.subList(decisionIndex, saveIndex));
+		}
+		
+		List<PolicyAction> actions = new ArrayList<>(strategies.size());
+		for(int i = 0; i < strategies.size(); i++) {
+			actions.add(((NNBest) strategies.get(i)).handleAnswer(decisionAnswers.get(i)));
+		}
+		return actions;
+	}
+	
+	private FeaturesDouble currentState() {
+		FeaturesDouble currentState = new FeaturesDouble();
+		for(int i = 0; i < lastPerception.getFeatures().size() - 1; i++) {
+			currentState.addFeature(lastPerception.getFeatures().get(i));
+		}
+		return currentState;
+	}
+	
+	/*
+	 * Fields of a "next_step" message : model id, last action, current state and reward.
+	 */
+	private String decisionFields() {
+		double reward = lastPerception.getFeatures().get(lastPerception.getFeatures().size() - 1);
+		return id + "," + 
+				lastAction.getIndex() + "," +
+				currentState() + "," +
+				reward;
+	}
+	
+	private PolicyAction handleAnswer(String answer) {
+		lastAnswer = answer;
 		try {
 			if(answer.split("_")[2].equals("0")) {
 				stillExploration = true;
@@ -190,28 +279,14 @@ public class NNBest extends Strategy {
 			System.out.println(answer);
 			e.printStackTrace();
 		}
-		if(learning) {
-			saveModelMessage();
-		}
-
 		return parseActionFromRequest(answer);
 	}
 
+	@Override
 	public void setLastPerception(FeaturesDouble lastPerception) {
 		this.lastPerception = lastPerception;
 	}
 
-	private String parseLabels(List<String> labels) {
-		String str = "";
-		for(int i = 0; i < labels.size(); i++) {
-			if(!labels.get(i).equals("reward")) {
-				str += labels.get(i).substring(0, 1);
-				str += "_";
-			}
-		}
-		return str;
-	}
-
 	private PolicyAction parseActionFromRequest(String answer) {
 		String[] splitAnswer = answer.split("_");
 		PolicyAction action = policyActions.get(Integer.parseInt(splitAnswer[1]));
@@ -220,33 +295,55 @@ public class NNBest extends Strategy {
 	}
 
 	public void saveModelMessage() {
-		if(saveCounter == SAVE) {
-			saveCounter = 0;
-			String saveMessage = ClientCommunication.communicationWithServer(
-					"save_model," + 
-							id + "," + 
-							modelFilePath);
-			if(PoliticalVar.variables.get("server_debug").equals("1")) {
+		String saveMessage = nextSaveMessage();
+		if(saveMessage != null) {
+			saveMessage = ClientCommunication.communicationWithServer(saveMessage);
+			if(session.getVariables().get("server_debug").equals("1")) {
 				System.out.println(saveMessage);
 			}
+		}
+	}
+	
+	/*
+	 * Returns the "save_model" message to send every SAVE calls, or null.
+	 */
+	private String nextSaveMessage() {
+		if(saveCounter == SAVE) {
+			saveCounter = 0;
+			return "save_model," + 
+					id + "," + 
+					modelFilePath;
 		} else {
 			saveCounter++;
+			return null;
 		}
 	}
 
 	public void replayModelMessage() {
+		String replayMessage = nextReplayMessage();
+		if(replayMessage != null) {
+			replayMessage = ClientCommunication.communicationWithServer(replayMessage);
+			if(session.getVariables().get("server_debug").equals("1")) {
+				System.out.println(replayMessage);
+			}
+		}
+	}
+	
+	/*
+	 * Returns the "replay_model" message to send once enough experience has
+	 * been gathered, or null.
+	 */
+	private String nextReplayMessage() {
+		String replayMessage = null;
 		if(!AbstractManager.validationPhase) {
 			if(experienceCounter > (batchSize +10)) {
-				String replayMessage = ClientCommunication.communicationWithServer(
-						"replay_model," + 
-								id + "," + 
-								batchSize);
-				if(PoliticalVar.variables.get("server_debug").equals("1")) {
-					System.out.println(replayMessage);
-				}
+				replayMessage = "replay_model," + 
+						id + "," + 
+						batchSize;
 			}
 			experienceCounter++;
 		}
+		return replayMessage;
 	}
 
 	/**
@@ -255,14 +352,14 @@ public class NNBest extends Strategy {
 	 * @return
 	 */
 	private String getFileForExtension(String extension) {
-		String folders = PoliticalVar.variables.get("model_folder");
+		String folders = session.getVariables().get("model_folder");
 		for(String folder : folders.split(",")) {
 			File path = new File(FilePath.localLearnerFolder + folder);
 			for (final File fileEntry : path.listFiles()) {
 				if (!fileEntry.isDirectory()) {
 					String filename = fileEntry.getName();
 					if(filename.contains("_" + id + extension)) {
-						if(PoliticalVar.variables.get("server_debug").equals("0")) {
+						if(session.getVariables().get("server_debug").equals("0")) {
 							return FilePath.localLearnerFolder + folder + "\\" + filename;
 						} else {
 							return FilePath.backPath + FilePath.localLearnerFolder + folder + "\\" + filename;
@@ -0,0 +1,277 @@
+package org.liris.smartgov.lez.politic.policyagent.learning.strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import org.liris.smartgov.lez.core.simulation.files.FilePath;
+import org.liris.smartgov.lez.politic.PoliticalSession;
+import org.liris.smartgov.lez.politic.manager.AbstractManager;
+import org.liris.smartgov.lez.politic.policyagent.FeaturesDouble;
+import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
+import org.liris.smartgov.lez.politic.policyagent.learning.dqn.ExperienceMemory;
+import org.liris.smartgov.lez.politic.policyagent.learning.dqn.QNetwork;
+
+/**
+ * Deep Q-Learning strategy run in the JVM, without the Python server.
+ *
+ * <p>
+ * Follows the same learning steps as {@link NNBest} and <code>extsrc/QDNAgent.py</code> :
+ * epsilon-greedy decisions on a {@link QNetwork} with 20 sigmoid hidden
+ * neurons, minibatch replay of the transitions stored in an {@link ExperienceMemory},
+ * and a model checkpoint every 10 decisions. Epsilon values are read from the
+ * "epsilon", "epsilon_decay" and "epsilon_min" variables. The size of the
+ * experience memory can be set with the "memory_size" variable.
+ * </p>
+ *
+ * <p>
+ * Exploration and weights initialization use the random instance of the
+ * learner given by {@link PoliticalSession#getLearnerRandom(String)}, so that
+ * runs with the same "learner_seed" variable are reproducible.
+ * </p>
+ *
+ * <p>
+ * Selected with <code>strategy:nativedqn</code> in the variables file.
+ * </p>
+ *
+ */
+public class NativeDQN extends Strategy {
+
+	public static final String STRATEGY_NAME = "nativedqn";
+
+	private static final String MODEL_EXTENSION = ".dqn";
+	private static final int MODEL_MAGIC = 0x44514e31;
+	private static final int HIDDEN_SIZE = 20;
+	private static final double GAMMA = 0.95;
+	private static final double LEARNING_RATE = 0.01;
+	private static final int EPOCHS = 10;
+	private static final int DEFAULT_MEMORY_SIZE = 10000;
+
+	/**
+	 * Save every n calls of "chooseAction" where saveCounter is incremented.
+	 */
+	private static final int SAVE = 10;
+
+	private final String id;
+	private final int stateSize;
+	private final int batchSize;
+	private final Random random;
+	private final QNetwork network;
+	private final ExperienceMemory memory;
+	private final double[] qValues;
+
+	private double epsilon;
+	private double epsilonDecay;
+	private double epsilonMin;
+
+	private FeaturesDouble lastPerception;
+	private double[] pendingState;
+	private int saveCounter;
+	private int experienceCounter;
+	private String modelFilePath;
+
+	private boolean learning = true;
+
+	private final PoliticalSession session;
+
+	public NativeDQN(PoliticalSession session, String id, int stateSize, int nbActions, List<String> labels, List<PolicyAction> policyActions) {
+		super(policyActions);
+		this.session = session;
+		this.id = id;
+		this.stateSize = stateSize;
+		this.random = session.getLearnerRandom(id);
+		this.network = new QNetwork(stateSize, HIDDEN_SIZE, nbActions, LEARNING_RATE, random);
+		String memorySize = session.getVariables().get("memory_size");
+		this.memory = new ExperienceMemory(
+				memorySize == null ? DEFAULT_MEMORY_SIZE : Integer.parseInt(memorySize),
+				stateSize);
+		this.qValues = new double[nbActions];
+
+		batchSize = Integer.parseInt(session.getVariables().get("batch_size"));
+		epsilon = Double.parseDouble(session.getVariables().get("epsilon"));
+		epsilonDecay = Double.parseDouble(session.getVariables().get("epsilon_decay"));
+		epsilonMin = Double.parseDouble(session.getVariables().get("epsilon_min"));
+
+		if(Integer.parseInt(session.getVariables().get("learning")) == 0) {
+			learning = false;
+		}
+
+		modelFilePath = session.getLocalLearnerFolder() + "model_nativeLearner_" + parseLabels(labels) + id + MODEL_EXTENSION;
+
+		if(session.getVariables().get("initNN").equals("1")) {
+			stillExploration = true;
+			System.out.println("Correctly create model for " + id + ".");
+		} else {
+			File modelFile = session.getVariables().get("initNN").equals("0") ? findModelFile() : new File(modelFilePath);
+			try {
+				load(modelFile, learning);
+				System.out.println("Correctly load model for " + id + ".");
+			} catch (IOException e) {
+				System.out.println("Model of " + id + " can't be loaded from " + modelFile + ", a new model is created.");
+				e.printStackTrace();
+			}
+			stillExploration = false;
+			// As QDNAgent : a loaded model only explores at epsilon_min while learning
+			epsilon = learning ? epsilonMin : 0.;
+		}
+
+		experienceCounter = 0;
+		saveCounter = 0;
+	}
+
+	@Override
+	public PolicyAction chooseAction() {
+		if(learning) {
+			replay();
+		}
+		double[] state = currentState();
+		double reward = lastPerception.getFeatures().get(lastPerception.getFeatures().size() - 1);
+
+		boolean randomAction = random.nextDouble() <= epsilon;
+		int action = randomAction ? random.nextInt(network.getOutputSize()) : network.bestAction(state, qValues);
+
+		if(!session.getManager().isRecentlyReset()) {
+			if(pendingState == null) {
+				pendingState = state;
+			}
+			memory.add(pendingState, lastAction.getIndex(), reward, state);
+		}
+		// After a reset, the new state replaces the pending one without transition
+		pendingState = state;
+
+		stillExploration = randomAction;
+		lastAnswer = id + "_" + action + "_" + (randomAction ? "0" : "1");
+		lastPredictedAction = policyActions.get(action);
+
+		if(learning) {
+			save();
+		}
+		return lastPredictedAction;
+	}
+
+
+	@Override
+	public void setLastPerception(FeaturesDouble lastPerception) {
+		this.lastPerception = lastPerception;
+	}
+
+	private double[] currentState() {
+		double[] state = new double[stateSize];
+		for(int i = 0; i < stateSize; i++) {
+			state[i] = lastPerception.getFeatures().get(i);
+		}
+		return state;
+	}
+
+	/*
+	 * Trains the network on a minibatch of transitions, as
+	 * QDNAgent.replay : targets are computed once, and then fitted
+	 * during EPOCHS epochs.
+	 */
+	private void replay() {
+		if(!AbstractManager.validationPhase) {
+			if(experienceCounter > (batchSize +10) && memory.size() > 0) {
+				int count = Math.min(batchSize, memory.size());
+				int[] transitions = memory.sample(random, count);
+				int nbActions = network.getOutputSize();
+				double[] states = new double[count * stateSize];
+				double[] targets = new double[count * nbActions];
+				double[] nextState = new double[stateSize];
+				for(int i = 0; i < count; i++) {
+					int transition = transitions[i];
+					memory.copyNextState(transition, nextState, 0);
+					network.predict(nextState, qValues);
+					double maxQ = qValues[0];
+					for(int a = 1; a < nbActions; a++) {
+						maxQ = Math.max(maxQ, qValues[a]);
+					}
+					double target = memory.getReward(transition) + GAMMA * maxQ;
+
+					memory.copyState(transition, states, i * stateSize);
+					network.predict(states, i * stateSize, qValues);
+					System.arraycopy(qValues, 0, targets, i * nbActions, nbActions);
+					targets[i * nbActions + memory.getAction(transition)] = target;
+				}
+				for(int epoch = 0; epoch < EPOCHS; epoch++) {
+					network.train(states, targets, count);
+				}
+				if(epsilon > epsilonMin) {
+					epsilon *= epsilonDecay;
+				}
+			}
+			experienceCounter++;
+		}
+	}
+
+	private void save() {
+		if(saveCounter == SAVE) {
+			saveCounter = 0;
+			try {
+				save(new File(modelFilePath));
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		} else {
+			saveCounter++;
+		}
+	}
+
+	/**
+	 * Writes the network and the experience memory in a binary checkpoint.
+	 *
+	 * @param file checkpoint file
+	 * @throws IOException if the file can't be written
+	 */
+	public void save(File file) throws IOException {
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			output.writeInt(MODEL_MAGIC);
+			network.write(output);
+			memory.write(output);
+		}
+	}
+
+	/*
+	 * Reads a checkpoint written by save(File). The experience memory is only
+	 * restored if the model keeps learning.
+	 */
+	private void load(File file, boolean withMemory) throws IOException {
+		if(file == null) {
+			throw new IOException("No model file found for " + id + ".");
+		}
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if(input.readInt() != MODEL_MAGIC) {
+				throw new IOException(file + " is not a native DQN model.");
+			}
+			network.read(input);
+			if(withMemory) {
+				memory.read(input);
+			}
+		}
+	}
+
+	/*
+	 * Looks for the model of this learner in the "model_folder" folders.
+	 */
+	private File findModelFile() {
+		String folders = session.getVariables().get("model_folder");
+		for(String folder : folders.split(",")) {
+			File[] files = new File(FilePath.localLearnerFolder + folder).listFiles();
+			if(files != null) {
+				for(File file : files) {
+					if(file.isFile() && file.getName().endsWith("_" + id + MODEL_EXTENSION)) {
+						return file;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+}
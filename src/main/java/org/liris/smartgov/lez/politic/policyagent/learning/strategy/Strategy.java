@@ -1,7 +1,11 @@
 package org.liris.smartgov.lez.politic.policyagent.learning.strategy;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.liris.smartgov.lez.politic.policyagent.FeaturesDouble;
 import org.liris.smartgov.lez.politic.policyagent.PolicyAction;
 
 /**
@@ -24,6 +28,58 @@ public abstract class Strategy {
 	
 	public abstract PolicyAction chooseAction();
 	
+	/**
+	 * Chooses the actions of several strategies of the same class as this
+	 * one, in the order of the list. By default, each strategy chooses its
+	 * action in turn : strategies that can share work between decisions
+	 * override this method.
+	 * @param strategies strategies of the same class as this one.
+	 * @return chosen actions, in the order of the strategies.
+	 */
+	protected List<PolicyAction> chooseGroupActions(List<Strategy> strategies) {
+		List<PolicyAction> actions = new ArrayList<>(strategies.size());
+		for(Strategy strategy : strategies) {
+			actions.add(strategy.chooseAction());
+		}
+		return actions;
+	}
+	
+	/**
+	 * Chooses the actions of all the specified strategies at once. Strategies
+	 * are grouped by class, and each group decides through {@link #chooseGroupActions(List)}.
+	 * @param strategies strategies that must choose an action.
+	 * @return chosen actions, in the order of the strategies.
+	 */
+	public static List<PolicyAction> chooseActions(List<? extends Strategy> strategies) {
+		Map<Class<?>, List<Integer>> indexesPerClass = new LinkedHashMap<>();
+		for(int i = 0; i < strategies.size(); i++) {
+			indexesPerClass.computeIfAbsent(strategies.get(i).getClass(), c -> new ArrayList<>()).add(i);
+		}
+		List<PolicyAction> actions = new ArrayList<>(strategies.size());
+		for(int i = 0; i < strategies.size(); i++) {
+			actions.add(null);
+		}
+		for(List<Integer> indexes : indexesPerClass.values()) {
+			List<Strategy> group = new ArrayList<>(indexes.size());
+			for(int index : indexes) {
+				group.add(strategies.get(index));
+			}
+			List<PolicyAction> groupActions = group.get(0).chooseGroupActions(group);
+			for(int i = 0; i < indexes.size(); i++) {
+				actions.set(indexes.get(i), groupActions.get(i));
+			}
+		}
+		return actions;
+	}
+	
+	/**
+	 * Gives the last perception of the local learner to the strategy, before
+	 * it chooses an action. Ignored by default.
+	 * @param lastPerception current perception, whose last feature is the reward.
+	 */
+	public void setLastPerception(FeaturesDouble lastPerception) {
+	}
+	
 	public void setLastAction(PolicyAction action) {
 		this.lastAction = action;
 	}
@@ -40,4 +96,21 @@ public abstract class Strategy {
 		return stillExploration;
 	}
 	
-}
+	/**
+	 * Builds the part of model file names that identifies the labels
+	 * of a learner, from the first letter of each label except the reward.
+	 * @param labels labels of the learner.
+	 * @return label prefix.
+	 */
+	protected static String parseLabels(List<String> labels) {
+		String str = "";
+		for(int i = 0; i < labels.size(); i++) {
+			if(!labels.get(i).equals("reward")) {
+				str += labels.get(i).substring(0, 1);
+				str += "_";
+			}
+		}
+		return str;
+	}
+	
+}
\ No newline at end of file
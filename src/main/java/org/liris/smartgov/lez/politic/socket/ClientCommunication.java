@@ -1,62 +1,102 @@
 package org.liris.smartgov.lez.politic.socket;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStreamWriter;
-import java.net.InetAddress;
-import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Enable communication with a server launch on a specific port. 
+ * Enable communication with a server launch on a specific port.
+ *
+ * <p>
+ * Connections are kept open and reused between messages : a connection is
+ * taken from a pool for each exchange, and returned to it once the answer
+ * has been received. Messages are sent in length-prefixed {@link ServerFrame}s,
+ * so that several messages can be sent in a single round trip.
+ * </p>
  * @author Simon
  *
  */
 public class ClientCommunication {
 
-	private static Socket socket;
+	private static final String HOST = "localhost";
+
 	public static int port = 15554;
 
+	/**
+	 * Connection and answer timeout, in milliseconds. 0 means no timeout.
+	 */
+	public static int timeout = 120000;
+
+	private static final AtomicLong correlationIds = new AtomicLong();
+	private static final Deque<ServerConnection> idleConnections = new ArrayDeque<>();
+
 	/**
 	 * Send a message to a specific server and waits for an answer.
 	 * @param message to be sent to the server.
-	 * @return the answer from the server.
+	 * @return the answer from the server, or "-1" if the server can't be reached
+	 * or does not answer in time.
 	 */
 	public static String communicationWithServer(String message) {
+		return communicationWithServer(Collections.singletonList(message)).get(0);
+	}
+
+	/**
+	 * Sends several messages to the server in a single round trip, and waits
+	 * for all the answers.
+	 * @param messages messages to be sent to the server.
+	 * @return the answers from the server, in the order of the messages. All
+	 * the answers are "-1" if the server can't be reached or does not answer in time.
+	 */
+	public static List<String> communicationWithServer(List<String> messages) {
+		if (messages.isEmpty()) {
+			return Collections.emptyList();
+		}
+		ServerConnection connection = null;
 		try {
-			String host = "localhost";
-			InetAddress address = InetAddress.getByName(host);
-			socket = new Socket(address, port);
-			sentMessage(message);
-			return receiveMessage();
+			connection = acquireConnection();
+			List<String> answers = connection.exchange(correlationIds.incrementAndGet(), messages);
+			releaseConnection(connection);
+			return answers;
 		} catch (IOException e) {
-			return "-1";
+			if (connection != null) {
+				connection.close();
+			}
+			return Collections.nCopies(messages.size(), "-1");
 		}
 	}
 
-	private static void sentMessage(String sendMessage) {
-		try {
-			java.io.OutputStream os = socket.getOutputStream();
-			OutputStreamWriter osw = new OutputStreamWriter(os);
-			BufferedWriter bw = new BufferedWriter(osw);
-
-			bw.write(sendMessage);
-			bw.flush();
-		} catch (IOException e) {
+	/**
+	 * Closes all the idle connections.
+	 */
+	public static void closeConnections() {
+		synchronized (idleConnections) {
+			for (ServerConnection connection : idleConnections) {
+				connection.close();
+			}
+			idleConnections.clear();
+		}
+	}
 
+	private static ServerConnection acquireConnection() throws IOException {
+		synchronized (idleConnections) {
+			while (!idleConnections.isEmpty()) {
+				ServerConnection connection = idleConnections.pop();
+				if (connection.getPort() == port) {
+					return connection;
+				}
+				// The server port has changed since the connection was opened
+				connection.close();
+			}
 		}
+		return new ServerConnection(HOST, port, timeout);
 	}
 
-	private static String receiveMessage() {
-		try {
-			InputStream is = socket.getInputStream();
-			InputStreamReader isr = new InputStreamReader(is);
-			BufferedReader br = new BufferedReader(isr);
-			return br.readLine();
-		} catch (IOException e) {
-			return null;
+	private static void releaseConnection(ServerConnection connection) {
+		synchronized (idleConnections) {
+			idleConnections.push(connection);
 		}
 	}
 
@@ -0,0 +1,105 @@
+package org.liris.smartgov.lez.politic.socket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * In-process server that speaks the same framed protocol as
+ * <code>extsrc/server.py</code>, and answers each message with the specified
+ * handler. Allows to run the clients of the learning server without Python,
+ * for example in tests.
+ *
+ * <p>
+ * The server listens on a free local port, that is assigned to
+ * {@link ClientCommunication#port} by {@link #useForClients()}.
+ * </p>
+ *
+ */
+public class LocalStubServer implements Closeable {
+
+	private ServerSocket serverSocket;
+	private Function<String, String> handler;
+	private Thread acceptThread;
+
+	/**
+	 * Starts a stub server.
+	 *
+	 * @param handler function that returns the answer to each message
+	 * @throws IOException if the server socket can't be opened
+	 */
+	public LocalStubServer(Function<String, String> handler) throws IOException {
+		this.handler = handler;
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		acceptThread = new Thread(this::acceptConnections, "stub-learning-server");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+	}
+
+	/**
+	 * Returns the port the server listens on.
+	 *
+	 * @return server port
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Makes the {@link ClientCommunication} send its messages to this server.
+	 */
+	public void useForClients() {
+		ClientCommunication.closeConnections();
+		ClientCommunication.port = getPort();
+	}
+
+	private void acceptConnections() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				Thread connectionThread = new Thread(() -> serve(socket), "stub-learning-server-connection");
+				connectionThread.setDaemon(true);
+				connectionThread.start();
+			} catch (IOException e) {
+				// Server closed
+			}
+		}
+	}
+
+	private void serve(Socket socket) {
+		try (Socket connection = socket) {
+			DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+			while (true) {
+				ServerFrame request = ServerFrame.read(input);
+				List<String> answers = new ArrayList<>(request.getMessages().size());
+				synchronized (handler) {
+					for (String message : request.getMessages()) {
+						answers.add(handler.apply(message));
+					}
+				}
+				new ServerFrame(request.getCorrelationId(), answers).write(output);
+				output.flush();
+			}
+		} catch (EOFException e) {
+			// Connection closed by the client
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+	}
+}
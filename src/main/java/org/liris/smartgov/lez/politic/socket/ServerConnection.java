@@ -0,0 +1,81 @@
+package org.liris.smartgov.lez.politic.socket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Long-lived connection to the learning server, used by one thread at a time.
+ *
+ */
+class ServerConnection implements Closeable {
+
+	private int port;
+	private Socket socket;
+	private DataInputStream input;
+	private DataOutputStream output;
+
+	/**
+	 * Opens a connection.
+	 *
+	 * @param host server host
+	 * @param port server port
+	 * @param timeout connection and read timeout in milliseconds, 0 for no timeout
+	 * @throws IOException if the connection can't be opened
+	 */
+	ServerConnection(String host, int port, int timeout) throws IOException {
+		this.port = port;
+		socket = new Socket();
+		try {
+			socket.connect(new InetSocketAddress(host, port), timeout);
+			socket.setSoTimeout(timeout);
+			socket.setTcpNoDelay(true);
+			input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		} catch (IOException e) {
+			socket.close();
+			throw e;
+		}
+	}
+
+	int getPort() {
+		return port;
+	}
+
+	/**
+	 * Sends the specified messages in one frame, and waits for their answers.
+	 *
+	 * @param correlationId id of the request, that the answer must carry
+	 * @param messages messages to send
+	 * @return answers, in the order of the messages
+	 * @throws IOException if the exchange fails or times out, or if the answer
+	 * does not match the request. The connection must then be closed.
+	 */
+	List<String> exchange(long correlationId, List<String> messages) throws IOException {
+		new ServerFrame(correlationId, messages).write(output);
+		output.flush();
+		ServerFrame answer = ServerFrame.read(input);
+		if (answer.getCorrelationId() != correlationId) {
+			throw new IOException("Answer " + answer.getCorrelationId() + " received for request " + correlationId + ".");
+		}
+		if (answer.getMessages().size() != messages.size()) {
+			throw new IOException(answer.getMessages().size() + " answers received for " + messages.size() + " messages.");
+		}
+		return answer.getMessages();
+	}
+
+	@Override
+	public void close() {
+		try {
+			socket.close();
+		} catch (IOException e) {
+			// Nothing else to release
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package org.liris.smartgov.lez.politic.socket;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Length-prefixed frame exchanged with the learning server.
+ *
+ * <p>
+ * All integers are big endian :
+ * </p>
+ * <pre>
+ * int  length of the rest of the frame
+ * long correlation id
+ * int  message count
+ * message count times : int length, UTF-8 bytes
+ * </pre>
+ *
+ * <p>
+ * An answer frame carries the correlation id of its request, and one answer
+ * per request message, in the same order.
+ * </p>
+ *
+ */
+class ServerFrame {
+
+	static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+	private long correlationId;
+	private List<String> messages;
+
+	ServerFrame(long correlationId, List<String> messages) {
+		this.correlationId = correlationId;
+		this.messages = messages;
+	}
+
+	long getCorrelationId() {
+		return correlationId;
+	}
+
+	List<String> getMessages() {
+		return messages;
+	}
+
+	/**
+	 * Writes this frame, without flushing the output.
+	 *
+	 * @param output output stream
+	 * @throws IOException if the frame can't be written
+	 */
+	void write(DataOutputStream output) throws IOException {
+		byte[][] encoded = new byte[messages.size()][];
+		int length = Long.BYTES + Integer.BYTES;
+		for (int i = 0; i < encoded.length; i++) {
+			encoded[i] = messages.get(i).getBytes(StandardCharsets.UTF_8);
+			length += Integer.BYTES + encoded[i].length;
+		}
+		output.writeInt(length);
+		output.writeLong(correlationId);
+		output.writeInt(encoded.length);
+		for (byte[] message : encoded) {
+			output.writeInt(message.length);
+			output.write(message);
+		}
+	}
+
+	/**
+	 * Reads a frame.
+	 *
+	 * @param input input stream
+	 * @return read frame
+	 * @throws IOException if the frame can't be read or is invalid
+	 */
+	static ServerFrame read(DataInputStream input) throws IOException {
+		int length = input.readInt();
+		if (length < Long.BYTES + Integer.BYTES || length > MAX_FRAME_SIZE) {
+			throw new IOException("Invalid frame length : " + length);
+		}
+		long correlationId = input.readLong();
+		int count = input.readInt();
+		int remaining = length - Long.BYTES - Integer.BYTES;
+		if (count < 0 || count > remaining / Integer.BYTES) {
+			throw new IOException("Invalid message count : " + count);
+		}
+		List<String> messages = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int size = input.readInt();
+			remaining -= Integer.BYTES;
+			if (size < 0 || size > remaining) {
+				throw new IOException("Invalid message length : " + size);
+			}
+			byte[] message = new byte[size];
+			input.readFully(message);
+			remaining -= size;
+			messages.add(new String(message, StandardCharsets.UTF_8));
+		}
+		return new ServerFrame(correlationId, messages);
+	}
+}
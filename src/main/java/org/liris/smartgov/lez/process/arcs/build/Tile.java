@@ -18,10 +18,15 @@ public class Tile {
 	@JsonIgnore
 	private Collection<PollutedArc> arcs;
 	private Map<Pollutant, Double> pollution;
+	@JsonIgnore
+	private double[] pollutionRates;
+	@JsonIgnore
+	private int arcCount;
 			
 	public Tile(Bounds bounds) {
 		this.bounds = bounds;
 		this.arcs = new ArrayList<>();
+		this.pollutionRates = new double[Pollutant.values().length];
 		this.pollution = new HashMap<>();
 		for(Pollutant pollutant : Pollutant.values()) {
 			pollution.put(pollutant, 0.);
@@ -29,28 +34,67 @@ public class Tile {
 	}
 	
 	public void addArc(PollutedArc arc) {
+		addArc(arc, 1.);
+	}
+	
+	/**
+	 * Adds a fraction of the pollution of an arc that intersects this tile.
+	 * 
+	 * @param arc polluted arc
+	 * @param weight fraction of the arc length contained in this tile
+	 */
+	public void addArc(PollutedArc arc, double weight) {
 		arcs.add(arc);
+		for(Pollutant pollutant : Pollutant.values()) {
+			pollutionRates[pollutant.ordinal()] += weight * arc.getPollution().get(pollutant);
+		}
+		arcCount++;
+	}
+	
+	/**
+	 * Adds the pollution of an arc that is not represented as a PollutedArc,
+	 * such as an arc of a {@link org.liris.smartgov.lez.process.arcs.load.PollutionSnapshot}.
+	 * 
+	 * @param arcPollutionRates pollution rates of the arc in g/s, indexed by pollutant ordinal
+	 */
+	public void addArcPollution(double[] arcPollutionRates) {
+		addArcPollution(arcPollutionRates, 1.);
+	}
+	
+	/**
+	 * Adds a fraction of the pollution of an arc that is not represented as a PollutedArc.
+	 * 
+	 * @param arcPollutionRates pollution rates of the arc in g/s, indexed by pollutant ordinal
+	 * @param weight fraction of the arc length contained in this tile
+	 */
+	public void addArcPollution(double[] arcPollutionRates, double weight) {
+		for(int i = 0; i < pollutionRates.length; i++) {
+			pollutionRates[i] += weight * arcPollutionRates[i];
+		}
+		arcCount++;
+	}
+	
+	/**
+	 * Adds the pollution of a tile contained in this tile, to build coarser tiles.
+	 * Arcs of the contained tile are not copied.
+	 * 
+	 * @param tile contained tile
+	 */
+	public void addTile(Tile tile) {
+		for(int i = 0; i < pollutionRates.length; i++) {
+			pollutionRates[i] += tile.pollutionRates[i];
+		}
+		arcCount += tile.arcCount;
 	}
 	
 	public void computePollution() {
-//		double totalArcLength = 0;
-//		for(PollutedArc arc : arcs) {
-//			totalArcLength += arc.getLength();
-//		}
 		for(Pollutant pollutant : Pollutant.values()) {
-			
-			if(arcs.size() == 0) {
+			if(arcCount == 0) {
 				pollution.put(pollutant, 0.);
 			}
 			else {
-				double pollutionRate = 0;
-				for(PollutedArc arc : arcs) {
-					// meanPollution += arc.getPollution().get(pollutant) * arc.getLength();
-					pollutionRate += arc.getPollution().get(pollutant);
-				}
-				pollutionRate = pollutionRate / bounds.getArea();
-				pollution.put(pollutant, pollutionRate);
-				}
+				pollution.put(pollutant, pollutionRates[pollutant.ordinal()] / bounds.getArea());
+			}
 		}
 	}
 
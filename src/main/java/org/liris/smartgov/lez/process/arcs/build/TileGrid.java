@@ -0,0 +1,85 @@
+package org.liris.smartgov.lez.process.arcs.build;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Row major grid of tiles, stored in a flat array. Row 0 is the
+ * southern row, and column 0 the western column.
+ *
+ * <p>
+ * The grid is serialized as nested objects indexed by row and column,
+ * as the <code>TreeMap&lt;Integer, TreeMap&lt;Integer, Tile&gt;&gt;</code>
+ * previously used to store tiles.
+ * </p>
+ *
+ */
+public class TileGrid {
+
+	private int rowCount;
+	private int columnCount;
+	private Tile[] tiles;
+
+	public TileGrid(int rowCount, int columnCount) {
+		this.rowCount = rowCount;
+		this.columnCount = columnCount;
+		this.tiles = new Tile[rowCount * columnCount];
+	}
+
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	public int getColumnCount() {
+		return columnCount;
+	}
+
+	public Tile get(int row, int column) {
+		return tiles[row * columnCount + column];
+	}
+
+	public void set(int row, int column, Tile tile) {
+		tiles[row * columnCount + column] = tile;
+	}
+
+	/**
+	 * Returns the underlying row major array.
+	 *
+	 * @return tiles array
+	 */
+	public Tile[] getTiles() {
+		return tiles;
+	}
+
+	public static class Serializer extends StdSerializer<TileGrid> {
+
+		private static final long serialVersionUID = 1L;
+
+		public Serializer() {
+			this(null);
+		}
+
+		protected Serializer(Class<TileGrid> t) {
+			super(t);
+		}
+
+		@Override
+		public void serialize(TileGrid value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+			gen.writeStartObject();
+			for(int i = 0; i < value.rowCount; i++) {
+				gen.writeFieldName(String.valueOf(i));
+				gen.writeStartObject();
+				for(int j = 0; j < value.columnCount; j++) {
+					gen.writeFieldName(String.valueOf(j));
+					gen.writeObject(value.get(i, j));
+				}
+				gen.writeEndObject();
+			}
+			gen.writeEndObject();
+		}
+
+	}
+}
@@ -1,29 +1,47 @@
 package org.liris.smartgov.lez.process.arcs.build;
 
-import java.util.Collection;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.TreeMap;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import org.liris.smartgov.lez.core.copert.fields.Pollutant;
 import org.liris.smartgov.lez.process.arcs.load.PollutedArc;
 import org.liris.smartgov.lez.process.arcs.load.PollutedNode;
+import org.liris.smartgov.lez.process.arcs.load.PollutionSnapshot;
 import org.liris.smartgov.simulator.urban.geo.utils.LatLon;
 
+/**
+ * Grid of pollution tiles.
+ * 
+ * <p>
+ * Each arc is rasterized as a straight segment between its start and target
+ * nodes : its pollution is shared among all the tiles that the segment
+ * intersects, proportionally to the length of the segment in each tile.
+ * </p>
+ * 
+ * <p>
+ * Coarser grids can then be derived with {@link #coarser()}, by summing
+ * blocks of 2x2 tiles, without processing the arcs again.
+ * </p>
+ *
+ */
 public class TileMap {
 
 	
 	@JsonSerialize(using = Bounds.Serializer.class)
 	private Bounds bounds;
-	private TreeMap<Integer, TreeMap<Integer, Tile>> tiles;
+	@JsonSerialize(using = TileGrid.Serializer.class)
+	private TileGrid tiles;
 	private Map<Pollutant, Double> pollutionPeeks; // g/m-2
+	@JsonIgnore
+	private double tileSize;
 	
 	
 	public TileMap() {
-		this.tiles = new TreeMap<>();
+		this.tiles = new TileGrid(0, 0);
 		this.pollutionPeeks = new HashMap<>();
 		for(Pollutant pollutant : Pollutant.values()) {
 			pollutionPeeks.put(pollutant, 0.);
@@ -34,16 +52,120 @@ public class TileMap {
 		return bounds;
 	}
 
-	public TreeMap<Integer, TreeMap<Integer, Tile>> getTiles() {
+	public TileGrid getTiles() {
 		return tiles;
 	}
 
 	public Map<Pollutant, Double> getPollutionPeeks() {
 		return pollutionPeeks;
 	}
+	
+	/**
+	 * Returns the nominal tile size of this map. Actual tiles are slightly
+	 * smaller, so that an integer number of tiles covers the bounding box.
+	 * 
+	 * @return tile size in meters
+	 */
+	@JsonIgnore
+	public double getTileSize() {
+		return tileSize;
+	}
 
+	/**
+	 * Builds the tiles from arcs loaded from a JSON arcs output.
+	 * 
+	 * @param arcs polluted arcs
+	 * @param nodes nodes of the graph
+	 * @param tileSize tile size in meters
+	 */
 	public void build(Map<String, PollutedArc> arcs, Map<String, PollutedNode> nodes, double tileSize) {
-		bounds = boundingBox(arcs.values(), nodes);
+		PollutedArc[] arcArray = arcs.values().toArray(new PollutedArc[arcs.size()]);
+		double[][] positions = new double[4][arcArray.length];
+		for(int arc = 0; arc < arcArray.length; arc++) {
+			Double[] startPosition = nodes.get(arcArray[arc].getStartNode()).getPosition();
+			Double[] targetPosition = nodes.get(arcArray[arc].getTargetNode()).getPosition();
+			positions[0][arc] = startPosition[0];
+			positions[1][arc] = startPosition[1];
+			positions[2][arc] = targetPosition[0];
+			positions[3][arc] = targetPosition[1];
+		}
+		build(positions, tileSize, (arc, tile, weight) -> tile.addArc(arcArray[arc], weight));
+	}
+	
+	/**
+	 * Builds the tiles directly from a memory mapped binary pollution snapshot,
+	 * without building any arc object. Arcs positions are read from the arc
+	 * dictionary of the snapshot.
+	 * 
+	 * @param snapshot pollution snapshot
+	 * @param tileSize tile size in meters
+	 */
+	public void build(PollutionSnapshot snapshot, double tileSize) {
+		int arcCount = snapshot.arcCount();
+		double[][] positions = new double[4][arcCount];
+		for(int arc = 0; arc < arcCount; arc++) {
+			positions[0][arc] = snapshot.startLatitude(arc);
+			positions[1][arc] = snapshot.startLongitude(arc);
+			positions[2][arc] = snapshot.targetLatitude(arc);
+			positions[3][arc] = snapshot.targetLongitude(arc);
+		}
+		Pollutant[] pollutants = Pollutant.values();
+		double[] arcPollutionRates = new double[pollutants.length];
+		build(positions, tileSize, (arc, tile, weight) -> {
+			for(Pollutant pollutant : pollutants) {
+				arcPollutionRates[pollutant.ordinal()] = snapshot.pollution(pollutant, arc);
+			}
+			tile.addArcPollution(arcPollutionRates, weight);
+		});
+	}
+	
+	/**
+	 * Builds a map with tiles twice as large as the tiles of this map, each
+	 * coarse tile summing the pollution of a block of 2x2 tiles of this map.
+	 * On the northern and eastern edges of odd sized grids, coarse tiles only
+	 * cover the remaining tiles.
+	 * 
+	 * @return coarser tile map
+	 */
+	public TileMap coarser() {
+		TileMap coarser = new TileMap();
+		coarser.bounds = bounds;
+		coarser.tileSize = 2 * tileSize;
+		coarser.tiles = new TileGrid(
+				(tiles.getRowCount() + 1) / 2,
+				(tiles.getColumnCount() + 1) / 2
+				);
+		for(int i = 0; i < coarser.tiles.getRowCount(); i++) {
+			for(int j = 0; j < coarser.tiles.getColumnCount(); j++) {
+				int lastRow = Math.min(2 * i + 1, tiles.getRowCount() - 1);
+				int lastColumn = Math.min(2 * j + 1, tiles.getColumnCount() - 1);
+				Tile tile = new Tile(new Bounds(
+						new LatLon(
+								tiles.get(lastRow, 2 * j).getBounds().getTopLeft().lat,
+								tiles.get(lastRow, 2 * j).getBounds().getTopLeft().lon),
+						new LatLon(
+								tiles.get(2 * i, lastColumn).getBounds().getBottomRight().lat,
+								tiles.get(2 * i, lastColumn).getBounds().getBottomRight().lon)
+						));
+				for(int k = 2 * i; k <= lastRow; k++) {
+					for(int l = 2 * j; l <= lastColumn; l++) {
+						tile.addTile(tiles.get(k, l));
+					}
+				}
+				coarser.tiles.set(i, j, tile);
+			}
+		}
+		coarser.computePollution();
+		return coarser;
+	}
+	
+	/*
+	 * positions : start latitudes, start longitudes, target latitudes and
+	 * target longitudes of the arcs.
+	 */
+	private void build(double[][] positions, double tileSize, ArcAssignment assignment) {
+		this.tileSize = tileSize;
+		bounds = boundingBox(positions);
 		org.liris.smartgov.lez.cli.tools.Tile.logger.info(
 				"Computed bounding box :"
 				+ " top=" + bounds.getTopLeft().lat
@@ -70,71 +192,169 @@ public class TileMap {
 		int widthTileCount = (int) Math.ceil(meterWidth / tileSize);
 		int heightTileCount = (int) Math.ceil(meterHeight / tileSize);
 		
-//		Tile[][] tiles = new Tile[widthTileCount][heightTileCount];
-
+		double[] rowBounds = new double[heightTileCount + 1];
+		for(int i = 0; i <= heightTileCount; i++) {
+			rowBounds[i] = bounds.getBottomRight().lat + i * latitudeHeight / heightTileCount;
+		}
+		double[] columnBounds = new double[widthTileCount + 1];
+		for(int j = 0; j <= widthTileCount; j++) {
+			columnBounds[j] = bounds.getTopLeft().lon + j * longitudeWidth / widthTileCount;
+		}
+		
+		tiles = new TileGrid(heightTileCount, widthTileCount);
 		for(int i = 0; i < heightTileCount; i++) {
-			TreeMap<Integer, Tile> line = new TreeMap<>();
-			tiles.put(i, line);
 			for(int j = 0; j < widthTileCount; j++) {
-				Tile newTile = new Tile(new Bounds(
-					new LatLon(
-							bounds.getBottomRight().lat + (i + 1) * latitudeHeight / heightTileCount,
-							bounds.getTopLeft().lon + j * longitudeWidth / widthTileCount),
-					new LatLon(
-							bounds.getBottomRight().lat + i * latitudeHeight / heightTileCount,
-							bounds.getTopLeft().lon + (j + 1) * longitudeWidth / widthTileCount)
-					));
-				 
-				line.put(j, newTile);
-				//tiles[i][j] = newTile;
-				//this.tiles.add(newTile);
+				tiles.set(i, j, new Tile(new Bounds(
+					new LatLon(rowBounds[i + 1], columnBounds[j]),
+					new LatLon(rowBounds[i], columnBounds[j + 1])
+					)));
 			}
 		}
 		
-		for(PollutedArc arc : arcs.values()) {
-			Double[] startPosition = nodes.get(arc.getStartNode()).getPosition();
-			int i = 0;
-			while(i < heightTileCount && !tiles.get(i).get(0).getBounds().containsLat(startPosition[0])) {
-				i++;
-			}
-			int j = 0;
-			while(j < widthTileCount && !tiles.get(0).get(j).getBounds().containsLon(startPosition[1])) {
-				j++;
+		int ignoredArcs = 0;
+		for(int arc = 0; arc < positions[0].length; arc++) {
+			if(!rasterize(arc, positions, rowBounds, columnBounds, assignment)) {
+				ignoredArcs++;
 			}
-			tiles.get(i).get(j).addArc(arc);
+		}
+		if(ignoredArcs > 0) {
+			org.liris.smartgov.lez.cli.tools.Tile.logger.warn(ignoredArcs + " arcs without position have been ignored.");
 		}
 		
-		for(TreeMap<Integer, Tile> line : this.tiles.values()) {
-			for(Tile tile : line.values()) {
-				tile.computePollution();
-				for(Entry<Pollutant, Double> pollution : tile.getPollution().entrySet()) {
-					if(pollution.getValue() > pollutionPeeks.get(pollution.getKey()))
-						pollutionPeeks.put(pollution.getKey(), pollution.getValue());
-				}
-			}
+		computePollution();
+	}
+	
+	private void computePollution() {
+		Tile[] tileArray = tiles.getTiles();
+		Arrays.stream(tileArray).parallel().forEach(Tile::computePollution);
+		for(Pollutant pollutant : Pollutant.values()) {
+			// NaN values are ignored, as with the previous sequential comparisons
+			double peek = Arrays.stream(tileArray).parallel()
+				.mapToDouble(tile -> tile.getPollution().get(pollutant))
+				.reduce(0., (max, value) -> value > max ? value : max);
+			pollutionPeeks.put(pollutant, peek);
 		}
+	}
+	
+	/*
+	 * Walks the tiles crossed by the arc segment, from its start to its target
+	 * position, and assigns to each tile the fraction of the segment that
+	 * it contains. Positions are interpolated linearly in latitude / longitude,
+	 * what is accurate enough at the scale of an arc.
+	 * Returns false if the start of the arc is out of the grid.
+	 */
+	private boolean rasterize(int arc, double[][] positions, double[] rowBounds, double[] columnBounds, ArcAssignment assignment) {
+		double startLat = positions[0][arc];
+		double startLon = positions[1][arc];
+		double dLat = positions[2][arc] - startLat;
+		double dLon = positions[3][arc] - startLon;
 		
+		int i = index(startLat, rowBounds);
+		int j = index(startLon, columnBounds);
+		if(i < 0 || j < 0) {
+			return false;
+		}
+		int targetI = index(positions[2][arc], rowBounds);
+		int targetJ = index(positions[3][arc], columnBounds);
+		if(targetI < 0 || targetJ < 0) {
+			assignment.assign(arc, tiles.get(i, j), 1.);
+			return true;
+		}
+		
+		int stepI = (int) Math.signum(dLat);
+		int stepJ = (int) Math.signum(dLon);
+		double nextI = boundaryParameter(startLat, dLat, rowBounds, i, stepI);
+		double nextJ = boundaryParameter(startLon, dLon, columnBounds, j, stepJ);
+		double t = 0.;
+		while(i != targetI || j != targetJ) {
+			double next = Math.min(nextI, nextJ);
+			if(next >= 1.) {
+				// Rounding errors : the end of the segment is reached
+				break;
+			}
+			if(next > t) {
+				assignment.assign(arc, tiles.get(i, j), next - t);
+				t = next;
+			}
+			if(nextI <= next) {
+				i += stepI;
+			}
+			if(nextJ <= next) {
+				j += stepJ;
+			}
+			if(i < 0 || i >= tiles.getRowCount() || j < 0 || j >= tiles.getColumnCount()) {
+				i = Math.max(0, Math.min(tiles.getRowCount() - 1, i));
+				j = Math.max(0, Math.min(tiles.getColumnCount() - 1, j));
+				break;
+			}
+			if(nextI <= next) {
+				nextI = boundaryParameter(startLat, dLat, rowBounds, i, stepI);
+			}
+			if(nextJ <= next) {
+				nextJ = boundaryParameter(startLon, dLon, columnBounds, j, stepJ);
+			}
+		}
+		assignment.assign(arc, tiles.get(i, j), 1. - t);
+		return true;
 	}
 	
-	private static Bounds boundingBox(Collection<PollutedArc> arcs, Map<String, PollutedNode> nodes) {
+	/*
+	 * Segment parameter at which the boundary of the interval k is crossed
+	 * in the step direction.
+	 */
+	private static double boundaryParameter(double start, double delta, double[] bounds, int k, int step) {
+		if(step == 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return (bounds[step > 0 ? k + 1 : k] - start) / delta;
+	}
+	
+	/*
+	 * Returns the index of the first interval [bounds[k], bounds[k+1]] that
+	 * contains the value, or -1 if there is no such interval. The index is
+	 * first estimated from the value offset, and then corrected so that
+	 * values on a boundary belong to the lowest interval, as with the
+	 * inclusive Bounds.containsLat / containsLon checks.
+	 */
+	private static int index(double value, double[] bounds) {
+		int count = bounds.length - 1;
+		if(count == 0) {
+			return -1;
+		}
+		int k = (int) ((value - bounds[0]) / (bounds[count] - bounds[0]) * count);
+		k = Math.max(0, Math.min(count - 1, k));
+		while(k > 0 && value <= bounds[k]) {
+			k--;
+		}
+		while(k < count - 1 && value > bounds[k + 1]) {
+			k++;
+		}
+		if(bounds[k] <= value && value <= bounds[k + 1]) {
+			return k;
+		}
+		return -1;
+	}
+	
+	private static Bounds boundingBox(double[][] positions) {
 		double top = - Double.MAX_VALUE;
 		double left = Double.MAX_VALUE;
 		double bottom = Double.MAX_VALUE;
 		double right = - Double.MAX_VALUE;
 		
-		for(PollutedArc arc : arcs) {
-			Double[] startPosition = nodes.get(arc.getStartNode()).getPosition();
-			// Longitude
-			if (startPosition[0] > top)
-				top = startPosition[0];
-			if (startPosition[0] < bottom)
-				bottom = startPosition[0];
-			
-			// Latitude
-			if (startPosition[1] > right)
-				right = startPosition[1];
-			if (startPosition[1] < left)
-				left = startPosition[1];
+		for(int arc = 0; arc < positions[0].length; arc++) {
+			for(int end = 0; end < 4; end += 2) {
+				// Latitude
+				if (positions[end][arc] > top)
+					top = positions[end][arc];
+				if (positions[end][arc] < bottom)
+					bottom = positions[end][arc];
+				
+				// Longitude
+				if (positions[end + 1][arc] > right)
+					right = positions[end + 1][arc];
+				if (positions[end + 1][arc] < left)
+					left = positions[end + 1][arc];
+			}
 		}
 		
 		return new Bounds(
@@ -142,4 +362,11 @@ public class TileMap {
 				new LatLon(bottom, right)
 				);
 	}
+	
+	/*
+	 * Adds the given fraction of the arc at the given index to a tile.
+	 */
+	private interface ArcAssignment {
+		void assign(int arc, Tile tile, double weight);
+	}
 }
@@ -6,7 +6,7 @@ import org.liris.smartgov.lez.core.copert.fields.Pollutant;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
-@JsonIgnoreProperties({"roadDirection", "inLez"})
+@JsonIgnoreProperties({"roadDirection", "inLez", "neighborhoodId", "pollutionIndex"})
 public class PollutedArc implements Comparable<PollutedArc>{
 
 	private String id;
@@ -1,10 +1,16 @@
 package org.liris.smartgov.lez.process.arcs.load;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import org.liris.smartgov.lez.core.output.pollution.StreamingArcsWriter;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,7 +28,10 @@ public class PollutedArcsLoader {
 	public void load(File arcsFile, File nodesFile) {
 		ObjectMapper mapper = new ObjectMapper();
 		try {
-			List<PollutedArc> arcs = mapper.readValue(arcsFile, new TypeReference<List<PollutedArc>>() {});
+			List<PollutedArc> arcs;
+			try (InputStream input = open(arcsFile)) {
+				arcs = mapper.readValue(input, new TypeReference<List<PollutedArc>>() {});
+			}
 			for(PollutedArc arc : arcs) {
 				this.arcs.put(arc.getId(), arc);
 			}
@@ -40,6 +49,18 @@ public class PollutedArcsLoader {
 		
 	}
 
+	/*
+	 * Arcs files compressed by the StreamingArcsWriter are
+	 * recognized from their extension.
+	 */
+	private static InputStream open(File file) throws IOException {
+		InputStream input = new BufferedInputStream(new FileInputStream(file), 1 << 16);
+		if (file.getName().endsWith(StreamingArcsWriter.GZIP_EXTENSION)) {
+			return new GZIPInputStream(input, 1 << 16);
+		}
+		return input;
+	}
+
 	public Map<String, PollutedArc> getArcs() {
 		return arcs;
 	}
@@ -0,0 +1,252 @@
+package org.liris.smartgov.lez.process.arcs.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.output.pollution.PollutionSnapshotWriter;
+
+/**
+ * Memory mapped reader of the binary pollution snapshots written by the
+ * {@link PollutionSnapshotWriter}.
+ *
+ * <p>
+ * No arc object is built : values are directly read from the mapped files,
+ * arcs being identified by their index in the arc dictionary. Instances can
+ * be read concurrently from several threads.
+ * </p>
+ *
+ */
+public class PollutionSnapshot {
+
+	private ByteBuffer dictionary;
+	private ByteBuffer snapshot;
+
+	private int arcCount;
+	private long tickCount;
+	private double duration;
+
+	private int lengthsOffset;
+	private int latitudesOffset;
+	private int longitudesOffset;
+	private int targetLatitudesOffset;
+	private int targetLongitudesOffset;
+	private int stringOffsetsOffset;
+	private int stringsOffset;
+
+	private int valueSize;
+	private int columnsOffset;
+	private int[] columns;
+
+	private PollutionSnapshot(ByteBuffer dictionary, ByteBuffer snapshot) throws IOException {
+		this.dictionary = dictionary;
+		this.snapshot = snapshot;
+
+		if (dictionary.getInt(0) != PollutionSnapshotWriter.MAGIC_DICTIONARY
+				|| dictionary.getInt(4) != PollutionSnapshotWriter.VERSION) {
+			throw new IOException("Not an arc dictionary, or unsupported version.");
+		}
+		if (snapshot.getInt(0) != PollutionSnapshotWriter.MAGIC_SNAPSHOT
+				|| snapshot.getInt(4) != PollutionSnapshotWriter.VERSION) {
+			throw new IOException("Not a pollution snapshot, or unsupported version.");
+		}
+		if (dictionary.getLong(8) != snapshot.getLong(8)
+				|| dictionary.getInt(16) != snapshot.getInt(16)) {
+			throw new IOException("The pollution snapshot does not match the arc dictionary.");
+		}
+
+		arcCount = dictionary.getInt(16);
+		lengthsOffset = 20;
+		latitudesOffset = lengthsOffset + arcCount * Double.BYTES;
+		longitudesOffset = latitudesOffset + arcCount * Double.BYTES;
+		targetLatitudesOffset = longitudesOffset + arcCount * Double.BYTES;
+		targetLongitudesOffset = targetLatitudesOffset + arcCount * Double.BYTES;
+		stringOffsetsOffset = targetLongitudesOffset + arcCount * Double.BYTES;
+		stringsOffset = stringOffsetsOffset + (arcCount + 1) * Integer.BYTES;
+
+		tickCount = snapshot.getLong(20);
+		duration = snapshot.getDouble(28);
+		valueSize = snapshot.getInt(36);
+		int pollutantCount = snapshot.getInt(40);
+		int position = 44;
+		columns = new int[Pollutant.values().length];
+		Arrays.fill(columns, -1);
+		for (int column = 0; column < pollutantCount; column++) {
+			String name = string(snapshot, position);
+			position += 2 + (snapshot.getShort(position) & 0xffff);
+			try {
+				columns[Pollutant.valueOf(name).ordinal()] = column;
+			} catch (IllegalArgumentException e) {
+				// Pollutant unknown in this version, ignored
+			}
+		}
+		columnsOffset = position;
+	}
+
+	/**
+	 * Maps the specified files.
+	 *
+	 * @param dictionaryFile arc dictionary of the graph
+	 * @param snapshotFile pollution snapshot
+	 * @return mapped snapshot
+	 * @throws IOException if files can't be read, or if the snapshot does not
+	 * match the dictionary
+	 */
+	public static PollutionSnapshot open(File dictionaryFile, File snapshotFile) throws IOException {
+		return new PollutionSnapshot(map(dictionaryFile), map(snapshotFile));
+	}
+
+	private static MappedByteBuffer map(File file) throws IOException {
+		try (RandomAccessFile input = new RandomAccessFile(file, "r");
+				FileChannel channel = input.getChannel()) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	/**
+	 * Returns the number of arcs.
+	 *
+	 * @return arc count
+	 */
+	public int arcCount() {
+		return arcCount;
+	}
+
+	/**
+	 * Returns the tick count of the simulation when the snapshot was written.
+	 *
+	 * @return tick count
+	 */
+	public long getTickCount() {
+		return tickCount;
+	}
+
+	/**
+	 * Returns the simulated duration over which pollution rates have been computed.
+	 *
+	 * @return duration in seconds
+	 */
+	public double getDuration() {
+		return duration;
+	}
+
+	/**
+	 * Returns the id of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return arc id
+	 */
+	public String arcId(int arc) {
+		return arcString(arc, 0);
+	}
+
+	/**
+	 * Returns the id of the start node of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return start node id
+	 */
+	public String startNode(int arc) {
+		return arcString(arc, 1);
+	}
+
+	/**
+	 * Returns the id of the target node of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return target node id
+	 */
+	public String targetNode(int arc) {
+		return arcString(arc, 2);
+	}
+
+	/**
+	 * Returns the length of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return length in meters
+	 */
+	public double length(int arc) {
+		return dictionary.getDouble(lengthsOffset + arc * Double.BYTES);
+	}
+
+	/**
+	 * Returns the latitude of the start node of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return start latitude
+	 */
+	public double startLatitude(int arc) {
+		return dictionary.getDouble(latitudesOffset + arc * Double.BYTES);
+	}
+
+	/**
+	 * Returns the longitude of the start node of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return start longitude
+	 */
+	public double startLongitude(int arc) {
+		return dictionary.getDouble(longitudesOffset + arc * Double.BYTES);
+	}
+
+	/**
+	 * Returns the latitude of the target node of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return target latitude
+	 */
+	public double targetLatitude(int arc) {
+		return dictionary.getDouble(targetLatitudesOffset + arc * Double.BYTES);
+	}
+
+	/**
+	 * Returns the longitude of the target node of the specified arc.
+	 *
+	 * @param arc arc index
+	 * @return target longitude
+	 */
+	public double targetLongitude(int arc) {
+		return dictionary.getDouble(targetLongitudesOffset + arc * Double.BYTES);
+	}
+
+	/**
+	 * Returns the pollution rate of the specified arc, as it would have been
+	 * written in a JSON arcs output.
+	 *
+	 * @param pollutant pollutant
+	 * @param arc arc index
+	 * @return pollution rate in g/s, or 0 if the pollutant is not part of the snapshot
+	 */
+	public double pollution(Pollutant pollutant, int arc) {
+		int column = columns[pollutant.ordinal()];
+		if (column < 0) {
+			return 0.;
+		}
+		int offset = columnsOffset + (column * arcCount + arc) * valueSize;
+		return valueSize == Float.BYTES ? snapshot.getFloat(offset) : snapshot.getDouble(offset);
+	}
+
+	private String arcString(int arc, int field) {
+		int position = stringsOffset + dictionary.getInt(stringOffsetsOffset + arc * Integer.BYTES);
+		for (int i = 0; i < field; i++) {
+			position += 2 + (dictionary.getShort(position) & 0xffff);
+		}
+		return string(dictionary, position);
+	}
+
+	private static String string(ByteBuffer buffer, int position) {
+		int length = buffer.getShort(position) & 0xffff;
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = buffer.get(position + 2 + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,92 @@
+package org.liris.smartgov.lez.core.agent.driver.behavior;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.environment.graph.PathCache;
+import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.simulator.SmartGov;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+
+/**
+ * Runs the mini benchmark scenario with and without the path cache, and
+ * checks that agents guided by cached paths pollute the same arcs.
+ *
+ * <p>
+ * The OSM nodes and ways files are not bundled with the other inputs : the
+ * test is skipped if they have not been built with the roads task.
+ * </p>
+ *
+ */
+public class LezBehaviorTest {
+
+	private static final String CONFIG = "input/benchmark_mini.properties";
+	private static final int TICKS = 6 * 3600;
+
+	private static LezContext simulate(boolean pathCache) throws InterruptedException {
+		LezContext context = new LezContext(CONFIG, false);
+		for (String osmFile : new String[] {"nodes", "roads"}) {
+			assumeTrue(context.getFileLoader().load(osmFile).isFile());
+		}
+		if (!pathCache) {
+			context.getConfig().put(PathCache.CAPACITY_PROPERTY, "0");
+		}
+		context.getSession().setNbAgents(Integer.MAX_VALUE);
+		new SmartGov(context);
+
+		CountDownLatch stopped = new CountDownLatch(1);
+		SmartGov.getRuntime().addSimulationStoppedListener(event -> stopped.countDown());
+		SmartGov.getRuntime().start(TICKS);
+		stopped.await();
+		return context;
+	}
+
+	private static Map<String, double[]> pollution(LezContext context) {
+		Map<String, double[]> pollution = new TreeMap<>();
+		for (Arc arc : context.arcs.values()) {
+			double[] values = new double[Pollutant.values().length];
+			for (Pollutant pollutant : Pollutant.values()) {
+				values[pollutant.ordinal()] = ((PollutableOsmArc) arc).getPollution().getAbsValue(pollutant);
+			}
+			pollution.put(arc.getId(), values);
+		}
+		return pollution;
+	}
+
+	@Test
+	public void testGuidedPlansAreUnguidedPlans() throws InterruptedException {
+		assumeTrue(new File(CONFIG).isFile());
+		LezContext unguided = simulate(false);
+		assertThat(unguided.getPathCache(), nullValue());
+		Map<String, double[]> unguidedPollution = pollution(unguided);
+
+		LezContext guided = simulate(true);
+		assertThat(guided.getPathCache().getHits(), greaterThan(0l));
+		Map<String, double[]> guidedPollution = pollution(guided);
+
+		assertThat(guidedPollution.keySet(), equalTo(unguidedPollution.keySet()));
+		for (Map.Entry<String, double[]> arc : unguidedPollution.entrySet()) {
+			double[] guidedValues = guidedPollution.get(arc.getKey());
+			assertThat(guidedValues, notNullValue());
+			for (Pollutant pollutant : Pollutant.values()) {
+				assertThat(
+						arc.getKey() + " " + pollutant,
+						guidedValues[pollutant.ordinal()],
+						equalTo(arc.getValue()[pollutant.ordinal()])
+						);
+			}
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package org.liris.smartgov.lez.core.environment.graph;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.liris.smartgov.lez.core.agent.driver.vehicle.Vehicle;
+import org.liris.smartgov.lez.core.environment.lez.criteria.CritAir;
+import org.liris.smartgov.lez.core.environment.lez.criteria.LezCosts;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.liris.smartgov.simulator.core.environment.graph.Node;
+import org.liris.smartgov.simulator.core.environment.graph.astar.Costs;
+
+public class CachedPathCostsTest {
+
+	/*
+	 * A -> B -> D and A -> C -> D are both shortest paths, of cost 2.
+	 * A -> E -> D costs 4.
+	 */
+	private Node a, b, c, d, e;
+	private Map<Arc, Double> lengths;
+	private Costs costs;
+
+	@Before
+	public void setUp() {
+		a = node("A");
+		b = node("B");
+		c = node("C");
+		d = node("D");
+		e = node("E");
+		lengths = new HashMap<>();
+		arcs(a, arc(a, b, 1.), arc(a, c, 1.), arc(a, e, 1.));
+		arcs(b, arc(b, d, 1.));
+		arcs(c, arc(c, d, 1.));
+		arcs(e, arc(e, d, 3.));
+		arcs(d);
+		costs = new Costs() {
+			@Override
+			public double heuristic(Node current, Node target) {
+				return 0.;
+			}
+
+			@Override
+			public double cost(Arc arc) {
+				return lengths.get(arc);
+			}
+		};
+	}
+
+	private static Node node(String id) {
+		Node node = mock(Node.class);
+		when(node.getId()).thenReturn(id);
+		return node;
+	}
+
+	private Arc arc(Node start, Node target, double length) {
+		Arc arc = mock(Arc.class);
+		doReturn(start).when(arc).getStartNode();
+		doReturn(target).when(arc).getTargetNode();
+		lengths.put(arc, length);
+		return arc;
+	}
+
+	private static void arcs(Node node, Arc... arcs) {
+		doReturn(new ArrayList<>(Arrays.asList(arcs))).when(node).getOutgoingArcs();
+	}
+
+	/*
+	 * Plain A* algorithm, that stands for the simulator one.
+	 */
+	private static List<Node> shortestPath(Node origin, Node destination, Costs costs) {
+		Map<Node, Double> distances = new HashMap<>();
+		Map<Node, Node> previous = new HashMap<>();
+		Set<Node> closed = new HashSet<>();
+		PriorityQueue<Node> open = new PriorityQueue<>(
+				(n1, n2) -> Double.compare(
+						distances.get(n1) + costs.heuristic(n1, destination),
+						distances.get(n2) + costs.heuristic(n2, destination)
+						));
+		distances.put(origin, 0.);
+		open.add(origin);
+		while (!open.isEmpty()) {
+			Node current = open.poll();
+			if (!closed.add(current)) {
+				continue;
+			}
+			if (current == destination) {
+				List<Node> path = new ArrayList<>();
+				for (Node node = current; node != null; node = previous.get(node)) {
+					path.add(node);
+				}
+				Collections.reverse(path);
+				return path;
+			}
+			for (Arc arc : current.getOutgoingArcs()) {
+				Node target = arc.getTargetNode();
+				double distance = distances.get(current) + costs.cost(arc);
+				if (!closed.contains(target) && (!distances.containsKey(target) || distance < distances.get(target))) {
+					open.remove(target);
+					distances.put(target, distance);
+					previous.put(target, current);
+					open.add(target);
+				}
+			}
+		}
+		return null;
+	}
+
+	private double cost(List<Node> path) {
+		double cost = 0.;
+		for (int i = 0; i < path.size() - 1; i++) {
+			for (Arc arc : lengths.keySet()) {
+				if (path.get(i).getOutgoingArcs().contains(arc) && arc.getTargetNode() == path.get(i + 1)) {
+					cost += lengths.get(arc);
+				}
+			}
+		}
+		return cost;
+	}
+
+	@Test
+	public void testNotGuidedWhenNotCached() {
+		PathCache cache = new PathCache(10);
+		CachedPathCosts pathCosts = new CachedPathCosts(costs, cache).guide(a, d);
+
+		assertThat(pathCosts.isGuided(), is(false));
+		assertThat(pathCosts.heuristic(e, d), equalTo(0.));
+		assertThat(cache.get(a, d, costs), nullValue());
+	}
+
+	@Test
+	public void testComputedPathIsCached() {
+		PathCache cache = new PathCache(10);
+		CachedPathCosts pathCosts = new CachedPathCosts(costs, cache).guide(a, d);
+		List<Node> path = shortestPath(a, d, pathCosts);
+		pathCosts.cache(path);
+
+		assertThat(cache.get(a, d, costs), equalTo(path));
+		assertThat(pathCosts.guide(a, d).isGuided(), is(true));
+	}
+
+	@Test
+	public void testGuidedPathIsTheComputedPath() {
+		PathCache cache = new PathCache(10);
+		CachedPathCosts pathCosts = new CachedPathCosts(costs, cache).guide(a, d);
+		List<Node> plainPath = shortestPath(a, d, pathCosts);
+		pathCosts.cache(plainPath);
+
+		List<Node> guidedPath = shortestPath(a, d, pathCosts.guide(a, d));
+		assertThat(guidedPath, equalTo(plainPath));
+	}
+
+	/*
+	 * The cached path is always computed, even if the A* algorithm would
+	 * have broken ties between shortest paths another way.
+	 */
+	@Test
+	public void testGuidedPathIsExactlyTheCachedPath() {
+		List<Node> plainPath = shortestPath(a, d, costs);
+
+		PathCache cache = new PathCache(10);
+		Node other = plainPath.get(1) == b ? c : b;
+		cache.put(a, d, costs, Arrays.asList(a, other, d));
+		CachedPathCosts pathCosts = new CachedPathCosts(costs, cache).guide(a, d);
+		List<Node> guidedPath = shortestPath(a, d, pathCosts);
+
+		assertThat(guidedPath, contains(a, other, d));
+		assertThat(guidedPath, not(equalTo(plainPath)));
+		assertThat(cost(guidedPath), equalTo(cost(plainPath)));
+		assertThat(pathCosts.heuristic(e, d), equalTo(Double.MAX_VALUE));
+	}
+
+	@Test
+	public void testLezPathsDependOnConfiguration() {
+		Vehicle vehicle = mock(Vehicle.class);
+		when(vehicle.getCritAir()).thenReturn(CritAir.CRITAIR_4);
+		Costs lezCosts = new LezCosts(vehicle);
+		List<Node> path = Arrays.asList(a, b, d);
+
+		PathCache cache = new PathCache(10);
+		cache.setConfiguration("first");
+		cache.put(a, d, lezCosts, path);
+		cache.put(a, d, costs, path);
+
+		cache.setConfiguration("second");
+		assertThat(cache.get(a, d, lezCosts), nullValue());
+		assertThat(cache.get(a, d, costs), equalTo(path));
+
+		cache.setConfiguration("first");
+		assertThat(cache.get(a, d, lezCosts), equalTo(path));
+	}
+}
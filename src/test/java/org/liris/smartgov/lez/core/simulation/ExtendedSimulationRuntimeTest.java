@@ -0,0 +1,31 @@
+package org.liris.smartgov.lez.core.simulation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.Test;
+
+public class ExtendedSimulationRuntimeTest {
+
+	@Test
+	public void testSkipUntilNextAction() {
+		// Action at 10s : ticks 5 to 9 are skipped, tick 10 is run
+		assertThat(ExtendedSimulationRuntime.idleTicks(4, 1., 10., -1), equalTo(5l));
+	}
+
+	@Test
+	public void testLastTickIsNotSkipped() {
+		assertThat(ExtendedSimulationRuntime.idleTicks(4, 1., 100., 8), equalTo(3l));
+	}
+
+	@Test
+	public void testNoSkipWithoutPendingActionInUnboundedRun() {
+		assertThat(ExtendedSimulationRuntime.idleTicks(4, 1., Double.POSITIVE_INFINITY, -1), equalTo(0l));
+		assertThat(ExtendedSimulationRuntime.idleTicks(4, 1., Double.NaN, -1), equalTo(0l));
+	}
+
+	@Test
+	public void testNoSkipWithoutPendingActionInBoundedRun() {
+		assertThat(ExtendedSimulationRuntime.idleTicks(4, 1., Double.POSITIVE_INFINITY, 100), equalTo(0l));
+	}
+}
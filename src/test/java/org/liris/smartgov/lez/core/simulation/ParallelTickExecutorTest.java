@@ -0,0 +1,89 @@
+package org.liris.smartgov.lez.core.simulation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.environment.LezContext;
+import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.simulator.SmartGov;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+
+/**
+ * Runs the mini benchmark scenario sequentially and in parallel, and checks
+ * that agents have been run concurrently, and that the arcs are polluted the
+ * same way.
+ *
+ * <p>
+ * The OSM nodes and ways files are not bundled with the other inputs : the
+ * test is skipped if they have not been built with the roads task.
+ * </p>
+ *
+ */
+public class ParallelTickExecutorTest {
+
+	private static final String CONFIG = "input/benchmark_mini.properties";
+	private static final int TICKS = 6 * 3600;
+
+	private static LezContext simulate(int threads) throws InterruptedException {
+		LezContext context = new LezContext(CONFIG, false);
+		for (String osmFile : new String[] {"nodes", "roads"}) {
+			assumeTrue(context.getFileLoader().load(osmFile).isFile());
+		}
+		if (threads > 1) {
+			context.getConfig().put(ParallelTickExecutor.THREADS_PROPERTY, String.valueOf(threads));
+		}
+		context.getSession().setNbAgents(Integer.MAX_VALUE);
+		new SmartGov(context);
+
+		CountDownLatch stopped = new CountDownLatch(1);
+		SmartGov.getRuntime().addSimulationStoppedListener(event -> stopped.countDown());
+		SmartGov.getRuntime().start(TICKS);
+		stopped.await();
+		return context;
+	}
+
+	private static Map<String, double[]> pollution(LezContext context) {
+		Map<String, double[]> pollution = new TreeMap<>();
+		for (Arc arc : context.arcs.values()) {
+			double[] values = new double[Pollutant.values().length];
+			for (Pollutant pollutant : Pollutant.values()) {
+				values[pollutant.ordinal()] = ((PollutableOsmArc) arc).getPollution().getAbsValue(pollutant);
+			}
+			pollution.put(arc.getId(), values);
+		}
+		return pollution;
+	}
+
+	@Test
+	public void testParallelTicksPolluteAsSequentialTicks() throws InterruptedException {
+		assumeTrue(new File(CONFIG).isFile());
+		Map<String, double[]> sequential = pollution(simulate(1));
+		LezContext parallelContext = simulate(4);
+		// Agents, and so their path computations, have actually been run concurrently
+		assertThat(parallelContext.getTickExecutor().getPeakRunningGroups(), greaterThan(1));
+		Map<String, double[]> parallel = pollution(parallelContext);
+
+		assertThat(parallel.keySet(), equalTo(sequential.keySet()));
+		for (Map.Entry<String, double[]> arc : sequential.entrySet()) {
+			double[] parallelValues = parallel.get(arc.getKey());
+			assertThat(parallelValues, notNullValue());
+			for (Pollutant pollutant : Pollutant.values()) {
+				assertThat(
+						arc.getKey() + " " + pollutant,
+						parallelValues[pollutant.ordinal()],
+						equalTo(arc.getValue()[pollutant.ordinal()])
+						);
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package org.liris.smartgov.lez.input.lez;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.liris.smartgov.lez.core.environment.lez.Environment;
+import org.liris.smartgov.lez.core.environment.lez.Neighborhood;
+import org.liris.smartgov.lez.core.environment.lez.criteria.CritAir;
+import org.liris.smartgov.lez.core.environment.lez.criteria.CritAirCriteria;
+import org.liris.smartgov.lez.core.environment.lez.criteria.Surveillance;
+import org.liris.smartgov.simulator.urban.geo.utils.LatLon;
+import org.liris.smartgov.simulator.urban.geo.utils.lonLat.LonLat;
+
+public class CritAirLezDeserializerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(String json) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), json.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static CritAir deliveryCritAir(Neighborhood neighborhood) {
+		return ((CritAirCriteria) neighborhood.getDeliveryLezCriteria()).getCritAir();
+	}
+
+	private static CritAir privateCritAir(Neighborhood neighborhood) {
+		return ((CritAirCriteria) neighborhood.getPrivateLezCriteria()).getCritAir();
+	}
+
+	private static boolean isInside(Neighborhood neighborhood, double lat, double lon) {
+		return neighborhood.contains(new LonLat().project(new LatLon(lat, lon)));
+	}
+
+	@Test
+	public void testLoadGrid() throws IOException {
+		Environment environment = CritAirLezDeserializer.load(write(
+				"{\"nb_squares\" : 2,"
+				+ "\"dimensions\" : {\"north_bound\" : 46, \"south_bound\" : 45, \"west_bound\" : 4, \"east_bound\" : 5},"
+				+ "\"deliveryRestriction\" : \"CRITAIR_3\","
+				+ "\"privateRestriction\" : \"NONE\","
+				+ "\"surveillance\" : \"NO_SURVEILLANCE\"}"
+				));
+
+		assertThat(environment.getNeighborhoods().values(), hasSize(4));
+		for (Neighborhood neighborhood : environment.getNeighborhoods().values()) {
+			assertThat(deliveryCritAir(neighborhood), equalTo(CritAir.CRITAIR_3));
+		}
+	}
+
+	@Test
+	public void testLoadPerimeters() throws IOException {
+		Environment environment = CritAirLezDeserializer.load(write(
+				"{\"neighborhoods\" : ["
+				+ "{\"id\" : \"center\","
+				+ "\"perimeter\" : [[45.75, 4.82], [45.77, 4.82], [45.77, 4.85], [45.75, 4.85]],"
+				+ "\"deliveryRestriction\" : \"CRITAIR_2\","
+				+ "\"surveillance\" : \"CAMERA\"},"
+				+ "{\"perimeter\" : [[45.70, 4.80], [45.74, 4.80], [45.72, 4.84]]}"
+				+ "],"
+				+ "\"deliveryRestriction\" : \"NONE\","
+				+ "\"privateRestriction\" : \"CRITAIR_4\","
+				+ "\"surveillance\" : \"NO_SURVEILLANCE\"}"
+				));
+
+		assertThat(new ArrayList<>(environment.getNeighborhoods().keySet()), contains("center", "1"));
+
+		Neighborhood center = environment.getNeighborhood("center");
+		assertThat(center.getPerimeter().length, equalTo(4));
+		assertThat(deliveryCritAir(center), equalTo(CritAir.CRITAIR_2));
+		assertThat(privateCritAir(center), equalTo(CritAir.CRITAIR_4));
+		assertThat(center.getSurveillance(), equalTo(Surveillance.CAMERA));
+		assertThat(isInside(center, 45.76, 4.83), is(true));
+		assertThat(isInside(center, 45.72, 4.81), is(false));
+
+		Neighborhood triangle = environment.getNeighborhood("1");
+		assertThat(deliveryCritAir(triangle), equalTo(CritAir.NONE));
+		assertThat(triangle.getSurveillance(), equalTo(Surveillance.NO_SURVEILLANCE));
+		assertThat(isInside(triangle, 45.72, 4.81), is(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPerimeterTooShort() throws IOException {
+		CritAirLezDeserializer.load(write(
+				"{\"neighborhoods\" : [{\"perimeter\" : [[45.70, 4.80], [45.74, 4.80]]}],"
+				+ "\"deliveryRestriction\" : \"NONE\","
+				+ "\"privateRestriction\" : \"NONE\","
+				+ "\"surveillance\" : \"NO_SURVEILLANCE\"}"
+				));
+	}
+}
@@ -0,0 +1,64 @@
+package org.liris.smartgov.lez.politic.policyagent.learning.dqn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class QNetworkTest {
+
+	private static final int SAMPLES = 16;
+
+	/*
+	 * Q values of the state x are (x, 1 - x).
+	 */
+	private static double[] states() {
+		double[] states = new double[SAMPLES];
+		for (int sample = 0; sample < SAMPLES; sample++) {
+			states[sample] = (double) sample / SAMPLES;
+		}
+		return states;
+	}
+
+	private static double[] targets(double[] states) {
+		double[] targets = new double[2 * SAMPLES];
+		for (int sample = 0; sample < SAMPLES; sample++) {
+			targets[2 * sample] = states[sample];
+			targets[2 * sample + 1] = 1. - states[sample];
+		}
+		return targets;
+	}
+
+	@Test
+	public void testLossDecreases() {
+		QNetwork network = new QNetwork(1, 20, 2, 0.01, new Random(0));
+		double[] states = states();
+		double[] targets = targets(states);
+
+		double initialLoss = network.train(states, targets, SAMPLES);
+		double loss = initialLoss;
+		for (int step = 0; step < 500; step++) {
+			loss = network.train(states, targets, SAMPLES);
+		}
+		assertThat(loss, lessThan(initialLoss / 10));
+
+		double[] qValues = new double[2];
+		assertThat(network.bestAction(new double[] {0.9}, qValues), equalTo(0));
+		assertThat(network.bestAction(new double[] {0.1}, qValues), equalTo(1));
+	}
+
+	@Test
+	public void testSameSeedSameTraining() {
+		QNetwork network = new QNetwork(1, 20, 2, 0.01, new Random(42));
+		QNetwork other = new QNetwork(1, 20, 2, 0.01, new Random(42));
+		double[] states = states();
+		double[] targets = targets(states);
+
+		for (int step = 0; step < 10; step++) {
+			assertThat(other.train(states, targets, SAMPLES), equalTo(network.train(states, targets, SAMPLES)));
+		}
+	}
+}
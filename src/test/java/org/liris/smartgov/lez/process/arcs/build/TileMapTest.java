@@ -0,0 +1,117 @@
+package org.liris.smartgov.lez.process.arcs.build;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.output.pollution.PollutionSnapshotWriter;
+import org.liris.smartgov.lez.process.arcs.load.PollutionSnapshot;
+import org.liris.smartgov.simulator.core.environment.graph.Arc;
+import org.liris.smartgov.simulator.urban.geo.environment.graph.GeoNode;
+import org.liris.smartgov.simulator.urban.geo.utils.LatLon;
+
+public class TileMapTest {
+
+	private static final double TILE_SIZE = 100.;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static GeoNode node(String id, double lat, double lon) {
+		GeoNode node = mock(GeoNode.class);
+		doReturn(id).when(node).getId();
+		doReturn(new LatLon(lat, lon)).when(node).getPosition();
+		return node;
+	}
+
+	private static Arc arc(String id, GeoNode start, GeoNode target) {
+		Arc arc = mock(Arc.class);
+		doReturn(id).when(arc).getId();
+		doReturn(start).when(arc).getStartNode();
+		doReturn(target).when(arc).getTargetNode();
+		doReturn(LatLon.distance(start.getPosition(), target.getPosition())).when(arc).getLength();
+		return arc;
+	}
+
+	/*
+	 * Snapshot in which each arc emits the given rate of each pollutant.
+	 */
+	private static void writeSnapshot(List<Arc> arcs, double[] rates, File output) throws IOException {
+		Pollutant[] pollutants = Pollutant.values();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(output))) {
+			out.writeInt(PollutionSnapshotWriter.MAGIC_SNAPSHOT);
+			out.writeInt(PollutionSnapshotWriter.VERSION);
+			out.writeLong(PollutionSnapshotWriter.graphHash(arcs));
+			out.writeInt(arcs.size());
+			out.writeLong(3600);
+			out.writeDouble(3600.);
+			out.writeInt(Double.BYTES);
+			out.writeInt(pollutants.length);
+			for (Pollutant pollutant : pollutants) {
+				byte[] name = pollutant.name().getBytes(StandardCharsets.UTF_8);
+				out.writeShort(name.length);
+				out.write(name);
+			}
+			for (int column = 0; column < pollutants.length; column++) {
+				for (double rate : rates) {
+					out.writeDouble(rate);
+				}
+			}
+		}
+	}
+
+	private static Tile tile(TileMap map, LatLon position) {
+		for (Tile tile : map.getTiles().getTiles()) {
+			if (tile.getBounds().containsLat(position.lat) && tile.getBounds().containsLon(position.lon)) {
+				return tile;
+			}
+		}
+		throw new IllegalArgumentException("No tile contains " + position);
+	}
+
+	/*
+	 * The target node of the dead end arc has no outgoing arc : its pollution
+	 * must still be spread up to its target position.
+	 */
+	@Test
+	public void testDeadEndArcReachesItsTarget() throws IOException {
+		GeoNode a = node("a", 45.7500, 4.8500);
+		GeoNode b = node("b", 45.7500, 4.8600);
+		GeoNode deadEnd = node("c", 45.7510, 4.8700);
+		List<Arc> arcs = Arrays.asList(arc("0", a, b), arc("1", b, deadEnd));
+
+		File dictionary = folder.newFile("arcs" + PollutionSnapshotWriter.DICTIONARY_EXTENSION);
+		new PollutionSnapshotWriter(false).writeDictionary(arcs, dictionary);
+		File snapshotFile = folder.newFile("arcs" + PollutionSnapshotWriter.SNAPSHOT_EXTENSION);
+		writeSnapshot(arcs, new double[] {0., 1.}, snapshotFile);
+
+		PollutionSnapshot snapshot = PollutionSnapshot.open(dictionary, snapshotFile);
+		assertThat(snapshot.targetLatitude(1), closeTo(45.7510, 1e-9));
+		assertThat(snapshot.targetLongitude(1), closeTo(4.8700, 1e-9));
+
+		TileMap map = new TileMap();
+		map.build(snapshot, TILE_SIZE);
+
+		assertThat(tile(map, deadEnd.getPosition()).getPollution().get(Pollutant.NOx), greaterThan(0.));
+
+		double total = 0.;
+		for (Tile tile : map.getTiles().getTiles()) {
+			total += tile.getPollution().get(Pollutant.NOx) * tile.getBounds().getArea();
+		}
+		assertThat(total, closeTo(1., 1e-6));
+	}
+}
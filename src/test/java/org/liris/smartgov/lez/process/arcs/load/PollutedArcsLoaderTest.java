@@ -0,0 +1,100 @@
+package org.liris.smartgov.lez.process.arcs.load;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.not;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.liris.smartgov.lez.core.copert.fields.Pollutant;
+import org.liris.smartgov.lez.core.environment.graph.PollutableOsmArc;
+import org.liris.smartgov.lez.process.arcs.build.Tile;
+import org.liris.smartgov.lez.process.arcs.build.TileMap;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+public class PollutedArcsLoaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/*
+	 * Names of the properties written for each arc by the ObjectMapper of the
+	 * init task.
+	 */
+	private static List<String> initArcProperties(ObjectMapper mapper) {
+		BeanDescription description = mapper.getSerializationConfig().introspect(
+				mapper.constructType(PollutableOsmArc.class)
+				);
+		List<String> properties = new ArrayList<>();
+		for (BeanPropertyDefinition property : description.findProperties()) {
+			if (property.couldSerialize()) {
+				properties.add(property.getName());
+			}
+		}
+		return properties;
+	}
+
+	@Test
+	public void testPollutionIndexIsNotWritten() {
+		assertThat(initArcProperties(new ObjectMapper()), not(hasItem("pollutionIndex")));
+	}
+
+	/*
+	 * Arcs written with all the properties of the init task output are loaded
+	 * and tiled by the tile task.
+	 */
+	@Test
+	public void testInitArcsAreTiled() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+
+		Map<Pollutant, Double> pollution = new EnumMap<>(Pollutant.class);
+		for (Pollutant pollutant : Pollutant.values()) {
+			pollution.put(pollutant, 1.);
+		}
+		Map<String, Object> arc = new LinkedHashMap<>();
+		for (String property : initArcProperties(mapper)) {
+			arc.put(property, null);
+		}
+		arc.put("id", "0");
+		arc.put("startNode", "a");
+		arc.put("targetNode", "b");
+		arc.put("length", 1000.);
+		arc.put("pollution", pollution);
+
+		File arcsFile = folder.newFile("arcs.json");
+		mapper.writeValue(arcsFile, Collections.singletonList(arc));
+		File nodesFile = folder.newFile("nodes.json");
+		mapper.writeValue(nodesFile, Arrays.asList(
+				new PollutedNode("a", new Double[] {45.750, 4.850}),
+				new PollutedNode("b", new Double[] {45.751, 4.860})
+				));
+
+		PollutedArcsLoader loader = new PollutedArcsLoader();
+		loader.load(arcsFile, nodesFile);
+		assertThat(loader.getArcs(), hasKey("0"));
+
+		TileMap map = new TileMap();
+		map.build(loader.getArcs(), loader.getNodes(), 100.);
+		double total = 0.;
+		for (Tile tile : map.getTiles().getTiles()) {
+			total += tile.getPollution().get(Pollutant.NOx) * tile.getBounds().getArea();
+		}
+		assertThat(total, closeTo(1., 1e-6));
+	}
+}